@@ -16,6 +16,7 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.apache.commons.configuration.Configuration;
 import org.rabix.bindings.BindingException;
 import org.rabix.bindings.Bindings;
 import org.rabix.bindings.BindingsFactory;
@@ -50,6 +51,7 @@ import org.rabix.engine.rest.api.JobHTTPService;
 import org.rabix.engine.rest.api.impl.BackendHTTPServiceImpl;
 import org.rabix.engine.rest.api.impl.JobHTTPServiceImpl;
 import org.rabix.engine.rest.backend.BackendDispatcher;
+import org.rabix.engine.rest.cache.CallCache;
 import org.rabix.engine.rest.db.BackendDB;
 import org.rabix.engine.rest.db.JobDB;
 import org.rabix.engine.rest.service.BackendService;
@@ -60,6 +62,7 @@ import org.rabix.executor.ExecutorModule;
 import org.rabix.executor.service.ExecutorService;
 import org.rabix.ftp.SimpleFTPModule;
 import org.rabix.transport.backend.impl.BackendLocal;
+import org.rabix.transport.codec.TransportCodecConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -148,6 +151,7 @@ public class BackendCommandLine {
               bind(JobService.class).to(JobServiceImpl.class).in(Scopes.SINGLETON);
               bind(BackendService.class).to(BackendServiceImpl.class).in(Scopes.SINGLETON);
               bind(BackendDispatcher.class).in(Scopes.SINGLETON);
+              bind(CallCache.class).in(Scopes.SINGLETON);
               bind(JobHTTPService.class).to(JobHTTPServiceImpl.class);
               bind(BackendHTTPService.class).to(BackendHTTPServiceImpl.class).in(Scopes.SINGLETON);
             }
@@ -168,6 +172,7 @@ public class BackendCommandLine {
       final ExecutorService executorService = injector.getInstance(ExecutorService.class);
       
       BackendLocal backendLocal = new BackendLocal();
+      backendLocal.setCodec(TransportCodecConfig.getCodecType(injector.getInstance(Configuration.class)));
       backendLocal = backendService.create(backendLocal);
       executorService.initialize(backendLocal);
       
@@ -25,6 +25,11 @@ public interface Bindings {
   
   Job postprocess(Job job, File workingDir) throws BindingException;
 
+  /**
+   * Collects outputs and reports each output file as soon as it's collected
+   */
+  Job postprocess(Job job, File workingDir, OutputFileCallback callback) throws BindingException;
+
   String buildCommandLine(Job job) throws BindingException;
 
   List<String> buildCommandLineParts(Job job) throws BindingException;
@@ -47,4 +52,11 @@ public interface Bindings {
   
   ProtocolType getProtocolType();
 
+  /**
+   * Receives output files while outputs are collected. Output evaluation can still drop some of them from the outputs.
+   */
+  public static interface OutputFileCallback {
+    void handleOutputFile(File file);
+  }
+
 }
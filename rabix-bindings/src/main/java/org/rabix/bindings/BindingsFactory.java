@@ -4,6 +4,8 @@ import java.util.Comparator;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import org.rabix.bindings.app.AppCache;
+import org.rabix.bindings.app.AppCache.AppLoader;
 import org.rabix.bindings.model.Job;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +21,15 @@ public class BindingsFactory {
     }
   });
 
+  private static final AppCache<Bindings> bindingsCache = new AppCache<>("bindings");
+
+  private static final AppLoader<Bindings> bindingsLoader = new AppLoader<Bindings>() {
+    @Override
+    public Bindings load(String appURL) throws BindingException {
+      return find(appURL);
+    }
+  };
+
   static {
     try {
       for (ProtocolType type : ProtocolType.values()) {
@@ -31,6 +42,13 @@ public class BindingsFactory {
   }
 
   public static Bindings create(String appURL) throws BindingException {
+    return bindingsCache.get(appURL, bindingsLoader);
+  }
+
+  /**
+   * Finds the first protocol which can load the application
+   */
+  private static Bindings find(String appURL) throws BindingException {
     for (Bindings binding : bindings) {
       try {
         Object app = binding.loadAppObject(appURL);
@@ -2,6 +2,7 @@ package org.rabix.bindings;
 
 import java.io.File;
 
+import org.rabix.bindings.Bindings.OutputFileCallback;
 import org.rabix.bindings.model.Job;
 
 public interface ProtocolProcessor {
@@ -10,6 +11,8 @@ public interface ProtocolProcessor {
 
   Job postprocess(Job job, File workingDir) throws BindingException;
 
+  Job postprocess(Job job, File workingDir, OutputFileCallback callback) throws BindingException;
+
   boolean isSuccessful(Job job, int statusCode) throws BindingException;
   
 }
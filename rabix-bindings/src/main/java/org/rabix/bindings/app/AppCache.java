@@ -0,0 +1,83 @@
+package org.rabix.bindings.app;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.rabix.bindings.BindingException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Bounded, thread-safe cache of objects parsed from an application URI. Failed loads are not cached.
+ * <p>
+ * Cached values are shared between threads and must be treated as read-only.
+ */
+public class AppCache<V> {
+
+  public static final long DEFAULT_MAXIMUM_SIZE = 1000;
+
+  private static final Map<String, AppCache<?>> caches = new ConcurrentHashMap<>();
+
+  private final Cache<String, V> cache;
+
+  public AppCache(String name) {
+    this(name, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  public AppCache(String name, long maximumSize) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    caches.put(name, this);
+  }
+
+  public V get(final String appURI, final AppLoader<V> loader) throws BindingException {
+    try {
+      return cache.get(appURI, new Callable<V>() {
+        @Override
+        public V call() throws Exception {
+          return loader.load(appURI);
+        }
+      });
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof BindingException) {
+        throw (BindingException) cause;
+      }
+      throw new BindingException(cause);
+    }
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * Gets hit/miss statistics of all application caches by name
+   */
+  public static Map<String, CacheStats> getStats() {
+    Map<String, CacheStats> stats = new ConcurrentHashMap<>();
+    for (Map.Entry<String, AppCache<?>> entry : caches.entrySet()) {
+      stats.put(entry.getKey(), entry.getValue().stats());
+    }
+    return Collections.unmodifiableMap(stats);
+  }
+
+  /**
+   * Loads value for the application URI on cache miss
+   */
+  public static interface AppLoader<V> {
+
+    V load(String appURI) throws BindingException;
+
+  }
+
+}
@@ -0,0 +1,137 @@
+package org.rabix.bindings.app;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.rabix.bindings.helper.URIHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Content-addressed application registry. Jobs carry a short app:&lt;sha1&gt; reference instead of the whole application.
+ * <p>
+ * Engine and executor share the registry when they run in the same VM. A remote executor registers an {@link AppFetcher} which loads missing applications from the Engine.
+ * <p>
+ * Applications are kept in a bounded cache. Applications registered with an owner (e.g. a running context) are pinned
+ * and can't be evicted until the owner releases them.
+ */
+public class AppRegistry {
+
+  private final static Logger logger = LoggerFactory.getLogger(AppRegistry.class);
+
+  public static final long CACHE_SIZE = 1000;
+
+  private static final Cache<String, String> apps = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+  /**
+   * Pinned applications by hash, hashes of pinned applications by owner and owners by hash
+   */
+  private static final ConcurrentMap<String, String> pinned = new ConcurrentHashMap<>();
+  private static final Map<String, Set<String>> ownedHashes = new HashMap<>();
+  private static final Map<String, Set<String>> hashOwners = new HashMap<>();
+
+  private static volatile AppFetcher appFetcher;
+
+  /**
+   * Stores serialized application and returns its app URI
+   */
+  public static String register(String app) {
+    String hash = DigestUtils.sha1Hex(app);
+    if (!pinned.containsKey(hash)) {
+      apps.put(hash, app);
+    }
+    return URIHelper.createURI(URIHelper.APP_URI_SCHEME, hash);
+  }
+
+  /**
+   * Stores serialized application pinned by the owner and returns its app URI
+   */
+  public static synchronized String register(String app, String owner) {
+    String hash = DigestUtils.sha1Hex(app);
+    addToSet(ownedHashes, owner, hash);
+    addToSet(hashOwners, hash, owner);
+    pinned.put(hash, app);
+    apps.invalidate(hash);
+    return URIHelper.createURI(URIHelper.APP_URI_SCHEME, hash);
+  }
+
+  /**
+   * Unpins applications of the owner. Applications which are not pinned by other owners are moved to the cache.
+   */
+  public static synchronized void release(String owner) {
+    Set<String> hashes = ownedHashes.remove(owner);
+    if (hashes == null) {
+      return;
+    }
+    for (String hash : hashes) {
+      Set<String> appOwners = hashOwners.get(hash);
+      appOwners.remove(owner);
+      if (appOwners.isEmpty()) {
+        hashOwners.remove(hash);
+        apps.put(hash, pinned.get(hash));
+        pinned.remove(hash);
+      }
+    }
+  }
+
+  /**
+   * Gets serialized application by hash. Fetches the application on miss if {@link AppFetcher} is set.
+   */
+  public static String get(String hash) throws IOException {
+    String app = find(hash);
+    if (app != null) {
+      return app;
+    }
+    AppFetcher fetcher = appFetcher;
+    if (fetcher == null) {
+      throw new IOException("Application " + hash + " is not registered.");
+    }
+    app = fetcher.fetch(hash);
+    if (app == null || !hash.equals(DigestUtils.sha1Hex(app))) {
+      throw new IOException("Failed to fetch application " + hash + ".");
+    }
+    logger.debug("Application {} fetched.", hash);
+    apps.put(hash, app);
+    return app;
+  }
+
+  /**
+   * Gets serialized application by hash without fetching it
+   */
+  public static String find(String hash) {
+    String app = pinned.get(hash);
+    return app != null ? app : apps.getIfPresent(hash);
+  }
+
+  public static void setAppFetcher(AppFetcher fetcher) {
+    appFetcher = fetcher;
+  }
+
+  private static void addToSet(Map<String, Set<String>> map, String key, String value) {
+    Set<String> values = map.get(key);
+    if (values == null) {
+      values = new HashSet<>();
+      map.put(key, values);
+    }
+    values.add(value);
+  }
+
+  /**
+   * Loads applications which are not registered locally
+   */
+  public static interface AppFetcher {
+
+    String fetch(String hash) throws IOException;
+
+  }
+
+}
@@ -0,0 +1,273 @@
+package org.rabix.bindings.glob;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * In-memory index of files in a working directory which answers glob queries without walking the directory for each
+ * of them. Every directory is listed at most once.
+ * <ul>
+ * <li>file name globs (e.g. '*.txt') match files at any depth, the whole tree is indexed in one walk on first use</li>
+ * <li>path globs (e.g. 'out/*.txt') are relative to the working directory, only directories under the literal prefix
+ * ('out') are listed</li>
+ * </ul>
+ * Index is a snapshot, files created after their directory was listed are not visible. Symbolic links are not followed
+ * and are indexed as files. Logs which the executor writes into the working directory are not indexed.
+ */
+public class GlobIndex {
+
+  /**
+   * Standard output and error of the tool process, written to the working directory by the executor
+   */
+  public static final String STANDARD_OUTPUT_LOG = "job.out.log";
+  public static final String STANDARD_ERROR_LOG = "job.err.log";
+
+  private final Path workingDir;
+
+  private final Map<Path, Directory> directories = new HashMap<>();
+  private Map<String, List<Path>> filesByName;
+
+  public GlobIndex(File workingDir) {
+    this.workingDir = workingDir.toPath().toAbsolutePath().normalize();
+  }
+
+  public File getWorkingDir() {
+    return workingDir.toFile();
+  }
+
+  public Set<File> glob(String glob) throws IOException {
+    if (glob.isEmpty()) {
+      return Collections.<File> emptySet();
+    }
+    if (glob.indexOf('/') == -1) {
+      return globFileName(glob);
+    }
+    return globPath(glob);
+  }
+
+  /**
+   * Checks if file exists. Files in listed directories are looked up in the index.
+   */
+  public boolean exists(File file) {
+    Path path = file.toPath().toAbsolutePath().normalize();
+    Directory directory = path.getParent() != null ? directories.get(path.getParent()) : null;
+    if (directory == null) {
+      return file.exists();
+    }
+    return directory.files.contains(path) || directory.directories.contains(path);
+  }
+
+  private Set<File> globFileName(String glob) throws IOException {
+    indexAll();
+    Set<File> files = new HashSet<>();
+    if (!isPattern(glob)) {
+      addAll(filesByName.get(glob), files);
+      return files;
+    }
+    PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+    for (Entry<String, List<Path>> entry : filesByName.entrySet()) {
+      if (matcher.matches(Paths.get(entry.getKey()))) {
+        addAll(entry.getValue(), files);
+      }
+    }
+    return files;
+  }
+
+  private Set<File> globPath(String glob) throws IOException {
+    while (glob.startsWith("./")) {
+      glob = glob.substring(2);
+    }
+    if (glob.startsWith("/")) {
+      return Collections.<File> emptySet();
+    }
+    String[] segments = glob.split("/+");
+
+    // directories without wildcards are resolved directly
+    Path anchor = workingDir;
+    int start = 0;
+    while (start < segments.length - 1 && !isPattern(segments[start])) {
+      anchor = anchor.resolve(segments[start]).normalize();
+      start++;
+    }
+    if (!anchor.startsWith(workingDir)) {
+      return Collections.<File> emptySet();
+    }
+
+    Set<File> files = new HashSet<>();
+    if (glob.contains("**")) {
+      StringBuilder pattern = new StringBuilder();
+      for (int i = start; i < segments.length; i++) {
+        pattern.append(i > start ? "/" : "").append(segments[i]);
+      }
+      PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+      List<Path> candidates = new ArrayList<>();
+      collectFiles(anchor, candidates);
+      for (Path candidate : candidates) {
+        if (matcher.matches(anchor.relativize(candidate))) {
+          files.add(candidate.toFile());
+        }
+      }
+      return files;
+    }
+
+    List<Path> current = Collections.singletonList(anchor);
+    for (int i = start; i < segments.length - 1; i++) {
+      List<Path> next = new ArrayList<>();
+      PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + segments[i]);
+      for (Path directory : current) {
+        for (Path child : getDirectory(directory).directories) {
+          if (matcher.matches(child.getFileName())) {
+            next.add(child);
+          }
+        }
+      }
+      current = next;
+    }
+    PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + segments[segments.length - 1]);
+    for (Path directory : current) {
+      for (Path file : getDirectory(directory).files) {
+        if (matcher.matches(file.getFileName())) {
+          files.add(file.toFile());
+        }
+      }
+    }
+    return files;
+  }
+
+  private void collectFiles(Path path, List<Path> files) throws IOException {
+    Directory directory = getDirectory(path);
+    files.addAll(directory.files);
+    for (Path child : directory.directories) {
+      collectFiles(child, files);
+    }
+  }
+
+  /**
+   * Lists the directory once. Missing directories are empty.
+   */
+  private Directory getDirectory(Path path) throws IOException {
+    Directory directory = directories.get(path);
+    if (directory != null) {
+      return directory;
+    }
+    directory = new Directory();
+    if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+        for (Path child : stream) {
+          if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+            directory.directories.add(child);
+          } else if (!isExecutorLog(child)) {
+            directory.files.add(child);
+          }
+        }
+      }
+    }
+    directories.put(path, directory);
+    return directory;
+  }
+
+  /**
+   * Walks the whole working directory once and indexes files by name
+   */
+  private void indexAll() throws IOException {
+    if (filesByName != null) {
+      return;
+    }
+    final Map<String, List<Path>> names = new HashMap<>();
+    final Map<Path, Directory> walked = new HashMap<>();
+    Files.walkFileTree(workingDir, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+        walked.put(dir, new Directory());
+        Directory parent = walked.get(dir.getParent());
+        if (parent != null) {
+          parent.directories.add(dir);
+        }
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+        if (isExecutorLog(file)) {
+          return FileVisitResult.CONTINUE;
+        }
+        Directory parent = walked.get(file.getParent());
+        if (parent != null) {
+          parent.files.add(file);
+        }
+        String name = file.getFileName().toString();
+        List<Path> files = names.get(name);
+        if (files == null) {
+          files = new ArrayList<>(1);
+          names.put(name, files);
+        }
+        files.add(file);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+        return FileVisitResult.CONTINUE;
+      }
+    });
+    directories.putAll(walked);
+    filesByName = names;
+  }
+
+  private boolean isExecutorLog(Path file) {
+    if (!workingDir.equals(file.getParent())) {
+      return false;
+    }
+    String name = file.getFileName().toString();
+    return name.equals(STANDARD_OUTPUT_LOG) || name.equals(STANDARD_ERROR_LOG);
+  }
+
+  private static void addAll(List<Path> paths, Set<File> files) {
+    if (paths == null) {
+      return;
+    }
+    for (Path path : paths) {
+      files.add(path.toFile());
+    }
+  }
+
+  private static boolean isPattern(String glob) {
+    for (int i = 0; i < glob.length(); i++) {
+      switch (glob.charAt(i)) {
+      case '*':
+      case '?':
+      case '[':
+      case '{':
+      case '\\':
+        return true;
+      default:
+        break;
+      }
+    }
+    return false;
+  }
+
+  private static class Directory {
+    private final Set<Path> files = new HashSet<>();
+    private final Set<Path> directories = new HashSet<>();
+  }
+
+}
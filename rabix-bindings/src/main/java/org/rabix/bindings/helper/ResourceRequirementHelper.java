@@ -0,0 +1,73 @@
+package org.rabix.bindings.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.rabix.bindings.Bindings;
+import org.rabix.bindings.BindingsFactory;
+import org.rabix.bindings.model.Job;
+import org.rabix.bindings.model.requirement.CPURequirement;
+import org.rabix.bindings.model.requirement.MemoryRequirement;
+import org.rabix.bindings.model.requirement.Requirement;
+import org.rabix.bindings.model.requirement.ResourceRequirement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads minimal CPU and memory a job needs from its hints and requirements
+ */
+public class ResourceRequirementHelper {
+
+  private static final Logger logger = LoggerFactory.getLogger(ResourceRequirementHelper.class);
+
+  public static final int DEFAULT_CPU = 1;
+  public static final long DEFAULT_MEMORY = 0;
+
+  /**
+   * Gets hints followed by requirements, so requirements take precedence
+   */
+  public static List<Requirement> getRequirements(Job job) {
+    List<Requirement> requirements = new ArrayList<>();
+    try {
+      Bindings bindings = BindingsFactory.create(job);
+      requirements.addAll(bindings.getHints(job));
+      requirements.addAll(bindings.getRequirements(job));
+    } catch (Exception e) {
+      logger.warn("Failed to read resource requirements of job " + job.getId() + ". Using defaults.", e);
+    }
+    return requirements;
+  }
+
+  /**
+   * Minimal number of cores (at least one)
+   */
+  public static int getCpu(List<Requirement> requirements) {
+    Integer cpu = null;
+    for (Requirement requirement : requirements) {
+      if (requirement instanceof CPURequirement && ((CPURequirement) requirement).getCpu() != null) {
+        cpu = ((CPURequirement) requirement).getCpu();
+      }
+      if (requirement instanceof ResourceRequirement && ((ResourceRequirement) requirement).getCpuMin() != null) {
+        cpu = ((ResourceRequirement) requirement).getCpuMin();
+      }
+    }
+    return cpu != null ? Math.max(1, cpu) : DEFAULT_CPU;
+  }
+
+  /**
+   * Minimal memory in MB
+   */
+  public static long getMemory(List<Requirement> requirements) {
+    Integer memory = null;
+    for (Requirement requirement : requirements) {
+      if (requirement instanceof MemoryRequirement && ((MemoryRequirement) requirement).getMemory() != null) {
+        memory = ((MemoryRequirement) requirement).getMemory();
+      }
+      if (requirement instanceof ResourceRequirement && ((ResourceRequirement) requirement).getMemMinMB() != null) {
+        memory = ((ResourceRequirement) requirement).getMemMinMB();
+      }
+    }
+    return memory != null ? Math.max(0, memory) : DEFAULT_MEMORY;
+  }
+
+}
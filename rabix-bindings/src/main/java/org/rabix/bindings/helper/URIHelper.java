@@ -15,6 +15,7 @@ import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
+import org.rabix.bindings.app.AppRegistry;
 import org.rabix.common.helper.EncodingHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +31,7 @@ public class URIHelper {
   public final static String HTTP_URI_SCHEME = "http";
   public final static String DATA_URI_SCHEME = "data";
   public final static String FILE_URI_SCHEME = "file";
+  public final static String APP_URI_SCHEME = "app";
   
   private final static String DATA_URI_BASE_64 = "base64";
   private final static String DATA_URI_PAYLOAD_SEPARATOR = ",";
@@ -42,6 +44,9 @@ public class URIHelper {
   private final static String FTP_PASSWORD = "password";
   
   public static String getData(String uri) throws IOException {
+    if (isApp(uri)) {
+      return AppRegistry.get(getURIInfo(uri));
+    }
     if (isFTP(uri)) {
       return fetchFromFTP(uri);
     }
@@ -95,7 +100,14 @@ public class URIHelper {
     return uri.startsWith(HTTP_URI_SCHEME);
   }
   
+  public static boolean isApp(String uri) {
+    return uri.startsWith(APP_URI_SCHEME + ":");
+  }
+  
   public static String getURIInfo(String uri) {
+    if (isApp(uri)) {
+      return uri.substring(APP_URI_SCHEME.length() + 1);
+    }
     if (isFTP(uri)) {
       return uri.substring(FTP_URI_SCHEME.length());
     }
@@ -27,7 +27,7 @@ public class Draft2AppProcessor implements ProtocolAppProcessor {
 
   @Override
   public boolean isSelfExecutable(Job job) throws BindingException {
-    Draft2JobApp app = (Draft2JobApp) loadAppObject(job.getApp());
+    Draft2JobApp app = Draft2JobHelper.getDraft2JobApp(job.getApp());
     return app.getType().equals(Draft2JobAppType.EXPRESSION_TOOL);
   }
 
@@ -17,6 +17,7 @@ import org.rabix.bindings.protocol.draft2.bean.Draft2InputPort;
 import org.rabix.bindings.protocol.draft2.bean.Draft2Job;
 import org.rabix.bindings.protocol.draft2.expression.Draft2ExpressionException;
 import org.rabix.bindings.protocol.draft2.expression.helper.Draft2ExpressionBeanHelper;
+import org.rabix.bindings.protocol.draft2.expression.javascript.Draft2ExpressionJavascriptResolver;
 import org.rabix.bindings.protocol.draft2.helper.Draft2BindingHelper;
 import org.rabix.bindings.protocol.draft2.helper.Draft2FileValueHelper;
 import org.rabix.bindings.protocol.draft2.helper.Draft2JobHelper;
@@ -40,7 +41,12 @@ public class Draft2CommandLineBuilder implements ProtocolCommandLineBuilder {
     if (draft2Job.getApp().isExpressionTool()) {
       return null;
     }
-    return buildCommandLine(draft2Job);
+    Draft2ExpressionJavascriptResolver.bindJob();
+    try {
+      return buildCommandLine(draft2Job);
+    } finally {
+      Draft2ExpressionJavascriptResolver.unbindJob();
+    }
   }
   
   @Override
@@ -49,7 +55,14 @@ public class Draft2CommandLineBuilder implements ProtocolCommandLineBuilder {
     if (!draft2Job.getApp().isCommandLineTool()) {
       return null;
     }
-    return Lists.transform(buildCommandLineParts(draft2Job), new Function<Object, String>() {
+    List<Object> commandLineParts;
+    Draft2ExpressionJavascriptResolver.bindJob();
+    try {
+      commandLineParts = buildCommandLineParts(draft2Job);
+    } finally {
+      Draft2ExpressionJavascriptResolver.unbindJob();
+    }
+    return Lists.transform(commandLineParts, new Function<Object, String>() {
       public String apply(Object obj) {
         return obj.toString();
       }
@@ -10,6 +10,8 @@ import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
 import org.rabix.bindings.BindingException;
+import org.rabix.bindings.Bindings.OutputFileCallback;
+import org.rabix.bindings.glob.GlobIndex;
 import org.rabix.bindings.ProtocolProcessor;
 import org.rabix.bindings.model.Job;
 import org.rabix.bindings.protocol.draft2.bean.Draft2CommandLineTool;
@@ -19,6 +21,7 @@ import org.rabix.bindings.protocol.draft2.bean.Draft2JobApp;
 import org.rabix.bindings.protocol.draft2.bean.Draft2OutputPort;
 import org.rabix.bindings.protocol.draft2.expression.Draft2ExpressionException;
 import org.rabix.bindings.protocol.draft2.expression.helper.Draft2ExpressionBeanHelper;
+import org.rabix.bindings.protocol.draft2.expression.javascript.Draft2ExpressionJavascriptResolver;
 import org.rabix.bindings.protocol.draft2.helper.Draft2BindingHelper;
 import org.rabix.bindings.protocol.draft2.helper.Draft2FileValueHelper;
 import org.rabix.bindings.protocol.draft2.helper.Draft2JobHelper;
@@ -93,6 +96,11 @@ public class Draft2Processor implements ProtocolProcessor {
 
   @Override
   public Job postprocess(Job job, File workingDir) throws BindingException {
+    return postprocess(job, workingDir, null);
+  }
+
+  @Override
+  public Job postprocess(Job job, File workingDir, OutputFileCallback callback) throws BindingException {
     Draft2Job draft2Job = Draft2JobHelper.getDraft2Job(job);
     try {
       Map<String, Object> outputs = null;
@@ -105,7 +113,12 @@ public class Draft2Processor implements ProtocolProcessor {
           throw new BindingException("Failed to populate outputs", e);
         }
       } else {
-        outputs = collectOutputs(draft2Job, workingDir, null);
+        Draft2ExpressionJavascriptResolver.bindJob();
+        try {
+          outputs = collectOutputs(draft2Job, workingDir, null, callback);
+        } finally {
+          Draft2ExpressionJavascriptResolver.unbindJob();
+        }
       }
       return Job.cloneWithOutputs(job, outputs);
     } catch (Draft2GlobException | Draft2ExpressionException | IOException e) {
@@ -113,7 +126,7 @@ public class Draft2Processor implements ProtocolProcessor {
     }
   }
   
-  private Map<String, Object> collectOutputs(Draft2Job job, File workingDir, HashAlgorithm hashAlgorithm) throws Draft2GlobException, Draft2ExpressionException, IOException, BindingException {
+  private Map<String, Object> collectOutputs(Draft2Job job, File workingDir, HashAlgorithm hashAlgorithm, OutputFileCallback callback) throws Draft2GlobException, Draft2ExpressionException, IOException, BindingException {
     File resultFile = new File(workingDir, resultFilename);
     
     if (resultFile.exists()) {
@@ -121,10 +134,11 @@ public class Draft2Processor implements ProtocolProcessor {
       return JSONHelper.readMap(resultStr);
     }
     
+    GlobIndex index = new GlobIndex(workingDir);
     Map<String, Object> result = new HashMap<>();
     Draft2CommandLineTool commandLineTool = (Draft2CommandLineTool) job.getApp();
     for (Draft2OutputPort outputPort : commandLineTool.getOutputs()) {
-      Object singleResult = collectOutput(job, workingDir, hashAlgorithm, outputPort.getSchema(), outputPort.getOutputBinding(), outputPort);
+      Object singleResult = collectOutput(job, index, hashAlgorithm, callback, outputPort.getSchema(), outputPort.getOutputBinding(), outputPort);
       if (singleResult != null) {
         result.put(Draft2SchemaHelper.normalizeId(outputPort.getId()), singleResult);
       }
@@ -134,7 +148,7 @@ public class Draft2Processor implements ProtocolProcessor {
   }
 
   @SuppressWarnings("unchecked")
-  private Object collectOutput(Draft2Job job, File workingDir, HashAlgorithm hashAlgorithm, Object schema, Object binding, Draft2OutputPort outputPort) throws Draft2GlobException, Draft2ExpressionException, BindingException {
+  private Object collectOutput(Draft2Job job, GlobIndex index, HashAlgorithm hashAlgorithm, OutputFileCallback callback, Object schema, Object binding, Draft2OutputPort outputPort) throws Draft2GlobException, Draft2ExpressionException, BindingException {
     if (binding == null) {
       binding = Draft2SchemaHelper.getOutputBinding(schema);
     }
@@ -157,9 +171,9 @@ public class Draft2Processor implements ProtocolProcessor {
         if (itemBinding != null) {
           binding = itemBinding;
         }
-        result = globFiles(job, workingDir, hashAlgorithm, outputPort, binding);
+        result = globFiles(job, index, hashAlgorithm, callback, outputPort, binding);
       } else {
-        result = collectOutput(job, workingDir, hashAlgorithm, itemSchema, binding, outputPort);
+        result = collectOutput(job, index, hashAlgorithm, callback, itemSchema, binding, outputPort);
       }
     } else if (Draft2SchemaHelper.isRecordFromSchema(schema)) {
       Map<String, Object> record = new HashMap<>();
@@ -176,7 +190,7 @@ public class Draft2Processor implements ProtocolProcessor {
           if (fieldBinding != null) {
             binding = fieldBinding;
           }
-          Object singleResult = collectOutput(job, workingDir, hashAlgorithm, fieldSchema, binding, outputPort);
+          Object singleResult = collectOutput(job, index, hashAlgorithm, callback, fieldSchema, binding, outputPort);
           if (singleResult != null) {
             record.put(id, singleResult);
           }
@@ -184,7 +198,7 @@ public class Draft2Processor implements ProtocolProcessor {
       }
       result = record;
     } else {
-      result = globFiles(job, workingDir, hashAlgorithm, outputPort, binding);
+      result = globFiles(job, index, hashAlgorithm, callback, outputPort, binding);
     }
     Object outputEval = Draft2BindingHelper.getOutputEval(binding);
     if (outputEval != null) {
@@ -212,7 +226,7 @@ public class Draft2Processor implements ProtocolProcessor {
   /**
    * Extracts files from a directory based on GLOB expression
    */
-  private List<Map<String, Object>> globFiles(final Draft2Job job, final File workingDir, HashAlgorithm hashAlgorithm, final Draft2OutputPort outputPort, Object outputBinding) throws Draft2GlobException {
+  private List<Map<String, Object>> globFiles(final Draft2Job job, final GlobIndex index, HashAlgorithm hashAlgorithm, OutputFileCallback callback, final Draft2OutputPort outputPort, Object outputBinding) throws Draft2GlobException {
     if (outputPort.getOutputBinding() != null) {
       outputBinding = outputPort.getOutputBinding(); // override
     }
@@ -227,7 +241,7 @@ public class Draft2Processor implements ProtocolProcessor {
       return null;
     }
 
-    Set<File> paths = globService.glob(job, workingDir, glob);
+    Set<File> paths = globService.glob(job, index, glob);
     if (paths == null) {
       logger.info("Glob service didn't find any files.");
       return null;
@@ -248,7 +262,7 @@ public class Draft2Processor implements ProtocolProcessor {
         Draft2FileValueHelper.setName(file.getName(), fileData);
         Draft2FileValueHelper.setPath(file.getAbsolutePath(), fileData);
 
-        List<?> secondaryFiles = getSecondaryFiles(job, hashAlgorithm, fileData, file.getAbsolutePath(), outputBinding);
+        List<?> secondaryFiles = getSecondaryFiles(job, index, hashAlgorithm, callback, fileData, file.getAbsolutePath(), outputBinding);
         if (secondaryFiles != null) {
           Draft2FileValueHelper.setSecondaryFiles(secondaryFiles, fileData);
         }
@@ -266,6 +280,9 @@ public class Draft2Processor implements ProtocolProcessor {
           logger.info("Metadata for {} output is empty.", outputPort.getId());
         }
         result.add(fileData);
+        if (callback != null) {
+          callback.handleOutputFile(file);
+        }
 
         boolean loadContents = Draft2BindingHelper.loadContents(outputBinding);
         if (loadContents) {
@@ -282,7 +299,7 @@ public class Draft2Processor implements ProtocolProcessor {
   /**
    * Gets secondary files (absolute paths)
    */
-  private List<Map<String, Object>> getSecondaryFiles(Draft2Job job, HashAlgorithm hashAlgorithm, Map<String, Object> fileValue, String fileName, Object binding) throws Draft2ExpressionException {
+  private List<Map<String, Object>> getSecondaryFiles(Draft2Job job, GlobIndex index, HashAlgorithm hashAlgorithm, OutputFileCallback callback, Map<String, Object> fileValue, String fileName, Object binding) throws Draft2ExpressionException {
     List<String> secondaryFileSufixes = Draft2BindingHelper.getSecondaryFiles(binding);
 
     if (secondaryFileSufixes == null) {
@@ -308,7 +325,7 @@ public class Draft2Processor implements ProtocolProcessor {
         secondaryFilePath += suffix.startsWith(".") ? suffix : "." + suffix;
       }
       File secondaryFile = new File(secondaryFilePath);
-      if (secondaryFile.exists()) {
+      if (index.exists(secondaryFile)) {
         Map<String, Object> secondaryFileMap = new HashMap<>();
         Draft2FileValueHelper.setFileType(secondaryFileMap);
         Draft2FileValueHelper.setPath(secondaryFile.getAbsolutePath(), secondaryFileMap);
@@ -318,6 +335,9 @@ public class Draft2Processor implements ProtocolProcessor {
           Draft2FileValueHelper.setChecksum(secondaryFile, secondaryFileMap, hashAlgorithm);
         }
         secondaryFileMaps.add(secondaryFileMap);
+        if (callback != null) {
+          callback.handleOutputFile(secondaryFile);
+        }
       }
     }
     return secondaryFileMaps;
@@ -1,22 +1,37 @@
 package org.rabix.bindings.protocol.draft2.expression.javascript;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.io.StringReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.NativeArray;
 import org.mozilla.javascript.NativeJSON;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.ScriptableObject;
 import org.mozilla.javascript.Undefined;
+import org.mozilla.javascript.regexp.NativeRegExp;
 import org.rabix.bindings.protocol.draft2.expression.Draft2ExpressionException;
 import org.rabix.common.helper.JSONHelper;
 import org.rabix.common.json.BeanSerializer;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 public class Draft2ExpressionJavascriptResolver {
 
@@ -28,9 +43,28 @@ public class Draft2ExpressionJavascriptResolver {
   public final static int OPTIMIZATION_LEVEL = -1;
   public final static int MAX_STACK_DEPTH = 10;
 
-  static {
-    ContextFactory.initGlobal(new Draft2ExpressionContextFactory(TIMEOUT_IN_SECONDS));
-  }
+  public final static int SCRIPT_CACHE_SIZE = 10000;
+  public final static int SCOPE_CACHE_SIZE = 100;
+
+  private final static String EXPR_RESULT_NAME = "$result";
+
+  private final static String RESULT_FUNCTION = "(function() { " + "           var result = $result;"
+      + "           var type = result instanceof Array? \"array\" : typeof result;"
+      + "           return JSON.stringify({ \"result\" : result, \"type\" : type }); " + "     })()";
+
+  private final static ContextFactory contextFactory = new Draft2ExpressionContextFactory(TIMEOUT_IN_SECONDS, OPTIMIZATION_LEVEL, MAX_STACK_DEPTH);
+
+  /**
+   * Compiled scripts by source. Scripts are stateless and can be executed in any scope and thread.
+   */
+  private final static Cache<String, Script> scripts = CacheBuilder.newBuilder().maximumSize(SCRIPT_CACHE_SIZE).build();
+
+  /**
+   * Sealed scopes with standard objects and libraries loaded, by libraries
+   */
+  private final static Cache<List<Object>, ScriptableObject> sharedScopes = CacheBuilder.newBuilder().maximumSize(SCOPE_CACHE_SIZE).build();
+
+  private final static ThreadLocal<JobBinding> jobBindings = new ThreadLocal<>();
 
   /**
    * Evaluate JS script (function or statement)
@@ -44,51 +78,20 @@ public class Draft2ExpressionJavascriptResolver {
       function = function.replace("%expr", expr);
     }
 
-    Context cx = Context.enter();
-    cx.setOptimizationLevel(OPTIMIZATION_LEVEL);
-    cx.setMaximumInterpreterStackDepth(MAX_STACK_DEPTH);
-    cx.setClassShutter(new Draft2ExpressionDenyAllClassShutter());
-
+    Context cx = contextFactory.enterContext();
     try {
-      Scriptable globalScope = cx.initStandardObjects();
-
-      if (includeTemplates) {
-        Reader templateLibReader = new InputStreamReader(
-            Draft2ExpressionJavascriptResolver.class.getResourceAsStream("underscore-min.js"));
-        cx.evaluateReader(globalScope, templateLibReader, "underscore-min.js", 1, null);
-      }
-
-      if (engineConfigs != null) {
-        for (int i = 0; i < engineConfigs.size(); i++) {
-          Reader engineConfigReader = new StringReader(engineConfigs.get(i));
-          cx.evaluateReader(globalScope, engineConfigReader, "engineConfig_" + i + ".js", 1, null);
-        }
-      }
-
-      putToScope(EXPR_CONTEXT_NAME, context, cx, globalScope);
-      putToScope(EXPR_SELF_NAME, self, cx, globalScope);
+      Scriptable scope = createScope(cx, getSharedScope(cx, engineConfigs, includeTemplates));
 
-      Scriptable resultScope = cx.newObject(globalScope);
-      resultScope.setPrototype(globalScope);
-      resultScope.setParentScope(globalScope);
+      putToScope(EXPR_CONTEXT_NAME, serializeContext(context), cx, scope);
+      putToScope(EXPR_SELF_NAME, serialize(self), cx, scope);
 
-      Object result = cx.evaluateString(resultScope, function, "script", 1, null);
+      Object result = getScript(cx, function).exec(cx, scope);
       if (result == null || result instanceof Undefined) {
         return null;
       }
-      
-      Object wrappedResult = Context.javaToJS(result, globalScope);
-      putToScope("$result", wrappedResult, cx, globalScope);
-      ScriptableObject.putProperty(globalScope, "$result", wrappedResult);
-
-      String finalFunction = "(function() { " + "           var result = $result;"
-          + "           var type = result instanceof Array? \"array\" : typeof result;"
-          + "           return JSON.stringify({ \"result\" : result, \"type\" : type }); " + "     })()";
-
-      Scriptable wrapScope = cx.newObject(globalScope);
-      wrapScope.setPrototype(globalScope);
-      wrapScope.setParentScope(globalScope);
-      result = cx.evaluateString(wrapScope, finalFunction, "script", 1, null);
+      ScriptableObject.putProperty(scope, EXPR_RESULT_NAME, Context.javaToJS(result, scope));
+
+      result = getScript(cx, RESULT_FUNCTION).exec(cx, scope);
       return castResult(result);
     } catch (Exception e) {
       String msg = String.format("Failed evaluating expression %s.", expr);
@@ -99,19 +102,156 @@ public class Draft2ExpressionJavascriptResolver {
   }
 
   /**
-   * Add object to execution scope
+   * Serializes the expression context ($job) only once for all expressions evaluated by the current thread until {@link #unbindJob()}.
+   * The context must not be modified while bound. Calls can be nested.
+   */
+  public static void bindJob() {
+    JobBinding jobBinding = jobBindings.get();
+    if (jobBinding == null) {
+      jobBinding = new JobBinding();
+      jobBindings.set(jobBinding);
+    }
+    jobBinding.depth++;
+  }
+
+  public static void unbindJob() {
+    JobBinding jobBinding = jobBindings.get();
+    if (jobBinding != null && --jobBinding.depth == 0) {
+      jobBindings.remove();
+    }
+  }
+
+  /**
+   * Creates cheap per-evaluation scope on top of the shared one. New variables never leak into the shared scope.
    */
-  private static void putToScope(String name, Object value, Context cx, Scriptable scope) {
-    if (value != null) {
-      String selfJson = BeanSerializer.serializePartial(value);
+  private static Scriptable createScope(Context cx, ScriptableObject sharedScope) {
+    Scriptable scope = cx.newObject(sharedScope);
+    scope.setPrototype(sharedScope);
+    scope.setParentScope(null);
+    return scope;
+  }
+
+  /**
+   * Gets sealed scope with standard objects, templates and engine configurations loaded
+   */
+  private static ScriptableObject getSharedScope(final Context cx, final List<String> engineConfigs, final boolean includeTemplates) throws ExecutionException {
+    List<Object> key = new ArrayList<>();
+    key.add(includeTemplates);
+    if (engineConfigs != null) {
+      key.addAll(engineConfigs);
+    }
+    return sharedScopes.get(key, new Callable<ScriptableObject>() {
+      @Override
+      public ScriptableObject call() throws Exception {
+        ScriptableObject sharedScope = cx.initStandardObjects(null, true);
+        Set<Object> standardIds = new HashSet<>(Arrays.asList(sharedScope.getAllIds()));
+        if (includeTemplates) {
+          cx.evaluateString(sharedScope, readTemplates(), "underscore-min.js", 1, null);
+        }
+        if (engineConfigs != null) {
+          for (int i = 0; i < engineConfigs.size(); i++) {
+            cx.evaluateString(sharedScope, engineConfigs.get(i), "engineConfig_" + i + ".js", 1, null);
+          }
+        }
+        seal(cx, sharedScope, standardIds);
+        return sharedScope;
+      }
+    });
+  }
 
-      Object json = NativeJSON.parse(cx, scope, selfJson, new org.mozilla.javascript.Callable() {
+  private static String readTemplates() throws IOException {
+    InputStream templatesStream = Draft2ExpressionJavascriptResolver.class.getResourceAsStream("underscore-min.js");
+    if (templatesStream == null) {
+      throw new IOException("Failed to find underscore-min.js");
+    }
+    try {
+      return IOUtils.toString(templatesStream);
+    } finally {
+      templatesStream.close();
+    }
+  }
+
+  /**
+   * Freezes and seals the scope and every object the libraries added to it (reachable through properties and
+   * prototypes), so expressions can't modify loaded libraries (e.g. <code>_.foo = 1</code>) or engine configuration
+   * objects. Standard objects are already sealed by {@link Context#initStandardObjects(ScriptableObject, boolean)}.
+   * <p>
+   * Objects are frozen before they're sealed because Rhino arrays skip the seal check on their dense fast paths
+   * (e.g. <code>push</code>). Freezing makes them sparse. Array length is made read-only explicitly since freezing
+   * doesn't change it. Regular expressions are left as they are, their <code>lastIndex</code> is updated by matching.
+   */
+  private static void seal(Context cx, ScriptableObject scope, Set<Object> standardIds) {
+    Function freeze = (Function) ScriptableObject.getProperty((Scriptable) ScriptableObject.getProperty(scope, "Object"), "freeze");
+    Set<Object> sealed = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    for (Object id : scope.getAllIds()) {
+      if (!standardIds.contains(id)) {
+        seal(cx, scope, freeze, getProperty(scope, id), sealed);
+      }
+    }
+    scope.sealObject();
+  }
+
+  private static void seal(Context cx, ScriptableObject scope, Function freeze, Object value, Set<Object> sealed) {
+    if (!(value instanceof ScriptableObject) || value instanceof NativeRegExp) {
+      return;
+    }
+    ScriptableObject object = (ScriptableObject) value;
+    if (object.isSealed() || !sealed.add(object)) {
+      return;
+    }
+    for (Object id : object.getAllIds()) {
+      seal(cx, scope, freeze, getProperty(object, id), sealed);
+    }
+    seal(cx, scope, freeze, object.getPrototype(), sealed);
+    freeze.call(cx, scope, scope, new Object[] { object });
+    if (object instanceof NativeArray) {
+      object.setAttributes("length", ScriptableObject.READONLY | ScriptableObject.DONTENUM | ScriptableObject.PERMANENT);
+    }
+    object.sealObject();
+  }
+
+  private static Object getProperty(ScriptableObject object, Object id) {
+    return id instanceof Integer ? object.get((Integer) id, object) : object.get(id.toString(), object);
+  }
+
+  private static Script getScript(final Context cx, final String source) throws ExecutionException {
+    return scripts.get(source, new Callable<Script>() {
+      @Override
+      public Script call() throws Exception {
+        return cx.compileString(source, "script", 1, null);
+      }
+    });
+  }
+
+  private static String serializeContext(Object context) {
+    JobBinding jobBinding = jobBindings.get();
+    if (context == null || jobBinding == null) {
+      return serialize(context);
+    }
+    String serialized = jobBinding.contexts.get(context);
+    if (serialized == null) {
+      serialized = serialize(context);
+      jobBinding.contexts.put(context, serialized);
+    }
+    return serialized;
+  }
+
+  private static String serialize(Object value) {
+    return value != null ? BeanSerializer.serializePartial(value) : null;
+  }
+
+  /**
+   * Add serialized object to execution scope
+   */
+  private static void putToScope(String name, String json, Context cx, Scriptable scope) {
+    if (json != null) {
+      Object value = NativeJSON.parse(cx, scope, json, new org.mozilla.javascript.Callable() {
         @Override
         public Object call(Context cx, Scriptable scope, Scriptable thisObj, Object[] args) {
           return args[1];
         }
       });
-      ScriptableObject.putProperty(scope, name, json);
+      ScriptableObject.putProperty(scope, name, value);
     }
   }
 
@@ -126,4 +266,12 @@ public class Draft2ExpressionJavascriptResolver {
     return JSONHelper.transform(node.get("result"));
   }
 
+  /**
+   * Serialized expression contexts of the bound job
+   */
+  private static class JobBinding {
+    private int depth;
+    private final Map<Object, String> contexts = new IdentityHashMap<>();
+  }
+
 }
@@ -1,6 +1,8 @@
 package org.rabix.bindings.protocol.draft2.helper;
 
 import org.rabix.bindings.BindingException;
+import org.rabix.bindings.app.AppCache;
+import org.rabix.bindings.app.AppCache.AppLoader;
 import org.rabix.bindings.model.Job;
 import org.rabix.bindings.protocol.draft2.Draft2JobProcessor;
 import org.rabix.bindings.protocol.draft2.bean.Draft2Job;
@@ -11,10 +13,30 @@ import org.rabix.common.json.BeanSerializer;
 
 public class Draft2JobHelper {
 
+  /**
+   * Processed job templates (without inputs) per application URI. Template applications are shared and must not be modified.
+   */
+  private static final AppCache<Draft2Job> templates = new AppCache<>("draft2.job");
+
+  private static final AppLoader<Draft2Job> templateLoader = new AppLoader<Draft2Job>() {
+    @Override
+    public Draft2Job load(String appURI) throws BindingException {
+      String resolvedAppStr = Draft2DocumentResolver.resolve(appURI);
+      Draft2JobApp app = BeanSerializer.deserialize(JSONHelper.transformToJSON(resolvedAppStr), Draft2JobApp.class);
+      return new Draft2JobProcessor().process(new Draft2Job(app, null));
+    }
+  };
+
   public static Draft2Job getDraft2Job(Job job) throws BindingException {
-    String resolvedAppStr = Draft2DocumentResolver.resolve(job.getApp());
-    Draft2JobApp app = BeanSerializer.deserialize(JSONHelper.transformToJSON(resolvedAppStr), Draft2JobApp.class);
-    return new Draft2JobProcessor().process(new Draft2Job(app, job.getInputs()));
+    Draft2Job template = templates.get(job.getApp(), templateLoader);
+    return new Draft2Job(template.getApp(), job.getInputs(), null, null, null, template.getId());
+  }
+
+  /**
+   * Gets processed application. The application is shared and must not be modified.
+   */
+  public static Draft2JobApp getDraft2JobApp(String appURI) throws BindingException {
+    return templates.get(appURI, templateLoader).getApp();
   }
   
 }
@@ -5,8 +5,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.rabix.common.helper.CloneHelper;
-
 import com.google.common.base.Preconditions;
 
 public class Draft2SchemaHelper extends Draft2BeanHelper {
@@ -87,23 +85,19 @@ public class Draft2SchemaHelper extends Draft2BeanHelper {
   
   @SuppressWarnings("unchecked")
   public static boolean isRequired(Object schema) {
-    try {
-      Object clonedSchema = CloneHelper.deepCopy(schema);
-      while (clonedSchema instanceof Map<?, ?> && ((Map<?, ?>) clonedSchema).containsKey("type")) {
-        clonedSchema = ((Map<?, ?>) clonedSchema).get("type");
-      }
-      if (clonedSchema instanceof List<?>) {
-        for (Object subschema : ((List<Object>) clonedSchema)) {
-          if (subschema == null) {
-            return false;
-          }
+    Object typeSchema = schema;
+    while (typeSchema instanceof Map<?, ?> && ((Map<?, ?>) typeSchema).containsKey("type")) {
+      typeSchema = ((Map<?, ?>) typeSchema).get("type");
+    }
+    if (typeSchema instanceof List<?>) {
+      for (Object subschema : ((List<Object>) typeSchema)) {
+        if (subschema == null) {
+          return false;
         }
-        return true;
       }
-      return clonedSchema != null;
-    } catch (Exception e) {
-      throw new RuntimeException("Failed to clone schema " + schema);
+      return true;
     }
+    return typeSchema != null;
   }
   
   @SuppressWarnings("unchecked")
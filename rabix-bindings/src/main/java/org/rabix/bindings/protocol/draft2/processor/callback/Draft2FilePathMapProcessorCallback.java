@@ -10,7 +10,6 @@ import org.rabix.bindings.protocol.draft2.helper.Draft2SchemaHelper;
 import org.rabix.bindings.protocol.draft2.processor.Draft2PortProcessorCallback;
 import org.rabix.bindings.protocol.draft2.processor.Draft2PortProcessorException;
 import org.rabix.bindings.protocol.draft2.processor.Draft2PortProcessorResult;
-import org.rabix.common.helper.CloneHelper;
 
 public class Draft2FilePathMapProcessorCallback implements Draft2PortProcessorCallback {
 
@@ -21,19 +20,16 @@ public class Draft2FilePathMapProcessorCallback implements Draft2PortProcessorCa
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public Draft2PortProcessorResult process(Object value, ApplicationPort port) throws Draft2PortProcessorException {
     if (value == null) {
       return new Draft2PortProcessorResult(value, false);
     }
     try {
-      Object clonedValue = CloneHelper.deepCopy(value);
-      
-      if (Draft2SchemaHelper.isFileFromValue(clonedValue)) {
-        Map<String, Object> valueMap = (Map<String, Object>) clonedValue;
-        String path = Draft2FileValueHelper.getPath(valueMap);
+      if (Draft2SchemaHelper.isFileFromValue(value)) {
+        String path = Draft2FileValueHelper.getPath(value);
 
         if (path != null && filePathMapper != null) {
+          Map<String, Object> valueMap = Draft2FileValueHelper.copy(value);
           Draft2FileValueHelper.setPath(filePathMapper.map(path), valueMap);
 
           List<Map<String, Object>> secondaryFiles = Draft2FileValueHelper.getSecondaryFiles(valueMap);
@@ -47,7 +43,7 @@ public class Draft2FilePathMapProcessorCallback implements Draft2PortProcessorCa
           return new Draft2PortProcessorResult(valueMap, true);
         }
       }
-      return new Draft2PortProcessorResult(clonedValue, false);
+      return new Draft2PortProcessorResult(value, false);
     } catch (Exception e) {
       throw new Draft2PortProcessorException(e);
     }
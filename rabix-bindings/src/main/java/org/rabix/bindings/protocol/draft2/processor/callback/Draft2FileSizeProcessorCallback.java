@@ -9,14 +9,13 @@ import org.rabix.bindings.protocol.draft2.helper.Draft2FileValueHelper;
 import org.rabix.bindings.protocol.draft2.helper.Draft2SchemaHelper;
 import org.rabix.bindings.protocol.draft2.processor.Draft2PortProcessorCallback;
 import org.rabix.bindings.protocol.draft2.processor.Draft2PortProcessorResult;
-import org.rabix.common.helper.CloneHelper;
 
 public class Draft2FileSizeProcessorCallback implements Draft2PortProcessorCallback {
 
   @Override
   public Draft2PortProcessorResult process(Object value, ApplicationPort port) throws Exception {
     if (Draft2SchemaHelper.isFileFromValue(value)) {
-      Object clonedValue = CloneHelper.deepCopy(value);
+      Map<String, Object> clonedValue = Draft2FileValueHelper.copy(value);
 
       String path = Draft2FileValueHelper.getPath(clonedValue);
       Draft2FileValueHelper.setSize(new File(path).length(), clonedValue);
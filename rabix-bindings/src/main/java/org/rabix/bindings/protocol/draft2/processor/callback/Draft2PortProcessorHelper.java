@@ -8,9 +8,13 @@ import org.rabix.bindings.model.FileValue;
 import org.rabix.bindings.protocol.draft2.bean.Draft2Job;
 import org.rabix.bindings.protocol.draft2.processor.Draft2PortProcessor;
 import org.rabix.bindings.protocol.draft2.processor.Draft2PortProcessorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class Draft2PortProcessorHelper {
 
+  private final static Logger logger = LoggerFactory.getLogger(Draft2PortProcessorHelper.class);
+
   private final Draft2PortProcessor portProcessor;
 
   public Draft2PortProcessorHelper(Draft2Job draft2Job) {
@@ -97,7 +101,12 @@ public class Draft2PortProcessorHelper {
   public Map<String, Object> stageInputFiles(Map<String, Object> inputs, File workingDir)
       throws Draft2PortProcessorException {
     try {
-      return portProcessor.processInputs(inputs, new Draft2StageInputProcessorCallback(workingDir));
+      Draft2StageInputProcessorCallback stageInputCallback = new Draft2StageInputProcessorCallback(workingDir);
+      Map<String, Object> stagedInputs = portProcessor.processInputs(inputs, stageInputCallback);
+      if (!stageInputCallback.getStatistics().isEmpty()) {
+        logger.info("Inputs staged to {}: {}.", workingDir, stageInputCallback.getStatistics());
+      }
+      return stagedInputs;
     } catch (Draft2PortProcessorException e) {
       throw new Draft2PortProcessorException("Failed to stage inputs.", e);
     }
@@ -8,7 +8,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import org.apache.commons.io.FileUtils;
 import org.rabix.bindings.BindingException;
 import org.rabix.bindings.model.ApplicationPort;
 import org.rabix.bindings.protocol.draft2.bean.Draft2InputPort;
@@ -17,6 +16,9 @@ import org.rabix.bindings.protocol.draft2.helper.Draft2FileValueHelper;
 import org.rabix.bindings.protocol.draft2.helper.Draft2SchemaHelper;
 import org.rabix.bindings.protocol.draft2.processor.Draft2PortProcessorCallback;
 import org.rabix.bindings.protocol.draft2.processor.Draft2PortProcessorResult;
+import org.rabix.common.helper.StagingHelper;
+import org.rabix.common.helper.StagingHelper.StagingMode;
+import org.rabix.common.helper.StagingHelper.StagingStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,11 +27,16 @@ public class Draft2StageInputProcessorCallback implements Draft2PortProcessorCal
   private static final Logger logger = LoggerFactory.getLogger(Draft2StageInputProcessorCallback.class);
 
   private final File workingDir;
+  private final StagingStatistics statistics = new StagingStatistics();
 
   public Draft2StageInputProcessorCallback(File workingDir) {
     this.workingDir = workingDir;
   }
 
+  public StagingStatistics getStatistics() {
+    return statistics;
+  }
+
   @Override
   public Draft2PortProcessorResult process(Object value, ApplicationPort port) throws Exception {
     if (!(port instanceof Draft2InputPort)) {
@@ -85,30 +92,29 @@ public class Draft2StageInputProcessorCallback implements Draft2PortProcessorCal
   }
 
   private String stagePath(String path, StageInput stageInput) throws BindingException {
-    switch (stageInput) { // just copy for now
-    case COPY:
-    case LINK:
-      File file = new File(path);
-      if (!file.exists()) {
-        throw new BindingException("Failed to stage input file path " + path);
-      }
-      File destinationFile = new File(workingDir, file.getName());
-      if (destinationFile.exists()) {
-        throw new BindingException("Failed to stage input file path " + path + ". File with the same name already exists.");
-      }
-      logger.info("Stage input file {} to {}.", file, destinationFile);
-      try {
-        if (file.isFile()) {
-          FileUtils.copyFile(file, destinationFile);
-        } else {
-          FileUtils.copyDirectory(file, destinationFile);
-        }
-      } catch (IOException e) {
-        throw new BindingException(e);
+    File file = new File(path);
+    if (!file.exists()) {
+      throw new BindingException("Failed to stage input file path " + path);
+    }
+    File destinationFile = new File(workingDir, file.getName());
+    if (destinationFile.exists()) {
+      throw new BindingException("Failed to stage input file path " + path + ". File with the same name already exists.");
+    }
+    logger.info("Stage input file {} to {} ({}).", file, destinationFile, stageInput);
+    try {
+      switch (stageInput) {
+      case COPY:
+        StagingHelper.stage(file, destinationFile, StagingMode.COPY, statistics);
+        break;
+      case LINK:
+        StagingHelper.stage(file, destinationFile, StagingMode.LINK, statistics);
+        break;
+      default:
+        throw new BindingException("Failed to stage input files. StageInput " + stageInput + " is not supported");
       }
-      return destinationFile.getAbsolutePath();
-    default:
-      throw new BindingException("Failed to stage input files. StageInput " + stageInput + " is not supported");
+    } catch (IOException e) {
+      throw new BindingException(e);
     }
+    return destinationFile.getAbsolutePath();
   }
 }
@@ -3,10 +3,16 @@ package org.rabix.bindings.protocol.draft2.service;
 import java.io.File;
 import java.util.Set;
 
+import org.rabix.bindings.glob.GlobIndex;
 import org.rabix.bindings.protocol.draft2.bean.Draft2Job;
 
 public interface Draft2GlobService {
 
   Set<File> glob(Draft2Job job, File workingDir, Object glob) throws Draft2GlobException;
+
+  /**
+   * Resolves glob against the index, so outputs of one job don't walk the working directory more than once
+   */
+  Set<File> glob(Draft2Job job, GlobIndex index, Object glob) throws Draft2GlobException;
   
 }
@@ -2,17 +2,10 @@ package org.rabix.bindings.protocol.draft2.service.impl;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.FileSystems;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.PathMatcher;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 
+import org.rabix.bindings.glob.GlobIndex;
 import org.rabix.bindings.protocol.draft2.bean.Draft2Job;
 import org.rabix.bindings.protocol.draft2.expression.Draft2ExpressionException;
 import org.rabix.bindings.protocol.draft2.expression.helper.Draft2ExpressionBeanHelper;
@@ -31,8 +24,16 @@ public class Draft2GlobServiceImpl implements Draft2GlobService {
    * Find all files that match GLOB inside the working directory 
    */
   public Set<File> glob(Draft2Job job, File workingDir, Object glob) throws Draft2GlobException {
-    Preconditions.checkNotNull(job);
     Preconditions.checkNotNull(workingDir);
+    return glob(job, new GlobIndex(workingDir), glob);
+  }
+
+  /**
+   * Find all files that match GLOB inside the indexed working directory
+   */
+  public Set<File> glob(Draft2Job job, GlobIndex index, Object glob) throws Draft2GlobException {
+    Preconditions.checkNotNull(job);
+    Preconditions.checkNotNull(index);
     
     if (Draft2ExpressionBeanHelper.isExpression(glob)) {
       try {
@@ -46,27 +47,12 @@ public class Draft2GlobServiceImpl implements Draft2GlobService {
       return Collections.<File> emptySet();
     }
     
-    final Set<File> files = new HashSet<>();
-    final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
     try {
-      Files.walkFileTree(workingDir.toPath(), new SimpleFileVisitor<Path>() {
-        @Override
-        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-          if (matcher.matches(file.getFileName())) {
-            files.add(file.toFile());
-          }
-          return FileVisitResult.CONTINUE;
-        }
-        @Override
-        public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
-          return FileVisitResult.CONTINUE;
-        }
-      });
+      return index.glob((String) glob);
     } catch (IOException e) {
       logger.error("Failed to traverse through working directory", e);
       throw new Draft2GlobException("Failed to traverse through working directory", e);
     }
-    return files;
   }
 
 }
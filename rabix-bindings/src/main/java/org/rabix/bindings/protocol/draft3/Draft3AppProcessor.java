@@ -27,7 +27,7 @@ public class Draft3AppProcessor implements ProtocolAppProcessor {
 
   @Override
   public boolean isSelfExecutable(Job job) throws BindingException {
-    Draft3JobApp app = (Draft3JobApp) loadAppObject(job.getApp());
+    Draft3JobApp app = Draft3JobHelper.getDraft3JobApp(job.getApp());
     return app.getType().equals(Draft3JobAppType.EXPRESSION_TOOL);
   }
 
@@ -81,6 +81,11 @@ public class Draft3Bindings implements Bindings {
     return processor.postprocess(job, workingDir);
   }
 
+  @Override
+  public Job postprocess(Job job, File workingDir, OutputFileCallback callback) throws BindingException {
+    return processor.postprocess(job, workingDir, callback);
+  }
+
   @Override
   public String buildCommandLine(Job job) throws BindingException {
     return commandLineBuilder.buildCommandLine(job);
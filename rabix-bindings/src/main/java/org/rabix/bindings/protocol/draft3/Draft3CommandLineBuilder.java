@@ -17,6 +17,7 @@ import org.rabix.bindings.protocol.draft3.bean.Draft3InputPort;
 import org.rabix.bindings.protocol.draft3.bean.Draft3Job;
 import org.rabix.bindings.protocol.draft3.expression.Draft3ExpressionException;
 import org.rabix.bindings.protocol.draft3.expression.Draft3ExpressionResolver;
+import org.rabix.bindings.protocol.draft3.expression.javascript.Draft3ExpressionJavascriptResolver;
 import org.rabix.bindings.protocol.draft3.helper.Draft3BindingHelper;
 import org.rabix.bindings.protocol.draft3.helper.Draft3FileValueHelper;
 import org.rabix.bindings.protocol.draft3.helper.Draft3JobHelper;
@@ -49,7 +50,12 @@ public class Draft3CommandLineBuilder implements ProtocolCommandLineBuilder {
     if (draft2Job.getApp().isExpressionTool()) {
       return null;
     }
-    return buildCommandLine(draft2Job);
+    Draft3ExpressionJavascriptResolver.bindJob();
+    try {
+      return buildCommandLine(draft2Job);
+    } finally {
+      Draft3ExpressionJavascriptResolver.unbindJob();
+    }
   }
   
   @Override
@@ -58,7 +64,14 @@ public class Draft3CommandLineBuilder implements ProtocolCommandLineBuilder {
     if (!draft2Job.getApp().isCommandLineTool()) {
       return null;
     }
-    return Lists.transform(buildCommandLineParts(draft2Job), new Function<Object, String>() {
+    List<Object> commandLineParts;
+    Draft3ExpressionJavascriptResolver.bindJob();
+    try {
+      commandLineParts = buildCommandLineParts(draft2Job);
+    } finally {
+      Draft3ExpressionJavascriptResolver.unbindJob();
+    }
+    return Lists.transform(commandLineParts, new Function<Object, String>() {
       public String apply(Object obj) {
         return obj.toString();
       }
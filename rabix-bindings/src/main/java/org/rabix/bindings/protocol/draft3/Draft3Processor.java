@@ -11,6 +11,8 @@ import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
 import org.rabix.bindings.BindingException;
+import org.rabix.bindings.Bindings.OutputFileCallback;
+import org.rabix.bindings.glob.GlobIndex;
 import org.rabix.bindings.ProtocolProcessor;
 import org.rabix.bindings.model.Job;
 import org.rabix.bindings.protocol.draft3.bean.Draft3CommandLineTool;
@@ -94,8 +96,13 @@ public class Draft3Processor implements ProtocolProcessor {
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public Job postprocess(Job job, File workingDir) throws BindingException {
+    return postprocess(job, workingDir, null);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Job postprocess(Job job, File workingDir, OutputFileCallback callback) throws BindingException {
     Draft3Job draft2Job = Draft3JobHelper.getDraft3Job(job);
     try {
       Map<String, Object> outputs = null;
@@ -108,7 +115,12 @@ public class Draft3Processor implements ProtocolProcessor {
           throw new BindingException("Failed to populate outputs", e);
         }
       } else {
-        outputs = collectOutputs(draft2Job, workingDir, null);
+        Draft3ExpressionJavascriptResolver.bindJob();
+        try {
+          outputs = collectOutputs(draft2Job, workingDir, null, callback);
+        } finally {
+          Draft3ExpressionJavascriptResolver.unbindJob();
+        }
       }
       return Job.cloneWithOutputs(job, outputs);
     } catch (Draft3GlobException | Draft3ExpressionException | IOException e) {
@@ -116,7 +128,7 @@ public class Draft3Processor implements ProtocolProcessor {
     }
   }
   
-  private Map<String, Object> collectOutputs(Draft3Job job, File workingDir, HashAlgorithm hashAlgorithm) throws Draft3GlobException, Draft3ExpressionException, IOException, BindingException {
+  private Map<String, Object> collectOutputs(Draft3Job job, File workingDir, HashAlgorithm hashAlgorithm, OutputFileCallback callback) throws Draft3GlobException, Draft3ExpressionException, IOException, BindingException {
     File resultFile = new File(workingDir, resultFilename);
     
     if (resultFile.exists()) {
@@ -124,10 +136,11 @@ public class Draft3Processor implements ProtocolProcessor {
       return JSONHelper.readMap(resultStr);
     }
     
+    GlobIndex index = new GlobIndex(workingDir);
     Map<String, Object> result = new HashMap<>();
     Draft3CommandLineTool commandLineTool = (Draft3CommandLineTool) job.getApp();
     for (Draft3OutputPort outputPort : commandLineTool.getOutputs()) {
-      Object singleResult = collectOutput(job, workingDir, hashAlgorithm, outputPort.getSchema(), outputPort.getOutputBinding(), outputPort);
+      Object singleResult = collectOutput(job, index, hashAlgorithm, callback, outputPort.getSchema(), outputPort.getOutputBinding(), outputPort);
       if (singleResult != null) {
         result.put(Draft3SchemaHelper.normalizeId(outputPort.getId()), singleResult);
       }
@@ -137,7 +150,7 @@ public class Draft3Processor implements ProtocolProcessor {
   }
 
   @SuppressWarnings("unchecked")
-  private Object collectOutput(Draft3Job job, File workingDir, HashAlgorithm hashAlgorithm, Object schema, Object binding, Draft3OutputPort outputPort) throws Draft3GlobException, Draft3ExpressionException, BindingException {
+  private Object collectOutput(Draft3Job job, GlobIndex index, HashAlgorithm hashAlgorithm, OutputFileCallback callback, Object schema, Object binding, Draft3OutputPort outputPort) throws Draft3GlobException, Draft3ExpressionException, BindingException {
     if (binding == null) {
       binding = Draft3SchemaHelper.getOutputBinding(schema);
     }
@@ -160,9 +173,9 @@ public class Draft3Processor implements ProtocolProcessor {
         if (itemBinding != null) {
           binding = itemBinding;
         }
-        result = globFiles(job, workingDir, hashAlgorithm, outputPort, binding);
+        result = globFiles(job, index, hashAlgorithm, callback, outputPort, binding);
       } else {
-        result = collectOutput(job, workingDir, hashAlgorithm, itemSchema, binding, outputPort);
+        result = collectOutput(job, index, hashAlgorithm, callback, itemSchema, binding, outputPort);
       }
     } else if (Draft3SchemaHelper.isRecordFromSchema(schema)) {
       Map<String, Object> record = new HashMap<>();
@@ -179,7 +192,7 @@ public class Draft3Processor implements ProtocolProcessor {
           if (fieldBinding != null) {
             binding = fieldBinding;
           }
-          Object singleResult = collectOutput(job, workingDir, hashAlgorithm, fieldSchema, binding, outputPort);
+          Object singleResult = collectOutput(job, index, hashAlgorithm, callback, fieldSchema, binding, outputPort);
           if (singleResult != null) {
             record.put(id, singleResult);
           }
@@ -187,7 +200,7 @@ public class Draft3Processor implements ProtocolProcessor {
       }
       result = record;
     } else {
-      result = globFiles(job, workingDir, hashAlgorithm, outputPort, binding);
+      result = globFiles(job, index, hashAlgorithm, callback, outputPort, binding);
     }
     Object outputEval = Draft3BindingHelper.getOutputEval(binding);
     if (outputEval != null) {
@@ -215,7 +228,7 @@ public class Draft3Processor implements ProtocolProcessor {
   /**
    * Extracts files from a directory based on GLOB expression
    */
-  private List<Map<String, Object>> globFiles(final Draft3Job job, final File workingDir, HashAlgorithm hashAlgorithm, final Draft3OutputPort outputPort, Object outputBinding) throws Draft3GlobException {
+  private List<Map<String, Object>> globFiles(final Draft3Job job, final GlobIndex index, HashAlgorithm hashAlgorithm, OutputFileCallback callback, final Draft3OutputPort outputPort, Object outputBinding) throws Draft3GlobException {
     if (outputPort.getOutputBinding() != null) {
       outputBinding = outputPort.getOutputBinding(); // override
     }
@@ -230,7 +243,7 @@ public class Draft3Processor implements ProtocolProcessor {
       return null;
     }
 
-    Set<File> paths = globService.glob(job, workingDir, glob);
+    Set<File> paths = globService.glob(job, index, glob);
     if (paths == null) {
       logger.info("Glob service didn't find any files.");
       return null;
@@ -251,7 +264,7 @@ public class Draft3Processor implements ProtocolProcessor {
         Draft3FileValueHelper.setName(file.getName(), fileData);
         Draft3FileValueHelper.setPath(file.getAbsolutePath(), fileData);
 
-        List<?> secondaryFiles = getSecondaryFiles(job, hashAlgorithm, fileData, file.getAbsolutePath(), outputBinding);
+        List<?> secondaryFiles = getSecondaryFiles(job, index, hashAlgorithm, callback, fileData, file.getAbsolutePath(), outputBinding);
         if (secondaryFiles != null) {
           Draft3FileValueHelper.setSecondaryFiles(secondaryFiles, fileData);
         }
@@ -269,6 +282,9 @@ public class Draft3Processor implements ProtocolProcessor {
           logger.info("Metadata for {} output is empty.", outputPort.getId());
         }
         result.add(fileData);
+        if (callback != null) {
+          callback.handleOutputFile(file);
+        }
 
         boolean loadContents = Draft3BindingHelper.loadContents(outputBinding);
         if (loadContents) {
@@ -286,7 +302,7 @@ public class Draft3Processor implements ProtocolProcessor {
    * Gets secondary files (absolute paths)
    */
   @SuppressWarnings("unchecked")
-  private List<Map<String, Object>> getSecondaryFiles(Draft3Job job, HashAlgorithm hashAlgorithm, Map<String, Object> fileValue, String fileName, Object binding) throws Draft3ExpressionException {
+  private List<Map<String, Object>> getSecondaryFiles(Draft3Job job, GlobIndex index, HashAlgorithm hashAlgorithm, OutputFileCallback callback, Map<String, Object> fileValue, String fileName, Object binding) throws Draft3ExpressionException {
     Object secondaryFilesObj = Draft3BindingHelper.getSecondaryFiles(binding);
 
     if (secondaryFilesObj == null) {
@@ -314,7 +330,7 @@ public class Draft3Processor implements ProtocolProcessor {
       }
       secondaryFilePath += suffix.startsWith(".") ? suffixObj : "." + suffixObj;
       File secondaryFile = new File(secondaryFilePath);
-      if (secondaryFile.exists()) {
+      if (index.exists(secondaryFile)) {
         Map<String, Object> secondaryFileMap = new HashMap<>();
         Draft3FileValueHelper.setFileType(secondaryFileMap);
         Draft3FileValueHelper.setPath(secondaryFile.getAbsolutePath(), secondaryFileMap);
@@ -324,6 +340,9 @@ public class Draft3Processor implements ProtocolProcessor {
           Draft3FileValueHelper.setChecksum(secondaryFile, secondaryFileMap, hashAlgorithm);
         }
         secondaryFileMaps.add(secondaryFileMap);
+        if (callback != null) {
+          callback.handleOutputFile(secondaryFile);
+        }
       }
     }
     return secondaryFileMaps;
@@ -15,6 +15,7 @@ import org.rabix.bindings.model.requirement.EnvironmentVariableRequirement;
 import org.rabix.bindings.model.requirement.FileRequirement;
 import org.rabix.bindings.model.requirement.FileRequirement.SingleFileRequirement;
 import org.rabix.bindings.model.requirement.Requirement;
+import org.rabix.bindings.model.requirement.ResourceRequirement;
 import org.rabix.bindings.protocol.draft3.bean.Draft3Job;
 import org.rabix.bindings.protocol.draft3.bean.Draft3JobApp;
 import org.rabix.bindings.protocol.draft3.bean.resource.Draft3Resource;
@@ -22,6 +23,7 @@ import org.rabix.bindings.protocol.draft3.bean.resource.requirement.Draft3Create
 import org.rabix.bindings.protocol.draft3.bean.resource.requirement.Draft3DockerResource;
 import org.rabix.bindings.protocol.draft3.bean.resource.requirement.Draft3EnvVarRequirement;
 import org.rabix.bindings.protocol.draft3.bean.resource.requirement.Draft3EnvVarRequirement.EnvironmentDef;
+import org.rabix.bindings.protocol.draft3.bean.resource.requirement.Draft3ResourceRequirement;
 import org.rabix.bindings.protocol.draft3.expression.Draft3ExpressionException;
 import org.rabix.bindings.protocol.draft3.expression.Draft3ExpressionResolver;
 import org.rabix.bindings.protocol.draft3.helper.Draft3FileValueHelper;
@@ -98,6 +100,24 @@ public class Draft3RequirementProvider implements ProtocolRequirementProvider {
     return new FileRequirement(result);
   }
 
+  private ResourceRequirement getResourceRequirement(Draft3Job draft3Job, Draft3ResourceRequirement resourceRequirement) throws BindingException {
+    if (resourceRequirement == null) {
+      return null;
+    }
+    try {
+      Draft3ResourceRequirement.Resources resources = resourceRequirement.build(draft3Job);
+      Long coresMax = resourceRequirement.getCoresMax(draft3Job);
+      Long ramMax = resourceRequirement.getRamMax(draft3Job);
+      return new ResourceRequirement(toInteger(resources.getCores()), toInteger(coresMax), toInteger(resources.getRam()), toInteger(ramMax), null, null, null);
+    } catch (Draft3ExpressionException e) {
+      throw new BindingException(e);
+    }
+  }
+
+  private Integer toInteger(Long value) {
+    return value != null ? value.intValue() : null;
+  }
+
   @Override
   public List<Requirement> getRequirements(Job job) throws BindingException {
     Draft3Job draft2Job = Draft3JobHelper.getDraft3Job(job);
@@ -132,6 +152,10 @@ public class Draft3RequirementProvider implements ProtocolRequirementProvider {
         result.add(getFileRequirement(draft2Job, (Draft3CreateFileRequirement) draft2Resource));
         continue;
       }
+      if (draft2Resource instanceof Draft3ResourceRequirement) {
+        result.add(getResourceRequirement(draft2Job, (Draft3ResourceRequirement) draft2Resource));
+        continue;
+      }
     }
     return result;
   }
@@ -26,7 +26,7 @@ public class Draft3ValueProcessor implements ProtocolValueProcessor {
   public Set<FileValue> getOutputFiles(Job job) throws BindingException {
     Draft3Job draft2Job = Draft3JobHelper.getDraft3Job(job);
     try {
-      return new Draft3PortProcessorHelper(draft2Job).flattenOutputFiles(job.getInputs());
+      return new Draft3PortProcessorHelper(draft2Job).flattenOutputFiles(job.getOutputs());
     } catch (Draft3PortProcessorException e) {
       throw new BindingException(e);
     }
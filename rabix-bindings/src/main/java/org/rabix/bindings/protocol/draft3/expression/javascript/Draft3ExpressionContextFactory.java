@@ -9,18 +9,31 @@ import org.rabix.bindings.protocol.draft3.expression.Draft3ExpressionTimeoutExce
 public class Draft3ExpressionContextFactory extends ContextFactory {
 
   private int timeoutInSeconds;
+  private int optimizationLevel;
+  private int maxStackDepth;
   
-  public Draft3ExpressionContextFactory(int timeoutInSeconds) {
+  public Draft3ExpressionContextFactory(int timeoutInSeconds, int optimizationLevel, int maxStackDepth) {
     this.timeoutInSeconds = timeoutInSeconds;
+    this.optimizationLevel = optimizationLevel;
+    this.maxStackDepth = maxStackDepth;
   }
   
-  @SuppressWarnings("deprecation")
   private static class ExpressionContext extends Context {
     long startTime;
+
+    ExpressionContext(ContextFactory factory) {
+      super(factory);
+    }
   }
 
+  /**
+   * Creates sandboxed context. Instruction observer and stack depth limit work only in interpreted mode.
+   */
   protected Context makeContext() {
-    ExpressionContext cx = new ExpressionContext();
+    ExpressionContext cx = new ExpressionContext(this);
+    cx.setOptimizationLevel(optimizationLevel);
+    cx.setMaximumInterpreterStackDepth(maxStackDepth);
+    cx.setClassShutter(new Draft3ExpressionDenyAllClassShutter());
     cx.setInstructionObserverThreshold(1000);
     return cx;
   }
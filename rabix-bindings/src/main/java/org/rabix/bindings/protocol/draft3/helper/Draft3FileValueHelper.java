@@ -7,6 +7,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -115,6 +116,23 @@ public class Draft3FileValueHelper extends Draft3BeanHelper {
     return getValue(KEY_SECONDARY_FILES, raw);
   }
 
+  /**
+   * Copies file value before it's changed. Only the file and its secondary files are copied, other values are shared.
+   */
+  @SuppressWarnings("unchecked")
+  public static Map<String, Object> copy(Object raw) {
+    Map<String, Object> copy = new LinkedHashMap<>((Map<String, Object>) raw);
+    List<Map<String, Object>> secondaryFiles = getSecondaryFiles(copy);
+    if (secondaryFiles != null) {
+      List<Map<String, Object>> secondaryFileCopies = new ArrayList<>(secondaryFiles.size());
+      for (Map<String, Object> secondaryFile : secondaryFiles) {
+        secondaryFileCopies.add(new LinkedHashMap<>(secondaryFile));
+      }
+      setSecondaryFiles(secondaryFileCopies, copy);
+    }
+    return copy;
+  }
+
   /**
    * Extract paths from unknown data
    */
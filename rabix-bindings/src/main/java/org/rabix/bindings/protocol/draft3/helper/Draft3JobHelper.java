@@ -1,6 +1,8 @@
 package org.rabix.bindings.protocol.draft3.helper;
 
 import org.rabix.bindings.BindingException;
+import org.rabix.bindings.app.AppCache;
+import org.rabix.bindings.app.AppCache.AppLoader;
 import org.rabix.bindings.model.Job;
 import org.rabix.bindings.protocol.draft3.Draft3JobProcessor;
 import org.rabix.bindings.protocol.draft3.bean.Draft3Job;
@@ -11,10 +13,30 @@ import org.rabix.common.json.BeanSerializer;
 
 public class Draft3JobHelper {
 
+  /**
+   * Processed job templates (without inputs) per application URI. Template applications are shared and must not be modified.
+   */
+  private static final AppCache<Draft3Job> templates = new AppCache<>("draft3.job");
+
+  private static final AppLoader<Draft3Job> templateLoader = new AppLoader<Draft3Job>() {
+    @Override
+    public Draft3Job load(String appURI) throws BindingException {
+      String resolvedAppStr = Draft3DocumentResolver.resolve(appURI);
+      Draft3JobApp app = BeanSerializer.deserialize(JSONHelper.transformToJSON(resolvedAppStr), Draft3JobApp.class);
+      return new Draft3JobProcessor().process(new Draft3Job(app, null));
+    }
+  };
+
   public static Draft3Job getDraft3Job(Job job) throws BindingException {
-    String resolvedAppStr = Draft3DocumentResolver.resolve(job.getApp());
-    Draft3JobApp app = BeanSerializer.deserialize(JSONHelper.transformToJSON(resolvedAppStr), Draft3JobApp.class);
-    return new Draft3JobProcessor().process(new Draft3Job(app, job.getInputs()));
+    Draft3Job template = templates.get(job.getApp(), templateLoader);
+    return new Draft3Job(template.getApp(), job.getInputs(), null, null, null, template.getId());
+  }
+
+  /**
+   * Gets processed application. The application is shared and must not be modified.
+   */
+  public static Draft3JobApp getDraft3JobApp(String appURI) throws BindingException {
+    return templates.get(appURI, templateLoader).getApp();
   }
   
 }
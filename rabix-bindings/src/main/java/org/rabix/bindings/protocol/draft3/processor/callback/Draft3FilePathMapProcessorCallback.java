@@ -10,7 +10,6 @@ import org.rabix.bindings.protocol.draft3.helper.Draft3SchemaHelper;
 import org.rabix.bindings.protocol.draft3.processor.Draft3PortProcessorCallback;
 import org.rabix.bindings.protocol.draft3.processor.Draft3PortProcessorException;
 import org.rabix.bindings.protocol.draft3.processor.Draft3PortProcessorResult;
-import org.rabix.common.helper.CloneHelper;
 
 public class Draft3FilePathMapProcessorCallback implements Draft3PortProcessorCallback {
 
@@ -21,19 +20,16 @@ public class Draft3FilePathMapProcessorCallback implements Draft3PortProcessorCa
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public Draft3PortProcessorResult process(Object value, ApplicationPort port) throws Draft3PortProcessorException {
     if (value == null) {
       return new Draft3PortProcessorResult(value, false);
     }
     try {
-      Object clonedValue = CloneHelper.deepCopy(value);
-      
-      if (Draft3SchemaHelper.isFileFromValue(clonedValue)) {
-        Map<String, Object> valueMap = (Map<String, Object>) clonedValue;
-        String path = Draft3FileValueHelper.getPath(valueMap);
+      if (Draft3SchemaHelper.isFileFromValue(value)) {
+        String path = Draft3FileValueHelper.getPath(value);
 
         if (path != null && filePathMapper != null) {
+          Map<String, Object> valueMap = Draft3FileValueHelper.copy(value);
           Draft3FileValueHelper.setPath(filePathMapper.map(path), valueMap);
 
           List<Map<String, Object>> secondaryFiles = Draft3FileValueHelper.getSecondaryFiles(valueMap);
@@ -47,7 +43,7 @@ public class Draft3FilePathMapProcessorCallback implements Draft3PortProcessorCa
           return new Draft3PortProcessorResult(valueMap, true);
         }
       }
-      return new Draft3PortProcessorResult(clonedValue, false);
+      return new Draft3PortProcessorResult(value, false);
     } catch (Exception e) {
       throw new Draft3PortProcessorException(e);
     }
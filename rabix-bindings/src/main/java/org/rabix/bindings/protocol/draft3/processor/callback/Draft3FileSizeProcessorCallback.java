@@ -9,14 +9,13 @@ import org.rabix.bindings.protocol.draft3.helper.Draft3FileValueHelper;
 import org.rabix.bindings.protocol.draft3.helper.Draft3SchemaHelper;
 import org.rabix.bindings.protocol.draft3.processor.Draft3PortProcessorCallback;
 import org.rabix.bindings.protocol.draft3.processor.Draft3PortProcessorResult;
-import org.rabix.common.helper.CloneHelper;
 
 public class Draft3FileSizeProcessorCallback implements Draft3PortProcessorCallback {
 
   @Override
   public Draft3PortProcessorResult process(Object value, ApplicationPort port) throws Exception {
     if (Draft3SchemaHelper.isFileFromValue(value)) {
-      Object clonedValue = CloneHelper.deepCopy(value);
+      Map<String, Object> clonedValue = Draft3FileValueHelper.copy(value);
 
       String path = Draft3FileValueHelper.getPath(clonedValue);
       Draft3FileValueHelper.setSize(new File(path).length(), clonedValue);
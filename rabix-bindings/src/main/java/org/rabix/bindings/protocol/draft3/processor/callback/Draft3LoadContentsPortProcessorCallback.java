@@ -7,22 +7,20 @@ import org.rabix.bindings.protocol.draft3.helper.Draft3FileValueHelper;
 import org.rabix.bindings.protocol.draft3.helper.Draft3SchemaHelper;
 import org.rabix.bindings.protocol.draft3.processor.Draft3PortProcessorCallback;
 import org.rabix.bindings.protocol.draft3.processor.Draft3PortProcessorResult;
-import org.rabix.common.helper.CloneHelper;
 
 public class Draft3LoadContentsPortProcessorCallback implements Draft3PortProcessorCallback {
 
   @Override
   public Draft3PortProcessorResult process(Object value, ApplicationPort port) throws Exception {
     if (Draft3SchemaHelper.isFileFromValue(value) && port instanceof Draft3InputPort) {
-      Object clonedValue = CloneHelper.deepCopy(value);
-      
       Object inputBinding = ((Draft3InputPort) port).getInputBinding();
       if (inputBinding == null) {
-        return new Draft3PortProcessorResult(clonedValue, true);
+        return new Draft3PortProcessorResult(value, true);
       }
 
       boolean loadContents = Draft3BindingHelper.loadContents(inputBinding);
       if (loadContents) {
+        Object clonedValue = Draft3FileValueHelper.copy(value);
         Draft3FileValueHelper.setContents(clonedValue);
         return new Draft3PortProcessorResult(clonedValue, true);
       }
@@ -8,9 +8,13 @@ import org.rabix.bindings.model.FileValue;
 import org.rabix.bindings.protocol.draft3.bean.Draft3Job;
 import org.rabix.bindings.protocol.draft3.processor.Draft3PortProcessor;
 import org.rabix.bindings.protocol.draft3.processor.Draft3PortProcessorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class Draft3PortProcessorHelper {
 
+  private final static Logger logger = LoggerFactory.getLogger(Draft3PortProcessorHelper.class);
+
   private final Draft3PortProcessor portProcessor;
 
   public Draft3PortProcessorHelper(Draft3Job draft3Job) {
@@ -97,7 +101,12 @@ public class Draft3PortProcessorHelper {
   public Map<String, Object> stageInputFiles(Map<String, Object> inputs, File workingDir)
       throws Draft3PortProcessorException {
     try {
-      return portProcessor.processInputs(inputs, new Draft3StageInputProcessorCallback(workingDir));
+      Draft3StageInputProcessorCallback stageInputCallback = new Draft3StageInputProcessorCallback(workingDir);
+      Map<String, Object> stagedInputs = portProcessor.processInputs(inputs, stageInputCallback);
+      if (!stageInputCallback.getStatistics().isEmpty()) {
+        logger.info("Inputs staged to {}: {}.", workingDir, stageInputCallback.getStatistics());
+      }
+      return stagedInputs;
     } catch (Draft3PortProcessorException e) {
       throw new Draft3PortProcessorException("Failed to stage inputs.", e);
     }
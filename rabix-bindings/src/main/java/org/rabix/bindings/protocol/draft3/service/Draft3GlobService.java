@@ -3,10 +3,16 @@ package org.rabix.bindings.protocol.draft3.service;
 import java.io.File;
 import java.util.Set;
 
+import org.rabix.bindings.glob.GlobIndex;
 import org.rabix.bindings.protocol.draft3.bean.Draft3Job;
 
 public interface Draft3GlobService {
 
   Set<File> glob(Draft3Job job, File workingDir, Object glob) throws Draft3GlobException;
+
+  /**
+   * Resolves glob against the index, so outputs of one job don't walk the working directory more than once
+   */
+  Set<File> glob(Draft3Job job, GlobIndex index, Object glob) throws Draft3GlobException;
   
 }
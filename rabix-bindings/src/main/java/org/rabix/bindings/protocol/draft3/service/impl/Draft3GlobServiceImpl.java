@@ -2,19 +2,13 @@ package org.rabix.bindings.protocol.draft3.service.impl;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.FileSystems;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.PathMatcher;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.rabix.bindings.glob.GlobIndex;
 import org.rabix.bindings.protocol.draft3.bean.Draft3Job;
 import org.rabix.bindings.protocol.draft3.expression.Draft3ExpressionException;
 import org.rabix.bindings.protocol.draft3.expression.Draft3ExpressionResolver;
@@ -32,10 +26,18 @@ public class Draft3GlobServiceImpl implements Draft3GlobService {
   /**
    * Find all files that match GLOB inside the working directory 
    */
-  @SuppressWarnings("unchecked")
   public Set<File> glob(Draft3Job job, File workingDir, Object glob) throws Draft3GlobException {
-    Preconditions.checkNotNull(job);
     Preconditions.checkNotNull(workingDir);
+    return glob(job, new GlobIndex(workingDir), glob);
+  }
+
+  /**
+   * Find all files that match GLOB inside the indexed working directory
+   */
+  @SuppressWarnings("unchecked")
+  public Set<File> glob(Draft3Job job, GlobIndex index, Object glob) throws Draft3GlobException {
+    Preconditions.checkNotNull(job);
+    Preconditions.checkNotNull(index);
     
     try {
       if (Draft3ExpressionResolver.isExpressionObject(glob)) {
@@ -57,21 +59,8 @@ public class Draft3GlobServiceImpl implements Draft3GlobService {
     
     final Set<File> files = new HashSet<>();
     for (String singleGlob : globs) {
-      final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + singleGlob);
       try {
-        Files.walkFileTree(workingDir.toPath(), new SimpleFileVisitor<Path>() {
-          @Override
-          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-            if (matcher.matches(file.getFileName())) {
-              files.add(file.toFile());
-            }
-            return FileVisitResult.CONTINUE;
-          }
-          @Override
-          public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
-            return FileVisitResult.CONTINUE;
-          }
-        });
+        files.addAll(index.glob(singleGlob));
       } catch (IOException e) {
         logger.error("Failed to traverse through working directory", e);
         throw new Draft3GlobException("Failed to traverse through working directory", e);
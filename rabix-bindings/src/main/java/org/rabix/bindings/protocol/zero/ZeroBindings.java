@@ -71,6 +71,12 @@ public class ZeroBindings implements Bindings {
     return Job.cloneWithOutputs(job, outputs);
   }
 
+  @Override
+  public Job postprocess(Job job, File workingDir, OutputFileCallback callback) throws BindingException {
+    // outputs are URIs, there are no output files to report
+    return postprocess(job, workingDir);
+  }
+
   @Override
   public String buildCommandLine(Job job) throws BindingException {
     String app = loadApp(job.getApp());
@@ -0,0 +1,42 @@
+package org.rabix.bindings.app;
+
+import java.io.IOException;
+
+import org.rabix.bindings.helper.URIHelper;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class AppRegistryTest {
+
+  @Test
+  public void testPinnedAppsAreNotEvicted() throws IOException {
+    String pinnedApp = "{\"id\":\"pinned\"}";
+    String sharedApp = "{\"id\":\"shared\"}";
+    String pinnedHash = URIHelper.getURIInfo(AppRegistry.register(pinnedApp, "context1"));
+    String sharedHash = URIHelper.getURIInfo(AppRegistry.register(sharedApp, "context1"));
+    AppRegistry.register(sharedApp, "context2");
+
+    fill("first");
+    Assert.assertEquals(AppRegistry.get(pinnedHash), pinnedApp);
+    Assert.assertEquals(AppRegistry.get(sharedHash), sharedApp);
+
+    AppRegistry.release("context1");
+    Assert.assertEquals(AppRegistry.find(pinnedHash), pinnedApp);
+
+    fill("second");
+    Assert.assertNull(AppRegistry.find(pinnedHash));
+    Assert.assertEquals(AppRegistry.get(sharedHash), sharedApp);
+
+    AppRegistry.release("context2");
+    fill("third");
+    Assert.assertNull(AppRegistry.find(sharedHash));
+  }
+
+  private void fill(String prefix) {
+    for (int i = 0; i < 5 * AppRegistry.CACHE_SIZE; i++) {
+      AppRegistry.register("{\"id\":\"" + prefix + i + "\"}");
+    }
+  }
+
+}
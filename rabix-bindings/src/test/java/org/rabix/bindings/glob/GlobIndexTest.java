@@ -0,0 +1,82 @@
+package org.rabix.bindings.glob;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class GlobIndexTest {
+
+  private File workingDir;
+
+  @BeforeClass
+  public void before() throws IOException {
+    workingDir = new File("target/glob/workingDir_" + System.currentTimeMillis());
+    createFile("a.txt");
+    createFile("b.dat");
+    createFile("out/c.txt");
+    createFile("out/sub/d.txt");
+    createFile("out/sub/e.dat");
+    createFile("tmp/a.txt");
+    createFile(GlobIndex.STANDARD_OUTPUT_LOG);
+    createFile(GlobIndex.STANDARD_ERROR_LOG);
+    createFile("tmp/" + GlobIndex.STANDARD_OUTPUT_LOG);
+  }
+
+  @Test
+  public void testFileNameGlobMatchesAtAnyDepth() throws IOException {
+    GlobIndex index = new GlobIndex(workingDir);
+    Assert.assertEquals(index.glob("*.txt"), files("a.txt", "out/c.txt", "out/sub/d.txt", "tmp/a.txt"));
+    Assert.assertEquals(index.glob("a.txt"), files("a.txt", "tmp/a.txt"));
+    Assert.assertEquals(index.glob("*.{dat,txt}").size(), 6);
+    Assert.assertTrue(index.glob("missing.txt").isEmpty());
+  }
+
+  @Test
+  public void testPathGlobIsRelativeToWorkingDir() throws IOException {
+    GlobIndex index = new GlobIndex(workingDir);
+    Assert.assertEquals(index.glob("out/*.txt"), files("out/c.txt"));
+    Assert.assertEquals(index.glob("./out/sub/*"), files("out/sub/d.txt", "out/sub/e.dat"));
+    Assert.assertEquals(index.glob("*/a.txt"), files("tmp/a.txt"));
+    Assert.assertEquals(index.glob("out/**.txt"), files("out/c.txt", "out/sub/d.txt"));
+    Assert.assertTrue(index.glob("missing/*.txt").isEmpty());
+    Assert.assertTrue(index.glob("../*.txt").isEmpty());
+  }
+
+  @Test
+  public void testExists() throws IOException {
+    GlobIndex index = new GlobIndex(workingDir);
+    index.glob("*.txt");
+    Assert.assertTrue(index.exists(new File(workingDir, "out/sub/e.dat")));
+    Assert.assertFalse(index.exists(new File(workingDir, "out/sub/f.dat")));
+    Assert.assertFalse(index.exists(new File(workingDir, "missing/f.dat")));
+  }
+
+  @Test
+  public void testExecutorLogsAreNotMatched() throws IOException {
+    Assert.assertEquals(new GlobIndex(workingDir).glob("*.log"), files("tmp/" + GlobIndex.STANDARD_OUTPUT_LOG));
+    Assert.assertEquals(new GlobIndex(workingDir).glob("*").size(), 7);
+    Assert.assertTrue(new GlobIndex(workingDir).glob(GlobIndex.STANDARD_ERROR_LOG).isEmpty());
+    Assert.assertTrue(new GlobIndex(workingDir).glob("./" + GlobIndex.STANDARD_OUTPUT_LOG).isEmpty());
+  }
+
+  private Set<File> files(String... paths) {
+    Set<File> files = new HashSet<>();
+    for (String path : paths) {
+      files.add(new File(workingDir, path).getAbsoluteFile());
+    }
+    return files;
+  }
+
+  private void createFile(String path) throws IOException {
+    File file = new File(workingDir, path);
+    file.getParentFile().mkdirs();
+    file.createNewFile();
+  }
+
+}
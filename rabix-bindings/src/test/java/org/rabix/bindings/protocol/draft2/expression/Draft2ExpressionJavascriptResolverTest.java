@@ -0,0 +1,32 @@
+package org.rabix.bindings.protocol.draft2.expression;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.rabix.bindings.protocol.draft2.expression.javascript.Draft2ExpressionJavascriptResolver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class Draft2ExpressionJavascriptResolverTest {
+
+  @Test
+  public void testLibrariesAreSealed() throws Draft2ExpressionException {
+    // library in the style of underscore (underscore-min.js itself is not part of the source tree)
+    String library = "var _ = { templateSettings : { evaluate : /<%([\\s\\S]+?)%>/g }, map : function(list, f) { var result = []; for (var i = 0; i < list.length; i++) { result.push(f(list[i])); } return result; } };";
+    List<String> engineConfigs = Arrays.asList(library, "var config = { \"items\" : [1, 2] };");
+
+    String[] modifications = { "{ _.foo = 1; }", "{ _.templateSettings.evaluate = null; }", "{ _.map = null; }", "{ config.items.push(3); }", "{ config.items.length = 0; }" };
+    for (String modification : modifications) {
+      try {
+        Draft2ExpressionJavascriptResolver.evaluate(null, null, modification, engineConfigs, false);
+      } catch (Draft2ExpressionException e) {
+        // sealed objects can't be modified
+      }
+      Assert.assertEquals(Draft2ExpressionJavascriptResolver.evaluate(null, null, "typeof _.foo + typeof _.map + (_.templateSettings.evaluate !== null) + JSON.stringify(config)", engineConfigs, false), "undefinedfunctiontrue{\"items\":[1,2]}");
+    }
+    Assert.assertEquals(Draft2ExpressionJavascriptResolver.evaluate(null, null, "_.map([1, 2], function(x) { return x * 2; })", engineConfigs, false), Arrays.asList(2, 4));
+    Assert.assertEquals(Draft2ExpressionJavascriptResolver.evaluate(null, null, "'a<%b%>c<%d%>'.replace(_.templateSettings.evaluate, '')", engineConfigs, false), "ac");
+  }
+
+}
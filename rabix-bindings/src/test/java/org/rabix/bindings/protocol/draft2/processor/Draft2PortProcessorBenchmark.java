@@ -0,0 +1,51 @@
+package org.rabix.bindings.protocol.draft2.processor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.rabix.common.helper.CloneHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Compares structural and serialization deep copy of port values. Not part of the default build, run with
+ * <code>mvn test -Pbenchmark</code>.
+ */
+@Test(groups = { "benchmark" })
+public class Draft2PortProcessorBenchmark {
+
+  private final static Logger logger = LoggerFactory.getLogger(Draft2PortProcessorBenchmark.class);
+
+  private static final int WARMUP_ITERATIONS = 3;
+  private static final int ITERATIONS = 10;
+
+  @Test
+  public void benchmarkDeepCopy() {
+    Map<String, Object> inputs = new HashMap<>();
+    inputs.put("reads", Draft2PortProcessorTest.createFiles(Draft2PortProcessorTest.FILE_COUNT));
+    inputs.put("reference", Draft2PortProcessorTest.createFiles(1).get(0));
+
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      CloneHelper.serializationCopy(inputs);
+      CloneHelper.deepCopy(inputs);
+    }
+    long serializationTime = 0;
+    long structuralTime = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long start = System.nanoTime();
+      Object serializationCopy = CloneHelper.serializationCopy(inputs);
+      serializationTime += System.nanoTime() - start;
+
+      start = System.nanoTime();
+      Object structuralCopy = CloneHelper.deepCopy(inputs);
+      structuralTime += System.nanoTime() - start;
+
+      Assert.assertEquals(structuralCopy, serializationCopy);
+      Assert.assertNotSame(((Map<?, ?>) structuralCopy).get("reads"), inputs.get("reads"));
+    }
+    logger.info("deep copy of {} files: serialization mean {} ms, structural mean {} ms over {} iterations", Draft2PortProcessorTest.FILE_COUNT, serializationTime / ITERATIONS / 1000000, structuralTime / ITERATIONS / 1000000, ITERATIONS);
+  }
+
+}
@@ -0,0 +1,85 @@
+package org.rabix.bindings.protocol.draft2.processor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.rabix.bindings.filemapper.FileMapper;
+import org.rabix.bindings.filemapper.FileMappingException;
+import org.rabix.bindings.protocol.draft2.bean.Draft2Job;
+import org.rabix.bindings.protocol.draft2.processor.callback.Draft2FilePathMapProcessorCallback;
+import org.rabix.common.helper.ResourceHelper;
+import org.rabix.common.json.BeanSerializer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class Draft2PortProcessorTest {
+
+  static final int FILE_COUNT = 5000;
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testFilePathMapping() throws Exception {
+    String inputJson = ResourceHelper.readResource(Draft2PortProcessorTest.class, "/org/rabix/bindings/protocol/draft2/output-collection-job.json");
+    Draft2Job job = BeanSerializer.deserialize(inputJson, Draft2Job.class);
+
+    Map<String, Object> inputs = new HashMap<>(job.getInputs());
+    inputs.put("reads", createFiles(FILE_COUNT));
+
+    FileMapper mapper = new FileMapper() {
+      @Override
+      public String map(String path) throws FileMappingException {
+        return "/mapped/" + path;
+      }
+    };
+    Map<String, Object> mapped = new Draft2PortProcessor(job).processInputs(inputs, new Draft2FilePathMapProcessorCallback(mapper));
+
+    List<Map<String, Object>> reads = (List<Map<String, Object>>) inputs.get("reads");
+    List<Map<String, Object>> mappedReads = (List<Map<String, Object>>) mapped.get("reads");
+    Assert.assertEquals(mappedReads.size(), FILE_COUNT);
+    for (int i = 0; i < FILE_COUNT; i++) {
+      Map<String, Object> read = reads.get(i);
+      Map<String, Object> mappedRead = mappedReads.get(i);
+      Assert.assertEquals(read.get("path"), "file" + i + ".fastq");
+      Assert.assertEquals(mappedRead.get("path"), "/mapped/file" + i + ".fastq");
+
+      Map<String, Object> secondaryFile = ((List<Map<String, Object>>) read.get("secondaryFiles")).get(0);
+      Map<String, Object> mappedSecondaryFile = ((List<Map<String, Object>>) mappedRead.get("secondaryFiles")).get(0);
+      Assert.assertEquals(secondaryFile.get("path"), "file" + i + ".fastq.idx");
+      Assert.assertEquals(mappedSecondaryFile.get("path"), "/mapped/file" + i + ".fastq.idx");
+
+      // values which are not modified are not copied
+      Assert.assertSame(mappedRead.get("metadata"), read.get("metadata"));
+    }
+    Assert.assertEquals(((Map<String, Object>) mapped.get("reference")).get("path"), "/mapped/rabix/tests/test-files/chr20.fa");
+    Assert.assertEquals(mapped.get("min_std_max_min"), inputs.get("min_std_max_min"));
+  }
+
+  static List<Map<String, Object>> createFiles(int count) {
+    List<Map<String, Object>> files = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Map<String, Object> metadata = new HashMap<>();
+      metadata.put("sample", "SAMPLE" + i);
+      metadata.put("paired_end", i % 2 + 1);
+
+      Map<String, Object> secondaryFile = new HashMap<>();
+      secondaryFile.put("class", "File");
+      secondaryFile.put("path", "file" + i + ".fastq.idx");
+
+      List<Map<String, Object>> secondaryFiles = new ArrayList<>();
+      secondaryFiles.add(secondaryFile);
+
+      Map<String, Object> file = new HashMap<>();
+      file.put("class", "File");
+      file.put("path", "file" + i + ".fastq");
+      file.put("size", 1024L * i);
+      file.put("metadata", metadata);
+      file.put("secondaryFiles", secondaryFiles);
+      files.add(file);
+    }
+    return files;
+  }
+
+}
@@ -1,9 +1,12 @@
 package org.rabix.bindings.protocol.draft3.expression;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 import org.rabix.bindings.protocol.draft3.bean.Draft3Job;
 import org.rabix.bindings.protocol.draft3.bean.resource.requirement.Draft3InlineJavascriptRequirement;
+import org.rabix.bindings.protocol.draft3.expression.javascript.Draft3ExpressionJavascriptResolver;
 import org.rabix.common.helper.ResourceHelper;
 import org.rabix.common.json.BeanSerializer;
 import org.testng.Assert;
@@ -43,4 +46,19 @@ public class Draft3ExpressionResolverTest {
     }
   }
 
+  @Test
+  public void testEngineConfigsAreSealed() throws Draft3ExpressionException {
+    List<String> engineConfigs = Collections.singletonList("var config = { \"nested\" : { \"value\" : 1 }, \"items\" : [1, 2] };");
+
+    String[] modifications = { "{ config.nested.value = 2; }", "{ config.other = 2; }", "{ config.items[0] = 2; }", "{ config.items.push(3); }", "{ Object.prototype.leak = 1; }", "{ config = null; }" };
+    for (String modification : modifications) {
+      try {
+        Draft3ExpressionJavascriptResolver.evaluate(null, null, modification, engineConfigs);
+      } catch (Draft3ExpressionException e) {
+        // sealed objects can't be modified
+      }
+      Assert.assertEquals(Draft3ExpressionJavascriptResolver.evaluate(null, null, "JSON.stringify(config) + typeof leak", engineConfigs), "{\"nested\":{\"value\":1},\"items\":[1,2]}undefined");
+    }
+  }
+
 }
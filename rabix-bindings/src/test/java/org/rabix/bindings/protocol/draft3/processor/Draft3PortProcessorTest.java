@@ -0,0 +1,177 @@
+package org.rabix.bindings.protocol.draft3.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.rabix.bindings.filemapper.FileMapper;
+import org.rabix.bindings.filemapper.FileMappingException;
+import org.rabix.bindings.protocol.draft3.bean.Draft3InputPort;
+import org.rabix.bindings.protocol.draft3.bean.Draft3Job;
+import org.rabix.bindings.protocol.draft3.helper.Draft3FileValueHelper;
+import org.rabix.bindings.protocol.draft3.processor.callback.Draft3FilePathMapProcessorCallback;
+import org.rabix.bindings.protocol.draft3.processor.callback.Draft3FileSizeProcessorCallback;
+import org.rabix.bindings.protocol.draft3.processor.callback.Draft3LoadContentsPortProcessorCallback;
+import org.rabix.common.helper.ResourceHelper;
+import org.rabix.common.json.BeanSerializer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class Draft3PortProcessorTest {
+
+  private static final int FILE_COUNT = 10;
+
+  private File directory;
+  private Draft3Job job;
+  private Map<String, Object> inputs;
+
+  @BeforeMethod
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("draft3-port-processor").toFile();
+    String inputJson = ResourceHelper.readResource(Draft3PortProcessorTest.class, "/org/rabix/bindings/protocol/draft3/expression/draft3-bwa-mem-job.json");
+    job = BeanSerializer.deserialize(inputJson, Draft3Job.class);
+
+    inputs = new HashMap<>(job.getInputs());
+    inputs.put("reads", createFiles(directory, FILE_COUNT));
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void testFilePathMapping() throws Exception {
+    FileMapper mapper = new FileMapper() {
+      @Override
+      public String map(String path) throws FileMappingException {
+        return "/mapped" + path;
+      }
+    };
+    Map<String, Object> mapped = new Draft3PortProcessor(job).processInputs(inputs, new Draft3FilePathMapProcessorCallback(mapper));
+
+    List<Map<String, Object>> mappedReads = assertOnlyFilesCopied(mapped);
+    for (int i = 0; i < FILE_COUNT; i++) {
+      Map<String, Object> mappedRead = mappedReads.get(i);
+      Assert.assertEquals(Draft3FileValueHelper.getPath(mappedRead), "/mapped" + getPath(i));
+      Assert.assertEquals(Draft3FileValueHelper.getPath(getSecondaryFile(mappedRead)), "/mapped" + getPath(i) + ".idx");
+    }
+    Assert.assertEquals(Draft3FileValueHelper.getPath(mapped.get("reference")), "/mappedrabix/tests/test-files/chr20.fa");
+  }
+
+  @Test
+  public void testFileSize() throws Exception {
+    Map<String, Object> processed = new Draft3PortProcessor(job).processInputs(inputs, new Draft3FileSizeProcessorCallback());
+
+    List<Map<String, Object>> processedReads = assertOnlyFilesCopied(processed);
+    for (int i = 0; i < FILE_COUNT; i++) {
+      Map<String, Object> processedRead = processedReads.get(i);
+      Assert.assertEquals(Draft3FileValueHelper.getSize(processedRead).longValue(), new File(getPath(i)).length());
+      Assert.assertEquals(Draft3FileValueHelper.getSize(getSecondaryFile(processedRead)).longValue(), new File(getPath(i) + ".idx").length());
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testLoadContents() throws Exception {
+    Draft3InputPort readsPort = (Draft3InputPort) job.getApp().getPort("reads", Draft3InputPort.class);
+    ((Map<String, Object>) readsPort.getInputBinding()).put("loadContents", true);
+
+    Map<String, Object> processed = new Draft3PortProcessor(job).processInputs(inputs, new Draft3LoadContentsPortProcessorCallback());
+
+    List<Map<String, Object>> processedReads = assertOnlyFilesCopied(processed);
+    for (int i = 0; i < FILE_COUNT; i++) {
+      Assert.assertEquals(Draft3FileValueHelper.getContents(processedReads.get(i)), "contents" + i);
+    }
+    // loadContents isn't set on the reference port
+    Assert.assertNull(Draft3FileValueHelper.getContents(processed.get("reference")));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCopy() {
+    Map<String, Object> file = ((List<Map<String, Object>>) inputs.get("reads")).get(0);
+    Map<String, Object> copy = Draft3FileValueHelper.copy(file);
+
+    Assert.assertEquals(copy, file);
+    Assert.assertNotSame(copy, file);
+    Assert.assertNotSame(copy.get("secondaryFiles"), file.get("secondaryFiles"));
+    Assert.assertNotSame(getSecondaryFile(copy), getSecondaryFile(file));
+    Assert.assertSame(copy.get("metadata"), file.get("metadata"));
+
+    Draft3FileValueHelper.setPath("changed", getSecondaryFile(copy));
+    Assert.assertEquals(Draft3FileValueHelper.getPath(getSecondaryFile(file)), getPath(0) + ".idx");
+  }
+
+  /**
+   * Checks that file nodes are copied, metadata is shared and the original inputs are not modified
+   */
+  @SuppressWarnings("unchecked")
+  private List<Map<String, Object>> assertOnlyFilesCopied(Map<String, Object> processed) {
+    List<Map<String, Object>> reads = (List<Map<String, Object>>) inputs.get("reads");
+    List<Map<String, Object>> processedReads = (List<Map<String, Object>>) processed.get("reads");
+    Assert.assertEquals(processedReads.size(), FILE_COUNT);
+    for (int i = 0; i < FILE_COUNT; i++) {
+      Map<String, Object> read = reads.get(i);
+      Map<String, Object> processedRead = processedReads.get(i);
+      Assert.assertNotSame(processedRead, read);
+      Assert.assertNotSame(getSecondaryFile(processedRead), getSecondaryFile(read));
+      Assert.assertSame(processedRead.get("metadata"), read.get("metadata"));
+
+      Assert.assertEquals(read, createFile(directory, i));
+    }
+    Assert.assertEquals(processed.get("min_std_max_min"), inputs.get("min_std_max_min"));
+    Assert.assertEquals(inputs.get("reference"), job.getInputs().get("reference"));
+    return processedReads;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> getSecondaryFile(Object file) {
+    return ((List<Map<String, Object>>) ((Map<String, Object>) file).get("secondaryFiles")).get(0);
+  }
+
+  private String getPath(int index) {
+    return new File(directory, "file" + index + ".fastq").getAbsolutePath();
+  }
+
+  private static List<Map<String, Object>> createFiles(File directory, int count) throws IOException {
+    List<Map<String, Object>> files = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      File file = new File(directory, "file" + i + ".fastq");
+      FileUtils.writeStringToFile(file, "contents" + i, "UTF-8");
+      FileUtils.writeStringToFile(new File(file.getAbsolutePath() + ".idx"), "index" + i, "UTF-8");
+      files.add(createFile(directory, i));
+    }
+    return files;
+  }
+
+  private static Map<String, Object> createFile(File directory, int index) {
+    String path = new File(directory, "file" + index + ".fastq").getAbsolutePath();
+
+    Map<String, Object> metadata = new HashMap<>();
+    metadata.put("sample", "SAMPLE" + index);
+
+    Map<String, Object> secondaryFile = new HashMap<>();
+    secondaryFile.put("class", "File");
+    secondaryFile.put("path", path + ".idx");
+
+    List<Map<String, Object>> secondaryFiles = new ArrayList<>();
+    secondaryFiles.add(secondaryFile);
+
+    Map<String, Object> file = new HashMap<>();
+    file.put("class", "File");
+    file.put("path", path);
+    file.put("metadata", metadata);
+    file.put("secondaryFiles", secondaryFiles);
+    return file;
+  }
+
+}
@@ -13,11 +13,18 @@ public class VMQueues {
   
   private static Map<String, BlockingQueue<Object>> queues = new HashMap<>();
   
-  @SuppressWarnings("unchecked")
   public synchronized static <T> BlockingQueue<T> getQueue(String name) {
+    return getQueue(name, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Gets queue which blocks producers while it is full. Capacity is set by the first caller.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized static <T> BlockingQueue<T> getQueue(String name, int capacity) {
     BlockingQueue<Object> queue = queues.get(name);
     if (queue == null) {
-      queue = new LinkedBlockingQueue<>();
+      queue = new LinkedBlockingQueue<>(capacity);
       queues.put(name, queue);
     }
     return (BlockingQueue<T>) queue;
@@ -1,89 +1,109 @@
 package org.rabix.common.helper;
 
-import com.google.common.hash.HashFunction;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.Futures;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
 import static com.google.common.base.Preconditions.*;
 
+/**
+ * Streams files through the hash function with a large buffer, so memory usage doesn't depend on the file size.
+ * Checksums are cached by file path, size and modification time.
+ */
 public class ChecksumHelper {
 
     public enum HashAlgorithm {
         SHA1, MD5, MURMUR3
     }
 
+    public static final int BUFFER_SIZE = 1024 * 1024;
+    public static final int CACHE_SIZE = 10000;
+
     private static final Logger logger = LoggerFactory.getLogger(ChecksumHelper.class);
 
+    private static final Cache<ChecksumKey, String> checksums = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+    // hashing is disk bound, so there is no point in having more threads than cores
+    private static final ExecutorService checksumExecutor = ExecutorHelper.createBoundedDaemonExecutor("Checksum", Runtime.getRuntime().availableProcessors());
+
     public static String checksum(File file, HashAlgorithm hashAlgo) {
-        switch (hashAlgo) {
-            case SHA1:
-                return sha1(file);
-            case MD5:
-                return md5(file);
-            case MURMUR3:
-                return murmur3(file);
-            default:
-                // couldn't really happen but..
-                throw new IllegalArgumentException("Unsupported hashing algorithm");
+        checkNotNull(file);
+        checkNotNull(hashAlgo);
+
+        ChecksumKey key = new ChecksumKey(file, hashAlgo);
+        String hashed = checksums.getIfPresent(key);
+        if (hashed != null) {
+            return hashed;
         }
+        hashed = hash(file, hashAlgo);
+        if (hashed != null && key.equals(new ChecksumKey(file, hashAlgo))) {
+            // file didn't change while it was hashed
+            checksums.put(key, hashed);
+        }
+        return hashed;
+    }
+
+    /**
+     * Calculates checksum on the shared checksum pool. Cached checksums are returned immediately.
+     */
+    public static Future<String> checksumAsync(final File file, final HashAlgorithm hashAlgo) {
+        String hashed = checksums.getIfPresent(new ChecksumKey(file, hashAlgo));
+        if (hashed != null) {
+            return Futures.immediateFuture(hashed);
+        }
+        return checksumExecutor.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return checksum(file, hashAlgo);
+            }
+        });
     }
 
     public static String sha1(File file) {
-        return standardHash(file, HashAlgorithm.SHA1);
+        return checksum(file, HashAlgorithm.SHA1);
     }
 
     public static String md5(File file) {
-        return standardHash(file, HashAlgorithm.MD5);
+        return checksum(file, HashAlgorithm.MD5);
     }
 
     public static String murmur3(File file) {
-        checkNotNull(file);
-
-        String hashed = null;
-        HashFunction murmur3Hash = Hashing.murmur3_128();
-        try {
-            byte[] fileBytes = Files.readAllBytes(file.toPath());
-            byte[] hashedBytes = murmur3Hash.hashBytes(fileBytes).asBytes();
-            hashed = HashAlgorithm.MURMUR3.name().toLowerCase() + "$" + bytesToString(hashedBytes);
-        } catch (IOException e) {
-            logger.error("Failed to create murmur3 checksum for {}", file);
-        }
-        return hashed;
+        return checksum(file, HashAlgorithm.MURMUR3);
     }
 
-    private static String standardHash(File file, HashAlgorithm hash) {
-
-        checkNotNull(file);
-        checkNotNull(hash);
-
-        MessageDigest md;
-        FileInputStream fis = null;
-
+    private static String hash(File file, HashAlgorithm hashAlgo) {
+        InputStream is = null;
         try {
-            md = MessageDigest.getInstance(hash.name());
+            Digest digest = createDigest(hashAlgo);
 
-            fis = new FileInputStream(file);
-            byte[] dataBytes = new byte[1024];
+            is = new FileInputStream(file);
+            byte[] buffer = new byte[BUFFER_SIZE];
 
             int nread = 0;
-            while ((nread = fis.read(dataBytes)) != -1) {
-                md.update(dataBytes, 0, nread);
+            while ((nread = is.read(buffer)) != -1) {
+                digest.update(buffer, nread);
             }
-
-            byte[] mdbytes = md.digest();
-            return hash.name().toLowerCase() + "$" + bytesToString(mdbytes);
+            return hashAlgo.name().toLowerCase() + "$" + bytesToString(digest.digest());
         } catch (Exception e) {
-            logger.error("Failed to create {} checksum for {}", hash.name(), file);
+            logger.error("Failed to create {} checksum for {}", hashAlgo.name(), file);
         } finally {
-            if (fis != null) {
+            if (is != null) {
                 try {
-                    fis.close();
+                    is.close();
                 } catch (IOException e) {
                     // do nothing
                 }
@@ -92,6 +112,41 @@ public class ChecksumHelper {
         return null;
     }
 
+    private static Digest createDigest(HashAlgorithm hashAlgo) throws NoSuchAlgorithmException {
+        switch (hashAlgo) {
+            case SHA1:
+            case MD5:
+                final MessageDigest md = MessageDigest.getInstance(hashAlgo.name());
+                return new Digest() {
+                    @Override
+                    public void update(byte[] bytes, int length) {
+                        md.update(bytes, 0, length);
+                    }
+
+                    @Override
+                    public byte[] digest() {
+                        return md.digest();
+                    }
+                };
+            case MURMUR3:
+                final Hasher hasher = Hashing.murmur3_128().newHasher();
+                return new Digest() {
+                    @Override
+                    public void update(byte[] bytes, int length) {
+                        hasher.putBytes(bytes, 0, length);
+                    }
+
+                    @Override
+                    public byte[] digest() {
+                        return hasher.hash().asBytes();
+                    }
+                };
+            default:
+                // couldn't really happen but..
+                throw new IllegalArgumentException("Unsupported hashing algorithm");
+        }
+    }
+
     private static String bytesToString(byte[] bytes) {
         StringBuffer sb = new StringBuffer("");
         for (int i = 0; i < bytes.length; i++) {
@@ -99,4 +154,61 @@ public class ChecksumHelper {
         }
         return sb.toString();
     }
+
+    private static interface Digest {
+        void update(byte[] bytes, int length);
+
+        byte[] digest();
+    }
+
+    /**
+     * Identifies file content by path, size and modification time
+     */
+    private static class ChecksumKey {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final HashAlgorithm hashAlgo;
+
+        private ChecksumKey(File file, HashAlgorithm hashAlgo) {
+            this.path = file.getAbsolutePath();
+            this.size = file.length();
+            this.lastModified = file.lastModified();
+            this.hashAlgo = hashAlgo;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + ((hashAlgo == null) ? 0 : hashAlgo.hashCode());
+            result = prime * result + (int) (lastModified ^ (lastModified >>> 32));
+            result = prime * result + ((path == null) ? 0 : path.hashCode());
+            result = prime * result + (int) (size ^ (size >>> 32));
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null)
+                return false;
+            if (getClass() != obj.getClass())
+                return false;
+            ChecksumKey other = (ChecksumKey) obj;
+            if (hashAlgo != other.hashAlgo)
+                return false;
+            if (lastModified != other.lastModified)
+                return false;
+            if (path == null) {
+                if (other.path != null)
+                    return false;
+            } else if (!path.equals(other.path))
+                return false;
+            if (size != other.size)
+                return false;
+            return true;
+        }
+    }
 }
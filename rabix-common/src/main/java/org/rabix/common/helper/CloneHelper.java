@@ -5,18 +5,115 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Deep copies of value trees (maps, collections and arrays of JSON-like values).
+ * <p>
+ * Trees are copied structurally. Immutable leaves are shared, {@link HashMap}, {@link LinkedHashMap}, {@link TreeMap},
+ * {@link ArrayList}, {@link LinkedList}, {@link HashSet}, {@link LinkedHashSet} and {@link TreeSet} keep their type.
+ * Other maps, lists and sets are copied into a {@link LinkedHashMap}, an {@link ArrayList} or a {@link LinkedHashSet}.
+ * Any other object is copied with Java serialization.
+ */
 public class CloneHelper {
 
   private final static Logger logger = LoggerFactory.getLogger(CloneHelper.class);
 
+  private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>> asList(String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class));
+
   private CloneHelper() {
   }
 
   public static Object deepCopy(Object oldObj) {
+    if (oldObj == null || IMMUTABLE_TYPES.contains(oldObj.getClass()) || oldObj instanceof Enum<?>) {
+      return oldObj;
+    }
+    if (oldObj instanceof Map<?, ?>) {
+      return copyMap((Map<?, ?>) oldObj);
+    }
+    if (oldObj instanceof List<?>) {
+      return copyList((List<?>) oldObj);
+    }
+    if (oldObj instanceof Set<?>) {
+      return copySet((Set<?>) oldObj);
+    }
+    if (oldObj instanceof Object[]) {
+      Object[] oldArray = (Object[]) oldObj;
+      Object[] array = Arrays.copyOf(oldArray, oldArray.length);
+      for (int i = 0; i < array.length; i++) {
+        array[i] = deepCopy(array[i]);
+      }
+      return array;
+    }
+    return serializationCopy(oldObj);
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static Map<Object, Object> copyMap(Map<?, ?> oldMap) {
+    Map<Object, Object> map;
+    Class<?> clazz = oldMap.getClass();
+    if (clazz == HashMap.class) {
+      map = new HashMap<>(Math.max(16, (int) (oldMap.size() / 0.75f) + 1));
+    } else if (clazz == TreeMap.class) {
+      map = new TreeMap<>(((TreeMap) oldMap).comparator());
+    } else {
+      map = new LinkedHashMap<>(Math.max(16, (int) (oldMap.size() / 0.75f) + 1));
+    }
+    for (Entry<?, ?> entry : oldMap.entrySet()) {
+      map.put(deepCopy(entry.getKey()), deepCopy(entry.getValue()));
+    }
+    return map;
+  }
+
+  private static List<Object> copyList(List<?> oldList) {
+    List<Object> list = oldList.getClass() == LinkedList.class ? new LinkedList<>() : new ArrayList<>(oldList.size());
+    addCopies(oldList, list);
+    return list;
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static Set<Object> copySet(Set<?> oldSet) {
+    Set<Object> set;
+    Class<?> clazz = oldSet.getClass();
+    if (clazz == HashSet.class) {
+      set = new HashSet<>(Math.max(16, (int) (oldSet.size() / 0.75f) + 1));
+    } else if (clazz == TreeSet.class) {
+      set = new TreeSet<>(((TreeSet) oldSet).comparator());
+    } else {
+      set = new LinkedHashSet<>(Math.max(16, (int) (oldSet.size() / 0.75f) + 1));
+    }
+    addCopies(oldSet, set);
+    return set;
+  }
+
+  private static void addCopies(Collection<?> source, Collection<Object> destination) {
+    for (Object item : source) {
+      destination.add(deepCopy(item));
+    }
+  }
+
+  /**
+   * Copies object with Java serialization
+   */
+  public static Object serializationCopy(Object oldObj) {
     ObjectOutputStream oos = null;
     ObjectInputStream ois = null;
     try {
@@ -0,0 +1,33 @@
+package org.rabix.common.helper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExecutorHelper {
+
+  public static final long KEEP_ALIVE_SECONDS = 60;
+
+  /**
+   * Creates pool of at most the given number of daemon threads named &lt;name&gt;-Thread-&lt;n&gt;. Tasks are queued
+   * while all threads are busy and idle threads stop after {@link #KEEP_ALIVE_SECONDS}.
+   */
+  public static ExecutorService createBoundedDaemonExecutor(final String name, int threads) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger(0);
+
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, name + "-Thread-" + count.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+}
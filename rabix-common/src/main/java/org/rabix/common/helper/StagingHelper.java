@@ -0,0 +1,182 @@
+package org.rabix.common.helper;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stages files and directories into working directories without copying data when possible.
+ * <ul>
+ * <li>{@link StagingMode#LINK} creates hard links and falls back to symbolic links (e.g. across file systems)</li>
+ * <li>{@link StagingMode#COPY} clones files on copy-on-write file systems and otherwise copies them with {@link FileChannel#transferTo}</li>
+ * </ul>
+ * Directories are recreated and their files are staged one by one.
+ */
+public class StagingHelper {
+
+  private static final Logger logger = LoggerFactory.getLogger(StagingHelper.class);
+
+  public static enum StagingMode {
+    COPY, LINK
+  }
+
+  /**
+   * Smaller files are copied, cloning them doesn't pay off
+   */
+  public static final long CLONE_THRESHOLD = 1024 * 1024;
+
+  /**
+   * File stores which don't support cloning
+   */
+  private static final ConcurrentMap<FileStore, Boolean> cloneUnsupported = new ConcurrentHashMap<>();
+
+  public static void stage(File source, File destination, StagingMode mode, StagingStatistics statistics) throws IOException {
+    if (source.isDirectory()) {
+      if (!destination.exists() && !destination.mkdirs()) {
+        throw new IOException("Failed to create directory " + destination);
+      }
+      File[] children = source.listFiles();
+      if (children == null) {
+        throw new IOException("Failed to list directory " + source);
+      }
+      for (File child : children) {
+        stage(child, new File(destination, child.getName()), mode, statistics);
+      }
+      return;
+    }
+    switch (mode) {
+    case LINK:
+      link(source, destination, statistics);
+      break;
+    case COPY:
+      copy(source, destination, statistics);
+      break;
+    default:
+      throw new IOException("Staging mode " + mode + " is not supported");
+    }
+  }
+
+  private static void link(File source, File destination, StagingStatistics statistics) throws IOException {
+    Path sourcePath = source.toPath().toAbsolutePath();
+    Path destinationPath = destination.toPath();
+    try {
+      Files.createLink(destinationPath, sourcePath);
+      statistics.linked(source.length());
+      return;
+    } catch (IOException | UnsupportedOperationException | SecurityException e) {
+      logger.debug("Failed to create hard link to {}. Trying symbolic link.", source);
+    }
+    try {
+      Files.createSymbolicLink(destinationPath, sourcePath);
+      statistics.linked(source.length());
+      return;
+    } catch (IOException | UnsupportedOperationException | SecurityException e) {
+      logger.debug("Failed to create symbolic link to {}. Copying.", source);
+    }
+    copy(source, destination, statistics);
+  }
+
+  private static void copy(File source, File destination, StagingStatistics statistics) throws IOException {
+    long size = source.length();
+    if (size >= CLONE_THRESHOLD && clone(source, destination)) {
+      statistics.cloned(size);
+      return;
+    }
+    try (FileInputStream input = new FileInputStream(source); FileOutputStream output = new FileOutputStream(destination)) {
+      FileChannel inputChannel = input.getChannel();
+      FileChannel outputChannel = output.getChannel();
+      long position = 0;
+      while (position < size) {
+        position += inputChannel.transferTo(position, size - position, outputChannel);
+      }
+    }
+    destination.setLastModified(source.lastModified());
+    statistics.copied(size);
+  }
+
+  /**
+   * Clones the file with 'cp --reflink=always'. File store is remembered if it doesn't support cloning.
+   */
+  private static boolean clone(File source, File destination) {
+    FileStore fileStore;
+    try {
+      fileStore = Files.getFileStore(source.toPath());
+    } catch (IOException e) {
+      return false;
+    }
+    if (cloneUnsupported.containsKey(fileStore)) {
+      return false;
+    }
+    try {
+      Process process = new ProcessBuilder("cp", "--reflink=always", "--preserve=timestamps", source.getAbsolutePath(), destination.getAbsolutePath()).redirectErrorStream(true).start();
+      process.getInputStream().close();
+      if (process.waitFor() == 0) {
+        return true;
+      }
+    } catch (IOException e) {
+      // cp is not available
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    logger.debug("File store {} doesn't support cloning.", fileStore);
+    cloneUnsupported.put(fileStore, Boolean.TRUE);
+    if (destination.exists()) {
+      destination.delete();
+    }
+    return false;
+  }
+
+  /**
+   * Number of bytes staged by each method
+   */
+  public static class StagingStatistics {
+    private long copiedBytes;
+    private long clonedBytes;
+    private long linkedBytes;
+
+    private void copied(long bytes) {
+      copiedBytes += bytes;
+    }
+
+    private void cloned(long bytes) {
+      clonedBytes += bytes;
+    }
+
+    private void linked(long bytes) {
+      linkedBytes += bytes;
+    }
+
+    public long getCopiedBytes() {
+      return copiedBytes;
+    }
+
+    public long getClonedBytes() {
+      return clonedBytes;
+    }
+
+    public long getLinkedBytes() {
+      return linkedBytes;
+    }
+
+    public boolean isEmpty() {
+      return copiedBytes == 0 && clonedBytes == 0 && linkedBytes == 0;
+    }
+
+    @Override
+    public String toString() {
+      return copiedBytes + " bytes copied, " + clonedBytes + " bytes cloned, " + linkedBytes + " bytes linked";
+    }
+  }
+
+}
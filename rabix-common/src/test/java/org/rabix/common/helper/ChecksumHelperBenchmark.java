@@ -0,0 +1,94 @@
+package org.rabix.common.helper;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.rabix.common.helper.ChecksumHelper.HashAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Measures checksum throughput on a large file and latency of cached checksums. Not part of the default build, run
+ * with <code>mvn test -Pbenchmark</code>.
+ */
+@Test(groups = { "benchmark" })
+public class ChecksumHelperBenchmark {
+
+  private final static Logger logger = LoggerFactory.getLogger(ChecksumHelperBenchmark.class);
+
+  private static final int WARMUP_ITERATIONS = 3;
+  private static final int ITERATIONS = 10;
+
+  private static final int FILE_SIZE = 256 * 1024 * 1024;
+  private static final int CACHED_COUNT = 100000;
+
+  private File file;
+
+  @BeforeClass
+  public void setUp() throws IOException {
+    file = File.createTempFile("checksum", ".bin");
+    byte[] buffer = new byte[ChecksumHelper.BUFFER_SIZE];
+    new Random(0).nextBytes(buffer);
+    try (OutputStream out = new FileOutputStream(file)) {
+      for (int written = 0; written < FILE_SIZE; written += buffer.length) {
+        out.write(buffer);
+      }
+    }
+  }
+
+  @AfterClass
+  public void tearDown() {
+    file.delete();
+  }
+
+  @Test
+  public void benchmarkSHA1() {
+    benchmark(HashAlgorithm.SHA1);
+  }
+
+  @Test
+  public void benchmarkMD5() {
+    benchmark(HashAlgorithm.MD5);
+  }
+
+  @Test
+  public void benchmarkMURMUR3() {
+    benchmark(HashAlgorithm.MURMUR3);
+  }
+
+  private void benchmark(HashAlgorithm hashAlgo) {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      hash(hashAlgo);
+    }
+    long total = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      total += hash(hashAlgo);
+    }
+    long megabytes = (long) FILE_SIZE * ITERATIONS / (1024 * 1024);
+    logger.info("{}: {} MB file, mean {} ms, {} MB/s over {} iterations", hashAlgo, FILE_SIZE / (1024 * 1024), total / ITERATIONS / 1000000, megabytes * 1000000000L / total, ITERATIONS);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < CACHED_COUNT; i++) {
+      ChecksumHelper.checksum(file, hashAlgo);
+    }
+    logger.info("{}: cached checksum mean {} ns over {} calls", hashAlgo, (System.nanoTime() - start) / CACHED_COUNT, CACHED_COUNT);
+  }
+
+  /**
+   * Changes modification time, so the checksum is not served from the cache, and returns hashing time in nanoseconds
+   */
+  private long hash(HashAlgorithm hashAlgo) {
+    Assert.assertTrue(file.setLastModified(file.lastModified() + 1000));
+    long start = System.nanoTime();
+    Assert.assertNotNull(ChecksumHelper.checksum(file, hashAlgo));
+    return System.nanoTime() - start;
+  }
+
+}
@@ -0,0 +1,118 @@
+package org.rabix.common.helper;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.rabix.common.helper.ChecksumHelper.HashAlgorithm;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class ChecksumHelperTest {
+
+  private File directory;
+
+  @BeforeMethod
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("checksum").toFile();
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void testChecksums() throws Exception {
+    File file = write("file", "abc");
+    Assert.assertEquals(ChecksumHelper.sha1(file), "sha1$a9993e364706816aba3e25717850c26c9cd0d89d");
+    Assert.assertEquals(ChecksumHelper.md5(file), "md5$900150983cd24fb0d6963f7d28e17f72");
+    Assert.assertEquals(ChecksumHelper.murmur3(file), ChecksumHelper.murmur3(write("copy", "abc")));
+    Assert.assertNotEquals(ChecksumHelper.murmur3(file), ChecksumHelper.murmur3(write("other", "abd")));
+    Assert.assertEquals(ChecksumHelper.checksumAsync(file, HashAlgorithm.SHA1).get(), ChecksumHelper.sha1(file));
+    Assert.assertNull(ChecksumHelper.sha1(new File(directory, "missing")));
+  }
+
+  @Test
+  public void testChangedFileIsHashedAgain() throws IOException {
+    File file = write("file", "abc");
+    long lastModified = file.lastModified();
+    String checksum = ChecksumHelper.sha1(file);
+
+    // same path, size and modification time, checksum comes from the cache
+    write("file", "abd");
+    file.setLastModified(lastModified);
+    Assert.assertEquals(ChecksumHelper.sha1(file), checksum);
+
+    file.setLastModified(lastModified + 2000);
+    Assert.assertEquals(ChecksumHelper.sha1(file), "sha1$cb4cc28df0fdbe0ecf9d9662e294b118092a5735");
+
+    write("file", "abcd");
+    file.setLastModified(lastModified + 2000);
+    Assert.assertEquals(ChecksumHelper.sha1(file), "sha1$81fe8bfe87576c3ecb22426f8e57847382917acf");
+  }
+
+  /**
+   * Hashes a named pipe. Hashing blocks until the pipe is written, so the pipe is modified while it's hashed.
+   */
+  @Test
+  public void testFileChangedWhileHashingIsNotCached() throws Exception {
+    File pipe = new File(directory, "pipe");
+    try {
+      if (new ProcessBuilder("mkfifo", pipe.getAbsolutePath()).start().waitFor() != 0) {
+        throw new SkipException("Failed to create named pipe");
+      }
+    } catch (IOException e) {
+      throw new SkipException("Named pipes are not supported", e);
+    }
+    long lastModified = pipe.lastModified();
+    Assert.assertEquals(hashPipe(pipe, "abc"), "sha1$a9993e364706816aba3e25717850c26c9cd0d89d");
+
+    // checksum must not be cached under the state the pipe had before it was written
+    Assert.assertTrue(pipe.setLastModified(lastModified));
+    Assert.assertEquals(hashPipe(pipe, "abd"), "sha1$cb4cc28df0fdbe0ecf9d9662e294b118092a5735");
+  }
+
+  private String hashPipe(final File pipe, final String content) throws Exception {
+    Future<String> checksum = ChecksumHelper.checksumAsync(pipe, HashAlgorithm.SHA1);
+    Thread.sleep(50);
+    Thread writer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try (OutputStream out = new FileOutputStream(pipe)) {
+          out.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ignore) {
+        }
+      }
+    });
+    writer.setDaemon(true);
+    writer.start();
+    try {
+      return checksum.get(10, TimeUnit.SECONDS);
+    } finally {
+      writer.join(1000);
+      if (writer.isAlive()) {
+        // pipe wasn't read, opening it releases the writer
+        new FileInputStream(pipe).close();
+      }
+    }
+  }
+
+  private File write(String name, String content) throws IOException {
+    File file = new File(directory, name);
+    FileUtils.writeStringToFile(file, content, "UTF-8");
+    return file;
+  }
+
+}
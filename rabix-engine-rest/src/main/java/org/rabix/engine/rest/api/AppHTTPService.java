@@ -0,0 +1,18 @@
+package org.rabix.engine.rest.api;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+@Produces(MediaType.APPLICATION_JSON)
+@Path("/v0/engine/apps")
+public interface AppHTTPService {
+
+  @GET
+  @Path("/{id}")
+  public Response get(@PathParam("id") String id);
+
+}
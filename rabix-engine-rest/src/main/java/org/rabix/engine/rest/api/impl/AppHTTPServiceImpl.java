@@ -0,0 +1,24 @@
+package org.rabix.engine.rest.api.impl;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.rabix.bindings.app.AppRegistry;
+import org.rabix.engine.rest.api.AppHTTPService;
+
+public class AppHTTPServiceImpl implements AppHTTPService {
+
+  @Override
+  public Response get(String id) {
+    String app = AppRegistry.find(id);
+    if (app == null) {
+      return entityNotFound();
+    }
+    return Response.ok().entity(app).build();
+  }
+
+  private Response entityNotFound() {
+    return Response.status(Status.NOT_FOUND).build();
+  }
+
+}
@@ -4,91 +4,105 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.TreeSet;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.apache.commons.configuration.Configuration;
+import org.rabix.bindings.helper.ResourceRequirementHelper;
 import org.rabix.bindings.model.Job;
 import org.rabix.bindings.model.Job.JobStatus;
+import org.rabix.bindings.model.requirement.Requirement;
 import org.rabix.engine.rest.backend.stub.BackendStub;
-import org.rabix.transport.backend.Backend;
+import org.rabix.engine.rest.backend.stub.BackendStub.HeartbeatCallback;
+import org.rabix.transport.backend.HeartbeatInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class BackendDispatcher {
+import com.google.inject.Inject;
 
-  private int position = 0;
+/**
+ * Assigns jobs to backends. Each job goes to the least loaded backend which has enough free CPU and memory for it,
+ * as reported by backend heartbeats. Jobs that don't fit anywhere wait until a heartbeat reports free capacity
+ * or until an assigned job finishes. Free jobs are grouped by the resources they need, so once a job doesn't fit,
+ * the rest of its group is skipped.
+ * <p>
+ * Jobs assigned to the same backend are sent in batches of up to {@link BackendDispatcherConfig#getBatchSize(Configuration)} jobs.
+ * Incomplete batches wait for {@link BackendDispatcherConfig#getLinger(Configuration)} milliseconds, so bursts of ready jobs share messages.
+ */
+public class BackendDispatcher {
 
   private final static Logger logger = LoggerFactory.getLogger(BackendDispatcher.class);
-  
+
   private final static long HEARTBEAT_PERIOD = TimeUnit.MINUTES.toMillis(5);
 
-  private final List<BackendStub> backendStubs = new ArrayList<>();
-  private final Map<String, Long> heartbeatInfo = new HashMap<>();
+  private final Map<String, BackendLoad> backendLoads = new HashMap<>();
+  private final TreeSet<BackendLoad> leastLoaded = new TreeSet<>();
+
+  private final Map<Resources, Set<Job>> freeJobs = new LinkedHashMap<>();
+  private final Map<Job, Assignment> jobBackendMapping = new HashMap<>();
+  private final Map<BackendStub, List<Job>> pendingJobs = new LinkedHashMap<>();
 
-  private final Set<Job> freeJobs = new HashSet<>();
-  private final ConcurrentMap<Job, String> jobBackendMapping = new ConcurrentHashMap<>();
+  private final int batchSize;
+  private final long linger;
+  private boolean flushScheduled = false;
 
   private ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
   private ScheduledExecutorService heartbeatService = Executors.newSingleThreadScheduledExecutor();
 
   private Lock dispatcherLock = new ReentrantLock(true);
 
-  public BackendDispatcher() {
+  private final HeartbeatCallback heartbeatCallback = new HeartbeatCallback() {
+    @Override
+    public void heartbeat(HeartbeatInfo heartbeatInfo) {
+      try {
+        dispatcherLock.lock();
+        BackendLoad backendLoad = backendLoads.get(heartbeatInfo.getId());
+        if (backendLoad == null) {
+          return;
+        }
+        leastLoaded.remove(backendLoad);
+        backendLoad.update(heartbeatInfo);
+        leastLoaded.add(backendLoad);
+        dispatch();
+      } finally {
+        dispatcherLock.unlock();
+      }
+    }
+  };
+
+  @Inject
+  public BackendDispatcher(Configuration configuration) {
+    this.batchSize = BackendDispatcherConfig.getBatchSize(configuration);
+    this.linger = BackendDispatcherConfig.getLinger(configuration);
     start();
   }
 
   private synchronized void start() {
-    executorService.scheduleAtFixedRate(new Runnable() {
-      @Override
-      public void run() {
-        try {
-          dispatcherLock.lock();
-          if (!backendStubs.isEmpty()) {
-            send(freeJobs);
-            freeJobs.clear();
-          }
-        } finally {
-          dispatcherLock.unlock();
-        }
-      }
-    }, 0, 10, TimeUnit.SECONDS);
-
     heartbeatService.scheduleAtFixedRate(new HeartbeatMonitor(), 0, 20, TimeUnit.SECONDS);
   }
 
   public boolean send(Set<Job> jobs) {
     try {
       dispatcherLock.lock();
-      freeJobs.addAll(jobs);
-      
-      if (backendStubs.isEmpty()) {
-        return false;
-      }
-      
-      Iterator<Job> freeJobIterator = freeJobs.iterator();
-      while(freeJobIterator.hasNext()) {
-        Job freeJob = freeJobIterator.next();
-        
-        if (jobBackendMapping.containsKey(freeJob)) {
-          freeJobIterator.remove();
-          continue;
+      for (Job job : jobs) {
+        if (!jobBackendMapping.containsKey(job)) {
+          addFreeJob(job, new Resources(job));
         }
-        BackendStub backendStub = nextBackend();
-        
-        freeJobIterator.remove();
-        jobBackendMapping.put(freeJob, backendStub.getBackend().getId());
-        backendStub.send(freeJob);
-        logger.info("Job {} sent to {}.", freeJob.getId(), backendStub.getBackend().getId());
       }
+      if (backendLoads.isEmpty()) {
+        return false;
+      }
+      dispatch();
       return true;
     } finally {
       dispatcherLock.unlock();
@@ -98,27 +112,160 @@ public class BackendDispatcher {
   public void addBackendStub(BackendStub backendStub) {
     try {
       dispatcherLock.lock();
-      backendStub.start(heartbeatInfo);
-      this.backendStubs.add(backendStub);
-      this.heartbeatInfo.put(backendStub.getBackend().getId(), System.currentTimeMillis());
+      BackendLoad backendLoad = new BackendLoad(backendStub);
+      backendLoads.put(backendLoad.id, backendLoad);
+      leastLoaded.add(backendLoad);
+      backendStub.start(heartbeatCallback);
+      dispatch();
     } finally {
       dispatcherLock.unlock();
     }
   }
 
+  /**
+   * Releases resources of the finished job
+   */
   public void remove(Job job) {
     try {
       dispatcherLock.lock();
-      this.jobBackendMapping.remove(job.getId());
+      Assignment assignment = jobBackendMapping.remove(job);
+      if (assignment == null) {
+        return;
+      }
+      BackendLoad backendLoad = backendLoads.get(assignment.backendId);
+      if (backendLoad != null) {
+        leastLoaded.remove(backendLoad);
+        backendLoad.release(assignment);
+        leastLoaded.add(backendLoad);
+        dispatch();
+      }
     } finally {
       dispatcherLock.unlock();
     }
   }
 
-  private BackendStub nextBackend() {
-    BackendStub backendStub = backendStubs.get(position % backendStubs.size());
-    position = (position + 1) % backendStubs.size();
-    return backendStub;
+  private void addFreeJob(Job job, Resources resources) {
+    Set<Job> jobs = freeJobs.get(resources);
+    if (jobs == null) {
+      jobs = new LinkedHashSet<>();
+      freeJobs.put(resources, jobs);
+    }
+    jobs.add(job);
+  }
+
+  /**
+   * Assigns free jobs to backends. Jobs that don't fit stay free.
+   */
+  private void dispatch() {
+    if (freeJobs.isEmpty() || leastLoaded.isEmpty()) {
+      return;
+    }
+    int waitingJobs = 0;
+    Iterator<Entry<Resources, Set<Job>>> freeJobIterator = freeJobs.entrySet().iterator();
+    while (freeJobIterator.hasNext()) {
+      Entry<Resources, Set<Job>> freeJobEntry = freeJobIterator.next();
+      Resources resources = freeJobEntry.getKey();
+
+      Iterator<Job> jobIterator = freeJobEntry.getValue().iterator();
+      while (jobIterator.hasNext()) {
+        BackendLoad backendLoad = selectBackend(resources);
+        if (backendLoad == null) {
+          // other jobs of the group need the same resources, so they don't fit either
+          break;
+        }
+        Job job = jobIterator.next();
+        jobIterator.remove();
+
+        leastLoaded.remove(backendLoad);
+        Assignment assignment = backendLoad.assign(resources);
+        leastLoaded.add(backendLoad);
+
+        jobBackendMapping.put(job, assignment);
+        getPendingJobs(backendLoad.backendStub).add(job);
+      }
+      if (freeJobEntry.getValue().isEmpty()) {
+        freeJobIterator.remove();
+      } else {
+        waitingJobs += freeJobEntry.getValue().size();
+      }
+    }
+    if (waitingJobs > 0) {
+      logger.debug("{} job(s) are waiting for free backend capacity.", waitingJobs);
+    }
+    flush(linger == 0);
+  }
+
+  /**
+   * Gets the least loaded backend which has enough free resources
+   */
+  private BackendLoad selectBackend(Resources resources) {
+    for (BackendLoad backendLoad : leastLoaded) {
+      if (backendLoad.fits(resources)) {
+        return backendLoad;
+      }
+    }
+    return null;
+  }
+
+  private List<Job> getPendingJobs(BackendStub backendStub) {
+    List<Job> jobs = pendingJobs.get(backendStub);
+    if (jobs == null) {
+      jobs = new ArrayList<>();
+      pendingJobs.put(backendStub, jobs);
+    }
+    return jobs;
+  }
+
+  /**
+   * Sends full batches. Incomplete batches are sent only if forced, otherwise they wait for the linger flush.
+   */
+  private void flush(boolean force) {
+    Iterator<Entry<BackendStub, List<Job>>> pendingIterator = pendingJobs.entrySet().iterator();
+    while (pendingIterator.hasNext()) {
+      Entry<BackendStub, List<Job>> pendingEntry = pendingIterator.next();
+      BackendStub backendStub = pendingEntry.getKey();
+      List<Job> jobs = pendingEntry.getValue();
+
+      int sent = 0;
+      while (jobs.size() - sent >= batchSize || (force && sent < jobs.size())) {
+        List<Job> batch = new ArrayList<>(jobs.subList(sent, Math.min(sent + batchSize, jobs.size())));
+        backendStub.send(batch);
+        sent += batch.size();
+
+        long sentTime = System.currentTimeMillis();
+        for (Job job : batch) {
+          Assignment assignment = jobBackendMapping.get(job);
+          if (assignment != null) {
+            assignment.sent = sentTime;
+          }
+        }
+        logger.info("{} job(s) sent to {}.", batch.size(), backendStub.getBackend().getId());
+        if (logger.isDebugEnabled()) {
+          for (Job job : batch) {
+            logger.debug("Job {} sent to {}.", job.getId(), backendStub.getBackend().getId());
+          }
+        }
+      }
+      jobs.subList(0, sent).clear();
+      if (jobs.isEmpty()) {
+        pendingIterator.remove();
+      }
+    }
+    if (!pendingJobs.isEmpty() && !flushScheduled) {
+      flushScheduled = true;
+      executorService.schedule(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            dispatcherLock.lock();
+            flushScheduled = false;
+            flush(true);
+          } finally {
+            dispatcherLock.unlock();
+          }
+        }
+      }, linger, TimeUnit.MILLISECONDS);
+    }
   }
 
   private class HeartbeatMonitor implements Runnable {
@@ -126,31 +273,179 @@ public class BackendDispatcher {
     public void run() {
       try {
         dispatcherLock.lock();
-        
+
         long currentTime = System.currentTimeMillis();
-        for (BackendStub backendStub : backendStubs) {
-          Backend backend = backendStub.getBackend();
-
-          if (currentTime - heartbeatInfo.get(backend.getId()) > HEARTBEAT_PERIOD) {
-            backendStub.stop();
-            backendStubs.remove(backendStub);
-            
-            List<Job> jobsToRemove = new ArrayList<>();
-            for (Entry<Job, String> jobBackendEntry : jobBackendMapping.entrySet()) {
-              if (jobBackendEntry.getValue().equals(backend.getId())) {
-                jobsToRemove.add(jobBackendEntry.getKey());
+        Iterator<BackendLoad> backendLoadIterator = backendLoads.values().iterator();
+        while (backendLoadIterator.hasNext()) {
+          BackendLoad backendLoad = backendLoadIterator.next();
+
+          if (currentTime - backendLoad.heartbeat > HEARTBEAT_PERIOD) {
+            logger.info("Backend {} stopped sending heartbeats. Its jobs will be dispatched again.", backendLoad.id);
+            backendLoad.backendStub.stop();
+            backendLoadIterator.remove();
+            leastLoaded.remove(backendLoad);
+            pendingJobs.remove(backendLoad.backendStub);
+
+            Iterator<Entry<Job, Assignment>> jobBackendIterator = jobBackendMapping.entrySet().iterator();
+            while (jobBackendIterator.hasNext()) {
+              Entry<Job, Assignment> jobBackendEntry = jobBackendIterator.next();
+              if (jobBackendEntry.getValue().backendId.equals(backendLoad.id)) {
+                jobBackendIterator.remove();
+                addFreeJob(Job.cloneWithStatus(jobBackendEntry.getKey(), JobStatus.READY), jobBackendEntry.getValue().resources);
               }
             }
-            for (Job job : jobsToRemove) {
-              jobBackendMapping.remove(job);
-              freeJobs.add(Job.cloneWithStatus(job, JobStatus.READY));
-            }
           }
         }
+        dispatch();
       } finally {
         dispatcherLock.unlock();
       }
     }
   }
 
+  /**
+   * CPU (in cores) and memory (in MB) a job needs
+   */
+  private static class Resources {
+    private final int cpu;
+    private final long memory;
+
+    private Resources(Job job) {
+      List<Requirement> requirements = ResourceRequirementHelper.getRequirements(job);
+      this.cpu = ResourceRequirementHelper.getCpu(requirements);
+      this.memory = ResourceRequirementHelper.getMemory(requirements);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * cpu + (int) (memory ^ (memory >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Resources)) {
+        return false;
+      }
+      Resources other = (Resources) obj;
+      return cpu == other.cpu && memory == other.memory;
+    }
+  }
+
+  /**
+   * Resources reserved on a backend for a job. Demand is clamped to backend's capacity, the same way backend does it.
+   * Sent time is 0 while the job waits in a batch.
+   */
+  private static class Assignment {
+    private final String backendId;
+    private final Resources resources;
+    private final int cpu;
+    private final long memory;
+    private long sent;
+
+    private Assignment(String backendId, Resources resources, int cpu, long memory) {
+      this.backendId = backendId;
+      this.resources = resources;
+      this.cpu = cpu;
+      this.memory = memory;
+    }
+  }
+
+  /**
+   * Estimated load of a backend. Estimate is reset by every heartbeat and adjusted as jobs are assigned and finished.
+   * Jobs which were not sent before the heartbeat was taken are not counted by the backend yet, so their resources
+   * are taken from the reported free capacity. Sent times are compared with heartbeat timestamps, which assumes
+   * engine and backend clocks are close.
+   * <p>
+   * Backends that don't report capacity accept every job and are ordered by the number of assigned jobs.
+   */
+  private static class BackendLoad implements Comparable<BackendLoad> {
+    private final String id;
+    private final BackendStub backendStub;
+
+    private Integer cpu;
+    private Long memory;
+    private int freeCpu;
+    private long freeMemory;
+    private int assignedJobs;
+    private long heartbeat;
+    private final Set<Assignment> assignments = new HashSet<>();
+
+    private BackendLoad(BackendStub backendStub) {
+      this.id = backendStub.getBackend().getId();
+      this.backendStub = backendStub;
+      this.heartbeat = System.currentTimeMillis();
+    }
+
+    private void update(HeartbeatInfo heartbeatInfo) {
+      heartbeat = heartbeatInfo.getTimestamp() != null ? heartbeatInfo.getTimestamp() : System.currentTimeMillis();
+      if (heartbeatInfo.getCpu() == null || heartbeatInfo.getFreeCpu() == null) {
+        return;
+      }
+      cpu = heartbeatInfo.getCpu();
+      memory = heartbeatInfo.getMemory() != null ? heartbeatInfo.getMemory() : Long.MAX_VALUE;
+      freeCpu = heartbeatInfo.getFreeCpu();
+      freeMemory = heartbeatInfo.getFreeMemory() != null ? heartbeatInfo.getFreeMemory() : Long.MAX_VALUE;
+      for (Assignment assignment : assignments) {
+        if (assignment.sent == 0 || assignment.sent > heartbeat) {
+          freeCpu -= Math.min(assignment.resources.cpu, cpu);
+          freeMemory -= Math.min(assignment.resources.memory, memory);
+        }
+      }
+      if (heartbeatInfo.getWaitingJobs() != null && heartbeatInfo.getWaitingJobs() > 0) {
+        // backend admits jobs in order, so nothing else can start before the waiting ones
+        freeCpu = 0;
+      }
+    }
+
+    private boolean fits(Resources resources) {
+      if (cpu == null) {
+        return true;
+      }
+      return Math.min(resources.cpu, cpu) <= freeCpu && Math.min(resources.memory, memory) <= freeMemory;
+    }
+
+    private Assignment assign(Resources resources) {
+      assignedJobs++;
+      if (cpu == null) {
+        Assignment assignment = new Assignment(id, resources, 0, 0);
+        assignments.add(assignment);
+        return assignment;
+      }
+      Assignment assignment = new Assignment(id, resources, Math.min(resources.cpu, cpu), Math.min(resources.memory, memory));
+      assignments.add(assignment);
+      freeCpu -= assignment.cpu;
+      freeMemory -= assignment.memory;
+      return assignment;
+    }
+
+    private void release(Assignment assignment) {
+      assignedJobs--;
+      assignments.remove(assignment);
+      if (cpu == null) {
+        return;
+      }
+      freeCpu = Math.min(cpu, freeCpu + assignment.cpu);
+      freeMemory = Math.min(memory, freeMemory + assignment.memory);
+    }
+
+    /**
+     * Share of used CPU, or number of assigned jobs if capacity is unknown
+     */
+    private double getLoad() {
+      if (cpu == null || cpu <= 0) {
+        return assignedJobs;
+      }
+      return (double) (cpu - freeCpu) / cpu;
+    }
+
+    @Override
+    public int compareTo(BackendLoad other) {
+      int result = Double.compare(getLoad(), other.getLoad());
+      return result != 0 ? result : id.compareTo(other.id);
+    }
+  }
+
 }
@@ -0,0 +1,21 @@
+package org.rabix.engine.rest.backend;
+
+import org.apache.commons.configuration.Configuration;
+
+public class BackendDispatcherConfig {
+
+  /**
+   * Maximum number of jobs sent to a backend in one message
+   */
+  public static int getBatchSize(Configuration configuration) {
+    return Math.max(1, configuration.getInt("backend.dispatcher.batch_size", 100));
+  }
+
+  /**
+   * How long (in milliseconds) jobs wait for more jobs before an incomplete batch is sent. Zero sends immediately.
+   */
+  public static long getLinger(Configuration configuration) {
+    return Math.max(0, configuration.getLong("backend.dispatcher.linger_ms", 0));
+  }
+
+}
@@ -1,18 +1,26 @@
 package org.rabix.engine.rest.backend.stub;
 
-import java.util.Map;
+import java.util.List;
 
 import org.rabix.bindings.model.Job;
 import org.rabix.transport.backend.Backend;
+import org.rabix.transport.backend.HeartbeatInfo;
 
 public interface BackendStub {
 
-  void start(final Map<String, Long> heartbeatInfo);
+  void start(HeartbeatCallback heartbeatCallback);
   
   void stop();
 
-  void send(Job job);
+  /**
+   * Sends jobs to the backend in one message
+   */
+  void send(List<Job> jobs);
   
   Backend getBackend();
 
+  public static interface HeartbeatCallback {
+    void heartbeat(HeartbeatInfo heartbeatInfo);
+  }
+
 }
@@ -1,19 +1,18 @@
 package org.rabix.engine.rest.backend.stub.impl;
 
-import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.List;
 
 import org.apache.commons.configuration.Configuration;
 import org.rabix.bindings.model.Job;
-import org.rabix.engine.rest.backend.HeartbeatInfo;
 import org.rabix.engine.rest.backend.stub.BackendStub;
 import org.rabix.engine.rest.service.JobService;
 import org.rabix.engine.rest.service.JobServiceException;
 import org.rabix.transport.backend.Backend;
+import org.rabix.transport.backend.HeartbeatInfo;
 import org.rabix.transport.backend.impl.BackendActiveMQ;
+import org.rabix.transport.codec.TransportCodecFactory;
+import org.rabix.transport.mechanism.TransportPlugin.ErrorCallback;
 import org.rabix.transport.mechanism.TransportPlugin.ReceiveCallback;
-import org.rabix.transport.mechanism.TransportPlugin.ResultPair;
 import org.rabix.transport.mechanism.TransportPluginException;
 import org.rabix.transport.mechanism.impl.activemq.TransportPluginActiveMQ;
 import org.rabix.transport.mechanism.impl.activemq.TransportQueueActiveMQ;
@@ -32,12 +31,10 @@ public class BackendStubActiveMQ implements BackendStub {
   private TransportQueueActiveMQ receiveFromBackendQueue;
   private TransportQueueActiveMQ receiveFromBackendHeartbeatQueue;
 
-  private ExecutorService executorService = Executors.newFixedThreadPool(2);
-
   public BackendStubActiveMQ(JobService jobService, Configuration configuration, BackendActiveMQ backend) throws TransportPluginException {
     this.backendActiveMQ = backend;
     this.jobService = jobService;
-    this.transportPluginMQ = new TransportPluginActiveMQ(configuration);
+    this.transportPluginMQ = new TransportPluginActiveMQ(configuration, TransportCodecFactory.create(backend.getCodec()));
 
     this.sendToBackendQueue = new TransportQueueActiveMQ(backend.getToBackendQueue());
     this.receiveFromBackendQueue = new TransportQueueActiveMQ(backend.getFromBackendQueue());
@@ -45,48 +42,38 @@ public class BackendStubActiveMQ implements BackendStub {
   }
 
   @Override
-  public void start(final Map<String, Long> heartbeatInfo) {
-    executorService.submit(new Runnable() {
+  public void start(final HeartbeatCallback heartbeatCallback) {
+    ErrorCallback errorCallback = new ErrorCallback() {
+      @Override
+      public void handleError(String message, Exception exception) {
+        logger.error(message, exception);
+      }
+    };
+    transportPluginMQ.startReceiver(receiveFromBackendQueue, Job.class, new ReceiveCallback<Job>() {
       @Override
-      public void run() {
-        while (true) {
-          ResultPair<Job> result = transportPluginMQ.receive(receiveFromBackendQueue, Job.class, new ReceiveCallback<Job>() {
-            @Override
-            public void handleReceive(Job job) throws TransportPluginException {
-              try {
-                jobService.update(job);
-              } catch (JobServiceException e) {
-                throw new TransportPluginException("Failed to update Job", e);
-              }
-            }
-          });
-          if (!result.isSuccess()) {
-            logger.error(result.getMessage(), result.getException());
-          }
+      public void handleReceive(Job job) throws TransportPluginException {
+        try {
+          jobService.update(job);
+        } catch (JobServiceException e) {
+          throw new TransportPluginException("Failed to update Job", e);
         }
       }
-    });
-    executorService.submit(new Runnable() {
+    }, errorCallback);
+    transportPluginMQ.startReceiver(receiveFromBackendHeartbeatQueue, HeartbeatInfo.class, new ReceiveCallback<HeartbeatInfo>() {
       @Override
-      public void run() {
-        transportPluginMQ.receive(receiveFromBackendHeartbeatQueue, HeartbeatInfo.class, new ReceiveCallback<HeartbeatInfo>() {
-          @Override
-          public void handleReceive(HeartbeatInfo entity) throws TransportPluginException {
-            heartbeatInfo.put(entity.getId(), entity.getTimestamp());
-          }
-        });
+      public void handleReceive(HeartbeatInfo entity) throws TransportPluginException {
+        heartbeatCallback.heartbeat(entity);
       }
-    });
+    }, errorCallback);
   }
 
   @Override
   public void stop() {
-    executorService.shutdown();
   }
 
   @Override
-  public void send(Job job) {
-    this.transportPluginMQ.send(sendToBackendQueue, job);
+  public void send(List<Job> jobs) {
+    this.transportPluginMQ.send(sendToBackendQueue, jobs.toArray(new Job[jobs.size()]));
   }
 
   @Override
@@ -1,17 +1,18 @@
 package org.rabix.engine.rest.backend.stub.impl;
 
-import java.util.Map;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import org.apache.commons.configuration.Configuration;
 import org.rabix.bindings.model.Job;
-import org.rabix.engine.rest.backend.HeartbeatInfo;
 import org.rabix.engine.rest.backend.stub.BackendStub;
 import org.rabix.engine.rest.service.JobService;
 import org.rabix.engine.rest.service.JobServiceException;
 import org.rabix.transport.backend.Backend;
+import org.rabix.transport.backend.HeartbeatInfo;
 import org.rabix.transport.backend.impl.BackendLocal;
+import org.rabix.transport.codec.TransportCodecFactory;
 import org.rabix.transport.mechanism.TransportPlugin.ReceiveCallback;
 import org.rabix.transport.mechanism.TransportPlugin.ResultPair;
 import org.rabix.transport.mechanism.TransportPluginException;
@@ -37,7 +38,7 @@ public class BackendStubLocal implements BackendStub {
   public BackendStubLocal(JobService jobService, Configuration configuration, BackendLocal backendLocal) throws TransportPluginException {
     this.jobService = jobService;
     this.backendLocal = backendLocal;
-    this.transportPluginLocal = new TransportPluginLocal(configuration);
+    this.transportPluginLocal = new TransportPluginLocal(configuration, TransportCodecFactory.create(backendLocal.getCodec()));
 
     this.sendToBackendQueue = new TransportQueueLocal(backendLocal.getToBackendQueue());
     this.receiveFromBackendQueue = new TransportQueueLocal(backendLocal.getFromBackendQueue());
@@ -45,7 +46,7 @@ public class BackendStubLocal implements BackendStub {
   }
 
   @Override
-  public void start(final Map<String, Long> heartbeatInfo) {
+  public void start(final HeartbeatCallback heartbeatCallback) {
     executorService.submit(new Runnable() {
       @Override
       public void run() {
@@ -69,12 +70,17 @@ public class BackendStubLocal implements BackendStub {
     executorService.submit(new Runnable() {
       @Override
       public void run() {
-        transportPluginLocal.receive(receiveFromBackendHeartbeatQueue, HeartbeatInfo.class, new ReceiveCallback<HeartbeatInfo>() {
-          @Override
-          public void handleReceive(HeartbeatInfo entity) throws TransportPluginException {
-            heartbeatInfo.put(entity.getId(), entity.getTimestamp());
+        while (true) {
+          ResultPair<HeartbeatInfo> result = transportPluginLocal.receive(receiveFromBackendHeartbeatQueue, HeartbeatInfo.class, new ReceiveCallback<HeartbeatInfo>() {
+            @Override
+            public void handleReceive(HeartbeatInfo entity) throws TransportPluginException {
+              heartbeatCallback.heartbeat(entity);
+            }
+          });
+          if (!result.isSuccess()) {
+            logger.error(result.getMessage(), result.getException());
           }
-        });
+        }
       }
     });
   }
@@ -85,8 +91,8 @@ public class BackendStubLocal implements BackendStub {
   }
 
   @Override
-  public void send(Job job) {
-    transportPluginLocal.send(sendToBackendQueue, job);
+  public void send(List<Job> jobs) {
+    transportPluginLocal.send(sendToBackendQueue, jobs.toArray(new Job[jobs.size()]));
   }
 
   @Override
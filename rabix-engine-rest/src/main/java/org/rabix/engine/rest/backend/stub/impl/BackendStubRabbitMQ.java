@@ -1,19 +1,20 @@
 package org.rabix.engine.rest.backend.stub.impl;
 
-import java.util.Map;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import org.apache.commons.configuration.Configuration;
 import org.rabix.bindings.model.Job;
-import org.rabix.engine.rest.backend.HeartbeatInfo;
 import org.rabix.engine.rest.backend.stub.BackendStub;
 import org.rabix.engine.rest.service.JobService;
 import org.rabix.engine.rest.service.JobServiceException;
 import org.rabix.transport.backend.Backend;
+import org.rabix.transport.backend.HeartbeatInfo;
 import org.rabix.transport.backend.impl.BackendRabbitMQ;
 import org.rabix.transport.backend.impl.BackendRabbitMQ.BackendConfiguration;
 import org.rabix.transport.backend.impl.BackendRabbitMQ.EngineConfiguration;
+import org.rabix.transport.codec.TransportCodecFactory;
 import org.rabix.transport.mechanism.TransportPlugin.ReceiveCallback;
 import org.rabix.transport.mechanism.TransportPlugin.ResultPair;
 import org.rabix.transport.mechanism.TransportPluginException;
@@ -40,7 +41,7 @@ public class BackendStubRabbitMQ implements BackendStub {
     this.jobService = jobService;
     this.backendRabbitMQ = backend;
 
-    this.transportPluginMQ = new TransportPluginRabbitMQ(configuration);
+    this.transportPluginMQ = new TransportPluginRabbitMQ(configuration, TransportCodecFactory.create(backend.getCodec()));
 
     BackendConfiguration backendConfiguration = backend.getBackendConfiguration();
     this.sendToBackendQueue = new TransportQueueRabbitMQ(backendConfiguration.getExchange(), backendConfiguration.getExchangeType(), backendConfiguration.getReceiveRoutingKey());
@@ -51,7 +52,7 @@ public class BackendStubRabbitMQ implements BackendStub {
   }
 
   @Override
-  public void start(final Map<String, Long> heartbeatInfo) {
+  public void start(final HeartbeatCallback heartbeatCallback) {
     executorService.submit(new Runnable() {
       @Override
       public void run() {
@@ -76,12 +77,17 @@ public class BackendStubRabbitMQ implements BackendStub {
     executorService.submit(new Runnable() {
       @Override
       public void run() {
-        transportPluginMQ.receive(receiveFromBackendHeartbeatQueue, HeartbeatInfo.class, new ReceiveCallback<HeartbeatInfo>() {
-          @Override
-          public void handleReceive(HeartbeatInfo entity) throws TransportPluginException {
-            heartbeatInfo.put(entity.getId(), entity.getTimestamp());
+        while (true) {
+          ResultPair<HeartbeatInfo> result = transportPluginMQ.receive(receiveFromBackendHeartbeatQueue, HeartbeatInfo.class, new ReceiveCallback<HeartbeatInfo>() {
+            @Override
+            public void handleReceive(HeartbeatInfo entity) throws TransportPluginException {
+              heartbeatCallback.heartbeat(entity);
+            }
+          });
+          if (!result.isSuccess()) {
+            logger.error(result.getMessage(), result.getException());
           }
-        });
+        }
       }
     });
   }
@@ -92,8 +98,8 @@ public class BackendStubRabbitMQ implements BackendStub {
   }
 
   @Override
-  public void send(Job job) {
-    this.transportPluginMQ.send(sendToBackendQueue, job);
+  public void send(List<Job> jobs) {
+    this.transportPluginMQ.send(sendToBackendQueue, jobs.toArray(new Job[jobs.size()]));
   }
 
   @Override
@@ -0,0 +1,441 @@
+package org.rabix.engine.rest.cache;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.io.FileUtils;
+import org.rabix.bindings.BindingException;
+import org.rabix.bindings.BindingsFactory;
+import org.rabix.bindings.helper.URIHelper;
+import org.rabix.bindings.model.FileValue;
+import org.rabix.bindings.model.Job;
+import org.rabix.common.helper.ChecksumHelper;
+import org.rabix.common.helper.ChecksumHelper.HashAlgorithm;
+import org.rabix.common.helper.JSONHelper;
+import org.rabix.ftp.SimpleFTPClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+
+/**
+ * Outputs of completed jobs keyed by application hash and inputs. Input files are represented by their checksums, so
+ * jobs of different contexts which read the same files get the same key. Missing checksums of local input files (e.g.
+ * the ones user supplied) are calculated on the checksum pool, jobs with other input files without checksum are not
+ * cached.
+ * <p>
+ * Output files of an entry are checked in the backend store on every hit. Entry with a missing file is evicted and
+ * the job is dispatched. Lookups run on their own thread, so neither hashing nor store round trips block the event
+ * processor.
+ * <p>
+ * Each entry is a JSON file in the cache directory. Modification time of the file is the time of the last use, so the
+ * least recently used order survives restarts.
+ */
+public class CallCache {
+
+  private final static Logger logger = LoggerFactory.getLogger(CallCache.class);
+
+  private static final String ENTRY_EXTENSION = ".json";
+  private static final String KEY_PATH = "path";
+
+  private final Configuration configuration;
+  private final boolean enabled;
+  private final File directory;
+  private final int maxEntries;
+  private final long ttl;
+
+  private final boolean ftpStore;
+  private final String executionDirectory;
+  private final SimpleFTPClient ftpClient;
+
+  /**
+   * Entry keys in least recently used order
+   */
+  private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * Keys of dispatched jobs which are not in the cache, per context
+   */
+  private final ConcurrentMap<String, ConcurrentMap<String, String>> pendingKeys = new ConcurrentHashMap<>();
+
+  private final ExecutorService lookupService = Executors.newSingleThreadExecutor();
+
+  @Inject
+  public CallCache(Configuration configuration, SimpleFTPClient ftpClient) {
+    this.configuration = configuration;
+    this.enabled = CallCacheConfig.isEnabled(configuration);
+    this.directory = new File(CallCacheConfig.getDirectory(configuration));
+    this.maxEntries = CallCacheConfig.getMaxEntries(configuration);
+    this.ttl = TimeUnit.HOURS.toMillis(CallCacheConfig.getTTL(configuration));
+    this.ftpStore = CallCacheConfig.isFTPStore(configuration);
+    this.executionDirectory = CallCacheConfig.getExecutionDirectory(configuration);
+    this.ftpClient = ftpClient;
+    if (enabled) {
+      load();
+    }
+  }
+
+  /**
+   * Looks up cached outputs of the jobs on the lookup thread. Jobs without cached outputs are passed to the callback
+   * together. If the cache is disabled they are passed right away.
+   */
+  public void lookup(final Set<Job> jobs, final LookupCallback callback) {
+    if (!enabled) {
+      callback.miss(jobs);
+      return;
+    }
+    lookupService.submit(new Runnable() {
+      @Override
+      public void run() {
+        Set<Job> misses = new HashSet<>();
+        for (Job job : jobs) {
+          Map<String, Object> outputs = null;
+          try {
+            outputs = get(job);
+          } catch (Exception e) {
+            logger.error("Failed to look up job {} in the call cache", job.getId(), e);
+          }
+          if (outputs == null) {
+            misses.add(job);
+            continue;
+          }
+          try {
+            callback.hit(job, outputs);
+          } catch (Exception e) {
+            logger.error("Failed to complete job {} from the call cache", job.getId(), e);
+          }
+        }
+        if (!misses.isEmpty()) {
+          try {
+            callback.miss(misses);
+          } catch (Exception e) {
+            logger.error("Failed to dispatch {} job(s) missing from the call cache", misses.size(), e);
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Gets cached outputs of the job. Key of a missing job is kept until the job or its context is finished.
+   */
+  Map<String, Object> get(Job job) {
+    if (!isEnabled(job)) {
+      return null;
+    }
+    String key = createKey(job);
+    if (key == null) {
+      return null;
+    }
+    Map<String, Object> outputs = read(key);
+    try {
+      if (outputs != null && !outputsExist(job, outputs)) {
+        logger.info("Outputs of job {} are missing. Call cache entry {} is evicted.", job.getId(), key);
+        evict(key);
+        outputs = null;
+      }
+    } catch (Exception e) {
+      logger.error("Failed to check outputs of call cache entry {}", key, e);
+      outputs = null;
+    }
+    if (outputs == null) {
+      getPendingKeys(job.getRootId()).put(job.getId(), key);
+    }
+    return outputs;
+  }
+
+  /**
+   * Stores outputs of the completed job
+   */
+  public void put(Job job) {
+    String key = removePendingKey(job);
+    if (key == null || job.getOutputs() == null) {
+      return;
+    }
+    write(key, job.getOutputs());
+  }
+
+  /**
+   * Forgets the failed job
+   */
+  public void remove(Job job) {
+    removePendingKey(job);
+  }
+
+  /**
+   * Forgets pending jobs of the finished or invalidated context
+   */
+  public void removeContext(String contextId) {
+    pendingKeys.remove(contextId);
+  }
+
+  private ConcurrentMap<String, String> getPendingKeys(String contextId) {
+    ConcurrentMap<String, String> contextKeys = pendingKeys.get(contextId);
+    if (contextKeys == null) {
+      contextKeys = new ConcurrentHashMap<>();
+      ConcurrentMap<String, String> existing = pendingKeys.putIfAbsent(contextId, contextKeys);
+      if (existing != null) {
+        contextKeys = existing;
+      }
+    }
+    return contextKeys;
+  }
+
+  private String removePendingKey(Job job) {
+    ConcurrentMap<String, String> contextKeys = pendingKeys.get(job.getRootId());
+    return contextKeys != null ? contextKeys.remove(job.getId()) : null;
+  }
+
+  private boolean isEnabled(Job job) {
+    if (!enabled) {
+      return false;
+    }
+    return CallCacheConfig.isEnabled(configuration, job.getContext() != null ? job.getContext().getConfig() : null);
+  }
+
+  /**
+   * Creates key from application hash and inputs. Returns null if some input file can't be identified.
+   */
+  private String createKey(Job job) {
+    if (!URIHelper.isApp(job.getApp())) {
+      return null;
+    }
+    Map<String, String> checksums = new HashMap<>();
+    Map<String, Future<String>> calculated = new HashMap<>();
+    try {
+      for (FileValue fileValue : BindingsFactory.create(job).getInputFiles(job)) {
+        if (!addChecksum(fileValue, checksums, calculated)) {
+          logger.debug("Job {} is not cached. Checksum of {} is unknown.", job.getId(), fileValue.getPath());
+          return null;
+        }
+      }
+      for (Entry<String, Future<String>> checksum : calculated.entrySet()) {
+        String value = checksum.getValue().get();
+        if (value == null) {
+          logger.debug("Job {} is not cached. Failed to calculate checksum of {}.", job.getId(), checksum.getKey());
+          return null;
+        }
+        checksums.put(checksum.getKey(), value);
+      }
+    } catch (BindingException | ExecutionException e) {
+      logger.error("Failed to create call cache key of job {}", job.getId(), e);
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+    String inputs = JSONHelper.writeObject(normalize(job.getInputs(), checksums));
+    return DigestUtils.sha1Hex(job.getApp() + "\n" + inputs);
+  }
+
+  /**
+   * Adds checksums of the file and its secondary files. Missing checksums of local files are calculated.
+   */
+  private boolean addChecksum(FileValue fileValue, Map<String, String> checksums, Map<String, Future<String>> calculated) {
+    String checksum = fileValue.getChecksum();
+    if (checksum != null) {
+      checksums.put(fileValue.getPath(), checksum);
+    } else {
+      File file = ftpStore ? null : getLocalFile(fileValue.getPath());
+      if (file == null || !file.isFile()) {
+        return false;
+      }
+      calculated.put(fileValue.getPath(), ChecksumHelper.checksumAsync(file, HashAlgorithm.SHA1));
+    }
+    if (fileValue.getSecondaryFiles() != null) {
+      for (FileValue secondaryFile : fileValue.getSecondaryFiles()) {
+        if (!addChecksum(secondaryFile, checksums, calculated)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if output files (with secondary files) of the cached entry are still in the backend store
+   */
+  private boolean outputsExist(Job job, Map<String, Object> outputs) throws BindingException, IOException {
+    Job cachedJob = Job.cloneWithOutputs(job, outputs);
+    for (FileValue fileValue : BindingsFactory.create(cachedJob).getOutputFiles(cachedJob)) {
+      if (!exists(fileValue)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean exists(FileValue fileValue) throws IOException {
+    String path = fileValue.getPath();
+    if (ftpStore) {
+      if (!ftpClient.exists(path)) {
+        return false;
+      }
+    } else if (!getLocalFile(path).exists()) {
+      return false;
+    }
+    if (fileValue.getSecondaryFiles() != null) {
+      for (FileValue secondaryFile : fileValue.getSecondaryFiles()) {
+        if (!exists(secondaryFile)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Resolves relative paths against the execution directory
+   */
+  private File getLocalFile(String path) {
+    File file = new File(path);
+    if (!file.isAbsolute() && executionDirectory != null) {
+      file = new File(executionDirectory, path);
+    }
+    return file;
+  }
+
+  /**
+   * Sorts map keys and replaces file locations with file names and checksums
+   */
+  @SuppressWarnings("unchecked")
+  private Object normalize(Object value, Map<String, String> checksums) {
+    if (value instanceof Map<?, ?>) {
+      Map<String, Object> map = (Map<String, Object>) value;
+      Object path = map.get(KEY_PATH);
+      boolean isFile = path instanceof String && checksums.containsKey(path);
+
+      Map<String, Object> result = new TreeMap<>();
+      for (Entry<String, Object> entry : map.entrySet()) {
+        result.put(entry.getKey(), normalize(entry.getValue(), checksums));
+      }
+      if (isFile) {
+        result.put(KEY_PATH, new File((String) path).getName());
+        result.put("checksum", checksums.get(path));
+      }
+      return result;
+    }
+    if (value instanceof List<?>) {
+      List<Object> result = new ArrayList<>();
+      for (Object item : (List<?>) value) {
+        result.add(normalize(item, checksums));
+      }
+      return result;
+    }
+    return value;
+  }
+
+  private synchronized Map<String, Object> read(String key) {
+    Long lastUsed = index.get(key);
+    if (lastUsed == null) {
+      return null;
+    }
+    File file = getFile(key);
+    if (ttl > 0 && System.currentTimeMillis() - lastUsed > ttl) {
+      evict(key);
+      return null;
+    }
+    try {
+      Map<String, Object> outputs = JSONHelper.readMap(FileUtils.readFileToString(file, StandardCharsets.UTF_8.name()));
+      long now = System.currentTimeMillis();
+      index.put(key, now);
+      file.setLastModified(now);
+      return outputs;
+    } catch (Exception e) {
+      logger.error("Failed to read call cache entry {}", file, e);
+      evict(key);
+      return null;
+    }
+  }
+
+  private synchronized void write(String key, Map<String, Object> outputs) {
+    File file = getFile(key);
+    File tmpFile = new File(directory, key + ".tmp");
+    try {
+      FileUtils.writeStringToFile(tmpFile, JSONHelper.writeObject(outputs), StandardCharsets.UTF_8.name());
+      if (!tmpFile.renameTo(file)) {
+        throw new IOException("Failed to rename " + tmpFile + " to " + file);
+      }
+    } catch (IOException e) {
+      logger.error("Failed to write call cache entry {}", file, e);
+      tmpFile.delete();
+      return;
+    }
+    index.put(key, file.lastModified());
+
+    Iterator<String> iterator = index.keySet().iterator();
+    while (index.size() > maxEntries) {
+      String eldest = iterator.next();
+      iterator.remove();
+      getFile(eldest).delete();
+    }
+  }
+
+  private synchronized void evict(String key) {
+    index.remove(key);
+    getFile(key).delete();
+  }
+
+  /**
+   * Loads the index from the cache directory
+   */
+  private synchronized void load() {
+    if (!directory.exists() && !directory.mkdirs()) {
+      logger.error("Failed to create call cache directory {}", directory);
+      return;
+    }
+    File[] files = directory.listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+        return name.endsWith(ENTRY_EXTENSION);
+      }
+    });
+    Arrays.sort(files, new Comparator<File>() {
+      @Override
+      public int compare(File file1, File file2) {
+        return Long.compare(file1.lastModified(), file2.lastModified());
+      }
+    });
+    for (File file : files) {
+      String name = file.getName();
+      index.put(name.substring(0, name.length() - ENTRY_EXTENSION.length()), file.lastModified());
+    }
+    logger.info("Call cache {} loaded with {} entries.", directory, index.size());
+  }
+
+  private File getFile(String key) {
+    return new File(directory, key + ENTRY_EXTENSION);
+  }
+
+  public static interface LookupCallback {
+
+    void hit(Job job, Map<String, Object> outputs);
+
+    void miss(Set<Job> jobs);
+
+  }
+
+}
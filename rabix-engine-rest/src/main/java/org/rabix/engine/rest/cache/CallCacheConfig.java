@@ -0,0 +1,57 @@
+package org.rabix.engine.rest.cache;
+
+import java.util.Map;
+
+import org.apache.commons.configuration.Configuration;
+
+public class CallCacheConfig {
+
+  public static final String ENABLED = "engine.call_cache.enabled";
+
+  /**
+   * Is call cache enabled. Context configuration can only disable it.
+   */
+  public static boolean isEnabled(Configuration configuration, Map<String, String> contextConfig) {
+    if (contextConfig != null && contextConfig.get(ENABLED) != null && !Boolean.parseBoolean(contextConfig.get(ENABLED).trim())) {
+      return false;
+    }
+    return isEnabled(configuration);
+  }
+
+  public static boolean isEnabled(Configuration configuration) {
+    return configuration.getBoolean(ENABLED, false);
+  }
+
+  public static String getDirectory(Configuration configuration) {
+    return configuration.getString("engine.call_cache.directory", "call-cache");
+  }
+
+  /**
+   * Maximum number of cached jobs. Least recently used entries are evicted first.
+   */
+  public static int getMaxEntries(Configuration configuration) {
+    return Math.max(1, configuration.getInt("engine.call_cache.max_entries", 10000));
+  }
+
+  /**
+   * How long (in hours) an unused entry is kept. Zero keeps entries until they are evicted.
+   */
+  public static long getTTL(Configuration configuration) {
+    return Math.max(0, configuration.getLong("engine.call_cache.ttl_hours", 0));
+  }
+
+  /**
+   * Are output files stored on FTP. Otherwise they are local files relative to the execution directory.
+   */
+  public static boolean isFTPStore(Configuration configuration) {
+    return "FTP".equalsIgnoreCase(configuration.getString("backend.store", "").trim());
+  }
+
+  /**
+   * Directory relative output paths are resolved against, null if it's not configured
+   */
+  public static String getExecutionDirectory(Configuration configuration) {
+    return configuration.getString("backend.execution.directory");
+  }
+
+}
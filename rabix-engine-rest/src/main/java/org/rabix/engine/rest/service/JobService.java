@@ -9,6 +9,9 @@ public interface JobService {
 
   void update(Job job) throws JobServiceException;
   
+  /**
+   * Gets jobs which became READY since the previous call for the same context
+   */
   Set<Job> getReady(EventProcessor eventProcessor, String contextId) throws JobServiceException;
 
   Job create(Job job) throws JobServiceException;
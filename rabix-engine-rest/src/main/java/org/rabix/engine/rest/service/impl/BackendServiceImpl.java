@@ -13,6 +13,7 @@ import org.rabix.transport.backend.Backend;
 import org.rabix.transport.backend.Backend.BackendType;
 import org.rabix.transport.backend.impl.BackendRabbitMQ;
 import org.rabix.transport.backend.impl.BackendRabbitMQ.BackendConfiguration;
+import org.rabix.transport.codec.TransportCodecFactory;
 import org.rabix.transport.mechanism.TransportPluginException;
 import org.rabix.transport.mechanism.impl.rabbitmq.TransportConfigRabbitMQ;
 
@@ -47,6 +48,10 @@ public class BackendServiceImpl implements BackendService {
   
   private <T extends Backend> T populate(T backend) {
     backend.setId(generateUniqueBackendId());
+    if (backend.getCodec() == null) {
+      // backend doesn't know about codecs and reads JSON only
+      backend.setCodec(TransportCodecFactory.DEFAULT_CODEC_TYPE);
+    }
     
     if (BackendType.RABBIT_MQ.equals(backend.getType())) {
       String backendExchange = TransportConfigRabbitMQ.getBackendExchange(configuration);
@@ -2,6 +2,7 @@ package org.rabix.engine.rest.service.impl;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -22,6 +23,8 @@ import org.rabix.engine.processor.EventProcessor;
 import org.rabix.engine.processor.EventProcessor.IterationCallback;
 import org.rabix.engine.processor.handler.EventHandlerException;
 import org.rabix.engine.rest.backend.BackendDispatcher;
+import org.rabix.engine.rest.cache.CallCache;
+import org.rabix.engine.rest.cache.CallCache.LookupCallback;
 import org.rabix.engine.rest.db.JobDB;
 import org.rabix.engine.rest.service.JobService;
 import org.rabix.engine.rest.service.JobServiceException;
@@ -49,9 +52,10 @@ public class JobServiceImpl implements JobService {
   
   private final EventProcessor eventProcessor;
   private final BackendDispatcher backendDispatcher;
+  private final CallCache callCache;
 
   @Inject
-  public JobServiceImpl(EventProcessor eventProcessor, JobRecordService jobRecordService, VariableRecordService variableRecordService, ContextRecordService contextRecordService, BackendDispatcher backendDispatcher, DAGNodeDB dagNodeDB, JobDB jobDB) {
+  public JobServiceImpl(EventProcessor eventProcessor, JobRecordService jobRecordService, VariableRecordService variableRecordService, ContextRecordService contextRecordService, BackendDispatcher backendDispatcher, CallCache callCache, DAGNodeDB dagNodeDB, JobDB jobDB) {
     this.jobDB = jobDB;
     this.dagNodeDB = dagNodeDB;
     this.eventProcessor = eventProcessor;
@@ -60,6 +64,7 @@ public class JobServiceImpl implements JobService {
     this.variableRecordService = variableRecordService;
     this.contextRecordService = contextRecordService;
     this.backendDispatcher = backendDispatcher;
+    this.callCache = callCache;
 
     List<IterationCallback> callbacks = new ArrayList<>();
     callbacks.add(new EndJobCallback());
@@ -91,6 +96,7 @@ public class JobServiceImpl implements JobService {
         statusEvent = new JobStatusEvent(job.getName(), job.getRootId(), JobState.FAILED, null);
         eventProcessor.addToQueue(statusEvent);
         backendDispatcher.remove(job);
+        callCache.remove(job);
         break;
       case COMPLETED:
         if (JobState.COMPLETED.equals(jobRecord.getState())) {
@@ -100,6 +106,7 @@ public class JobServiceImpl implements JobService {
         statusEvent = new JobStatusEvent(job.getName(), job.getRootId(), JobState.COMPLETED, job.getOutputs());
         eventProcessor.addToQueue(statusEvent);
         backendDispatcher.remove(job);
+        callCache.put(job);
         break;
       default:
         break;
@@ -152,18 +159,83 @@ public class JobServiceImpl implements JobService {
     return jobDB.get(id);
   }
 
+  /**
+   * Gets root job of the context. Jobs of contexts recovered from the journal are created from their records.
+   */
+  private Job getRootJob(String contextId) {
+    Job job = jobDB.get(contextId);
+    if (job == null) {
+      job = JobHelper.createRootJob(jobRecordService, variableRecordService, contextRecordService, dagNodeDB, contextId);
+      jobDB.add(job);
+    }
+    return job;
+  }
+
   private Context createContext(String contextId) {
     return new Context(contextId, null);
   }
   
+  /**
+   * Sends READY jobs to backends. Call cache is checked off the event processor thread, jobs which are not in the
+   * cache are dispatched from the lookup thread.
+   */
   private class SendJobsCallback implements IterationCallback {
     @Override
-    public void call(EventProcessor eventProcessor, String contextId, int iteration) throws Exception {
+    public void call(EventProcessor eventProcessor, final String contextId, int iteration) throws Exception {
       Set<Job> jobs = getReady(eventProcessor, contextId);
+      if (jobs.isEmpty()) {
+        return;
+      }
+      try {
+        for (Job job : jobs) {
+          jobDB.update(job);
+        }
+        callCache.lookup(jobs, new LookupCallback() {
+          @Override
+          public void hit(Job job, Map<String, Object> outputs) {
+            completeFromCache(job, outputs);
+          }
+
+          @Override
+          public void miss(Set<Job> jobs) {
+            send(contextId, jobs);
+          }
+        });
+      } catch (Exception e) {
+        returnReady(contextId, jobs);
+        throw e;
+      }
+    }
+
+    private void send(String contextId, Set<Job> jobs) {
+      try {
+        backendDispatcher.send(jobs);
+      } catch (Exception e) {
+        logger.error("Failed to send {} job(s) of context {}", jobs.size(), contextId, e);
+        returnReady(contextId, jobs);
+      }
+    }
+
+    /**
+     * Gives back jobs which were not sent, so they are sent on the next iteration
+     */
+    private void returnReady(String contextId, Set<Job> jobs) {
+      List<String> ids = new ArrayList<>();
       for (Job job : jobs) {
-        jobDB.update(job);
+        ids.add(job.getName());
       }
-      backendDispatcher.send(jobs);
+      jobRecordService.returnReady(contextId, ids);
+    }
+
+    /**
+     * Completes the job with cached outputs instead of sending it to a backend
+     */
+    private void completeFromCache(Job job, Map<String, Object> outputs) {
+      job = Job.cloneWithStatus(job, JobStatus.COMPLETED);
+      job = Job.cloneWithOutputs(job, outputs);
+      jobDB.update(job);
+      eventProcessor.addToQueue(new JobStatusEvent(job.getName(), job.getRootId(), JobState.COMPLETED, outputs));
+      logger.info("Job {} completed from the call cache.", job.getName());
     }
   }
 
@@ -175,15 +247,17 @@ public class JobServiceImpl implements JobService {
       Job job = null;
       switch (context.getStatus()) {
       case COMPLETED:
-        job = jobDB.get(contextId);
+        job = getRootJob(contextId);
         job = Job.cloneWithStatus(job, JobStatus.COMPLETED);
         job = JobHelper.fillOutputs(job, jobRecordService, variableRecordService);
         jobDB.update(job);
+        callCache.removeContext(contextId);
         break;
       case FAILED:
-        job = jobDB.get(contextId);
+        job = getRootJob(contextId);
         job = Job.cloneWithStatus(job, JobStatus.FAILED);
         jobDB.update(job);
+        callCache.removeContext(contextId);
         break;
       default:
         break;
@@ -0,0 +1,113 @@
+package org.rabix.engine.rest.backend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.rabix.bindings.app.AppRegistry;
+import org.rabix.bindings.model.Context;
+import org.rabix.bindings.model.Job;
+import org.rabix.bindings.model.Job.JobStatus;
+import org.rabix.engine.rest.backend.stub.BackendStub;
+import org.rabix.transport.backend.Backend;
+import org.rabix.transport.backend.HeartbeatInfo;
+import org.rabix.transport.backend.impl.BackendLocal;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class BackendDispatcherTest {
+
+  private static final String APP = "{\"class\":\"CommandLineTool\",\"id\":\"#echo\",\"baseCommand\":[\"echo\"],\"inputs\":[],\"outputs\":[]}";
+
+  private String app;
+  private BackendDispatcher backendDispatcher;
+  private RecordingBackendStub backendStub;
+
+  @BeforeMethod
+  public void setUp() {
+    app = AppRegistry.register(APP);
+    backendDispatcher = new BackendDispatcher(new BaseConfiguration());
+    backendStub = new RecordingBackendStub("backend");
+    backendDispatcher.addBackendStub(backendStub);
+    heartbeat(System.currentTimeMillis(), 4);
+  }
+
+  @Test
+  public void testJobsSentAfterHeartbeatAreCounted() {
+    backendDispatcher.send(jobs(0, 4));
+    Assert.assertEquals(backendStub.sent.size(), 4);
+
+    // heartbeat taken before the jobs arrived still reports the whole backend as free
+    heartbeat(System.currentTimeMillis() - 1000, 4);
+    backendDispatcher.send(jobs(4, 5));
+    Assert.assertEquals(backendStub.sent.size(), 4);
+
+    heartbeat(System.currentTimeMillis() + 1000, 0);
+    Assert.assertEquals(backendStub.sent.size(), 4);
+
+    backendDispatcher.remove(backendStub.sent.get(0));
+    Assert.assertEquals(backendStub.sent.size(), 5);
+  }
+
+  @Test
+  public void testJobsAreSentOnce() {
+    backendDispatcher.send(jobs(0, 6));
+    backendDispatcher.send(jobs(0, 6));
+    Assert.assertEquals(backendStub.sent.size(), 4);
+
+    heartbeat(System.currentTimeMillis() + 1000, 4);
+    Assert.assertEquals(backendStub.sent.size(), 6);
+    Assert.assertEquals(new HashSet<>(backendStub.sent), jobs(0, 6));
+  }
+
+  private void heartbeat(long timestamp, int freeCpu) {
+    backendStub.heartbeatCallback.heartbeat(new HeartbeatInfo(backendStub.getBackend().getId(), timestamp, 4, 1024L, freeCpu, 1024L, 4 - freeCpu, 0));
+  }
+
+  private HashSet<Job> jobs(int from, int to) {
+    HashSet<Job> jobs = new HashSet<>();
+    for (int i = from; i < to; i++) {
+      jobs.add(new Job("root.echo_" + i, "root", "root", "root.echo_" + i, app, JobStatus.READY, Collections.<String, Object>emptyMap(), null, new Context("root", null)));
+    }
+    return jobs;
+  }
+
+  /**
+   * Backend stub which records sent jobs
+   */
+  private static class RecordingBackendStub implements BackendStub {
+
+    private final Backend backend;
+    private final List<Job> sent = new ArrayList<>();
+    private HeartbeatCallback heartbeatCallback;
+
+    private RecordingBackendStub(String id) {
+      this.backend = new BackendLocal();
+      this.backend.setId(id);
+    }
+
+    @Override
+    public void start(HeartbeatCallback heartbeatCallback) {
+      this.heartbeatCallback = heartbeatCallback;
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    @Override
+    public void send(List<Job> jobs) {
+      sent.addAll(jobs);
+    }
+
+    @Override
+    public Backend getBackend() {
+      return backend;
+    }
+  }
+
+}
@@ -0,0 +1,229 @@
+package org.rabix.engine.rest.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.io.FileUtils;
+import org.rabix.bindings.app.AppRegistry;
+import org.rabix.bindings.model.Context;
+import org.rabix.bindings.model.Job;
+import org.rabix.bindings.model.Job.JobStatus;
+import org.rabix.engine.rest.cache.CallCache.LookupCallback;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class CallCacheTest {
+
+  private static final String APP = "{\"class\":\"CommandLineTool\",\"id\":\"#cat\",\"baseCommand\":[\"cat\"],"
+      + "\"inputs\":[{\"id\":\"#file\",\"type\":\"File\"},{\"id\":\"#lines\",\"type\":\"int\"}],"
+      + "\"outputs\":[{\"id\":\"#out\",\"type\":\"File\",\"outputBinding\":{\"glob\":\"out.txt\"}}]}";
+
+  private File directory;
+  private File cacheDirectory;
+  private String app;
+
+  @BeforeMethod
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("call-cache-test").toFile();
+    cacheDirectory = new File(directory, "cache");
+    app = AppRegistry.register(APP);
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void testHitAndMiss() throws IOException {
+    CallCache callCache = new CallCache(createConfiguration(10, 0), null);
+    Job job = createJob("context1", fileWithChecksum("/data/first/input.txt", "sha1$aaa"), 10);
+
+    Assert.assertNull(callCache.get(job));
+    callCache.put(complete(job, "out1"));
+    Assert.assertNotNull(callCache.get(createJob("context2", fileWithChecksum("/data/first/input.txt", "sha1$aaa"), 10)));
+
+    Assert.assertNull(callCache.get(createJob("context3", fileWithChecksum("/data/first/input.txt", "sha1$bbb"), 10)));
+    Assert.assertNull(callCache.get(createJob("context4", fileWithChecksum("/data/first/input.txt", "sha1$aaa"), 20)));
+  }
+
+  @Test
+  public void testKeyIgnoresLocationAndOrder() throws IOException {
+    CallCache callCache = new CallCache(createConfiguration(10, 0), null);
+    Job job = createJob("context1", fileWithChecksum("/data/first/input.txt", "sha1$aaa"), 10);
+    Assert.assertNull(callCache.get(job));
+    callCache.put(complete(job, "out1"));
+
+    // same file in another directory, inputs in different order
+    Map<String, Object> inputs = new LinkedHashMap<>();
+    inputs.put("lines", 10);
+    inputs.put("file", fileWithChecksum("/other/location/input.txt", "sha1$aaa"));
+    Map<String, Object> outputs = callCache.get(new Job("context2.cat", "context2", "context2", "root.cat", app, JobStatus.READY, inputs, null, new Context("context2", null)));
+    Assert.assertNotNull(outputs);
+    Assert.assertEquals(outputs, complete(job, "out1").getOutputs());
+  }
+
+  @Test
+  public void testMissingChecksumIsCalculated() throws IOException {
+    CallCache callCache = new CallCache(createConfiguration(10, 0), null);
+    File first = new File(directory, "first/input.txt");
+    File second = new File(directory, "second/input.txt");
+    FileUtils.writeStringToFile(first, "content", "UTF-8");
+    FileUtils.writeStringToFile(second, "content", "UTF-8");
+
+    Job job = createJob("context1", file(first.getAbsolutePath()), 10);
+    Assert.assertNull(callCache.get(job));
+    callCache.put(complete(job, "out1"));
+    Assert.assertNotNull(callCache.get(createJob("context2", file(second.getAbsolutePath()), 10)));
+
+    FileUtils.writeStringToFile(second, "changed", "UTF-8");
+    Assert.assertNull(callCache.get(createJob("context3", file(second.getAbsolutePath()), 10)));
+
+    // files which can't be read are not cached
+    Job remote = createJob("context4", file(new File(directory, "missing.txt").getAbsolutePath()), 10);
+    Assert.assertNull(callCache.get(remote));
+    callCache.put(complete(remote, "out2"));
+    Assert.assertNull(callCache.get(remote));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() throws IOException {
+    CallCache callCache = new CallCache(createConfiguration(2, 0), null);
+    Job first = cache(callCache, "context1", "sha1$aaa");
+    Job second = cache(callCache, "context2", "sha1$bbb");
+    Assert.assertNotNull(callCache.get(first));
+
+    Job third = cache(callCache, "context3", "sha1$ccc");
+    Assert.assertNotNull(callCache.get(first));
+    Assert.assertNotNull(callCache.get(third));
+    Assert.assertNull(callCache.get(second));
+    Assert.assertEquals(cacheDirectory.list().length, 2);
+
+    // order survives restart
+    callCache = new CallCache(createConfiguration(2, 0), null);
+    Assert.assertNotNull(callCache.get(first));
+    Assert.assertNotNull(callCache.get(third));
+  }
+
+  @Test
+  public void testExpiredEntryIsEvicted() throws IOException {
+    CallCache callCache = new CallCache(createConfiguration(10, 1), null);
+    Job job = cache(callCache, "context1", "sha1$aaa");
+    Assert.assertNotNull(callCache.get(job));
+
+    for (File file : cacheDirectory.listFiles()) {
+      file.setLastModified(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2));
+    }
+    callCache = new CallCache(createConfiguration(10, 1), null);
+    Assert.assertNull(callCache.get(job));
+    Assert.assertEquals(cacheDirectory.list().length, 0);
+  }
+
+  @Test
+  public void testEntryWithMissingOutputIsEvicted() throws IOException {
+    CallCache callCache = new CallCache(createConfiguration(10, 0), null);
+    Job job = cache(callCache, "context1", "sha1$aaa");
+    Assert.assertNotNull(callCache.get(job));
+
+    Assert.assertTrue(new File(directory, "out1").delete());
+    Assert.assertNull(callCache.get(job));
+    Assert.assertEquals(cacheDirectory.list().length, 0);
+
+    FileUtils.writeStringToFile(new File(directory, "out1"), "output", "UTF-8");
+    Assert.assertNull(callCache.get(job));
+  }
+
+  @Test
+  public void testLookup() throws Exception {
+    CallCache callCache = new CallCache(createConfiguration(10, 0), null);
+    final Job cached = cache(callCache, "context1", "sha1$aaa");
+    final Job missing = createJob("context2", fileWithChecksum("/data/first/input.txt", "sha1$bbb"), 10);
+
+    final Set<String> hits = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    final Set<String> misses = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    final CountDownLatch latch = new CountDownLatch(1);
+    callCache.lookup(new HashSet<>(Arrays.asList(cached, missing)), new LookupCallback() {
+      @Override
+      public void hit(Job job, Map<String, Object> outputs) {
+        hits.add(job.getRootId());
+      }
+
+      @Override
+      public void miss(Set<Job> jobs) {
+        for (Job job : jobs) {
+          misses.add(job.getRootId());
+        }
+        latch.countDown();
+      }
+    });
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    Assert.assertEquals(hits, Collections.singleton("context1"));
+    Assert.assertEquals(misses, Collections.singleton("context2"));
+  }
+
+  /**
+   * Runs the job through the cache and stores its outputs
+   */
+  private Job cache(CallCache callCache, String contextId, String checksum) throws IOException {
+    Job job = createJob(contextId, fileWithChecksum("/data/first/input.txt", checksum), 10);
+    Assert.assertNull(callCache.get(job));
+    callCache.put(complete(job, "out" + contextId.substring("context".length())));
+    return job;
+  }
+
+  private Configuration createConfiguration(int maxEntries, long ttl) {
+    Configuration configuration = new BaseConfiguration();
+    configuration.setProperty("engine.call_cache.enabled", true);
+    configuration.setProperty("engine.call_cache.directory", cacheDirectory.getAbsolutePath());
+    configuration.setProperty("engine.call_cache.max_entries", maxEntries);
+    configuration.setProperty("engine.call_cache.ttl_hours", ttl);
+    return configuration;
+  }
+
+  private Job createJob(String contextId, Map<String, Object> file, int lines) {
+    Map<String, Object> inputs = new HashMap<>();
+    inputs.put("file", file);
+    inputs.put("lines", lines);
+    return new Job(contextId + ".cat", contextId, contextId, "root.cat", app, JobStatus.READY, inputs, null, new Context(contextId, null));
+  }
+
+  /**
+   * Creates the output file and completes the job with it
+   */
+  private Job complete(Job job, String output) throws IOException {
+    FileUtils.writeStringToFile(new File(directory, output), "output", "UTF-8");
+    Map<String, Object> outputs = new HashMap<>();
+    outputs.put("out", file(new File(directory, output).getAbsolutePath()));
+    return Job.cloneWithOutputs(Job.cloneWithStatus(job, JobStatus.COMPLETED), outputs);
+  }
+
+  private Map<String, Object> file(String path) {
+    Map<String, Object> file = new HashMap<>();
+    file.put("class", "File");
+    file.put("path", path);
+    return file;
+  }
+
+  private Map<String, Object> fileWithChecksum(String path, String checksum) {
+    Map<String, Object> file = file(path);
+    file.put("checksum", checksum);
+    return file;
+  }
+
+}
@@ -1,6 +1,7 @@
 package org.rabix.engine;
 
 import org.rabix.engine.db.DAGNodeDB;
+import org.rabix.engine.journal.JournalService;
 import org.rabix.engine.processor.EventProcessor;
 import org.rabix.engine.processor.dispatcher.EventDispatcherFactory;
 import org.rabix.engine.processor.handler.HandlerFactory;
@@ -29,6 +30,7 @@ public class EngineModule extends AbstractModule {
     bind(VariableRecordService.class).in(Scopes.SINGLETON);
     bind(LinkRecordService.class).in(Scopes.SINGLETON);
     bind(ContextRecordService.class).in(Scopes.SINGLETON);
+    bind(JournalService.class).in(Scopes.SINGLETON);
 
     bind(ScatterHandler.class).in(Scopes.SINGLETON);
     bind(InitEventHandler.class).in(Scopes.SINGLETON);
@@ -1,5 +1,6 @@
 package org.rabix.engine;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -7,7 +8,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
-import org.rabix.bindings.helper.URIHelper;
 import org.rabix.bindings.model.Context;
 import org.rabix.bindings.model.Job;
 import org.rabix.bindings.model.Job.JobStatus;
@@ -28,11 +28,18 @@ public class JobHelper {
     return UUID.randomUUID().toString();
   }
   
+  /**
+   * Creates {@link Job}s for jobs which became READY since the previous call. If it fails, polled jobs are given back
+   * to the {@link JobRecordService}.
+   */
   public static Set<Job> createReadyJobs(JobRecordService jobRecordService, VariableRecordService variableRecordService, ContextRecordService contextRecordService, DAGNodeDB dagNodeDB, String contextId) {
     Set<Job> jobs = new HashSet<>();
-    List<JobRecord> jobRecords = jobRecordService.findReady(contextId);
+    List<JobRecord> jobRecords = jobRecordService.pollReady(contextId);
 
-    if (!jobRecords.isEmpty()) {
+    if (jobRecords.isEmpty()) {
+      return jobs;
+    }
+    try {
       for (JobRecord job : jobRecords) {
         DAGNode node = dagNodeDB.get(InternalSchemaHelper.normalizeId(job.getId()), contextId);
 
@@ -43,13 +50,42 @@ public class JobHelper {
         }
         ContextRecord contextRecord = contextRecordService.find(job.getRootId());
         Context context = new Context(job.getRootId(), contextRecord.getConfig());
-        String encodedApp = URIHelper.createDataURI(node.getApp().serialize());
-        jobs.add(new Job(job.getExternalId(), job.getParentId(), job.getRootId(), job.getId(), encodedApp, JobStatus.READY, inputs, null, context));
+        String appURI = dagNodeDB.getAppURI(node, contextId);
+        jobs.add(new Job(job.getExternalId(), job.getParentId(), job.getRootId(), job.getId(), appURI, JobStatus.READY, inputs, null, context));
+      }
+    } catch (RuntimeException e) {
+      List<String> ids = new ArrayList<>();
+      for (JobRecord job : jobRecords) {
+        ids.add(job.getId());
       }
+      jobRecordService.returnReady(contextId, ids);
+      throw e;
     }
     return jobs;
   }
   
+  /**
+   * Creates root {@link Job} of the context from its records. Used when the job is recovered from the journal.
+   */
+  public static Job createRootJob(JobRecordService jobRecordService, VariableRecordService variableRecordService, ContextRecordService contextRecordService, DAGNodeDB dagNodeDB, String contextId) {
+    JobRecord jobRecord = jobRecordService.findRoot(contextId);
+    if (jobRecord == null) {
+      return null;
+    }
+    DAGNode node = dagNodeDB.get(jobRecord.getId(), contextId);
+
+    Map<String, Object> inputs = new HashMap<>();
+    List<VariableRecord> inputVariables = variableRecordService.find(jobRecord.getId(), LinkPortType.INPUT, contextId);
+    for (VariableRecord inputVariable : inputVariables) {
+      inputs.put(inputVariable.getPortId(), inputVariable.getValue());
+    }
+    ContextRecord contextRecord = contextRecordService.find(contextId);
+    Context context = new Context(contextId, contextRecord.getConfig());
+    // DAG of a finished context isn't restored from the snapshot
+    String appURI = node != null ? dagNodeDB.getAppURI(node, contextId) : null;
+    return new Job(contextId, null, contextId, jobRecord.getId(), appURI, JobStatus.RUNNING, inputs, null, context);
+  }
+  
   public static Job fillOutputs(Job job, JobRecordService jobRecordService, VariableRecordService variableRecordService) {
     JobRecord jobRecord = jobRecordService.findRoot(job.getContext().getId());
     List<VariableRecord> outputVariables = variableRecordService.find(jobRecord.getId(), LinkPortType.OUTPUT, job.getContext().getId());
@@ -0,0 +1,51 @@
+package org.rabix.engine.config;
+
+import java.util.Map;
+
+import org.apache.commons.configuration.Configuration;
+
+public class EngineConfig {
+
+  public static final String SCATTER_WINDOW = "engine.scatter.window";
+
+  public static int getEventProcessorCount(Configuration configuration) {
+    return configuration.getInt("engine.event_processor.count", Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Maximum number of running scattered jobs per scatter (0 for no limit). Context configuration overrides the engine one.
+   */
+  public static int getScatterWindow(Configuration configuration, Map<String, String> contextConfig) {
+    if (contextConfig != null && contextConfig.get(SCATTER_WINDOW) != null) {
+      return Integer.parseInt(contextConfig.get(SCATTER_WINDOW).trim());
+    }
+    return configuration.getInt(SCATTER_WINDOW, 0);
+  }
+
+  public static boolean isJournalEnabled(Configuration configuration) {
+    return configuration.getBoolean("engine.journal.enabled", false);
+  }
+
+  public static String getJournalDirectory(Configuration configuration) {
+    return configuration.getString("engine.journal.directory", "journal");
+  }
+
+  public static int getJournalSegmentSize(Configuration configuration) {
+    return configuration.getInt("engine.journal.segment_size_mb", 64) * 1024 * 1024;
+  }
+
+  /**
+   * Interval in milliseconds between two forces of the journal to disk
+   */
+  public static long getJournalFlushInterval(Configuration configuration) {
+    return configuration.getLong("engine.journal.flush_interval_ms", 10);
+  }
+
+  /**
+   * Interval in seconds between two snapshots of the engine state
+   */
+  public static long getSnapshotInterval(Configuration configuration) {
+    return configuration.getLong("engine.snapshot.interval_s", 300);
+  }
+
+}
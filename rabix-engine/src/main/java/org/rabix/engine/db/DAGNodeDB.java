@@ -3,6 +3,7 @@ package org.rabix.engine.db;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.rabix.bindings.app.AppRegistry;
 import org.rabix.bindings.model.dag.DAGContainer;
 import org.rabix.bindings.model.dag.DAGNode;
 
@@ -12,9 +13,11 @@ import org.rabix.bindings.model.dag.DAGNode;
 public class DAGNodeDB {
 
   private final Map<String, Map<String, DAGNode>> nodes;
+  private final Map<String, Map<String, String>> appURIs;
   
   public DAGNodeDB() {
     this.nodes = new HashMap<>();
+    this.appURIs = new HashMap<>();
   }
   
   /**
@@ -25,6 +28,32 @@ public class DAGNodeDB {
     return contextNodes == null ? null : contextNodes.get(id);
   }
   
+  /**
+   * Gets app URI of the node. Application is serialized and registered in {@link AppRegistry} only once per node and
+   * stays pinned there until the context is released.
+   */
+  public synchronized String getAppURI(DAGNode node, String contextId) {
+    Map<String, String> contextAppURIs = appURIs.get(contextId);
+    if (contextAppURIs == null) {
+      return AppRegistry.register(node.getApp().serialize());
+    }
+    String appURI = contextAppURIs.get(node.getId());
+    if (appURI == null) {
+      appURI = AppRegistry.register(node.getApp().serialize(), contextId);
+      contextAppURIs.put(node.getId(), appURI);
+    }
+    return appURI;
+  }
+
+  /**
+   * Unpins applications of the finished context
+   */
+  public synchronized void release(String contextId) {
+    if (appURIs.remove(contextId) != null) {
+      AppRegistry.release(contextId);
+    }
+  }
+  
   /**
    * Loads node into the repository recursively
    */
@@ -33,6 +62,7 @@ public class DAGNodeDB {
     if (contextNodes == null) {
       contextNodes = new HashMap<>();
       nodes.put(contextId, contextNodes);
+      appURIs.put(contextId, new HashMap<String, String>());
     }
     add(node, contextId);
     
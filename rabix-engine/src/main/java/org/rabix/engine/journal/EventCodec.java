@@ -0,0 +1,266 @@
+package org.rabix.engine.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.rabix.bindings.BindingException;
+import org.rabix.bindings.BindingsFactory;
+import org.rabix.bindings.app.AppRegistry;
+import org.rabix.bindings.model.Context;
+import org.rabix.bindings.model.Job;
+import org.rabix.bindings.model.dag.DAGNode;
+import org.rabix.engine.event.Event;
+import org.rabix.engine.event.Event.EventType;
+import org.rabix.engine.event.impl.ContextStatusEvent;
+import org.rabix.engine.event.impl.InitEvent;
+import org.rabix.engine.event.impl.InputUpdateEvent;
+import org.rabix.engine.event.impl.JobStatusEvent;
+import org.rabix.engine.event.impl.OutputUpdateEvent;
+import org.rabix.engine.model.ContextRecord.ContextStatus;
+import org.rabix.engine.service.JobRecordService.JobState;
+
+/**
+ * Binary encoding of {@link Event}s for the journal. Values are written with type tags (JSON-like values are encoded
+ * directly, other {@link Serializable} objects with Java serialization).
+ * <p>
+ * {@link InitEvent} is written with the serialized root application instead of the DAG. The DAG is translated again on
+ * decode.
+ */
+public class EventCodec {
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INTEGER = 2;
+  private static final byte LONG = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte FLOAT = 5;
+  private static final byte BOOLEAN = 6;
+  private static final byte MAP = 7;
+  private static final byte LIST = 8;
+  private static final byte OBJECT = 9;
+
+  public static byte[] encode(Event event) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeByte(event.getType().ordinal());
+
+    switch (event.getType()) {
+    case INIT:
+      InitEvent initEvent = (InitEvent) event;
+      writeString(out, initEvent.getContext().getId());
+      writeValue(out, initEvent.getContext().getConfig());
+      writeString(out, initEvent.getRootId());
+      writeString(out, initEvent.getNode().getApp().serialize());
+      writeValue(out, initEvent.getValue());
+      break;
+    case INPUT_UPDATE:
+      InputUpdateEvent inputEvent = (InputUpdateEvent) event;
+      writeString(out, inputEvent.getContextId());
+      writeString(out, inputEvent.getJobId());
+      writeString(out, inputEvent.getPortId());
+      writeValue(out, inputEvent.getValue());
+      out.writeBoolean(inputEvent.isLookAhead());
+      writeValue(out, inputEvent.getNumberOfScattered());
+      writeValue(out, inputEvent.getPosition());
+      break;
+    case OUTPUT_UPDATE:
+      OutputUpdateEvent outputEvent = (OutputUpdateEvent) event;
+      writeString(out, outputEvent.getContextId());
+      writeString(out, outputEvent.getJobId());
+      writeString(out, outputEvent.getPortId());
+      writeValue(out, outputEvent.getValue());
+      out.writeBoolean(outputEvent.isFromScatter());
+      writeValue(out, outputEvent.getNumberOfScattered());
+      writeValue(out, outputEvent.getPosition());
+      break;
+    case JOB_STATUS_UPDATE:
+      JobStatusEvent jobStatusEvent = (JobStatusEvent) event;
+      writeString(out, jobStatusEvent.getContextId());
+      writeString(out, jobStatusEvent.getJobId());
+      writeString(out, jobStatusEvent.getState().name());
+      writeValue(out, jobStatusEvent.getResult());
+      break;
+    case CONTEXT_STATUS_UPDATE:
+      ContextStatusEvent contextStatusEvent = (ContextStatusEvent) event;
+      writeString(out, contextStatusEvent.getContextId());
+      writeString(out, contextStatusEvent.getStatus().name());
+      break;
+    default:
+      throw new IOException("Unsupported event type " + event.getType());
+    }
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  @SuppressWarnings("unchecked")
+  public static Event decode(byte[] data) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+    EventType type = EventType.values()[in.readUnsignedByte()];
+
+    switch (type) {
+    case INIT:
+      Context context = new Context(readString(in), (Map<String, String>) readValue(in));
+      String rootId = readString(in);
+      String app = readString(in);
+      Map<String, Object> value = (Map<String, Object>) readValue(in);
+      return new InitEvent(context, rootId, translate(app, value), value);
+    case INPUT_UPDATE:
+      return new InputUpdateEvent(readString(in), readString(in), readString(in), readValue(in), in.readBoolean(), (Integer) readValue(in), (Integer) readValue(in));
+    case OUTPUT_UPDATE:
+      return new OutputUpdateEvent(readString(in), readString(in), readString(in), readValue(in), in.readBoolean(), (Integer) readValue(in), (Integer) readValue(in));
+    case JOB_STATUS_UPDATE:
+      String contextId = readString(in);
+      return new JobStatusEvent(readString(in), contextId, JobState.valueOf(readString(in)), (Map<String, Object>) readValue(in));
+    case CONTEXT_STATUS_UPDATE:
+      return new ContextStatusEvent(readString(in), ContextStatus.valueOf(readString(in)));
+    default:
+      throw new IOException("Unsupported event type " + type);
+    }
+  }
+
+  /**
+   * Translates the root application into DAG
+   */
+  private static DAGNode translate(String app, Map<String, Object> inputs) throws IOException {
+    try {
+      String appURI = AppRegistry.register(app);
+      return BindingsFactory.create(appURI).translateToDAG(new Job(appURI, inputs));
+    } catch (BindingException e) {
+      throw new IOException("Failed to translate application", e);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeValue(DataOutputStream out, Object value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+    } else if (value instanceof String) {
+      out.writeByte(STRING);
+      writeString(out, (String) value);
+    } else if (value instanceof Integer) {
+      out.writeByte(INTEGER);
+      out.writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+    } else if (value instanceof Float) {
+      out.writeByte(FLOAT);
+      out.writeFloat((Float) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte(BOOLEAN);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof Map<?, ?> && isStringKeyed((Map<?, ?>) value)) {
+      out.writeByte(MAP);
+      out.writeInt(((Map<?, ?>) value).size());
+      for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        writeString(out, (String) entry.getKey());
+        writeValue(out, entry.getValue());
+      }
+    } else if (value instanceof List<?>) {
+      out.writeByte(LIST);
+      out.writeInt(((List<?>) value).size());
+      for (Object item : (List<?>) value) {
+        writeValue(out, item);
+      }
+    } else if (value instanceof Serializable) {
+      out.writeByte(OBJECT);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+        objectOut.writeObject(value);
+      }
+      out.writeInt(bytes.size());
+      bytes.writeTo(out);
+    } else {
+      throw new IOException("Value of type " + value.getClass().getName() + " can't be journaled");
+    }
+  }
+
+  private static Object readValue(DataInputStream in) throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+    case NULL:
+      return null;
+    case STRING:
+      return readString(in);
+    case INTEGER:
+      return in.readInt();
+    case LONG:
+      return in.readLong();
+    case DOUBLE:
+      return in.readDouble();
+    case FLOAT:
+      return in.readFloat();
+    case BOOLEAN:
+      return in.readBoolean();
+    case MAP:
+      int size = in.readInt();
+      Map<String, Object> map = new LinkedHashMap<>();
+      for (int i = 0; i < size; i++) {
+        String key = readString(in);
+        map.put(key, readValue(in));
+      }
+      return map;
+    case LIST:
+      int length = in.readInt();
+      List<Object> list = new ArrayList<>(length);
+      for (int i = 0; i < length; i++) {
+        list.add(readValue(in));
+      }
+      return list;
+    case OBJECT:
+      byte[] bytes = new byte[in.readInt()];
+      in.readFully(bytes);
+      try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+        return objectIn.readObject();
+      } catch (ClassNotFoundException e) {
+        throw new IOException("Failed to read journaled value", e);
+      }
+    default:
+      throw new IOException("Unknown value tag " + tag);
+    }
+  }
+
+  private static boolean isStringKeyed(Map<?, ?> map) {
+    for (Object key : map.keySet()) {
+      if (!(key instanceof String)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,286 @@
+package org.rabix.engine.journal;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only journal of records in memory-mapped segment files. Each record gets the next sequence number.
+ * <p>
+ * Appending copies the record into the mapped segment, so it survives a crash of the process right away. Segments are
+ * forced to disk by a background thread every flush interval (group commit), so an OS crash loses at most the records
+ * of the last interval.
+ * <p>
+ * Record layout: payload length (int), CRC32 of flags and payload (int), sequence (long), flags (byte), payload. The end
+ * of a segment is marked by zero length. Reading stops at the first incomplete or corrupted record.
+ */
+public class EventJournal {
+
+  private final static Logger logger = LoggerFactory.getLogger(EventJournal.class);
+
+  private static final String SEGMENT_EXTENSION = ".journal";
+  private static final int HEADER_SIZE = 4 + 4 + 8 + 1;
+
+  private final File directory;
+  private final int segmentSize;
+
+  private final TreeMap<Long, File> segments = new TreeMap<>();
+
+  private MappedByteBuffer current;
+  private int position;
+  private long nextSequence = 1;
+  private boolean dirty = false;
+
+  private final ScheduledExecutorService flusher;
+
+  public EventJournal(File directory, int segmentSize, long flushInterval) throws IOException {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+
+    if (!directory.exists() && !directory.mkdirs()) {
+      throw new IOException("Failed to create journal directory " + directory);
+    }
+    File[] files = directory.listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+        return name.endsWith(SEGMENT_EXTENSION);
+      }
+    });
+    for (File file : files) {
+      String name = file.getName();
+      segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_EXTENSION.length())), file);
+    }
+    if (!segments.isEmpty()) {
+      openLastSegment();
+    }
+
+    this.flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "journal-flusher");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    this.flusher.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          flush();
+        } catch (Exception e) {
+          logger.error("Failed to flush journal", e);
+        }
+      }
+    }, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Appends record and returns its sequence number
+   */
+  public synchronized long append(byte[] payload, byte flags) throws IOException {
+    int recordSize = HEADER_SIZE + payload.length;
+    if (current == null || current.capacity() - position < recordSize + 4) {
+      roll(recordSize + 4);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(flags);
+    crc.update(payload);
+
+    long sequence = nextSequence++;
+    current.putInt(position + 4, (int) crc.getValue());
+    current.putLong(position + 8, sequence);
+    current.put(position + 16, flags);
+    current.position(position + HEADER_SIZE);
+    current.put(payload);
+    current.putInt(position, payload.length);
+
+    position += recordSize;
+    dirty = true;
+    return sequence;
+  }
+
+  /**
+   * Reads records with sequence greater than the given one
+   */
+  public synchronized void read(long afterSequence, RecordHandler handler) throws IOException {
+    long expectedSequence = -1;
+    for (Entry<Long, File> segment : segments.entrySet()) {
+      MappedByteBuffer buffer = map(segment.getValue(), MapMode.READ_ONLY, 0);
+      int offset = 0;
+      while (offset + HEADER_SIZE <= buffer.capacity()) {
+        Record record = readRecord(buffer, offset);
+        if (record == null) {
+          break;
+        }
+        if (expectedSequence != -1 && record.sequence != expectedSequence) {
+          logger.error("Journal segment {} is out of order. Expected sequence {}, got {}.", segment.getValue(), expectedSequence, record.sequence);
+          return;
+        }
+        expectedSequence = record.sequence + 1;
+        if (record.sequence > afterSequence) {
+          handler.handle(record.sequence, record.flags, record.payload);
+        }
+        offset += HEADER_SIZE + record.payload.length;
+      }
+    }
+  }
+
+  /**
+   * Gets sequence of the last appended record
+   */
+  public synchronized long getLastSequence() {
+    return nextSequence - 1;
+  }
+
+  /**
+   * Deletes segments which contain only records up to the given sequence. The current segment is kept.
+   */
+  public synchronized void deleteUpTo(long sequence) {
+    List<Long> covered = new ArrayList<>();
+    Long previous = null;
+    for (Long firstSequence : segments.keySet()) {
+      if (previous != null && firstSequence - 1 <= sequence) {
+        covered.add(previous);
+      }
+      previous = firstSequence;
+    }
+    for (Long firstSequence : covered) {
+      File file = segments.remove(firstSequence);
+      if (!file.delete()) {
+        logger.warn("Failed to delete journal segment {}", file);
+      }
+    }
+  }
+
+  /**
+   * Forces appended records to disk
+   */
+  public void flush() {
+    MappedByteBuffer buffer;
+    synchronized (this) {
+      if (!dirty) {
+        return;
+      }
+      dirty = false;
+      buffer = current;
+    }
+    buffer.force();
+  }
+
+  public void close() {
+    flusher.shutdownNow();
+    flush();
+  }
+
+  /**
+   * Opens new segment which fits at least the given number of bytes
+   */
+  private void roll(int minimumSize) throws IOException {
+    if (current != null) {
+      current.force();
+    }
+    File file = new File(directory, String.format("%020d%s", nextSequence, SEGMENT_EXTENSION));
+    current = map(file, MapMode.READ_WRITE, Math.max(segmentSize, minimumSize));
+    position = 0;
+    segments.put(nextSequence, file);
+    logger.debug("Journal segment {} created", file);
+  }
+
+  /**
+   * Finds the end of the last segment and continues appending there. Anything after the last valid record is cleared.
+   */
+  private void openLastSegment() throws IOException {
+    Entry<Long, File> last = segments.lastEntry();
+    MappedByteBuffer buffer = map(last.getValue(), MapMode.READ_WRITE, 0);
+
+    long sequence = last.getKey();
+    int offset = 0;
+    while (offset + HEADER_SIZE <= buffer.capacity()) {
+      Record record = readRecord(buffer, offset);
+      if (record == null || record.sequence != sequence) {
+        break;
+      }
+      sequence++;
+      offset += HEADER_SIZE + record.payload.length;
+    }
+    for (int i = offset; i < buffer.capacity() && buffer.get(i) != 0; i++) {
+      buffer.put(i, (byte) 0);
+    }
+    current = buffer;
+    position = offset;
+    nextSequence = sequence;
+  }
+
+  private Record readRecord(MappedByteBuffer buffer, int offset) {
+    int length = buffer.getInt(offset);
+    if (length <= 0 || offset + HEADER_SIZE + length > buffer.capacity()) {
+      return null;
+    }
+    int checksum = buffer.getInt(offset + 4);
+    long sequence = buffer.getLong(offset + 8);
+    byte flags = buffer.get(offset + 16);
+
+    byte[] payload = new byte[length];
+    for (int i = 0; i < length; i++) {
+      payload[i] = buffer.get(offset + HEADER_SIZE + i);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(flags);
+    crc.update(payload);
+    if ((int) crc.getValue() != checksum) {
+      return null;
+    }
+    return new Record(sequence, flags, payload);
+  }
+
+  /**
+   * Maps the file. Existing files are mapped whole if size is 0.
+   */
+  private static MappedByteBuffer map(File file, MapMode mode, long size) throws IOException {
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, mode == MapMode.READ_ONLY ? "r" : "rw")) {
+      if (size > 0) {
+        randomAccessFile.setLength(size);
+      }
+      FileChannel channel = randomAccessFile.getChannel();
+      return channel.map(mode, 0, channel.size());
+    }
+  }
+
+  private static class Record {
+    private final long sequence;
+    private final byte flags;
+    private final byte[] payload;
+
+    private Record(long sequence, byte flags, byte[] payload) {
+      this.sequence = sequence;
+      this.flags = flags;
+      this.payload = payload;
+    }
+  }
+
+  /**
+   * Handles records read from the journal
+   */
+  public static interface RecordHandler {
+
+    void handle(long sequence, byte flags, byte[] payload) throws IOException;
+
+  }
+
+}
@@ -0,0 +1,287 @@
+package org.rabix.engine.journal;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.configuration.Configuration;
+import org.rabix.engine.config.EngineConfig;
+import org.rabix.engine.db.DAGNodeDB;
+import org.rabix.engine.event.Event;
+import org.rabix.engine.event.Event.EventType;
+import org.rabix.engine.event.impl.InitEvent;
+import org.rabix.engine.model.ContextRecord;
+import org.rabix.engine.model.JobRecord;
+import org.rabix.engine.model.LinkRecord;
+import org.rabix.engine.model.VariableRecord;
+import org.rabix.engine.service.ContextRecordService;
+import org.rabix.engine.service.JobRecordService;
+import org.rabix.engine.service.LinkRecordService;
+import org.rabix.engine.service.VariableRecordService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+
+/**
+ * Write-ahead journal of processed events and snapshots of the engine state.
+ * <p>
+ * Every event is journaled before it's processed. Snapshot contains all records, the journal sequence it's consistent
+ * with and the derived events which were queued at that moment. On start the state is restored from the latest
+ * snapshot and the journal tail is replayed.
+ * <p>
+ * {@link DAGNodeDB} is not serialized. Init events are kept instead and DAGs are translated again on restore.
+ */
+public class JournalService {
+
+  private final static Logger logger = LoggerFactory.getLogger(JournalService.class);
+
+  private static final String SNAPSHOT_PREFIX = "snapshot-";
+  private static final byte DERIVED = 1;
+
+  private final Configuration configuration;
+  private final boolean enabled;
+
+  private final JobRecordService jobRecordService;
+  private final LinkRecordService linkRecordService;
+  private final VariableRecordService variableRecordService;
+  private final ContextRecordService contextRecordService;
+  private final DAGNodeDB dagNodeDB;
+
+  private final ConcurrentMap<String, byte[]> initEvents = new ConcurrentHashMap<>();
+
+  private File directory;
+  private EventJournal journal;
+
+  @Inject
+  public JournalService(Configuration configuration, JobRecordService jobRecordService, VariableRecordService variableRecordService, LinkRecordService linkRecordService, ContextRecordService contextRecordService, DAGNodeDB dagNodeDB) {
+    this.configuration = configuration;
+    this.enabled = EngineConfig.isJournalEnabled(configuration);
+    this.jobRecordService = jobRecordService;
+    this.linkRecordService = linkRecordService;
+    this.variableRecordService = variableRecordService;
+    this.contextRecordService = contextRecordService;
+    this.dagNodeDB = dagNodeDB;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Appends event to the journal. Derived events are the ones queued while processing other events.
+   */
+  public void append(Event event, boolean derived) throws IOException {
+    byte[] payload = EventCodec.encode(event);
+    if (event.getType().equals(EventType.INIT)) {
+      initEvents.put(event.getContextId(), payload);
+    }
+    journal.append(payload, derived ? DERIVED : 0);
+  }
+
+  /**
+   * Opens the journal and restores the engine state. Events from the journal tail are passed to the callback in order.
+   */
+  @SuppressWarnings("unchecked")
+  public void recover(final RecoveryCallback callback) throws IOException {
+    directory = new File(EngineConfig.getJournalDirectory(configuration));
+    journal = new EventJournal(directory, EngineConfig.getJournalSegmentSize(configuration), EngineConfig.getJournalFlushInterval(configuration));
+
+    long sequence = 0;
+    File snapshotFile = findSnapshot();
+    if (snapshotFile != null) {
+      try (ObjectInputStream in = new ObjectInputStream(new GZIPInputStream(new FileInputStream(snapshotFile)))) {
+        sequence = in.readLong();
+        initEvents.putAll((Map<String, byte[]>) in.readObject());
+        for (ContextRecord contextRecord : (List<ContextRecord>) in.readObject()) {
+          contextRecordService.create(contextRecord);
+        }
+        for (byte[] initEvent : initEvents.values()) {
+          InitEvent event = (InitEvent) EventCodec.decode(initEvent);
+          dagNodeDB.loadDB(event.getNode(), event.getContextId());
+        }
+        for (JobRecord jobRecord : (List<JobRecord>) in.readObject()) {
+          jobRecordService.create(jobRecord);
+        }
+        for (VariableRecord variableRecord : (List<VariableRecord>) in.readObject()) {
+          variableRecordService.create(variableRecord);
+        }
+        for (LinkRecord linkRecord : (List<LinkRecord>) in.readObject()) {
+          linkRecordService.create(linkRecord);
+        }
+        for (byte[] queued : (List<byte[]>) in.readObject()) {
+          callback.queued(EventCodec.decode(queued));
+        }
+      } catch (ClassNotFoundException e) {
+        throw new IOException("Failed to read snapshot " + snapshotFile, e);
+      }
+      logger.info("Engine state restored from {}", snapshotFile);
+    }
+
+    final int[] replayed = new int[1];
+    journal.read(sequence, new EventJournal.RecordHandler() {
+      @Override
+      public void handle(long sequence, byte flags, byte[] payload) throws IOException {
+        Event event = EventCodec.decode(payload);
+        if (event.getType().equals(EventType.INIT)) {
+          initEvents.put(event.getContextId(), payload);
+        }
+        callback.replay(event, (flags & DERIVED) != 0);
+        replayed[0]++;
+      }
+    });
+    logger.info("{} events replayed from the journal", replayed[0]);
+  }
+
+  /**
+   * Removes init event of the finished context, it's not restored from the next snapshot
+   */
+  public void release(String contextId) {
+    initEvents.remove(contextId);
+  }
+
+  /**
+   * Copies the engine state. Caller must make sure that no event is processed at the same time. Records are copied
+   * since handlers update them in place, link records and events are never modified and they are shared.
+   */
+  public Snapshot createSnapshot(List<Event> queued) {
+    List<ContextRecord> contextRecords = new ArrayList<>();
+    List<JobRecord> jobRecords = new ArrayList<>();
+    List<VariableRecord> variableRecords = new ArrayList<>();
+    List<LinkRecord> linkRecords = new ArrayList<>();
+    for (ContextRecord contextRecord : contextRecordService.find()) {
+      contextRecords.add(contextRecord.copy());
+      for (JobRecord jobRecord : jobRecordService.find(contextRecord.getId())) {
+        jobRecords.add(jobRecord.copy());
+      }
+      for (VariableRecord variableRecord : variableRecordService.find(contextRecord.getId())) {
+        variableRecords.add(variableRecord.copy());
+      }
+      linkRecords.addAll(linkRecordService.find(contextRecord.getId()));
+    }
+    return new Snapshot(journal.getLastSequence(), new HashMap<>(initEvents), contextRecords, jobRecords, variableRecords, linkRecords, new ArrayList<>(queued));
+  }
+
+  /**
+   * Serializes snapshot to disk and deletes older snapshots and journal segments. Called without pausing the workers.
+   */
+  public void writeSnapshot(Snapshot snapshot) throws IOException {
+    List<byte[]> queuedEvents = new ArrayList<>(snapshot.queued.size());
+    for (Event event : snapshot.queued) {
+      queuedEvents.add(EventCodec.encode(event));
+    }
+    File tmpFile = new File(directory, SNAPSHOT_PREFIX + snapshot.sequence + ".tmp");
+    try (FileOutputStream fileOut = new FileOutputStream(tmpFile)) {
+      GZIPOutputStream gzipOut = new GZIPOutputStream(new BufferedOutputStream(fileOut));
+      ObjectOutputStream out = new ObjectOutputStream(gzipOut);
+      out.writeLong(snapshot.sequence);
+      out.writeObject(snapshot.initEvents);
+      out.writeObject(snapshot.contextRecords);
+      out.writeObject(snapshot.jobRecords);
+      out.writeObject(snapshot.variableRecords);
+      out.writeObject(snapshot.linkRecords);
+      out.writeObject(queuedEvents);
+      out.flush();
+      gzipOut.finish();
+      gzipOut.flush();
+      fileOut.getFD().sync();
+    }
+    File snapshotFile = new File(directory, SNAPSHOT_PREFIX + snapshot.sequence);
+    if (!tmpFile.renameTo(snapshotFile)) {
+      throw new IOException("Failed to rename " + tmpFile + " to " + snapshotFile);
+    }
+    for (File file : listSnapshots()) {
+      if (!file.equals(snapshotFile) && !file.delete()) {
+        logger.warn("Failed to delete snapshot {}", file);
+      }
+    }
+    journal.deleteUpTo(snapshot.sequence);
+    logger.info("Snapshot {} written", snapshotFile);
+  }
+
+  public void close() {
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
+  private File findSnapshot() {
+    File latest = null;
+    long latestSequence = -1;
+    for (File file : listSnapshots()) {
+      long sequence = Long.parseLong(file.getName().substring(SNAPSHOT_PREFIX.length()));
+      if (sequence > latestSequence) {
+        latest = file;
+        latestSequence = sequence;
+      }
+    }
+    return latest;
+  }
+
+  private File[] listSnapshots() {
+    return directory.listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+        return name.startsWith(SNAPSHOT_PREFIX) && !name.endsWith(".tmp");
+      }
+    });
+  }
+
+  /**
+   * Copy of the engine state
+   */
+  public static class Snapshot {
+    private final long sequence;
+    private final HashMap<String, byte[]> initEvents;
+    private final List<ContextRecord> contextRecords;
+    private final List<JobRecord> jobRecords;
+    private final List<VariableRecord> variableRecords;
+    private final List<LinkRecord> linkRecords;
+    private final List<Event> queued;
+
+    public Snapshot(long sequence, HashMap<String, byte[]> initEvents, List<ContextRecord> contextRecords, List<JobRecord> jobRecords, List<VariableRecord> variableRecords, List<LinkRecord> linkRecords, List<Event> queued) {
+      this.sequence = sequence;
+      this.initEvents = initEvents;
+      this.contextRecords = contextRecords;
+      this.jobRecords = jobRecords;
+      this.variableRecords = variableRecords;
+      this.linkRecords = linkRecords;
+      this.queued = queued;
+    }
+
+    public long getSequence() {
+      return sequence;
+    }
+  }
+
+  /**
+   * Receives events restored from snapshot and journal
+   */
+  public static interface RecoveryCallback {
+
+    /**
+     * Derived event which was queued when the snapshot was taken
+     */
+    void queued(Event event);
+
+    /**
+     * Event from the journal tail
+     */
+    void replay(Event event, boolean derived);
+
+  }
+
+}
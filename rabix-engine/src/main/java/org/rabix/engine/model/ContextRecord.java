@@ -1,8 +1,11 @@
 package org.rabix.engine.model;
 
+import java.io.Serializable;
 import java.util.Map;
 
-public class ContextRecord {
+public class ContextRecord implements Serializable {
+
+  private static final long serialVersionUID = -8475318232907561840L;
 
   public static enum ContextStatus {
     RUNNING,
@@ -44,6 +47,13 @@ public class ContextRecord {
     this.status = status;
   }
 
+  /**
+   * Copies the record, config is shared
+   */
+  public ContextRecord copy() {
+    return new ContextRecord(id, config, status);
+  }
+
   @Override
   public String toString() {
     return "ContextRecord [id=" + id + ", config=" + config + ", status=" + status + "]";
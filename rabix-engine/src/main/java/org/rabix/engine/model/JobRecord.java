@@ -1,5 +1,6 @@
 package org.rabix.engine.model;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,9 +9,12 @@ import org.rabix.bindings.model.dag.DAGLinkPort;
 import org.rabix.bindings.model.dag.DAGLinkPort.LinkPortType;
 import org.rabix.bindings.model.dag.DAGNode;
 import org.rabix.engine.model.scatter.ScatterStrategy;
+import org.rabix.engine.model.scatter.ScatterWindow;
 import org.rabix.engine.service.JobRecordService.JobState;
 
-public class JobRecord {
+public class JobRecord implements Serializable {
+
+  private static final long serialVersionUID = 6052716213398473341L;
 
   private final String id;
   private final String externalId;
@@ -32,6 +36,7 @@ public class JobRecord {
   private int numberOfGlobalOutputs = 0;
   
   private ScatterStrategy scatterStrategy;
+  private ScatterWindow scatterWindow;
   
   public JobRecord(String rootId, String id, String uniqueId, String parentId, JobState state, boolean isContainer, boolean isScattered, boolean master, boolean blocking) {
     this.id = id;
@@ -189,6 +194,14 @@ public class JobRecord {
     this.scatterStrategy = scatterStrategy;
   }
 
+  public ScatterWindow getScatterWindow() {
+    return scatterWindow;
+  }
+
+  public void setScatterWindow(ScatterWindow scatterWindow) {
+    this.scatterWindow = scatterWindow;
+  }
+
   public boolean isInputPortReady(String port) {
     for (PortCounter pc : inputCounters) {
       if (pc.port.equals(port)) {
@@ -344,7 +357,29 @@ public class JobRecord {
     return numberOfGlobalOutputs;
   }
 
-  public class PortCounter {
+  /**
+   * Copies the record with its port counters and scatter state
+   */
+  public JobRecord copy() {
+    JobRecord copy = new JobRecord(rootId, id, externalId, parentId, state, isContainer, isScattered, master, blocking);
+    copy.isScatterWrapper = isScatterWrapper;
+    copy.numberOfGlobalInputs = numberOfGlobalInputs;
+    copy.numberOfGlobalOutputs = numberOfGlobalOutputs;
+    for (PortCounter portCounter : inputCounters) {
+      copy.inputCounters.add(copy.new PortCounter(portCounter));
+    }
+    for (PortCounter portCounter : outputCounters) {
+      copy.outputCounters.add(copy.new PortCounter(portCounter));
+    }
+    copy.scatterStrategy = scatterStrategy != null ? scatterStrategy.copy() : null;
+    copy.scatterWindow = scatterWindow != null ? scatterWindow.copy() : null;
+    return copy;
+  }
+
+  public class PortCounter implements Serializable {
+
+    private static final long serialVersionUID = -2217606367291432270L;
+
     private String port;
     private int counter;
     private boolean scatter;
@@ -358,6 +393,13 @@ public class JobRecord {
       this.incoming = 0;
     }
 
+    PortCounter(PortCounter portCounter) {
+      this.port = portCounter.port;
+      this.counter = portCounter.counter;
+      this.scatter = portCounter.scatter;
+      this.incoming = portCounter.incoming;
+    }
+
     public void increaseIncoming() {
       this.incoming++;
     }
@@ -389,7 +431,7 @@ public class JobRecord {
 
   @Override
   public String toString() {
-    return "JobRecord [id=" + id + ", externalId=" + externalId + ", rootId=" + rootId + ", master=" + master + ", state=" + state + ", inputCounters=" + inputCounters + ", outputCounters=" + outputCounters + ", isScattered=" + isScattered + ", isContainer=" + isContainer + ", isScatterWrapper=" + isScatterWrapper + ", numberOfGlobalInputs=" + numberOfGlobalInputs + ", numberOfGlobalOutputs=" + numberOfGlobalOutputs + ", scatterStrategy=" + scatterStrategy + "]";
+    return "JobRecord [id=" + id + ", externalId=" + externalId + ", rootId=" + rootId + ", master=" + master + ", state=" + state + ", inputCounters=" + inputCounters + ", outputCounters=" + outputCounters + ", isScattered=" + isScattered + ", isContainer=" + isContainer + ", isScatterWrapper=" + isScatterWrapper + ", numberOfGlobalInputs=" + numberOfGlobalInputs + ", numberOfGlobalOutputs=" + numberOfGlobalOutputs + ", scatterStrategy=" + scatterStrategy + ", scatterWindow=" + scatterWindow + "]";
   }
 
 }
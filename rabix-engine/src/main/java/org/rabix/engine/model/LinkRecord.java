@@ -1,8 +1,11 @@
 package org.rabix.engine.model;
 
+import java.io.Serializable;
 import org.rabix.bindings.model.dag.DAGLinkPort.LinkPortType;
 
-public class LinkRecord {
+public class LinkRecord implements Serializable {
+
+  private static final long serialVersionUID = 3907212279160818462L;
 
   private String contextId;
   
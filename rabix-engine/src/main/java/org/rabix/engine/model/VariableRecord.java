@@ -1,5 +1,6 @@
 package org.rabix.engine.model;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -7,7 +8,9 @@ import java.util.List;
 import org.rabix.bindings.model.LinkMerge;
 import org.rabix.bindings.model.dag.DAGLinkPort.LinkPortType;
 
-public class VariableRecord {
+public class VariableRecord implements Serializable {
+
+  private static final long serialVersionUID = -1370473683950640232L;
 
   private String contextId;
 
@@ -170,6 +173,19 @@ public class VariableRecord {
     this.numberOfGlobals = numberOfGlobals;
   }
 
+  /**
+   * Copies the record. Wrapped value list is copied since {@link #addValue} modifies it, the values are shared.
+   */
+  @SuppressWarnings("unchecked")
+  public VariableRecord copy() {
+    VariableRecord copy = new VariableRecord(contextId, jobId, portId, type, isWrapped ? new ArrayList<>((List<Object>) value) : value, linkMerge);
+    copy.isWrapped = isWrapped;
+    copy.numberOfGlobals = numberOfGlobals;
+    copy.numberOfTimesUpdated = numberOfTimesUpdated;
+    copy.isDefault = isDefault;
+    return copy;
+  }
+
   @Override
   public String toString() {
     return "VariableRecord [contextId=" + contextId + ", jobId=" + jobId + ", portId=" + portId + ", type=" + type
@@ -1,6 +1,10 @@
 package org.rabix.engine.model.scatter;
 
-public class PortMapping {
+import java.io.Serializable;
+
+public class PortMapping implements Serializable {
+
+  private static final long serialVersionUID = -4519866427097146382L;
 
   private final String portId;
   private final Object value;
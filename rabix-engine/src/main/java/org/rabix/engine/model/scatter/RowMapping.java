@@ -1,8 +1,11 @@
 package org.rabix.engine.model.scatter;
 
+import java.io.Serializable;
 import java.util.List;
 
-public class RowMapping {
+public class RowMapping implements Serializable {
+
+  private static final long serialVersionUID = 1826365079431167453L;
 
   private final int row;
   private final List<PortMapping> portMappings;
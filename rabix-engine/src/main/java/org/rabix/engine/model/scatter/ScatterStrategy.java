@@ -4,6 +4,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 import org.rabix.bindings.BindingException;
+import org.rabix.engine.service.VariableRecordService;
 
 public interface ScatterStrategy {
 
@@ -17,6 +18,11 @@ public interface ScatterStrategy {
   
   List<RowMapping> enabled() throws BindingException;
   
-  LinkedList<Object> values(String jobId, String portId, String contextId);
+  LinkedList<Object> values(VariableRecordService variableRecordService, String jobId, String portId, String contextId);
+
+  /**
+   * Copies the scatter state, port values are shared
+   */
+  ScatterStrategy copy();
   
 }
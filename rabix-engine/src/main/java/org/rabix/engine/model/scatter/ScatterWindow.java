@@ -0,0 +1,85 @@
+package org.rabix.engine.model.scatter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Enabled rows of a scatter which are not materialized yet. At most {@code size} scattered jobs are running at once,
+ * next rows are taken when running jobs complete. Size 0 means no limit.
+ */
+public class ScatterWindow implements Serializable {
+
+  private static final long serialVersionUID = 8232961440586373912L;
+
+  private final int size;
+  private int running = 0;
+  private int numberOfScattered = 0;
+
+  private final LinkedList<RowMapping> pending = new LinkedList<>();
+
+  public ScatterWindow(int size) {
+    this.size = size;
+  }
+
+  /**
+   * Adds enabled rows. Number of scattered jobs (if known upfront) is kept for rows materialized later.
+   */
+  public void offer(List<RowMapping> rows, Integer numberOfScattered) {
+    pending.addAll(rows);
+    if (numberOfScattered != null) {
+      this.numberOfScattered = Math.max(this.numberOfScattered, numberOfScattered);
+    }
+  }
+
+  /**
+   * Takes rows which fit into the window and counts them as running
+   */
+  public List<RowMapping> poll() {
+    List<RowMapping> rows = new ArrayList<>();
+    while (!pending.isEmpty() && (size <= 0 || running < size)) {
+      rows.add(pending.removeFirst());
+      running++;
+    }
+    return rows;
+  }
+
+  /**
+   * One of the running scattered jobs has completed
+   */
+  public void release() {
+    if (running > 0) {
+      running--;
+    }
+  }
+
+  public int getNumberOfScattered() {
+    return numberOfScattered;
+  }
+
+  public int getRunning() {
+    return running;
+  }
+
+  public int getPending() {
+    return pending.size();
+  }
+
+  /**
+   * Copies the window, pending rows are shared
+   */
+  public ScatterWindow copy() {
+    ScatterWindow copy = new ScatterWindow(size);
+    copy.running = running;
+    copy.numberOfScattered = numberOfScattered;
+    copy.pending.addAll(pending);
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    return "ScatterWindow [size=" + size + ", running=" + running + ", pending=" + pending.size() + "]";
+  }
+
+}
@@ -1,12 +1,13 @@
 package org.rabix.engine.model.scatter.impl;
 
-import java.util.Collections;
-import java.util.Comparator;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.rabix.bindings.BindingException;
 import org.rabix.bindings.model.ScatterMethod;
@@ -20,122 +21,116 @@ import org.rabix.engine.model.scatter.RowMapping;
 import org.rabix.engine.model.scatter.ScatterStrategy;
 import org.rabix.engine.service.VariableRecordService;
 
-public class ScatterCartesianStrategy implements ScatterStrategy {
+import com.google.common.base.Preconditions;
 
-  private LinkedList<Combination> combinations;
+/**
+ * Cartesian product scatter. When a new position arrives on one port only the rows it completes (the new position
+ * combined with enabled positions of the other ports) are enumerated. Rows are numbered in order of completion and
+ * their positions are kept in a flat array, one tuple per row.
+ */
+public class ScatterCartesianStrategy implements ScatterStrategy, Serializable {
 
-  private Map<String, LinkedList<Object>> values;
-  private Map<String, LinkedList<Integer>> positions;
+  private static final long serialVersionUID = 4720118370349566071L;
+
+  private final List<ScatterPort> ports = new ArrayList<>();
+  private final Map<String, ScatterPort> portsById = new HashMap<>();
+
+  private int[] tuples = new int[0];
+  private int rowCount = 0;
+
+  private final BitSet committed = new BitSet();
+  private int firstPending = 1;
 
   private final ScatterMethod scatterMethod;
-  private final VariableRecordService variableRecordService;
-  
-  public ScatterCartesianStrategy(DAGNode dagNode, VariableRecordService variableRecordService) {
-    this.values = new HashMap<>();
-    this.positions = new HashMap<>();
-    this.combinations = new LinkedList<>();
+
+  public ScatterCartesianStrategy(DAGNode dagNode) {
     this.scatterMethod = dagNode.getScatterMethod();
-    this.variableRecordService = variableRecordService;
     initialize(dagNode);
   }
 
+  private ScatterCartesianStrategy(ScatterCartesianStrategy strategy) {
+    this.scatterMethod = strategy.scatterMethod;
+    for (ScatterPort port : strategy.ports) {
+      ScatterPort scatterPort = port.copy();
+      ports.add(scatterPort);
+      portsById.put(scatterPort.getId(), scatterPort);
+    }
+    this.tuples = strategy.tuples.clone();
+    this.rowCount = strategy.rowCount;
+    this.committed.or(strategy.committed);
+    this.firstPending = strategy.firstPending;
+  }
+
   public ScatterMethod getScatterMethod() {
     return scatterMethod;
   }
-  
+
   public void initialize(DAGNode dagNode) {
     for (DAGLinkPort port : dagNode.getInputPorts()) {
-      if (port.isScatter()) {
-        values.put(port.getId(), new LinkedList<Object>());
-        positions.put(port.getId(), new LinkedList<Integer>());
+      if (port.isScatter() && !portsById.containsKey(port.getId())) {
+        ScatterPort scatterPort = new ScatterPort(port.getId());
+        ports.add(scatterPort);
+        portsById.put(port.getId(), scatterPort);
       }
     }
   }
 
   @Override
   public void enable(String port, Object value, Integer position) {
-    LinkedList<Integer> positionList = positions.get(port);
-    positionList = expand(positionList, position);
-    positionList.set(position - 1, position);
-    positions.put(port, positionList);
-
-    LinkedList<Object> valueList = values.get(port);
-    valueList = expand(valueList, position);
-    valueList.set(position - 1, value);
-    values.put(port, valueList);
-  }
+    Preconditions.checkNotNull(port);
+    Preconditions.checkNotNull(position);
 
-  @Override
-  public LinkedList<Object> values(String jobId, String portId, String contextId) {
-    Collections.sort(combinations, new Comparator<Combination>() {
-      @Override
-      public int compare(Combination o1, Combination o2) {
-        return o1.indexes.toString().compareTo(o2.indexes.toString());
+    ScatterPort scatterPort = portsById.get(port);
+    if (!scatterPort.set(position, value)) {
+      return;
+    }
+    int portCount = ports.size();
+    int[][] axes = new int[portCount][];
+    for (int i = 0; i < portCount; i++) {
+      ScatterPort current = ports.get(i);
+      axes[i] = current == scatterPort ? new int[] { position } : current.getPositions();
+      if (axes[i].length == 0) {
+        return;
       }
-    });
+    }
 
-    if (scatterMethod.equals(ScatterMethod.flat_crossproduct)) {
-      LinkedList<Object> result = new LinkedList<>();
-      for (Combination combination : combinations) {
-        String scatteredJobId = InternalSchemaHelper.scatterId(jobId, combination.position);
-        VariableRecord variableRecord = variableRecordService.find(scatteredJobId, portId, LinkPortType.OUTPUT, contextId);
-        result.addLast(variableRecord.getValue());
+    // odometer over the new rows, last port changes fastest
+    int[] digits = new int[portCount];
+    while (true) {
+      int offset = rowCount * portCount;
+      if (offset + portCount > tuples.length) {
+        tuples = Arrays.copyOf(tuples, Math.max(tuples.length * 2, offset + portCount * 16));
       }
-      return result;
-    }
-    if (scatterMethod.equals(ScatterMethod.nested_crossproduct)) {
-      LinkedList<Object> result = new LinkedList<>();
-      
-      int position = 1;
-      LinkedList<Object> subresult = new LinkedList<>();
-      for (Combination combination : combinations) {
-        if (combination.indexes.get(0) != position) {
-          result.addLast(subresult);
-          subresult = new LinkedList<>();
-          position++;
-        }
-        String scatteredJobId = InternalSchemaHelper.scatterId(jobId, combination.position);
-        VariableRecord variableRecord = variableRecordService.find(scatteredJobId, portId, LinkPortType.OUTPUT, contextId);
-        subresult.addLast(variableRecord.getValue());
+      for (int i = 0; i < portCount; i++) {
+        tuples[offset + i] = axes[i][digits[i]];
       }
-      result.addLast(subresult);
-      return result;
-    }
-    return null;
-  }
-  
-  private <T> LinkedList<T> expand(LinkedList<T> list, Integer position) {
-    if (list == null) {
-      list = new LinkedList<>();
-    }
-    int initialSize = list.size();
-    if (initialSize >= position) {
-      return list;
-    }
-    for (int i = 0; i < position - initialSize; i++) {
-      list.add(null);
-    }
-    return list;
-  }
+      rowCount++;
 
-  private LinkedList<LinkedList<Integer>> cartesianProduct(LinkedList<LinkedList<Integer>> lists) throws BindingException {
-    if (lists.size() < 2) {
-      throw new BindingException("Can't have a product of fewer than two lists (got " + lists.size() + ")");
+      int i = portCount - 1;
+      while (i >= 0 && ++digits[i] == axes[i].length) {
+        digits[i--] = 0;
+      }
+      if (i < 0) {
+        break;
+      }
     }
-    return cartesianProduct(0, lists);
   }
 
-  private LinkedList<LinkedList<Integer>> cartesianProduct(int index, List<LinkedList<Integer>> lists) {
-    LinkedList<LinkedList<Integer>> result = new LinkedList<LinkedList<Integer>>();
-    if (index == lists.size()) {
-      result.add(new LinkedList<Integer>());
-    } else {
-      for (Integer obj : lists.get(index)) {
-        for (LinkedList<Integer> list : cartesianProduct(index + 1, lists)) {
-          list.addFirst(obj);
-          result.add(list);
-        }
+  @Override
+  public List<RowMapping> enabled() throws BindingException {
+    if (ports.size() < 2) {
+      throw new BindingException("Can't have a product of fewer than two lists (got " + ports.size() + ")");
+    }
+    int portCount = ports.size();
+    List<RowMapping> result = new ArrayList<>();
+    for (int row = committed.nextClearBit(firstPending); row <= rowCount; row = committed.nextClearBit(row + 1)) {
+      int offset = (row - 1) * portCount;
+      List<PortMapping> portMappings = new ArrayList<>(portCount);
+      for (int i = 0; i < portCount; i++) {
+        ScatterPort scatterPort = ports.get(i);
+        portMappings.add(new PortMapping(scatterPort.getId(), scatterPort.get(tuples[offset + i])));
       }
+      result.add(new RowMapping(row, portMappings));
     }
     return result;
   }
@@ -143,93 +138,70 @@ public class ScatterCartesianStrategy implements ScatterStrategy {
   @Override
   public void commit(List<RowMapping> mappings) {
     for (RowMapping mapping : mappings) {
-      for (Combination combination : combinations) {
-        if (combination.position == mapping.getIndex()) {
-          combination.enabled = true;
-        }
-      }
+      committed.set(mapping.getIndex());
     }
+    firstPending = committed.nextClearBit(firstPending);
   }
 
   @Override
   public int enabledCount() {
-    return combinations.size();
+    return rowCount;
   }
 
   @Override
-  public List<RowMapping> enabled() throws BindingException {
-    List<RowMapping> result = new LinkedList<>();
-    LinkedList<LinkedList<Integer>> mapping = new LinkedList<>();
-    for (Entry<String, LinkedList<Integer>> positionEntry : positions.entrySet()) {
-      mapping.add(positionEntry.getValue());
-    }
-    LinkedList<LinkedList<Integer>> newMapping = cartesianProduct(mapping);
-
-    for (int i = 0; i < newMapping.size(); i++) {
-      LinkedList<Integer> indexes = newMapping.get(i);
-      if (!hasNull(indexes)) {
-        Combination combination = getCombination(indexes);
-        if (combination == null) {
-          combination = new Combination(combinations.size() + 1, false, indexes);
-          combinations.add(combination);
-        }
-        if (!combination.enabled) {
-          List<PortMapping> portMappings = new LinkedList<>();
-
-          int positionIndex = 1;
-          for (Entry<String, LinkedList<Object>> valueEntry : values.entrySet()) {
-            String port = valueEntry.getKey();
-            int position = combination.indexes.get(positionIndex - 1);
-            Object value = valueEntry.getValue().get(position - 1);
-            portMappings.add(new PortMapping(port, value));
-            positionIndex++;
-          }
-          result.add(new RowMapping(combination.position, portMappings));
-        }
-      }
-    }
-    return result;
+  public boolean isBlocking() {
+    return ScatterMethod.isBlocking(scatterMethod);
   }
 
-  private boolean hasNull(LinkedList<Integer> list) {
-    for (Integer value : list) {
-      if (value == null) {
-        return true;
-      }
+  /**
+   * Collects outputs ordered by port positions. Slot of each row is computed in mixed radix (rank of its position on
+   * each port), so no sorting is needed.
+   */
+  @Override
+  public LinkedList<Object> values(VariableRecordService variableRecordService, String jobId, String portId, String contextId) {
+    if (!scatterMethod.equals(ScatterMethod.flat_crossproduct) && !scatterMethod.equals(ScatterMethod.nested_crossproduct)) {
+      return null;
+    }
+    int portCount = ports.size();
+    int[][] ranks = new int[portCount][];
+    int[] strides = new int[portCount];
+    int stride = 1;
+    for (int i = portCount - 1; i >= 0; i--) {
+      ranks[i] = ports.get(i).getRanks();
+      strides[i] = stride;
+      stride *= ports.get(i).size();
     }
-    return false;
-  }
 
-  private Combination getCombination(LinkedList<Integer> indexes) {
-    for (Combination combination : combinations) {
-      if (combination.indexes.toString().equals(indexes.toString())) {
-        return combination;
+    Object[] slots = new Object[rowCount];
+    for (int row = 1; row <= rowCount; row++) {
+      int offset = (row - 1) * portCount;
+      int slot = 0;
+      for (int i = 0; i < portCount; i++) {
+        slot += ranks[i][tuples[offset + i]] * strides[i];
       }
+      String scatteredJobId = InternalSchemaHelper.scatterId(jobId, row);
+      VariableRecord variableRecord = variableRecordService.find(scatteredJobId, portId, LinkPortType.OUTPUT, contextId);
+      slots[slot] = variableRecord.getValue();
     }
-    return null;
-  }
 
-  private class Combination {
-    int position;
-    boolean enabled;
-    LinkedList<Integer> indexes;
-
-    public Combination(int position, boolean enabled, LinkedList<Integer> indexes) {
-      this.position = position;
-      this.enabled = enabled;
-      this.indexes = indexes;
+    LinkedList<Object> result = new LinkedList<>();
+    if (scatterMethod.equals(ScatterMethod.flat_crossproduct)) {
+      result.addAll(Arrays.asList(slots));
+      return result;
     }
-
-    @Override
-    public String toString() {
-      return "Combination [position=" + position + ", enabled=" + enabled + ", indexes=" + indexes + "]";
+    if (rowCount == 0) {
+      return result;
+    }
+    int groupSize = strides[0];
+    for (int group = 0; group < rowCount; group += groupSize) {
+      result.addLast(new LinkedList<>(Arrays.asList(slots).subList(group, group + groupSize)));
     }
-    
+    return result;
   }
 
   @Override
-  public boolean isBlocking() {
-    return ScatterMethod.isBlocking(scatterMethod);
+  public ScatterStrategy copy() {
+    return new ScatterCartesianStrategy(this);
   }
 
 }
@@ -0,0 +1,107 @@
+package org.rabix.engine.model.scatter.impl;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Values of one scattered port in a growable array indexed by position (starting from 1). Enabled positions are kept
+ * in a bitset.
+ */
+public class ScatterPort implements Serializable {
+
+  private static final long serialVersionUID = -6640350281723938745L;
+
+  private final String id;
+
+  private Object[] values = new Object[16];
+  private final BitSet positions = new BitSet();
+  private int size = 0;
+
+  private int[] sortedPositions;
+
+  public ScatterPort(String id) {
+    this.id = id;
+  }
+
+  private ScatterPort(ScatterPort port) {
+    this.id = port.id;
+    this.values = port.values.clone();
+    this.positions.or(port.positions);
+    this.size = port.size;
+    this.sortedPositions = port.sortedPositions;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Sets value on position
+   *
+   * @return true if position wasn't enabled before
+   */
+  public boolean set(int position, Object value) {
+    if (position >= values.length) {
+      values = Arrays.copyOf(values, Math.max(values.length * 2, position + 1));
+    }
+    values[position] = value;
+    if (positions.get(position)) {
+      return false;
+    }
+    positions.set(position);
+    size++;
+    sortedPositions = null;
+    return true;
+  }
+
+  public Object get(int position) {
+    return values[position];
+  }
+
+  public boolean has(int position) {
+    return positions.get(position);
+  }
+
+  /**
+   * Number of enabled positions
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Enabled positions in ascending order
+   */
+  public int[] getPositions() {
+    if (sortedPositions == null) {
+      int[] result = new int[size];
+      int index = 0;
+      for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+        result[index++] = position;
+      }
+      sortedPositions = result;
+    }
+    return sortedPositions;
+  }
+
+  /**
+   * Gets zero-based rank of each enabled position (indexed by position)
+   */
+  public int[] getRanks() {
+    int[] ranks = new int[positions.length()];
+    int rank = 0;
+    for (int position : getPositions()) {
+      ranks[position] = rank++;
+    }
+    return ranks;
+  }
+
+  /**
+   * Copies enabled positions and the value array, values are shared
+   */
+  public ScatterPort copy() {
+    return new ScatterPort(this);
+  }
+
+}
@@ -1,12 +1,13 @@
 package org.rabix.engine.model.scatter.impl;
 
-import java.util.Collections;
-import java.util.Comparator;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.rabix.bindings.model.ScatterMethod;
 import org.rabix.bindings.model.dag.DAGLinkPort;
@@ -21,113 +22,82 @@ import org.rabix.engine.service.VariableRecordService;
 
 import com.google.common.base.Preconditions;
 
-public class ScatterZipStrategy implements ScatterStrategy {
+/**
+ * Dot product scatter. Row N is completed when all ports have value on position N, so each {@link #enable} completes
+ * at most one row.
+ */
+public class ScatterZipStrategy implements ScatterStrategy, Serializable {
 
-  private LinkedList<Combination> combinations;
-  
-  private Map<String, LinkedList<Object>> values;
-  private Map<String, LinkedList<Boolean>> indexes;
+  private static final long serialVersionUID = -3148752081962736174L;
+
+  private final List<ScatterPort> ports = new ArrayList<>();
+  private final Map<String, ScatterPort> portsById = new HashMap<>();
+
+  private final BitSet rows = new BitSet();
+  private int rowCount = 0;
+
+  private final BitSet committed = new BitSet();
+  private final List<Integer> pending = new ArrayList<>();
 
   private final ScatterMethod scatterMethod;
-  private final VariableRecordService variableRecordService;
-  
-  public ScatterZipStrategy(DAGNode dagNode, VariableRecordService variableRecordService) {
-    values = new HashMap<>();
-    indexes = new HashMap<>();
-    combinations = new LinkedList<>();
-    
+
+  public ScatterZipStrategy(DAGNode dagNode) {
     this.scatterMethod = dagNode.getScatterMethod();
-    this.variableRecordService = variableRecordService;
     initialize(dagNode);
   }
-  
+
+  private ScatterZipStrategy(ScatterZipStrategy strategy) {
+    this.scatterMethod = strategy.scatterMethod;
+    for (ScatterPort port : strategy.ports) {
+      ScatterPort scatterPort = port.copy();
+      ports.add(scatterPort);
+      portsById.put(scatterPort.getId(), scatterPort);
+    }
+    this.rows.or(strategy.rows);
+    this.rowCount = strategy.rowCount;
+    this.committed.or(strategy.committed);
+    this.pending.addAll(strategy.pending);
+  }
+
   public void initialize(DAGNode dagNode) {
-    for(DAGLinkPort port : dagNode.getInputPorts()) {
-      if (port.isScatter()) {
-        values.put(port.getId(), new LinkedList<Object>());
-        indexes.put(port.getId(), new LinkedList<Boolean>());
+    for (DAGLinkPort port : dagNode.getInputPorts()) {
+      if (port.isScatter() && !portsById.containsKey(port.getId())) {
+        ScatterPort scatterPort = new ScatterPort(port.getId());
+        ports.add(scatterPort);
+        portsById.put(port.getId(), scatterPort);
       }
     }
   }
-  
+
   public void enable(String port, Object value, Integer position) {
     Preconditions.checkNotNull(port);
     Preconditions.checkNotNull(position);
-    
-    List<Object> valueList = values.get(port);
-    List<Boolean> indexList = indexes.get(port);
-
-    if (indexList.size() < position) {
-      expand(indexList, position);
-      expand(valueList, position);
-    }
 
-    indexList.set(position - 1, true);
-    valueList.set(position - 1, value);
-  }
-  
-  private <T> void expand(List<T> list, Integer position) {
-    int initialSize = list.size();
-    if (initialSize >= position) {
+    if (!portsById.get(port).set(position, value)) {
       return;
     }
-    for (int i = 0; i < position - initialSize; i++) {
-      list.add(null);
+    for (ScatterPort scatterPort : ports) {
+      if (!scatterPort.has(position)) {
+        return;
+      }
     }
-    return;
+    rows.set(position);
+    rowCount++;
+    pending.add(position);
   }
 
   @Override
   public List<RowMapping> enabled() {
-    List<RowMapping> result = new LinkedList<>();
-
-    List<String> ports = new LinkedList<>();
-    LinkedList<LinkedList<Boolean>> indexLists = new LinkedList<>();
-
-    for (Entry<String, LinkedList<Boolean>> entry : indexes.entrySet()) {
-      ports.add(entry.getKey());
-      indexLists.add(entry.getValue());
-    }
-
-    List<Boolean> first = indexLists.get(0);
-    for (int i = 0; i < first.size(); i++) {
-      if (first.get(i) == null) {
+    List<RowMapping> result = new ArrayList<>(pending.size());
+    for (Integer position : pending) {
+      if (committed.get(position)) {
         continue;
       }
-      boolean exists = true;
-      for (LinkedList<Boolean> indexList : indexLists) {
-        if (indexList.size() <= i || indexList.get(i) == null) {
-          exists = false;
-          break;
-        }
-      }
-      if (!exists) {
-        break;
-      } else {
-        Combination combination = null;
-        for (int index = 0; index < combinations.size(); index++) {
-          Combination c = combinations.get(index);
-
-          if (c.position == i + 1) {
-            combination = c;
-            break;
-          }
-        }
-        if (combination == null) {
-          combination = new Combination(i + 1, false);
-          combinations.add(combination);
-        }
-
-        if (!combination.enabled) {
-          List<PortMapping> portMappings = new LinkedList<>();
-
-          for (String portId : ports) {
-            Object value = values.get(portId).get(i);
-            portMappings.add(new PortMapping(portId, value));
-          }
-          result.add(new RowMapping(combination.position, portMappings));
-        }
+      List<PortMapping> portMappings = new ArrayList<>(ports.size());
+      for (ScatterPort scatterPort : ports) {
+        portMappings.add(new PortMapping(scatterPort.getId(), scatterPort.get(position)));
       }
+      result.add(new RowMapping(position, portMappings));
     }
     return result;
   }
@@ -135,28 +105,19 @@ public class ScatterZipStrategy implements ScatterStrategy {
   @Override
   public void commit(List<RowMapping> mappings) {
     for (RowMapping mapping : mappings) {
-      for (Combination combination : combinations) {
-        if (combination.position == mapping.getIndex()) {
-          combination.enabled = true;
-          break;
-        }
+      committed.set(mapping.getIndex());
+    }
+    Iterator<Integer> iterator = pending.iterator();
+    while (iterator.hasNext()) {
+      if (committed.get(iterator.next())) {
+        iterator.remove();
       }
     }
   }
-  
+
   @Override
   public int enabledCount() {
-    return combinations.size();
-  }
-
-  private class Combination {
-    int position;
-    boolean enabled;
-
-    public Combination(int position, boolean enabled) {
-      this.position = position;
-      this.enabled = enabled;
-    }
+    return rowCount;
   }
 
   @Override
@@ -165,21 +126,19 @@ public class ScatterZipStrategy implements ScatterStrategy {
   }
 
   @Override
-  public LinkedList<Object> values(String jobId, String portId, String contextId) {
-    Collections.sort(combinations, new Comparator<Combination>() {
-      @Override
-      public int compare(Combination o1, Combination o2) {
-        return o1.position - o2.position;
-      }
-    });
-    
+  public LinkedList<Object> values(VariableRecordService variableRecordService, String jobId, String portId, String contextId) {
     LinkedList<Object> result = new LinkedList<>();
-    for (Combination combination : combinations) {
-      String scatteredJobId = InternalSchemaHelper.scatterId(jobId, combination.position);
+    for (int position = rows.nextSetBit(0); position >= 0; position = rows.nextSetBit(position + 1)) {
+      String scatteredJobId = InternalSchemaHelper.scatterId(jobId, position);
       VariableRecord variableRecord = variableRecordService.find(scatteredJobId, portId, LinkPortType.OUTPUT, contextId);
       result.addLast(variableRecord.getValue());
     }
     return result;
   }
 
+  @Override
+  public ScatterStrategy copy() {
+    return new ScatterZipStrategy(this);
+  }
+
 }
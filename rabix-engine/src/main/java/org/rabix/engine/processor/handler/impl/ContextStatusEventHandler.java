@@ -1,7 +1,10 @@
 package org.rabix.engine.processor.handler.impl;
 
+import org.rabix.engine.db.DAGNodeDB;
 import org.rabix.engine.event.impl.ContextStatusEvent;
+import org.rabix.engine.journal.JournalService;
 import org.rabix.engine.model.ContextRecord;
+import org.rabix.engine.model.ContextRecord.ContextStatus;
 import org.rabix.engine.processor.handler.EventHandler;
 import org.rabix.engine.processor.handler.EventHandlerException;
 import org.rabix.engine.service.ContextRecordService;
@@ -11,10 +14,14 @@ import com.google.inject.Inject;
 public class ContextStatusEventHandler implements EventHandler<ContextStatusEvent> {
 
   private final ContextRecordService contextRecordService;
+  private final DAGNodeDB dagNodeDB;
+  private final JournalService journalService;
 
   @Inject
-  public ContextStatusEventHandler(ContextRecordService contextRecordService) {
+  public ContextStatusEventHandler(ContextRecordService contextRecordService, DAGNodeDB dagNodeDB, JournalService journalService) {
     this.contextRecordService = contextRecordService;
+    this.dagNodeDB = dagNodeDB;
+    this.journalService = journalService;
   }
   
   @Override
@@ -22,6 +29,11 @@ public class ContextStatusEventHandler implements EventHandler<ContextStatusEven
     ContextRecord contextRecord = contextRecordService.find(event.getContextId());
     contextRecord.setStatus(event.getStatus());
     contextRecordService.update(contextRecord);
+
+    if (event.getStatus().equals(ContextStatus.COMPLETED) || event.getStatus().equals(ContextStatus.FAILED)) {
+      dagNodeDB.release(event.getContextId());
+      journalService.release(event.getContextId());
+    }
   }
 
 }
@@ -123,6 +123,7 @@ public class JobStatusEventHandler implements EventHandler<JobStatusEvent> {
         scatterHelper.scatterPort(job, port, variable.getValue(), 1, null, false, false);
       }
     }
+    jobRecordService.update(job);
   }
   
   private Set<String> findImmediateReadyNodes(DAGNode node) {
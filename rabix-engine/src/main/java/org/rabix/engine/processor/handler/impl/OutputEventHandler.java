@@ -32,10 +32,12 @@ public class OutputEventHandler implements EventHandler<OutputUpdateEvent> {
   private VariableRecordService variableService;
   private LinkRecordService linkService;
   
+  private final ScatterHandler scatterHelper;
   private final EventProcessor eventProcessor;
   
   @Inject
-  public OutputEventHandler(EventProcessor eventProcessor, JobRecordService jobService, VariableRecordService variableService, LinkRecordService linkService) {
+  public OutputEventHandler(EventProcessor eventProcessor, ScatterHandler scatterHelper, JobRecordService jobService, VariableRecordService variableService, LinkRecordService linkService) {
+    this.scatterHelper = scatterHelper;
     this.jobService = jobService;
     this.linkService = linkService;
     this.variableService = variableService;
@@ -53,11 +55,15 @@ public class OutputEventHandler implements EventHandler<OutputUpdateEvent> {
     jobService.update(sourceJob);
     
     if (sourceJob.isCompleted()) {
+      boolean isCompletedNow = !sourceJob.getState().equals(JobState.COMPLETED);
       sourceJob.setState(JobState.COMPLETED);
       jobService.update(sourceJob);
       if (sourceJob.isMaster()) {
         eventProcessor.addToQueue(new ContextStatusEvent(event.getContextId(), ContextStatus.COMPLETED));
       }
+      if (sourceJob.isScattered() && isCompletedNow) {
+        scatterHelper.scatteredJobCompleted(sourceJob);
+      }
     }
     
     Object value = null;
@@ -67,7 +73,7 @@ public class OutputEventHandler implements EventHandler<OutputUpdateEvent> {
       
       if (scatterStrategy.isBlocking()) {
         if (sourceJob.isOutputPortReady(event.getPortId())) {
-          value = scatterStrategy.values(sourceJob.getId(), event.getPortId(), event.getContextId());
+          value = scatterStrategy.values(variableService, sourceJob.getId(), event.getPortId(), event.getContextId());
         } else {
           return;
         }
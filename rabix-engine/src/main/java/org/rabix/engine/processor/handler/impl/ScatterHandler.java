@@ -3,6 +3,7 @@ package org.rabix.engine.processor.handler.impl;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.commons.configuration.Configuration;
 import org.rabix.bindings.BindingException;
 import org.rabix.bindings.model.LinkMerge;
 import org.rabix.bindings.model.ScatterMethod;
@@ -11,17 +12,21 @@ import org.rabix.bindings.model.dag.DAGLinkPort;
 import org.rabix.bindings.model.dag.DAGLinkPort.LinkPortType;
 import org.rabix.bindings.model.dag.DAGNode;
 import org.rabix.common.helper.InternalSchemaHelper;
+import org.rabix.engine.config.EngineConfig;
 import org.rabix.engine.db.DAGNodeDB;
 import org.rabix.engine.event.Event;
 import org.rabix.engine.event.impl.InputUpdateEvent;
+import org.rabix.engine.model.ContextRecord;
 import org.rabix.engine.model.JobRecord;
 import org.rabix.engine.model.LinkRecord;
 import org.rabix.engine.model.VariableRecord;
 import org.rabix.engine.model.scatter.RowMapping;
 import org.rabix.engine.model.scatter.ScatterStrategy;
 import org.rabix.engine.model.scatter.ScatterStrategyFactory;
+import org.rabix.engine.model.scatter.ScatterWindow;
 import org.rabix.engine.processor.EventProcessor;
 import org.rabix.engine.processor.handler.EventHandlerException;
+import org.rabix.engine.service.ContextRecordService;
 import org.rabix.engine.service.JobRecordService;
 import org.rabix.engine.service.JobRecordService.JobState;
 import org.rabix.engine.service.LinkRecordService;
@@ -29,6 +34,11 @@ import org.rabix.engine.service.VariableRecordService;
 
 import com.google.inject.Inject;
 
+/**
+ * Creates scattered jobs. Enabled rows are materialized through the job's {@link ScatterWindow}, so with a window
+ * configured ({@link EngineConfig#getScatterWindow(Configuration, java.util.Map)}) only that many scattered jobs exist
+ * and run at once. Next rows are materialized as the running ones complete.
+ */
 public class ScatterHandler {
 
   private final DAGNodeDB dagNodeDB;
@@ -37,11 +47,16 @@ public class ScatterHandler {
   private final JobRecordService jobRecordService;
   private final LinkRecordService linkRecordService;
   private final VariableRecordService variableRecordService;
+  private final ContextRecordService contextRecordService;
   private final ScatterStrategyFactory scatterStrategyFactory;
   
+  private final Configuration configuration;
+  
   @Inject
-  public ScatterHandler(final DAGNodeDB dagNodeDB, final JobRecordService jobRecordService, final VariableRecordService variableRecordService, final LinkRecordService linkRecordService, final EventProcessor eventProcessor, final ScatterStrategyFactory scatterStrategyFactory) {
+  public ScatterHandler(final DAGNodeDB dagNodeDB, final JobRecordService jobRecordService, final VariableRecordService variableRecordService, final LinkRecordService linkRecordService, final ContextRecordService contextRecordService, final EventProcessor eventProcessor, final ScatterStrategyFactory scatterStrategyFactory, final Configuration configuration) {
     this.dagNodeDB = dagNodeDB;
+    this.configuration = configuration;
+    this.contextRecordService = contextRecordService;
     this.eventProcessor = eventProcessor;
     this.jobRecordService = jobRecordService;
     this.linkRecordService = linkRecordService;
@@ -62,6 +77,8 @@ public class ScatterHandler {
       } catch (BindingException e) {
         throw new EventHandlerException(e);
       }
+      ContextRecord context = contextRecordService.find(job.getRootId());
+      job.setScatterWindow(new ScatterWindow(EngineConfig.getScatterWindow(configuration, context != null ? context.getConfig() : null)));
     }
 
     if (isLookAhead) {
@@ -101,7 +118,7 @@ public class ScatterHandler {
     if (ScatterMethod.isBlocking(node.getScatterMethod())) {
       isBlocking = true;
     }
-    return new JobRecord(contextId, id, JobRecordService.generateUniqueId(), parentId, JobState.PENDING, node instanceof DAGContainer, isScattered, false, isBlocking);
+    return new JobRecord(contextId, id, JobRecordService.generateUniqueId(contextId, id), parentId, JobState.PENDING, node instanceof DAGContainer, isScattered, false, isBlocking);
   }
   
   private void createScatteredJobs(JobRecord job, String port, Object value, DAGNode node, Integer numberOfScattered, Integer position) throws EventHandlerException {
@@ -116,59 +133,87 @@ public class ScatterHandler {
     }
     scatterStrategy.commit(mappings);
     
-    for (RowMapping mapping : mappings) {
+    ScatterWindow scatterWindow = job.getScatterWindow();
+    scatterWindow.offer(mappings, numberOfScattered);
+    if (!mappings.isEmpty()) {
+      // output counters cover rows which are not materialized yet
       job.setState(JobState.RUNNING);
+      job.setScatterWrapper(true);
+      job.resetOutputPortCounters(getNumberOfScattered(job, scatterWindow.getNumberOfScattered()));
       jobRecordService.update(job);
+    }
+    materializeScatteredJobs(job, node);
+  }
+  
+  /**
+   * Scattered job has completed, materializes next rows of its scatter wrapper
+   */
+  public void scatteredJobCompleted(JobRecord jobN) throws EventHandlerException {
+    JobRecord job = jobRecordService.find(InternalSchemaHelper.getJobIdFromScatteredId(jobN.getId()), jobN.getRootId());
+    if (job == null || job.getScatterWindow() == null) {
+      return;
+    }
+    job.getScatterWindow().release();
+    DAGNode node = dagNodeDB.get(InternalSchemaHelper.normalizeId(job.getId()), job.getRootId());
+    materializeScatteredJobs(job, node);
+  }
+  
+  private void materializeScatteredJobs(JobRecord job, DAGNode node) throws EventHandlerException {
+    ScatterWindow scatterWindow = job.getScatterWindow();
+    for (RowMapping mapping : scatterWindow.poll()) {
+      createScatteredJob(job, node, mapping, getNumberOfScattered(job, scatterWindow.getNumberOfScattered()));
+    }
+  }
+  
+  private void createScatteredJob(JobRecord job, DAGNode node, RowMapping mapping, int numberOfScattered) throws EventHandlerException {
+    List<Event> events = new ArrayList<>();
 
-      List<Event> events = new ArrayList<>();
-
-      String jobNId = InternalSchemaHelper.scatterId(job.getId(), mapping.getIndex());
-      JobRecord jobN = createJobRecord(jobNId, job.getExternalId(), node, true, job.getRootId());
-          
-      for (DAGLinkPort inputPort : node.getInputPorts()) {
-        Object defaultValue = node.getDefaults().get(inputPort.getId());
-        VariableRecord variableN = new VariableRecord(job.getRootId(), jobNId, inputPort.getId(), LinkPortType.INPUT, defaultValue, node.getLinkMerge(inputPort.getId(), inputPort.getType()));
-        variableN.setNumberGlobals(getNumberOfScattered(job, numberOfScattered));
-        variableRecordService.create(variableN);
+    String jobNId = InternalSchemaHelper.scatterId(job.getId(), mapping.getIndex());
+    JobRecord jobN = createJobRecord(jobNId, job.getExternalId(), node, true, job.getRootId());
+        
+    for (DAGLinkPort inputPort : node.getInputPorts()) {
+      Object defaultValue = node.getDefaults().get(inputPort.getId());
+      VariableRecord variableN = new VariableRecord(job.getRootId(), jobNId, inputPort.getId(), LinkPortType.INPUT, defaultValue, node.getLinkMerge(inputPort.getId(), inputPort.getType()));
+      variableN.setNumberGlobals(numberOfScattered);
+      variableRecordService.create(variableN);
 
-        if (jobN.getState().equals(JobState.PENDING)) {
-          jobN.incrementPortCounter(inputPort, LinkPortType.INPUT);
-        }
-        LinkRecord link = new LinkRecord(job.getRootId(), job.getId(), inputPort.getId(), LinkPortType.INPUT, jobNId, inputPort.getId(), LinkPortType.INPUT, 1);
-        linkRecordService.create(link);
+      if (jobN.getState().equals(JobState.PENDING)) {
+        jobN.incrementPortCounter(inputPort, LinkPortType.INPUT);
+      }
+      LinkRecord link = new LinkRecord(job.getRootId(), job.getId(), inputPort.getId(), LinkPortType.INPUT, jobNId, inputPort.getId(), LinkPortType.INPUT, 1);
+      linkRecordService.create(link);
 
-        if (inputPort.isScatter()) {
-          Event eventInputPort = new InputUpdateEvent(job.getRootId(), jobNId, inputPort.getId(), mapping.getValue(inputPort.getId()), 1);
-          events.add(eventInputPort);
-        } else {
-          if (job.isInputPortReady(inputPort.getId())) {
-            VariableRecord variable = variableRecordService.find(job.getId(), inputPort.getId(), LinkPortType.INPUT, job.getRootId());
-            events.add(new InputUpdateEvent(job.getRootId(), jobNId, inputPort.getId(), variable.getValue(), 1));
-          }
+      if (inputPort.isScatter()) {
+        Event eventInputPort = new InputUpdateEvent(job.getRootId(), jobNId, inputPort.getId(), mapping.getValue(inputPort.getId()), 1);
+        events.add(eventInputPort);
+      } else {
+        if (job.isInputPortReady(inputPort.getId())) {
+          VariableRecord variable = variableRecordService.find(job.getId(), inputPort.getId(), LinkPortType.INPUT, job.getRootId());
+          events.add(new InputUpdateEvent(job.getRootId(), jobNId, inputPort.getId(), variable.getValue(), 1));
         }
       }
-      for (DAGLinkPort outputPort : node.getOutputPorts()) {
-        VariableRecord variableN = new VariableRecord(job.getRootId(), jobNId, outputPort.getId(), LinkPortType.OUTPUT, null, node.getLinkMerge(outputPort.getId(), outputPort.getType()));
-        variableN.setNumberGlobals(getNumberOfScattered(job, numberOfScattered));
-        variableRecordService.create(variableN);
-        jobN.incrementPortCounter(outputPort, LinkPortType.OUTPUT);
+    }
+    for (DAGLinkPort outputPort : node.getOutputPorts()) {
+      VariableRecord variableN = new VariableRecord(job.getRootId(), jobNId, outputPort.getId(), LinkPortType.OUTPUT, null, node.getLinkMerge(outputPort.getId(), outputPort.getType()));
+      variableN.setNumberGlobals(numberOfScattered);
+      variableRecordService.create(variableN);
+      jobN.incrementPortCounter(outputPort, LinkPortType.OUTPUT);
 
-        LinkRecord link = new LinkRecord(job.getRootId(), jobNId, outputPort.getId(), LinkPortType.OUTPUT, job.getId(), outputPort.getId(), LinkPortType.OUTPUT, null);
-        linkRecordService.create(link);
-      }
+      LinkRecord link = new LinkRecord(job.getRootId(), jobNId, outputPort.getId(), LinkPortType.OUTPUT, job.getId(), outputPort.getId(), LinkPortType.OUTPUT, null);
+      linkRecordService.create(link);
+    }
 
-      job.setState(JobState.RUNNING);
-      job.setScatterWrapper(true);
-      
-      job.resetOutputPortCounters(getNumberOfScattered(job, numberOfScattered));
-      jobRecordService.update(job);
-      
-      jobN.setNumberOfGlobalOutputs(getNumberOfScattered(job, numberOfScattered));
-      jobRecordService.create(jobN);
+    job.setState(JobState.RUNNING);
+    job.setScatterWrapper(true);
+    
+    job.resetOutputPortCounters(numberOfScattered);
+    jobRecordService.update(job);
+    
+    jobN.setNumberOfGlobalOutputs(numberOfScattered);
+    jobRecordService.create(jobN);
 
-      for (Event subevent : events) {
-        eventProcessor.send(subevent);
-      }
+    for (Event subevent : events) {
+      eventProcessor.send(subevent);
     }
   }
   
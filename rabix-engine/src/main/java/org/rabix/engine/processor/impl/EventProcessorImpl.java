@@ -1,17 +1,33 @@
 package org.rabix.engine.processor.impl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.apache.commons.configuration.Configuration;
+import org.rabix.engine.config.EngineConfig;
 import org.rabix.engine.event.Event;
 import org.rabix.engine.event.Event.EventType;
 import org.rabix.engine.event.impl.ContextStatusEvent;
+import org.rabix.engine.journal.JournalService;
+import org.rabix.engine.journal.JournalService.RecoveryCallback;
+import org.rabix.engine.journal.JournalService.Snapshot;
 import org.rabix.engine.model.ContextRecord;
 import org.rabix.engine.model.ContextRecord.ContextStatus;
 import org.rabix.engine.processor.EventProcessor;
@@ -26,96 +42,257 @@ import org.slf4j.LoggerFactory;
 import com.google.inject.Inject;
 
 /**
- * Event processor implementation
+ * Event processor implementation. Events are sharded by context ID across a fixed number of workers,
+ * so events of one context are processed in order while independent contexts progress in parallel.
+ * <p>
+ * If the journal is enabled every event is journaled before it's processed and the state is recovered on start.
+ * Snapshots are taken periodically while the workers are paused between two events.
  */
 public class EventProcessorImpl implements EventProcessor {
 
   private static final Logger logger = LoggerFactory.getLogger(EventProcessorImpl.class);
-  
-  public final static long SLEEP = 100;
-  
-  private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
-  private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+  private final EventWorker[] workers;
+  private final ExecutorService executorService;
 
   private final AtomicBoolean stop = new AtomicBoolean(false);
-  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final AtomicInteger pending = new AtomicInteger(0);
 
   private final HandlerFactory handlerFactory;
   private final EventDispatcher eventDispatcher;
-  
+
   private final ContextRecordService contextRecordService;
-  
+  private final JournalService journalService;
+  private final Configuration configuration;
+
   private final ConcurrentMap<String, Integer> iterations = new ConcurrentHashMap<>();
-  
+
+  private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+  private final ThreadLocal<Boolean> processing = new ThreadLocal<>();
+  private ScheduledExecutorService snapshotService;
+
+  /**
+   * Events queued while replaying the journal, per context
+   */
+  private volatile Map<String, LinkedList<Event>> replayQueues;
+
   @Inject
-  public EventProcessorImpl(HandlerFactory handlerFactory, EventDispatcherFactory eventDispatcherFactory, ContextRecordService contextRecordService) {
+  public EventProcessorImpl(HandlerFactory handlerFactory, EventDispatcherFactory eventDispatcherFactory, ContextRecordService contextRecordService, JournalService journalService, Configuration configuration) {
     this.handlerFactory = handlerFactory;
     this.contextRecordService = contextRecordService;
+    this.journalService = journalService;
+    this.configuration = configuration;
     this.eventDispatcher = eventDispatcherFactory.create(EventDispatcher.Type.SYNC);
+
+    int workerCount = Math.max(1, EngineConfig.getEventProcessorCount(configuration));
+    this.workers = new EventWorker[workerCount];
+    for (int i = 0; i < workerCount; i++) {
+      workers[i] = new EventWorker();
+    }
+    this.executorService = Executors.newFixedThreadPool(workerCount);
   }
 
   public void start(final List<IterationCallback> iterationCallbacks) {
-    executorService.execute(new Runnable() {
-      @Override
-      public void run() {
-        Event event = null;
-        while (!stop.get()) {
-          try {
-            event = events.poll();
-            if (event == null) {
-              running.set(false);
-              Thread.sleep(SLEEP);
-              continue;
-            }
-            ContextRecord context = contextRecordService.find(event.getContextId());
-            if (context != null && context.getStatus().equals(ContextStatus.FAILED)) {
-              logger.info("Skip event {}. Context {} has been invalidated.", event, context.getId());
-              continue;
-            }
-            running.set(true);
-            handlerFactory.get(event.getType()).handle(event);
+    if (journalService.isEnabled()) {
+      recover(iterationCallbacks);
+    }
+    for (EventWorker worker : workers) {
+      worker.iterationCallbacks = iterationCallbacks;
+      executorService.execute(worker);
+    }
+    if (journalService.isEnabled()) {
+      long interval = EngineConfig.getSnapshotInterval(configuration);
+      snapshotService = Executors.newSingleThreadScheduledExecutor();
+      snapshotService.scheduleWithFixedDelay(new Runnable() {
+        @Override
+        public void run() {
+          snapshot();
+        }
+      }, interval, interval, TimeUnit.SECONDS);
+    }
+  }
 
-            Integer iteration = iterations.get(event.getContextId());
-            if (iteration == null) {
-              iteration = 0;
-            }
-            
-            iteration++;
-            if (iterationCallbacks != null) {
-              for (IterationCallback callback : iterationCallbacks) {
-                callback.call(EventProcessorImpl.this, event.getContextId(), iteration);
-              }
-            }
-            iterations.put(event.getContextId(), iteration);
-          } catch (Exception e) {
-            logger.error("EventProcessor failed to process event {}.", event, e);
-            try {
-              invalidateContext(event.getContextId());
-            } catch (EventHandlerException ehe) {
-              logger.error("Failed to invalidate Context {}.", event.getContextId(), ehe);
-              stop();
+  /**
+   * Restores state from the snapshot and replays the journal tail. Derived events are generated again while
+   * replaying, so the journaled ones are only matched against them. Events which are still queued at the end are
+   * queued for the workers. Callbacks are called once per recovered context (jobs which were READY are sent again).
+   */
+  private void recover(List<IterationCallback> iterationCallbacks) {
+    final Map<String, LinkedList<Event>> queues = new HashMap<>();
+    final Set<String> contextIds = new LinkedHashSet<>();
+    replayQueues = queues;
+    try {
+      journalService.recover(new RecoveryCallback() {
+        @Override
+        public void queued(Event event) {
+          LinkedList<Event> queue = queues.get(event.getContextId());
+          if (queue == null) {
+            queue = new LinkedList<>();
+            queues.put(event.getContextId(), queue);
+          }
+          queue.add(event);
+        }
+
+        @Override
+        public void replay(Event event, boolean derived) {
+          if (derived) {
+            LinkedList<Event> queue = queues.get(event.getContextId());
+            if (queue == null || queue.poll() == null) {
+              logger.warn("Journaled event {} was not generated again while replaying", event);
             }
           }
+          contextIds.add(event.getContextId());
+          process(event, null);
+        }
+      });
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to recover engine state", e);
+    } finally {
+      replayQueues = null;
+    }
+    for (LinkedList<Event> queue : queues.values()) {
+      for (Event event : queue) {
+        processing.set(true);
+        try {
+          addToQueue(event);
+        } finally {
+          processing.remove();
+        }
+      }
+    }
+    for (ContextRecord context : contextRecordService.find()) {
+      contextIds.add(context.getId());
+    }
+    if (iterationCallbacks == null) {
+      return;
+    }
+    for (String contextId : contextIds) {
+      for (IterationCallback callback : iterationCallbacks) {
+        try {
+          callback.call(this, contextId, 0);
+        } catch (Exception e) {
+          logger.error("Failed to call callback for recovered context {}.", contextId, e);
         }
       }
-    });
+    }
   }
-  
+
   /**
-   * Invalidates context 
+   * Pauses the workers while the records are copied, serializes and writes the copy after the workers are resumed
+   */
+  private void snapshot() {
+    Snapshot snapshot;
+    snapshotLock.writeLock().lock();
+    try {
+      List<Event> queued = new ArrayList<>();
+      for (EventWorker worker : workers) {
+        QueuedEvent current = worker.current;
+        if (current != null && current.derived) {
+          queued.add(current.event);
+        }
+        for (QueuedEvent queuedEvent : worker.events) {
+          if (queuedEvent.derived) {
+            queued.add(queuedEvent.event);
+          }
+        }
+      }
+      snapshot = journalService.createSnapshot(queued);
+    } catch (Exception e) {
+      logger.error("Failed to create snapshot", e);
+      return;
+    } finally {
+      snapshotLock.writeLock().unlock();
+    }
+    try {
+      journalService.writeSnapshot(snapshot);
+    } catch (Exception e) {
+      logger.error("Failed to write snapshot {}", snapshot.getSequence(), e);
+    }
+  }
+
+  /**
+   * Journals event taken from the queue and processes it. Event which can't be journaled isn't processed, the processor
+   * is stopped since the state couldn't be recovered anymore.
+   */
+  private void process(QueuedEvent queuedEvent, List<IterationCallback> iterationCallbacks) {
+    if (journalService.isEnabled()) {
+      try {
+        journalService.append(queuedEvent.event, queuedEvent.derived);
+      } catch (Exception e) {
+        logger.error("Failed to journal event {}. Stopping the event processor.", queuedEvent.event, e);
+        stop();
+        return;
+      }
+    }
+    process(queuedEvent.event, iterationCallbacks);
+  }
+
+  /**
+   * Processes one event and calls iteration callbacks
+   */
+  private void process(Event event, List<IterationCallback> iterationCallbacks) {
+    try {
+      ContextRecord context = contextRecordService.find(event.getContextId());
+      if (context != null && context.getStatus().equals(ContextStatus.FAILED)) {
+        logger.info("Skip event {}. Context {} has been invalidated.", event, context.getId());
+        return;
+      }
+      handle(event);
+
+      Integer iteration = iterations.get(event.getContextId());
+      if (iteration == null) {
+        iteration = 0;
+      }
+
+      iteration++;
+      if (iterationCallbacks != null) {
+        for (IterationCallback callback : iterationCallbacks) {
+          callback.call(EventProcessorImpl.this, event.getContextId(), iteration);
+        }
+      }
+      iterations.put(event.getContextId(), iteration);
+    } catch (Exception e) {
+      logger.error("EventProcessor failed to process event {}.", event, e);
+      try {
+        invalidateContext(event.getContextId());
+      } catch (EventHandlerException ehe) {
+        logger.error("Failed to invalidate Context {}.", event.getContextId(), ehe);
+        stop();
+      }
+    }
+  }
+
+  /**
+   * Invalidates context
    */
   private void invalidateContext(String contextId) throws EventHandlerException {
-    handlerFactory.get(Event.EventType.CONTEXT_STATUS_UPDATE).handle(new ContextStatusEvent(contextId, ContextStatus.FAILED));
+    handle(new ContextStatusEvent(contextId, ContextStatus.FAILED));
   }
-  
+
+  /**
+   * Calls the handler. Events queued by the handler are derived, they are generated again when the journal is replayed.
+   */
+  private void handle(Event event) throws EventHandlerException {
+    processing.set(true);
+    try {
+      handlerFactory.get(event.getType()).handle(event);
+    } finally {
+      processing.remove();
+    }
+  }
+
   @Override
   public void stop() {
     stop.set(true);
-    running.set(false);
+    executorService.shutdownNow();
+    if (snapshotService != null) {
+      snapshotService.shutdownNow();
+    }
+    journalService.close();
   }
 
   public boolean isRunning() {
-    return running.get();
+    return pending.get() > 0;
   }
 
   public void send(Event event) throws EventHandlerException {
@@ -133,7 +310,66 @@ public class EventProcessorImpl implements EventProcessor {
     if (stop.get()) {
       return;
     }
-    this.events.add(event);
+    Map<String, LinkedList<Event>> queues = replayQueues;
+    if (queues != null && processing.get() != null) {
+      LinkedList<Event> queue = queues.get(event.getContextId());
+      if (queue == null) {
+        queue = new LinkedList<>();
+        queues.put(event.getContextId(), queue);
+      }
+      queue.add(event);
+      return;
+    }
+    pending.incrementAndGet();
+    getWorker(event.getContextId()).events.add(new QueuedEvent(event, processing.get() != null));
+  }
+
+  private EventWorker getWorker(String contextId) {
+    int shard = contextId != null ? (contextId.hashCode() & Integer.MAX_VALUE) % workers.length : 0;
+    return workers[shard];
+  }
+
+  /**
+   * Queued event. Derived events are queued by event handlers.
+   */
+  private static class QueuedEvent {
+    private final Event event;
+    private final boolean derived;
+
+    private QueuedEvent(Event event, boolean derived) {
+      this.event = event;
+      this.derived = derived;
+    }
+  }
+
+  /**
+   * Processes events of the contexts assigned to it, blocking while its queue is empty
+   */
+  private class EventWorker implements Runnable {
+
+    private final BlockingQueue<QueuedEvent> events = new LinkedBlockingQueue<>();
+    private volatile List<IterationCallback> iterationCallbacks;
+    private volatile QueuedEvent current;
+
+    @Override
+    public void run() {
+      while (!stop.get()) {
+        try {
+          current = events.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        snapshotLock.readLock().lock();
+        try {
+          process(current, iterationCallbacks);
+        } finally {
+          current = null;
+          snapshotLock.readLock().unlock();
+          pending.decrementAndGet();
+        }
+      }
+    }
   }
 
 }
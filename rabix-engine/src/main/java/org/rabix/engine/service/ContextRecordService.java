@@ -1,34 +1,33 @@
 package org.rabix.engine.service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.rabix.engine.model.ContextRecord;
 
 public class ContextRecordService {
 
-  private List<ContextRecord> contextRecords = new ArrayList<>();
-  
+  private Map<String, ContextRecord> contextRecords = new HashMap<>();
+
   public synchronized void create(ContextRecord contextRecord) {
-    contextRecords.add(contextRecord);
+    contextRecords.put(contextRecord.getId(), contextRecord);
   }
-  
+
   public synchronized void update(ContextRecord context) {
-    for (ContextRecord c : contextRecords) {
-      if (c.getId().equals(context.getId())) {
-        c.setStatus(context.getStatus());
-        return;
-      }
+    ContextRecord contextRecord = contextRecords.get(context.getId());
+    if (contextRecord != null) {
+      contextRecord.setStatus(context.getStatus());
     }
   }
-  
+
   public synchronized ContextRecord find(String id) {
-    for (ContextRecord contextRecord : contextRecords) {
-      if (contextRecord.getId().equals(id)) {
-        return contextRecord;
-      }
-    }
-    return null;
+    return contextRecords.get(id);
   }
-  
+
+  public synchronized List<ContextRecord> find() {
+    return new ArrayList<>(contextRecords.values());
+  }
+
 }
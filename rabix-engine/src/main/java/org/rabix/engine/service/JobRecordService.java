@@ -1,11 +1,19 @@
 package org.rabix.engine.service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import org.rabix.common.helper.InternalSchemaHelper;
 import org.rabix.engine.model.JobRecord;
 
 public class JobRecordService {
@@ -18,71 +26,130 @@ public class JobRecordService {
     FAILED
   }
 
-  private Map<String, List<JobRecord>> jobRecordsPerContext = new HashMap<String, List<JobRecord>>();
+  private Map<String, ContextJobRecords> jobRecordsPerContext = new HashMap<String, ContextJobRecords>();
 
-  public static String generateUniqueId() {
-    return UUID.randomUUID().toString();
+  /**
+   * Generates external ID of the job. ID is derived from context and job IDs, so replaying events after restart
+   * produces the same IDs.
+   */
+  public static String generateUniqueId(String contextId, String jobId) {
+    return UUID.nameUUIDFromBytes((contextId + InternalSchemaHelper.SLASH_SEPARATOR + jobId).getBytes(StandardCharsets.UTF_8)).toString();
   }
-  
+
   public synchronized void create(JobRecord jobRecord) {
-    getJobRecords(jobRecord.getRootId()).add(jobRecord);
+    ContextJobRecords contextJobRecords = getJobRecords(jobRecord.getRootId());
+    contextJobRecords.jobRecords.put(jobRecord.getId(), jobRecord);
+    if (jobRecord.isMaster()) {
+      contextJobRecords.root = jobRecord;
+    }
+    contextJobRecords.indexState(jobRecord);
   }
 
   public synchronized void update(JobRecord jobRecord) {
-    for (JobRecord jr : getJobRecords(jobRecord.getRootId())) {
-      if (jr.getId().equals(jobRecord.getId())) {
-        jr.setState(jobRecord.getState());
-        jr.setContainer(jobRecord.isContainer());
-        jr.setScattered(jobRecord.isScattered());
-        jr.setInputCounters(jobRecord.getInputCounters());
-        jr.setOutputCounters(jobRecord.getOutputCounters());
-        jr.setScatterWrapper(jobRecord.isScatterWrapper());
-        jr.setScatterStrategy(jobRecord.getScatterStrategy());
-        return;
-      }
+    ContextJobRecords contextJobRecords = getJobRecords(jobRecord.getRootId());
+    JobRecord jr = contextJobRecords.jobRecords.get(jobRecord.getId());
+    if (jr == null) {
+      return;
     }
+    jr.setState(jobRecord.getState());
+    jr.setContainer(jobRecord.isContainer());
+    jr.setScattered(jobRecord.isScattered());
+    jr.setInputCounters(jobRecord.getInputCounters());
+    jr.setOutputCounters(jobRecord.getOutputCounters());
+    jr.setScatterWrapper(jobRecord.isScatterWrapper());
+    jr.setScatterStrategy(jobRecord.getScatterStrategy());
+    jr.setScatterWindow(jobRecord.getScatterWindow());
+    contextJobRecords.indexState(jr);
   }
-  
+
   public synchronized List<JobRecord> find(String contextId) {
-    return getJobRecords(contextId);
+    return new ArrayList<>(getJobRecords(contextId).jobRecords.values());
   }
-  
+
   public synchronized List<JobRecord> findReady(String contextId) {
     List<JobRecord> result = new ArrayList<>();
-    
-    for (JobRecord jr : getJobRecords(contextId)) {
-      if (jr.getState().equals(JobState.READY) && jr.getRootId().equals(contextId)) {
+
+    Iterator<JobRecord> readyIterator = getJobRecords(contextId).ready.iterator();
+    while (readyIterator.hasNext()) {
+      JobRecord jr = readyIterator.next();
+      if (!jr.getState().equals(JobState.READY)) {
+        // state was changed on the shared instance without an update
+        readyIterator.remove();
+        continue;
+      }
+      result.add(jr);
+    }
+    return result;
+  }
+
+  /**
+   * Gets jobs which became READY since the previous call. Each READY transition is returned only once, unless it's
+   * given back with {@link #returnReady(String, Collection)}.
+   */
+  public synchronized List<JobRecord> pollReady(String contextId) {
+    ContextJobRecords contextJobRecords = getJobRecords(contextId);
+    if (contextJobRecords.readyToEmit.isEmpty()) {
+      return Collections.<JobRecord>emptyList();
+    }
+    List<JobRecord> result = new ArrayList<>();
+    for (JobRecord jr : contextJobRecords.readyToEmit) {
+      if (jr.getState().equals(JobState.READY)) {
         result.add(jr);
       }
     }
+    contextJobRecords.readyToEmit.clear();
     return result;
   }
-  
-  public synchronized JobRecord find(String id, String contextId) {
-    for (JobRecord jr : getJobRecords(contextId)) {
-      if (jr.getId().equals(id) && jr.getRootId().equals(contextId)) {
-        return jr;
+
+  /**
+   * Gives back polled jobs which were not emitted (e.g. sending them failed), so the next poll returns them again
+   */
+  public synchronized void returnReady(String contextId, Collection<String> ids) {
+    ContextJobRecords contextJobRecords = getJobRecords(contextId);
+    for (String id : ids) {
+      JobRecord jr = contextJobRecords.jobRecords.get(id);
+      if (jr != null && contextJobRecords.ready.contains(jr) && jr.getState().equals(JobState.READY)) {
+        contextJobRecords.readyToEmit.add(jr);
       }
     }
-    return null;
   }
-  
+
+  public synchronized JobRecord find(String id, String contextId) {
+    return getJobRecords(contextId).jobRecords.get(id);
+  }
+
   public synchronized JobRecord findRoot(String contextId) {
-    for (JobRecord jr : getJobRecords(contextId)) {
-      if (jr.isMaster() && jr.getRootId().equals(contextId)) {
-        return jr;
-      }
+    return getJobRecords(contextId).root;
+  }
+
+  private synchronized ContextJobRecords getJobRecords(String contextId) {
+    ContextJobRecords contextJobRecords = jobRecordsPerContext.get(contextId);
+    if (contextJobRecords == null) {
+      contextJobRecords = new ContextJobRecords();
+      jobRecordsPerContext.put(contextId, contextJobRecords);
     }
-    return null;
+    return contextJobRecords;
   }
-  
-  private synchronized List<JobRecord> getJobRecords(String contextId) {
-    List<JobRecord> jobRecordList = jobRecordsPerContext.get(contextId);
-    if (jobRecordList == null) {
-      jobRecordList = new ArrayList<>();
-      jobRecordsPerContext.put(contextId, jobRecordList);
+
+  /**
+   * Job records of one context indexed by id and by READY state
+   */
+  private static class ContextJobRecords {
+    private JobRecord root;
+    private final Map<String, JobRecord> jobRecords = new LinkedHashMap<>();
+    private final Set<JobRecord> ready = new LinkedHashSet<>();
+    private final Set<JobRecord> readyToEmit = new LinkedHashSet<>();
+
+    private void indexState(JobRecord jobRecord) {
+      if (jobRecord.getState().equals(JobState.READY)) {
+        if (ready.add(jobRecord)) {
+          readyToEmit.add(jobRecord);
+        }
+      } else {
+        ready.remove(jobRecord);
+        readyToEmit.remove(jobRecord);
+      }
     }
-    return jobRecordList;
   }
-  
+
 }
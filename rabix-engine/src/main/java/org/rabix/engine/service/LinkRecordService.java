@@ -1,7 +1,9 @@
 package org.rabix.engine.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -10,46 +12,53 @@ import org.rabix.engine.model.LinkRecord;
 
 public class LinkRecordService {
 
-  private Map<String, List<LinkRecord>> linkRecordsPerContext = new HashMap<String, List<LinkRecord>>();
+  private Map<String, ContextLinkRecords> linkRecordsPerContext = new HashMap<String, ContextLinkRecords>();
 
-  public void create(LinkRecord link) {
-    getLinkRecords(link.getContextId()).add(link);
+  public synchronized void create(LinkRecord link) {
+    ContextLinkRecords contextLinkRecords = getContextLinkRecords(link.getContextId());
+    contextLinkRecords.linkRecords.add(link);
+
+    Map<String, List<LinkRecord>> sourceJobLinks = contextLinkRecords.linkRecordsPerSource.get(link.getSourceJobId());
+    if (sourceJobLinks == null) {
+      sourceJobLinks = new LinkedHashMap<>();
+      contextLinkRecords.linkRecordsPerSource.put(link.getSourceJobId(), sourceJobLinks);
+    }
+    List<LinkRecord> sourcePortLinks = sourceJobLinks.get(link.getSourceJobPort());
+    if (sourcePortLinks == null) {
+      sourcePortLinks = new ArrayList<>();
+      sourceJobLinks.put(link.getSourceJobPort(), sourcePortLinks);
+    }
+    sourcePortLinks.add(link);
   }
 
   public synchronized List<LinkRecord> findBySourceJobId(String jobId, String contextId) {
     List<LinkRecord> result = new ArrayList<>();
-    for (LinkRecord lr : getLinkRecords(contextId)) {
-      if (lr.getSourceJobId().equals(jobId) && lr.getContextId().equals(contextId)) {
-        result.add(lr);
-      }
+    for (List<LinkRecord> sourcePortLinks : getSourceJobLinks(jobId, contextId).values()) {
+      result.addAll(sourcePortLinks);
     }
     return result;
   }
-  
+
   public synchronized List<LinkRecord> findBySourceAndSourceType(String jobId, LinkPortType varType, String contextId) {
     List<LinkRecord> result = new ArrayList<>();
-    for (LinkRecord lr : getLinkRecords(contextId)) {
-      if (lr.getSourceJobId().equals(jobId) && lr.getSourceVarType().equals(varType) && lr.getContextId().equals(contextId)) {
-        result.add(lr);
+    for (List<LinkRecord> sourcePortLinks : getSourceJobLinks(jobId, contextId).values()) {
+      for (LinkRecord lr : sourcePortLinks) {
+        if (lr.getSourceVarType().equals(varType)) {
+          result.add(lr);
+        }
       }
     }
     return result;
   }
-  
+
   public synchronized List<LinkRecord> findBySource(String jobId, String portId, String contextId) {
-    List<LinkRecord> result = new ArrayList<>();
-    for (LinkRecord lr : getLinkRecords(contextId)) {
-      if (lr.getSourceJobId().equals(jobId) && lr.getSourceJobPort().equals(portId) && lr.getContextId().equals(contextId)) {
-        result.add(lr);
-      }
-    }
-    return result;
+    return new ArrayList<>(getSourcePortLinks(jobId, portId, contextId));
   }
-  
+
   public synchronized List<LinkRecord> findBySourceAndDestinationType(String jobId, String portId, LinkPortType varType, String contextId) {
     List<LinkRecord> result = new ArrayList<>();
-    for (LinkRecord lr : getLinkRecords(contextId)) {
-      if (lr.getSourceJobId().equals(jobId) && lr.getSourceJobPort().equals(portId) && lr.getDestinationVarType().equals(varType) && lr.getContextId().equals(contextId)) {
+    for (LinkRecord lr : getSourcePortLinks(jobId, portId, contextId)) {
+      if (lr.getDestinationVarType().equals(varType)) {
         result.add(lr);
       }
     }
@@ -57,16 +66,38 @@ public class LinkRecordService {
   }
 
   public synchronized List<LinkRecord> find(String contextId) {
-    return getLinkRecords(contextId);
+    return new ArrayList<>(getContextLinkRecords(contextId).linkRecords);
   }
-  
-  private synchronized List<LinkRecord> getLinkRecords(String contextId) {
-    List<LinkRecord> linkList = linkRecordsPerContext.get(contextId);
-    if (linkList == null) {
-      linkList = new ArrayList<>();
-      linkRecordsPerContext.put(contextId, linkList);
+
+  private Map<String, List<LinkRecord>> getSourceJobLinks(String jobId, String contextId) {
+    ContextLinkRecords contextLinkRecords = linkRecordsPerContext.get(contextId);
+    if (contextLinkRecords == null) {
+      return Collections.<String, List<LinkRecord>>emptyMap();
     }
-    return linkList;
+    Map<String, List<LinkRecord>> sourceJobLinks = contextLinkRecords.linkRecordsPerSource.get(jobId);
+    return sourceJobLinks != null ? sourceJobLinks : Collections.<String, List<LinkRecord>>emptyMap();
   }
-  
+
+  private List<LinkRecord> getSourcePortLinks(String jobId, String portId, String contextId) {
+    List<LinkRecord> sourcePortLinks = getSourceJobLinks(jobId, contextId).get(portId);
+    return sourcePortLinks != null ? sourcePortLinks : Collections.<LinkRecord>emptyList();
+  }
+
+  private ContextLinkRecords getContextLinkRecords(String contextId) {
+    ContextLinkRecords contextLinkRecords = linkRecordsPerContext.get(contextId);
+    if (contextLinkRecords == null) {
+      contextLinkRecords = new ContextLinkRecords();
+      linkRecordsPerContext.put(contextId, contextLinkRecords);
+    }
+    return contextLinkRecords;
+  }
+
+  /**
+   * Link records of one context indexed by source job and source port
+   */
+  private static class ContextLinkRecords {
+    private final List<LinkRecord> linkRecords = new ArrayList<>();
+    private final Map<String, Map<String, List<LinkRecord>>> linkRecordsPerSource = new HashMap<>();
+  }
+
 }
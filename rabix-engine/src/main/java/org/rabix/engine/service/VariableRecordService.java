@@ -1,6 +1,7 @@
 package org.rabix.engine.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -10,35 +11,41 @@ import org.rabix.engine.model.VariableRecord;
 
 public class VariableRecordService {
 
-  private Map<String, List<VariableRecord>> variableRecordsPerContext = new HashMap<String, List<VariableRecord>>();
+  private Map<String, ContextVariableRecords> variableRecordsPerContext = new HashMap<String, ContextVariableRecords>();
 
   public synchronized void create(VariableRecord variableRecord) {
-    getVariableRecords(variableRecord.getContextId()).add(variableRecord);
+    ContextVariableRecords contextVariableRecords = getContextVariableRecords(variableRecord.getContextId());
+    contextVariableRecords.variableRecords.add(variableRecord);
+
+    List<VariableRecord> jobVariables = contextVariableRecords.variableRecordsPerJob.get(variableRecord.getJobId());
+    if (jobVariables == null) {
+      jobVariables = new ArrayList<>();
+      contextVariableRecords.variableRecordsPerJob.put(variableRecord.getJobId(), jobVariables);
+    }
+    jobVariables.add(variableRecord);
   }
 
   public synchronized void update(VariableRecord variableRecord) {
-    for (VariableRecord vr : getVariableRecords(variableRecord.getContextId())) {
-      if (vr.getJobId().equals(variableRecord.getJobId()) && vr.getPortId().equals(variableRecord.getPortId()) && vr.getType().equals(variableRecord.getType()) && vr.getContextId().equals(variableRecord.getContextId())) {
-        vr.setValue(variableRecord.getValue());
-        return;
-      }
+    VariableRecord vr = find(variableRecord.getJobId(), variableRecord.getPortId(), variableRecord.getType(), variableRecord.getContextId());
+    if (vr != null) {
+      vr.setValue(variableRecord.getValue());
     }
   }
-  
+
   public synchronized List<VariableRecord> find(String jobId, LinkPortType type, String contextId) {
     List<VariableRecord> result = new ArrayList<>();
-    for (VariableRecord vr : getVariableRecords(contextId)) {
-      if (vr.getJobId().equals(jobId) && vr.getType().equals(type) && vr.getContextId().equals(contextId)) {
+    for (VariableRecord vr : getJobVariableRecords(jobId, contextId)) {
+      if (vr.getType().equals(type)) {
         result.add(vr);
       }
     }
     return result;
   }
-  
+
   public synchronized List<VariableRecord> find(String jobId, String portId, String contextId) {
     List<VariableRecord> result = new ArrayList<>();
-    for (VariableRecord vr : getVariableRecords(contextId)) {
-      if (vr.getJobId().equals(jobId) && vr.getPortId().equals(portId) && vr.getContextId().equals(contextId)) {
+    for (VariableRecord vr : getJobVariableRecords(jobId, contextId)) {
+      if (vr.getPortId().equals(portId)) {
         result.add(vr);
       }
     }
@@ -46,8 +53,8 @@ public class VariableRecordService {
   }
 
   public synchronized VariableRecord find(String jobId, String portId, LinkPortType type, String contextId) {
-    for (VariableRecord vr : getVariableRecords(contextId)) {
-      if (vr.getJobId().equals(jobId) && vr.getPortId().equals(portId) && vr.getType().equals(type) && vr.getContextId().equals(contextId)) {
+    for (VariableRecord vr : getJobVariableRecords(jobId, contextId)) {
+      if (vr.getPortId().equals(portId) && vr.getType().equals(type)) {
         return vr;
       }
     }
@@ -55,26 +62,44 @@ public class VariableRecordService {
   }
 
   public synchronized List<VariableRecord> findByJobId(String jobId, LinkPortType type, String contextId) {
-    List<VariableRecord> result = new ArrayList<>();
-    for (VariableRecord vr : getVariableRecords(contextId)) {
-      if (vr.getJobId().equals(jobId) && vr.getType().equals(type) && vr.getContextId().equals(contextId)) {
-        result.add(vr);
-      }
-    }
-    return result;
+    return find(jobId, type, contextId);
   }
 
   public synchronized List<VariableRecord> find(String contextId) {
     return getVariableRecords(contextId);
   }
-  
+
   public synchronized List<VariableRecord> getVariableRecords(String contextId) {
-    List<VariableRecord> variableList = variableRecordsPerContext.get(contextId);
-    if (variableList == null) {
-      variableList = new ArrayList<>();
-      variableRecordsPerContext.put(contextId, variableList);
+    return new ArrayList<>(getContextVariableRecords(contextId).variableRecords);
+  }
+
+  /**
+   * Gets variables of one job. The list is bounded by the number of job ports so scanning it is O(1) in the size of the context.
+   */
+  private List<VariableRecord> getJobVariableRecords(String jobId, String contextId) {
+    ContextVariableRecords contextVariableRecords = variableRecordsPerContext.get(contextId);
+    if (contextVariableRecords == null) {
+      return Collections.<VariableRecord>emptyList();
     }
-    return variableList;
+    List<VariableRecord> jobVariables = contextVariableRecords.variableRecordsPerJob.get(jobId);
+    return jobVariables != null ? jobVariables : Collections.<VariableRecord>emptyList();
   }
-  
+
+  private ContextVariableRecords getContextVariableRecords(String contextId) {
+    ContextVariableRecords contextVariableRecords = variableRecordsPerContext.get(contextId);
+    if (contextVariableRecords == null) {
+      contextVariableRecords = new ContextVariableRecords();
+      variableRecordsPerContext.put(contextId, contextVariableRecords);
+    }
+    return contextVariableRecords;
+  }
+
+  /**
+   * Variable records of one context indexed by job id
+   */
+  private static class ContextVariableRecords {
+    private final List<VariableRecord> variableRecords = new ArrayList<>();
+    private final Map<String, List<VariableRecord>> variableRecordsPerJob = new HashMap<>();
+  }
+
 }
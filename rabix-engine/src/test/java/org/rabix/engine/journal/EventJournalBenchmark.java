@@ -0,0 +1,80 @@
+package org.rabix.engine.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.rabix.engine.event.impl.JobStatusEvent;
+import org.rabix.engine.service.JobRecordService.JobState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Measures journal append latency. Not part of the default build, run with <code>mvn test -Pbenchmark</code>.
+ */
+@Test(groups = { "benchmark" })
+public class EventJournalBenchmark {
+
+  private final static Logger logger = LoggerFactory.getLogger(EventJournalBenchmark.class);
+
+  private static final int WARMUP_ITERATIONS = 3;
+  private static final int ITERATIONS = 10;
+
+  private static final int EVENT_COUNT = 200000;
+  private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private File directory;
+
+  @BeforeMethod
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("journal").toFile();
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void benchmarkAppend() throws IOException {
+    byte[] event = EventCodec.encode(new JobStatusEvent("root.step.1", "2b7a9c3e-5a8e-4a44-9e8c-3d9a3c1f2d10", JobState.COMPLETED, null));
+
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      append(event, new long[EVENT_COUNT]);
+    }
+    long[] latencies = new long[EVENT_COUNT * ITERATIONS];
+    long total = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long[] iterationLatencies = new long[EVENT_COUNT];
+      total += append(event, iterationLatencies);
+      System.arraycopy(iterationLatencies, 0, latencies, i * EVENT_COUNT, EVENT_COUNT);
+    }
+    Arrays.sort(latencies);
+    logger.info("journal append: {} events, mean {} ns, p99 {} ns over {} iterations", EVENT_COUNT, total / latencies.length, latencies[latencies.length * 99 / 100], ITERATIONS);
+  }
+
+  /**
+   * Appends events to a new journal and returns the total duration in nanoseconds
+   */
+  private long append(byte[] event, long[] latencies) throws IOException {
+    FileUtils.cleanDirectory(directory);
+    EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, 10);
+    long start = System.nanoTime();
+    for (int i = 0; i < latencies.length; i++) {
+      long appendStart = System.nanoTime();
+      journal.append(event, (byte) 0);
+      latencies[i] = System.nanoTime() - appendStart;
+    }
+    long total = System.nanoTime() - start;
+    Assert.assertEquals(journal.getLastSequence(), latencies.length);
+    journal.close();
+    return total;
+  }
+
+}
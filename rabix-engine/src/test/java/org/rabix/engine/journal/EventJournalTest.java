@@ -0,0 +1,133 @@
+package org.rabix.engine.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.rabix.engine.event.Event;
+import org.rabix.engine.event.impl.ContextStatusEvent;
+import org.rabix.engine.event.impl.InputUpdateEvent;
+import org.rabix.engine.event.impl.JobStatusEvent;
+import org.rabix.engine.event.impl.OutputUpdateEvent;
+import org.rabix.engine.model.ContextRecord.ContextStatus;
+import org.rabix.engine.service.JobRecordService.JobState;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class EventJournalTest {
+
+  private static final int SEGMENT_SIZE = 64 * 1024;
+
+  private File directory;
+
+  @BeforeMethod
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("journal").toFile();
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void testAppendAndReopen() throws IOException {
+    EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, 10);
+    for (int i = 1; i <= 100; i++) {
+      Assert.assertEquals(journal.append(payload(i), (byte) (i % 2)), i);
+    }
+    journal.close();
+
+    journal = new EventJournal(directory, SEGMENT_SIZE, 10);
+    Assert.assertEquals(journal.getLastSequence(), 100);
+    Assert.assertEquals(journal.append(payload(101), (byte) 1), 101);
+
+    List<Long> sequences = read(journal, 50);
+    Assert.assertEquals(sequences.size(), 51);
+    Assert.assertEquals(sequences.get(0).longValue(), 51);
+    Assert.assertEquals(sequences.get(50).longValue(), 101);
+    journal.close();
+  }
+
+  @Test
+  public void testSegments() throws IOException {
+    EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, 10);
+    for (int i = 1; i <= 10000; i++) {
+      journal.append(payload(i), (byte) 0);
+    }
+    Assert.assertTrue(directory.list().length > 1);
+    Assert.assertEquals(read(journal, 0).size(), 10000);
+
+    journal.deleteUpTo(5000);
+    List<Long> sequences = read(journal, 5000);
+    Assert.assertEquals(sequences.size(), 5000);
+    Assert.assertEquals(sequences.get(0).longValue(), 5001);
+    journal.close();
+  }
+
+  @Test
+  public void testTornTail() throws IOException {
+    EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, 10);
+    for (int i = 1; i <= 10; i++) {
+      journal.append(payload(i), (byte) 0);
+    }
+    journal.close();
+
+    // corrupt payload of the last record
+    File segment = directory.listFiles()[0];
+    int offset = 9 * (17 + payload(1).length) + 17;
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      file.seek(offset);
+      file.write(0xFF);
+    }
+
+    journal = new EventJournal(directory, SEGMENT_SIZE, 10);
+    Assert.assertEquals(journal.getLastSequence(), 9);
+    Assert.assertEquals(journal.append(payload(10), (byte) 0), 10);
+    Assert.assertEquals(read(journal, 0).size(), 10);
+    journal.close();
+  }
+
+  @Test
+  public void testCodec() throws IOException {
+    Map<String, Object> result = new HashMap<>();
+    result.put("out", Arrays.<Object> asList("a", 1, 2L, 1.5, true, null));
+
+    List<Event> events = new ArrayList<>();
+    events.add(new InputUpdateEvent("context", "root.step", "in", result, false, 3, 2));
+    events.add(new OutputUpdateEvent("context", "root.step", "out", "value", true, 3, 1));
+    events.add(new JobStatusEvent("root.step", "context", JobState.COMPLETED, result));
+    events.add(new ContextStatusEvent("context", ContextStatus.COMPLETED));
+
+    for (Event event : events) {
+      Assert.assertEquals(EventCodec.decode(EventCodec.encode(event)), event);
+    }
+  }
+
+  private List<Long> read(EventJournal journal, long afterSequence) throws IOException {
+    final List<Long> sequences = new ArrayList<>();
+    journal.read(afterSequence, new EventJournal.RecordHandler() {
+      @Override
+      public void handle(long sequence, byte flags, byte[] payload) {
+        Assert.assertEquals(payload, payload(sequence));
+        sequences.add(sequence);
+      }
+    });
+    return sequences;
+  }
+
+  private static byte[] payload(long sequence) {
+    return String.format("event-%08d", sequence).getBytes();
+  }
+
+}
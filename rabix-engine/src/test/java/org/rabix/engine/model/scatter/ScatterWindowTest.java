@@ -0,0 +1,71 @@
+package org.rabix.engine.model.scatter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class ScatterWindowTest {
+
+  @Test
+  public void testBoundedWindow() {
+    ScatterWindow window = new ScatterWindow(2);
+    window.offer(rows(1, 2, 3), null);
+    Assert.assertEquals(indexes(window.poll()), Arrays.asList(1, 2));
+    Assert.assertTrue(window.poll().isEmpty());
+
+    window.offer(rows(4), 10);
+    window.release();
+    Assert.assertEquals(indexes(window.poll()), Arrays.asList(3));
+    window.release();
+    window.release();
+    Assert.assertEquals(indexes(window.poll()), Arrays.asList(4));
+    Assert.assertEquals(window.getRunning(), 1);
+    Assert.assertEquals(window.getPending(), 0);
+    Assert.assertEquals(window.getNumberOfScattered(), 10);
+  }
+
+  @Test
+  public void testCopy() {
+    ScatterWindow window = new ScatterWindow(1);
+    window.offer(rows(1, 2), 2);
+    window.poll();
+    ScatterWindow copy = window.copy();
+
+    window.release();
+    Assert.assertEquals(indexes(window.poll()), Arrays.asList(2));
+    Assert.assertEquals(copy.getRunning(), 1);
+    Assert.assertEquals(copy.getPending(), 1);
+    Assert.assertEquals(copy.getNumberOfScattered(), 2);
+  }
+
+  @Test
+  public void testUnboundedWindow() {
+    ScatterWindow window = new ScatterWindow(0);
+    window.offer(rows(1, 2, 3), 3);
+    window.offer(rows(4), 1);
+    Assert.assertEquals(indexes(window.poll()), Arrays.asList(1, 2, 3, 4));
+    Assert.assertEquals(window.getNumberOfScattered(), 3);
+  }
+
+  private List<RowMapping> rows(int... indexes) {
+    List<RowMapping> rows = new ArrayList<>();
+    for (int index : indexes) {
+      rows.add(new RowMapping(index, Collections.<PortMapping> emptyList()));
+    }
+    return rows;
+  }
+
+  private List<Integer> indexes(List<RowMapping> rows) {
+    List<Integer> indexes = new ArrayList<>();
+    for (RowMapping row : rows) {
+      indexes.add(row.getIndex());
+    }
+    return indexes;
+  }
+
+}
@@ -0,0 +1,76 @@
+package org.rabix.engine.model.scatter.impl;
+
+import java.util.List;
+
+import org.rabix.bindings.BindingException;
+import org.rabix.bindings.model.ScatterMethod;
+import org.rabix.engine.model.scatter.ScatterStrategy;
+import org.rabix.engine.service.VariableRecordService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Scatters two ports with 15000 rows per scatter method and collects the outputs. Not part of the default build, run
+ * with <code>mvn test -Pbenchmark</code>.
+ */
+@Test(groups = { "benchmark" })
+public class ScatterStrategyBenchmark {
+
+  private final static Logger logger = LoggerFactory.getLogger(ScatterStrategyBenchmark.class);
+
+  private static final int WARMUP_ITERATIONS = 3;
+  private static final int ITERATIONS = 10;
+
+  private static final int SIZE_A = 125;
+  private static final int SIZE_B = 120;
+  private static final int ROWS = SIZE_A * SIZE_B;
+
+  @Test
+  public void benchmarkDotproduct() throws BindingException {
+    run(ScatterMethod.dotproduct, ROWS, ROWS, ROWS);
+  }
+
+  @Test
+  public void benchmarkFlatCrossproduct() throws BindingException {
+    run(ScatterMethod.flat_crossproduct, SIZE_A, SIZE_B, ROWS);
+  }
+
+  @Test
+  public void benchmarkNestedCrossproduct() throws BindingException {
+    run(ScatterMethod.nested_crossproduct, SIZE_A, SIZE_B, SIZE_A);
+  }
+
+  private void run(ScatterMethod scatterMethod, int sizeA, int sizeB, int outputSize) throws BindingException {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      scatter(scatterMethod, sizeA, sizeB, outputSize);
+    }
+    long min = Long.MAX_VALUE;
+    long total = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long time = scatter(scatterMethod, sizeA, sizeB, outputSize);
+      min = Math.min(min, time);
+      total += time;
+    }
+    logger.info("{}: {} rows, min {} ms, mean {} ms over {} iterations", scatterMethod, ROWS, min / 1000000, total / ITERATIONS / 1000000, ITERATIONS);
+  }
+
+  /**
+   * Runs one scatter and returns its duration in nanoseconds
+   */
+  private long scatter(ScatterMethod scatterMethod, int sizeA, int sizeB, int outputSize) throws BindingException {
+    VariableRecordService variableRecordService = new VariableRecordService();
+    ScatterStrategy strategy = scatterMethod.equals(ScatterMethod.dotproduct) ? new ScatterZipStrategy(ScatterStrategyTest.createNode(scatterMethod)) : new ScatterCartesianStrategy(ScatterStrategyTest.createNode(scatterMethod));
+
+    long start = System.nanoTime();
+    ScatterStrategyTest.scatter(strategy, variableRecordService, sizeA, sizeB);
+    List<Object> values = strategy.values(variableRecordService, ScatterStrategyTest.JOB_ID, "out", ScatterStrategyTest.CONTEXT_ID);
+    long time = System.nanoTime() - start;
+
+    Assert.assertEquals(strategy.enabledCount(), ROWS);
+    Assert.assertEquals(values.size(), outputSize);
+    return time;
+  }
+
+}
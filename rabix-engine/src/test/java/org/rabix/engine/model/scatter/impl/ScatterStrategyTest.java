@@ -0,0 +1,153 @@
+package org.rabix.engine.model.scatter.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.rabix.bindings.BindingException;
+import org.rabix.bindings.model.LinkMerge;
+import org.rabix.bindings.model.ScatterMethod;
+import org.rabix.bindings.model.dag.DAGLinkPort;
+import org.rabix.bindings.model.dag.DAGLinkPort.LinkPortType;
+import org.rabix.bindings.model.dag.DAGNode;
+import org.rabix.common.helper.InternalSchemaHelper;
+import org.rabix.engine.model.VariableRecord;
+import org.rabix.engine.model.scatter.PortMapping;
+import org.rabix.engine.model.scatter.RowMapping;
+import org.rabix.engine.model.scatter.ScatterStrategy;
+import org.rabix.engine.service.VariableRecordService;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class ScatterStrategyTest {
+
+  static final String JOB_ID = "root.step";
+  static final String CONTEXT_ID = "context";
+
+  @Test
+  public void testZip() throws BindingException {
+    int size = 10000;
+    VariableRecordService variableRecordService = new VariableRecordService();
+    ScatterStrategy strategy = new ScatterZipStrategy(createNode(ScatterMethod.dotproduct));
+
+    Set<Integer> rows = scatter(strategy, variableRecordService, size, size);
+    List<Object> values = strategy.values(variableRecordService, JOB_ID, "out", CONTEXT_ID);
+
+    Assert.assertEquals(rows.size(), size);
+    Assert.assertEquals(strategy.enabledCount(), size);
+    Assert.assertEquals(values.size(), size);
+    for (int i = 0; i < size; i++) {
+      Assert.assertEquals(values.get(i), "a" + (i + 1) + ":b" + (i + 1));
+    }
+  }
+
+  @Test
+  public void testFlatCrossproduct() throws BindingException {
+    int sizeA = 120;
+    int sizeB = 110;
+    VariableRecordService variableRecordService = new VariableRecordService();
+    ScatterStrategy strategy = new ScatterCartesianStrategy(createNode(ScatterMethod.flat_crossproduct));
+
+    Set<Integer> rows = scatter(strategy, variableRecordService, sizeA, sizeB);
+    List<Object> values = strategy.values(variableRecordService, JOB_ID, "out", CONTEXT_ID);
+
+    Assert.assertEquals(rows.size(), sizeA * sizeB);
+    Assert.assertEquals(strategy.enabledCount(), sizeA * sizeB);
+    Assert.assertEquals(values.size(), sizeA * sizeB);
+    int index = 0;
+    for (int a = 1; a <= sizeA; a++) {
+      for (int b = 1; b <= sizeB; b++) {
+        Assert.assertEquals(values.get(index++), "a" + a + ":b" + b);
+      }
+    }
+  }
+
+  @Test
+  public void testNestedCrossproduct() throws BindingException {
+    int sizeA = 12;
+    int sizeB = 15;
+    VariableRecordService variableRecordService = new VariableRecordService();
+    ScatterStrategy strategy = new ScatterCartesianStrategy(createNode(ScatterMethod.nested_crossproduct));
+
+    scatter(strategy, variableRecordService, sizeA, sizeB);
+    List<Object> values = strategy.values(variableRecordService, JOB_ID, "out", CONTEXT_ID);
+
+    Assert.assertEquals(values.size(), sizeA);
+    for (int a = 1; a <= sizeA; a++) {
+      List<?> group = (List<?>) values.get(a - 1);
+      Assert.assertEquals(group.size(), sizeB);
+      for (int b = 1; b <= sizeB; b++) {
+        Assert.assertEquals(group.get(b - 1), "a" + a + ":b" + b);
+      }
+    }
+  }
+
+  @Test
+  public void testCopy() throws BindingException {
+    ScatterStrategy[] strategies = { new ScatterZipStrategy(createNode(ScatterMethod.dotproduct)), new ScatterCartesianStrategy(createNode(ScatterMethod.flat_crossproduct)) };
+    for (ScatterStrategy strategy : strategies) {
+      strategy.enable("a", "a1", 1);
+      strategy.enable("b", "b1", 1);
+      ScatterStrategy copy = strategy.copy();
+
+      strategy.commit(strategy.enabled());
+      strategy.enable("a", "a2", 2);
+      strategy.enable("b", "b2", 2);
+      Assert.assertEquals(strategy.enabledCount(), strategy instanceof ScatterZipStrategy ? 2 : 4);
+      Assert.assertEquals(copy.enabledCount(), 1);
+
+      List<RowMapping> mappings = copy.enabled();
+      Assert.assertEquals(mappings.size(), 1);
+      Assert.assertEquals(mappings.get(0).getValue("a"), "a1");
+    }
+  }
+
+  /**
+   * Enables positions of both ports in random order and runs each enabled row once, the same way ScatterHandler does.
+   * Output of a row is made of its input values.
+   */
+  static Set<Integer> scatter(ScatterStrategy strategy, VariableRecordService variableRecordService, int sizeA, int sizeB) throws BindingException {
+    List<String> events = new ArrayList<>();
+    for (int a = 1; a <= sizeA; a++) {
+      events.add("a" + a);
+    }
+    for (int b = 1; b <= sizeB; b++) {
+      events.add("b" + b);
+    }
+    Collections.shuffle(events, new Random(42));
+
+    Set<Integer> rows = new HashSet<>();
+    for (String event : events) {
+      strategy.enable(event.substring(0, 1), event, Integer.parseInt(event.substring(1)));
+
+      List<RowMapping> mappings = strategy.enabled();
+      strategy.commit(mappings);
+      for (RowMapping mapping : mappings) {
+        Assert.assertTrue(rows.add(mapping.getIndex()), "Row " + mapping.getIndex() + " enabled twice");
+        String output = null;
+        for (PortMapping portMapping : mapping.getPortMappings()) {
+          output = output == null ? (String) portMapping.getValue() : output + ":" + portMapping.getValue();
+        }
+        String scatteredJobId = InternalSchemaHelper.scatterId(JOB_ID, mapping.getIndex());
+        variableRecordService.create(new VariableRecord(CONTEXT_ID, scatteredJobId, "out", LinkPortType.OUTPUT, output, LinkMerge.merge_nested));
+      }
+    }
+    Assert.assertTrue(strategy.enabled().isEmpty());
+    return rows;
+  }
+
+  static DAGNode createNode(ScatterMethod scatterMethod) {
+    List<DAGLinkPort> inputPorts = new ArrayList<>();
+    inputPorts.add(new DAGLinkPort("a", JOB_ID, LinkPortType.INPUT, LinkMerge.merge_nested, true));
+    inputPorts.add(new DAGLinkPort("b", JOB_ID, LinkPortType.INPUT, LinkMerge.merge_nested, true));
+    inputPorts.add(new DAGLinkPort("c", JOB_ID, LinkPortType.INPUT, LinkMerge.merge_nested, false));
+    List<DAGLinkPort> outputPorts = new ArrayList<>();
+    outputPorts.add(new DAGLinkPort("out", JOB_ID, LinkPortType.OUTPUT, LinkMerge.merge_nested, false));
+    return new DAGNode(JOB_ID, inputPorts, outputPorts, scatterMethod, null, null);
+  }
+
+}
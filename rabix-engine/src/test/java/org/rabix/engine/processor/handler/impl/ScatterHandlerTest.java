@@ -0,0 +1,212 @@
+package org.rabix.engine.processor.handler.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.rabix.bindings.BindingsFactory;
+import org.rabix.bindings.app.AppRegistry;
+import org.rabix.bindings.model.Context;
+import org.rabix.bindings.model.Job;
+import org.rabix.bindings.model.Job.JobStatus;
+import org.rabix.bindings.model.dag.DAGLinkPort.LinkPortType;
+import org.rabix.bindings.model.dag.DAGNode;
+import org.rabix.engine.JobHelper;
+import org.rabix.engine.config.EngineConfig;
+import org.rabix.engine.db.DAGNodeDB;
+import org.rabix.engine.event.Event;
+import org.rabix.engine.event.impl.InitEvent;
+import org.rabix.engine.event.impl.JobStatusEvent;
+import org.rabix.engine.journal.JournalService;
+import org.rabix.engine.model.ContextRecord;
+import org.rabix.engine.model.ContextRecord.ContextStatus;
+import org.rabix.engine.model.scatter.ScatterStrategyFactory;
+import org.rabix.engine.processor.EventProcessor;
+import org.rabix.engine.processor.EventProcessor.IterationCallback;
+import org.rabix.engine.processor.dispatcher.EventDispatcherFactory;
+import org.rabix.engine.processor.dispatcher.impl.AsyncEventDispatcher;
+import org.rabix.engine.processor.dispatcher.impl.SyncEventDispatcher;
+import org.rabix.engine.processor.handler.EventHandlerException;
+import org.rabix.engine.processor.handler.HandlerFactory;
+import org.rabix.engine.processor.impl.EventProcessorImpl;
+import org.rabix.engine.service.ContextRecordService;
+import org.rabix.engine.service.JobRecordService;
+import org.rabix.engine.service.JobRecordService.JobState;
+import org.rabix.engine.service.LinkRecordService;
+import org.rabix.engine.service.VariableRecordService;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Runs a scattered step through the event handlers and checks that gathered outputs don't depend on the scatter window
+ * or on the order in which scattered jobs complete
+ */
+@Test(groups = { "functional" })
+public class ScatterHandlerTest {
+
+  private static final String CONTEXT = "https://raw.githubusercontent.com/common-workflow-language/common-workflow-language/draft2/specification/context.json";
+
+  private static final String WORKFLOW = "{\"class\":\"Workflow\",\"id\":\"#wf\",\"@context\":\"" + CONTEXT + "\","
+      + "\"inputs\":[{\"id\":\"#first\",\"type\":{\"type\":\"array\",\"items\":\"string\"}},{\"id\":\"#second\",\"type\":{\"type\":\"array\",\"items\":\"string\"}}],"
+      + "\"outputs\":[{\"id\":\"#out\",\"type\":{\"type\":\"array\",\"items\":\"string\"},\"source\":\"#echo.out\"}],"
+      + "\"steps\":[{\"id\":\"#echo\",\"scatter\":[\"#echo.first\",\"#echo.second\"],\"scatterMethod\":\"%s\","
+      + "\"run\":{\"class\":\"CommandLineTool\",\"id\":\"#echo\",\"@context\":\"" + CONTEXT + "\",\"baseCommand\":[\"echo\"],"
+      + "\"inputs\":[{\"id\":\"#first\",\"type\":\"string\"},{\"id\":\"#second\",\"type\":\"string\"}],"
+      + "\"outputs\":[{\"id\":\"#out\",\"type\":\"string\"}]},"
+      + "\"inputs\":[{\"id\":\"#echo.first\",\"source\":\"#first\"},{\"id\":\"#echo.second\",\"source\":\"#second\"}],"
+      + "\"outputs\":[{\"id\":\"#echo.out\"}]}]}";
+
+  private static final List<String> FIRST = Arrays.asList("a", "b", "c", "d", "e");
+  private static final List<String> SECOND = Arrays.asList("1", "2", "3", "4", "5");
+
+  @Test
+  public void testZip() throws Exception {
+    Object expected = run("dotproduct", 0, false);
+    Assert.assertEquals(expected, Arrays.asList("a-1", "b-2", "c-3", "d-4", "e-5"));
+    assertSameOutputs("dotproduct", expected);
+  }
+
+  @Test
+  public void testCartesian() throws Exception {
+    List<String> product = new ArrayList<>();
+    for (String first : FIRST) {
+      for (String second : SECOND) {
+        product.add(first + "-" + second);
+      }
+    }
+    Object expected = run("flat_crossproduct", 0, false);
+    Assert.assertEquals(expected, product);
+    assertSameOutputs("flat_crossproduct", expected);
+  }
+
+  private void assertSameOutputs(String scatterMethod, Object expected) throws Exception {
+    Assert.assertEquals(run(scatterMethod, 0, true), expected);
+    for (int window = 1; window <= 3; window++) {
+      Assert.assertEquals(run(scatterMethod, window, false), expected, "window " + window);
+      Assert.assertEquals(run(scatterMethod, window, true), expected, "window " + window + ", reversed");
+    }
+  }
+
+  /**
+   * Runs the workflow. Jobs are completed once the engine has nothing left to process, in the order they became
+   * ready or in reversed order. Returns gathered output of the workflow.
+   */
+  private Object run(String scatterMethod, int window, boolean reversed) throws Exception {
+    final Configuration configuration = new BaseConfiguration();
+    configuration.setProperty("engine.event_processor.count", 1);
+    configuration.setProperty(EngineConfig.SCATTER_WINDOW, window);
+
+    final DAGNodeDB dagNodeDB = new DAGNodeDB();
+    final JobRecordService jobRecordService = new JobRecordService();
+    final VariableRecordService variableRecordService = new VariableRecordService();
+    final LinkRecordService linkRecordService = new LinkRecordService();
+    final ContextRecordService contextRecordService = new ContextRecordService();
+    JournalService journalService = new JournalService(configuration, jobRecordService, variableRecordService, linkRecordService, contextRecordService, dagNodeDB);
+
+    // handlers and the processor depend on each other
+    DelegatingEventProcessor delegatingEventProcessor = new DelegatingEventProcessor();
+    ScatterHandler scatterHandler = new ScatterHandler(dagNodeDB, jobRecordService, variableRecordService, linkRecordService, contextRecordService, delegatingEventProcessor, new ScatterStrategyFactory(), configuration);
+    HandlerFactory handlerFactory = new HandlerFactory(
+        new InitEventHandler(delegatingEventProcessor, jobRecordService, variableRecordService, contextRecordService, dagNodeDB),
+        new InputEventHandler(delegatingEventProcessor, scatterHandler, jobRecordService, variableRecordService, linkRecordService, dagNodeDB),
+        new OutputEventHandler(delegatingEventProcessor, scatterHandler, jobRecordService, variableRecordService, linkRecordService),
+        new JobStatusEventHandler(dagNodeDB, jobRecordService, linkRecordService, variableRecordService, delegatingEventProcessor, scatterHandler),
+        new ContextStatusEventHandler(contextRecordService, dagNodeDB, journalService));
+    EventDispatcherFactory eventDispatcherFactory = new EventDispatcherFactory(new SyncEventDispatcher(handlerFactory), new AsyncEventDispatcher(delegatingEventProcessor));
+    EventProcessor eventProcessor = new EventProcessorImpl(handlerFactory, eventDispatcherFactory, contextRecordService, journalService, configuration);
+    delegatingEventProcessor.delegate = eventProcessor;
+
+    final BlockingQueue<Job> readyJobs = new LinkedBlockingQueue<>();
+    eventProcessor.start(Collections.<IterationCallback>singletonList(new IterationCallback() {
+      @Override
+      public void call(EventProcessor eventProcessor, String contextId, int iteration) throws Exception {
+        readyJobs.addAll(JobHelper.createReadyJobs(jobRecordService, variableRecordService, contextRecordService, dagNodeDB, contextId));
+      }
+    }));
+
+    try {
+      String contextId = JobHelper.generateId();
+      Context context = new Context(contextId, null);
+      Map<String, Object> inputs = new HashMap<>();
+      inputs.put("first", FIRST);
+      inputs.put("second", SECOND);
+      Job root = new Job(contextId, null, contextId, null, AppRegistry.register(String.format(WORKFLOW, scatterMethod)), JobStatus.PENDING, inputs, null, context);
+      DAGNode node = BindingsFactory.create(root).translateToDAG(root);
+      eventProcessor.send(new InitEvent(context, contextId, node, inputs));
+
+      long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+      while (!isCompleted(contextRecordService, contextId)) {
+        Assert.assertTrue(System.currentTimeMillis() < deadline, "Workflow didn't complete");
+        if (eventProcessor.isRunning()) {
+          Thread.sleep(10);
+          continue;
+        }
+        List<Job> jobs = new ArrayList<>();
+        readyJobs.drainTo(jobs);
+        if (reversed) {
+          Collections.reverse(jobs);
+        }
+        for (Job job : jobs) {
+          Map<String, Object> outputs = new HashMap<>();
+          outputs.put("out", job.getInputs().get("first") + "-" + job.getInputs().get("second"));
+          eventProcessor.addToQueue(new JobStatusEvent(job.getName(), contextId, JobState.COMPLETED, outputs));
+        }
+        if (jobs.isEmpty()) {
+          Thread.sleep(10);
+        }
+      }
+      String rootId = jobRecordService.findRoot(contextId).getId();
+      return variableRecordService.find(rootId, "out", LinkPortType.OUTPUT, contextId).getValue();
+    } finally {
+      eventProcessor.stop();
+    }
+  }
+
+  private boolean isCompleted(ContextRecordService contextRecordService, String contextId) {
+    ContextRecord context = contextRecordService.find(contextId);
+    Assert.assertFalse(context != null && context.getStatus().equals(ContextStatus.FAILED), "Workflow failed");
+    return context != null && context.getStatus().equals(ContextStatus.COMPLETED);
+  }
+
+  /**
+   * Forwards to the processor, which is created after the handlers
+   */
+  private static class DelegatingEventProcessor implements EventProcessor {
+
+    private EventProcessor delegate;
+
+    @Override
+    public void start(List<IterationCallback> iterationCallbacks) {
+      delegate.start(iterationCallbacks);
+    }
+
+    @Override
+    public void stop() {
+      delegate.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+      return delegate.isRunning();
+    }
+
+    @Override
+    public void send(Event event) throws EventHandlerException {
+      delegate.send(event);
+    }
+
+    @Override
+    public void addToQueue(Event event) {
+      delegate.addToQueue(event);
+    }
+  }
+
+}
@@ -0,0 +1,95 @@
+package org.rabix.engine.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.rabix.engine.model.JobRecord;
+import org.rabix.engine.service.JobRecordService.JobState;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class JobRecordServiceTest {
+
+  private static final String CONTEXT_ID = "context";
+
+  private JobRecordService jobRecordService;
+
+  @BeforeMethod
+  public void setUp() {
+    jobRecordService = new JobRecordService();
+  }
+
+  @Test
+  public void testReadyIsEmittedOnce() {
+    JobRecord first = create("root.first", JobState.READY);
+    create("root.second", JobState.PENDING);
+
+    Assert.assertEquals(ids(jobRecordService.pollReady(CONTEXT_ID)), Arrays.asList("root.first"));
+    Assert.assertTrue(jobRecordService.pollReady(CONTEXT_ID).isEmpty());
+
+    jobRecordService.update(first);
+    Assert.assertTrue(jobRecordService.pollReady(CONTEXT_ID).isEmpty());
+
+    JobRecord second = jobRecordService.find("root.second", CONTEXT_ID);
+    second.setState(JobState.READY);
+    jobRecordService.update(second);
+    Assert.assertEquals(ids(jobRecordService.pollReady(CONTEXT_ID)), Arrays.asList("root.second"));
+    Assert.assertTrue(jobRecordService.pollReady(CONTEXT_ID).isEmpty());
+  }
+
+  @Test
+  public void testReadyIsEmittedAgainAfterNewTransition() {
+    JobRecord job = create("root.job", JobState.READY);
+    Assert.assertEquals(jobRecordService.pollReady(CONTEXT_ID).size(), 1);
+
+    job.setState(JobState.RUNNING);
+    jobRecordService.update(job);
+    job.setState(JobState.READY);
+    jobRecordService.update(job);
+    Assert.assertEquals(ids(jobRecordService.pollReady(CONTEXT_ID)), Arrays.asList("root.job"));
+  }
+
+  @Test
+  public void testReturnedJobsAreEmittedAgain() {
+    create("root.first", JobState.READY);
+    create("root.second", JobState.READY);
+    List<JobRecord> polled = jobRecordService.pollReady(CONTEXT_ID);
+    Assert.assertEquals(polled.size(), 2);
+
+    jobRecordService.returnReady(CONTEXT_ID, ids(polled));
+    Assert.assertEquals(ids(jobRecordService.pollReady(CONTEXT_ID)), Arrays.asList("root.first", "root.second"));
+    Assert.assertTrue(jobRecordService.pollReady(CONTEXT_ID).isEmpty());
+  }
+
+  @Test
+  public void testReturnedJobsWhichLeftReadyAreNotEmitted() {
+    JobRecord first = create("root.first", JobState.READY);
+    create("root.second", JobState.READY);
+    List<JobRecord> polled = jobRecordService.pollReady(CONTEXT_ID);
+
+    first.setState(JobState.COMPLETED);
+    jobRecordService.update(first);
+    jobRecordService.returnReady(CONTEXT_ID, ids(polled));
+    jobRecordService.returnReady(CONTEXT_ID, Collections.singletonList("root.unknown"));
+    Assert.assertEquals(ids(jobRecordService.pollReady(CONTEXT_ID)), Arrays.asList("root.second"));
+  }
+
+  private JobRecord create(String id, JobState state) {
+    JobRecord jobRecord = new JobRecord(CONTEXT_ID, id, JobRecordService.generateUniqueId(CONTEXT_ID, id), CONTEXT_ID, state, false, false, false, false);
+    jobRecordService.create(jobRecord);
+    return jobRecord;
+  }
+
+  private List<String> ids(List<JobRecord> jobRecords) {
+    List<String> ids = new ArrayList<>();
+    for (JobRecord jobRecord : jobRecords) {
+      ids.add(jobRecord.getId());
+    }
+    return ids;
+  }
+
+}
@@ -1,6 +1,7 @@
 package org.rabix.executor.rest;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.EnumSet;
 
@@ -13,6 +14,7 @@ import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
 
 import org.apache.commons.configuration.Configuration;
 import org.eclipse.jetty.server.Server;
@@ -24,6 +26,8 @@ import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.filter.LoggingFilter;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.servlet.ServletContainer;
+import org.rabix.bindings.app.AppRegistry;
+import org.rabix.bindings.app.AppRegistry.AppFetcher;
 import org.rabix.common.config.ConfigModule;
 import org.rabix.executor.ExecutorModule;
 import org.rabix.executor.rest.api.ExecutorHTTPService;
@@ -32,6 +36,7 @@ import org.rabix.executor.service.ExecutorService;
 import org.rabix.transport.backend.Backend;
 import org.rabix.transport.backend.impl.BackendRabbitMQ;
 import org.rabix.transport.backend.impl.BackendRabbitMQ.EngineConfiguration;
+import org.rabix.transport.codec.TransportCodecConfig;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
@@ -91,6 +96,8 @@ public class ServerBuilder {
     BackendRegister backendRegister = injector.getInstance(BackendRegister.class);
     Backend backend = backendRegister.start();
     
+    AppRegistry.setAppFetcher(new EngineAppFetcher(configuration));
+    
     ExecutorService executorService = injector.getInstance(ExecutorService.class);
     executorService.initialize(backend);
     return server;
@@ -104,6 +111,35 @@ public class ServerBuilder {
     }
   }
 
+  /**
+   * Fetches applications missing from the local {@link AppRegistry} from the Engine
+   */
+  public static class EngineAppFetcher implements AppFetcher {
+
+    private final WebTarget webTarget;
+
+    public EngineAppFetcher(Configuration configuration) {
+      String engineHost = configuration.getString("engine.url");
+      Integer enginePort = configuration.getInteger("engine.port", null);
+
+      Client client = ClientBuilder.newClient(new ClientConfig());
+      this.webTarget = client.target(engineHost + ":" + enginePort + "/v0/engine/apps");
+    }
+
+    @Override
+    public String fetch(String hash) throws IOException {
+      Response response = webTarget.path(hash).request(MediaType.APPLICATION_JSON).get();
+      try {
+        if (response.getStatus() != Status.OK.getStatusCode()) {
+          throw new IOException("Engine returned " + response.getStatus() + " for application " + hash);
+        }
+        return response.readEntity(String.class);
+      } finally {
+        response.close();
+      }
+    }
+  }
+
   public static class BackendRegister {
 
     private Configuration configuration;
@@ -136,6 +172,7 @@ public class ServerBuilder {
       
       EngineConfiguration engineConfiguration = new EngineConfiguration(rabbitEngineExchange, rabbitEngineExchangeType, rabbitEngineReceiveRoutingKey, rabbitEngineHeartbeatRoutingKey);
       BackendRabbitMQ backendRabbitMQ = new BackendRabbitMQ(null, rabbitHost, engineConfiguration, null);
+      backendRabbitMQ.setCodec(TransportCodecConfig.getCodecType(configuration));
       
       Invocation.Builder invocationBuilder = webTarget.request(MediaType.APPLICATION_JSON);
       Response response = invocationBuilder.post(Entity.entity(backendRabbitMQ, MediaType.APPLICATION_JSON));
@@ -8,9 +8,11 @@ import org.rabix.executor.handler.impl.JobHandlerImpl;
 import org.rabix.executor.service.DownloadFileService;
 import org.rabix.executor.service.ExecutorService;
 import org.rabix.executor.service.JobDataService;
+import org.rabix.executor.service.UploadFileService;
 import org.rabix.executor.service.impl.DownloadServiceImpl;
 import org.rabix.executor.service.impl.ExecutorServiceImpl;
 import org.rabix.executor.service.impl.JobDataServiceImpl;
+import org.rabix.executor.service.impl.UploadServiceImpl;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Scopes;
@@ -30,6 +32,7 @@ public class ExecutorModule extends AbstractModule {
     install(new FactoryModuleBuilder().implement(JobHandler.class, JobHandlerImpl.class).build(JobHandlerFactory.class));
 
     bind(DownloadFileService.class).to(DownloadServiceImpl.class).in(Scopes.SINGLETON);
+    bind(UploadFileService.class).to(UploadServiceImpl.class).in(Scopes.SINGLETON);
 
     bind(JobDataService.class).to(JobDataServiceImpl.class).in(Scopes.SINGLETON);
     bind(JobHandlerCommandDispatcher.class).in(Scopes.SINGLETON);
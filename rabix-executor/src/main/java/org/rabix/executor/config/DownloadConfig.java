@@ -0,0 +1,34 @@
+package org.rabix.executor.config;
+
+import java.io.File;
+
+import org.apache.commons.configuration.Configuration;
+
+public class DownloadConfig {
+
+  /**
+   * Number of files downloaded in parallel
+   */
+  public static int getThreads(Configuration configuration) {
+    return Math.max(1, configuration.getInt("backend.download.threads", 4));
+  }
+
+  /**
+   * Directory with downloaded files shared by all jobs. Defaults to '.cache' in the execution directory.
+   */
+  public static File getCacheDirectory(Configuration configuration) {
+    String cacheDirectory = configuration.getString("backend.download.cache.directory");
+    if (cacheDirectory == null || cacheDirectory.isEmpty()) {
+      return new File(StorageConfig.getLocalExecutionDirectory(configuration), ".cache");
+    }
+    return new File(cacheDirectory);
+  }
+
+  /**
+   * Maximum size of the download cache in bytes. Configured in megabytes, zero disables caching.
+   */
+  public static long getCacheSize(Configuration configuration) {
+    return Math.max(0, configuration.getLong("backend.download.cache.size_mb", 10240)) * 1024 * 1024;
+  }
+
+}
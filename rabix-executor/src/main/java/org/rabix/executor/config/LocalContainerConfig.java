@@ -0,0 +1,16 @@
+package org.rabix.executor.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration.Configuration;
+
+public class LocalContainerConfig {
+
+  /**
+   * Time in milliseconds after which local process is killed. Configured in seconds, zero means no timeout.
+   */
+  public static long getTimeout(Configuration configuration) {
+    return TimeUnit.SECONDS.toMillis(Math.max(0, configuration.getLong("backend.local.timeout", 0)));
+  }
+
+}
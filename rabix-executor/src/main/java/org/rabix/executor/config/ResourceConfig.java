@@ -0,0 +1,37 @@
+package org.rabix.executor.config;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+
+import org.apache.commons.configuration.Configuration;
+
+public class ResourceConfig {
+
+  public static final String CPU = "backend.resources.cpu";
+  public static final String MEMORY = "backend.resources.memory";
+
+  private static final long MB = 1024 * 1024;
+
+  /**
+   * Number of cores available to jobs. Defaults to number of available processors.
+   */
+  public static int getCpu(Configuration configuration) {
+    return Math.max(1, configuration.getInt(CPU, Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * Memory available to jobs in MB. Defaults to total physical memory.
+   */
+  public static long getMemory(Configuration configuration) {
+    return Math.max(1, configuration.getLong(MEMORY, getPhysicalMemory()));
+  }
+
+  private static long getPhysicalMemory() {
+    OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+    if (operatingSystem instanceof com.sun.management.OperatingSystemMXBean) {
+      return ((com.sun.management.OperatingSystemMXBean) operatingSystem).getTotalPhysicalMemorySize() / MB;
+    }
+    return Runtime.getRuntime().maxMemory() / MB;
+  }
+
+}
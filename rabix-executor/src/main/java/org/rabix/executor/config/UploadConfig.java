@@ -0,0 +1,14 @@
+package org.rabix.executor.config;
+
+import org.apache.commons.configuration.Configuration;
+
+public class UploadConfig {
+
+  /**
+   * Number of files uploaded in parallel
+   */
+  public static int getThreads(Configuration configuration) {
+    return Math.max(1, configuration.getInt("backend.upload.threads", 4));
+  }
+
+}
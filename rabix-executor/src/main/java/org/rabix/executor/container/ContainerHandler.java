@@ -1,6 +1,7 @@
 package org.rabix.executor.container;
 
 import java.io.File;
+import java.util.concurrent.Future;
 
 /**
  * Encapsulates container handling functionalities 
@@ -27,6 +28,11 @@ public interface ContainerHandler {
    */
   public boolean isRunning() throws ContainerException;
 
+  /**
+   * Get future which completes with the exit status as soon as the container finishes
+   */
+  public Future<Integer> getCompletion() throws ContainerException;
+
   /**
    * Get container exit status 
    */
@@ -1,10 +1,13 @@
 package org.rabix.executor.container.impl;
 
 import java.io.File;
+import java.util.concurrent.Future;
 
 import org.rabix.executor.container.ContainerException;
 import org.rabix.executor.container.ContainerHandler;
 
+import com.google.common.util.concurrent.Futures;
+
 public class CompletedContainerHandler implements ContainerHandler {
 
   @Override
@@ -27,6 +30,11 @@ public class CompletedContainerHandler implements ContainerHandler {
     return false;
   }
 
+  @Override
+  public Future<Integer> getCompletion() throws ContainerException {
+    return Futures.immediateFuture(0);
+  }
+
   @Override
   public int getProcessExitStatus() throws ContainerException {
     return 0;
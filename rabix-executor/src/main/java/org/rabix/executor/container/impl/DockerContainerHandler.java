@@ -13,6 +13,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.configuration.Configuration;
@@ -59,6 +63,7 @@ public class DockerContainerHandler implements ContainerHandler {
   
   private String containerId;
   private DockerClient dockerClient;
+  private Future<Integer> completion;
   
 
   private final Job job;
@@ -163,6 +168,7 @@ public class DockerContainerHandler implements ContainerHandler {
         logger.error("Failed to start Docker container " + containerId, e);
         throw new ContainerException("Failed to start Docker container " + containerId);
       }
+      completion = waitForExit();
       logger.info("Docker container {} has started.", containerId);
     } catch (IOException e) {
       logger.error("Failed to create cmd.log file.", e);
@@ -173,6 +179,32 @@ public class DockerContainerHandler implements ContainerHandler {
     }
   }
   
+  /**
+   * Waits for the container in background. Wait call is retried until the container stops because it's limited by the client read timeout.
+   */
+  private Future<Integer> waitForExit() {
+    ExecutorService waitService = Executors.newSingleThreadExecutor();
+    try {
+      return waitService.submit(new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          while (true) {
+            try {
+              return dockerClient.waitContainer(containerId).statusCode();
+            } catch (DockerException e) {
+              if (!isRunning()) {
+                return getProcessExitStatus();
+              }
+              logger.debug("Waiting for Docker container {} interrupted. Retry.", containerId);
+            }
+          }
+        }
+      });
+    } finally {
+      waitService.shutdown();
+    }
+  }
+
   private List<String> transformEnvironmentVariables(Map<String, String> variables) {
     List<String> transformed = new ArrayList<>();
     for (Entry<String, String> variableEntry : variables.entrySet()) {
@@ -229,6 +261,15 @@ public class DockerContainerHandler implements ContainerHandler {
     }
   }
 
+  @Override
+  @JsonIgnore
+  public Future<Integer> getCompletion() throws ContainerException {
+    if (completion == null) {
+      throw new ContainerException("Docker container has not started yet.");
+    }
+    return completion;
+  }
+
   @Override
   @JsonIgnore
   public int getProcessExitStatus() throws ContainerException {
@@ -1,49 +1,51 @@
 package org.rabix.executor.container.impl;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.rabix.bindings.Bindings;
 import org.rabix.bindings.BindingsFactory;
+import org.rabix.bindings.glob.GlobIndex;
 import org.rabix.bindings.model.Job;
 import org.rabix.bindings.model.requirement.EnvironmentVariableRequirement;
 import org.rabix.bindings.model.requirement.Requirement;
+import org.rabix.executor.config.LocalContainerConfig;
 import org.rabix.executor.config.StorageConfig;
 import org.rabix.executor.container.ContainerException;
 import org.rabix.executor.container.ContainerHandler;
+import org.rabix.executor.container.impl.ProcessSupervisor.SupervisedProcess;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Runs the command line as a local process supervised by {@link ProcessSupervisor}.
+ * Standard output and error are written to files in the working directory, which output globs don't match.
+ */
 public class LocalContainerHandler implements ContainerHandler {
 
   private final static Logger logger = LoggerFactory.getLogger(LocalContainerHandler.class);
 
+  public final static String STANDARD_OUTPUT_LOG = GlobIndex.STANDARD_OUTPUT_LOG;
+  public final static String STANDARD_ERROR_LOG = GlobIndex.STANDARD_ERROR_LOG;
+
   private Job job;
   private File workingDir;
+  private long timeout;
 
-  private Future<Integer> processFuture;
-  private ExecutorService executorService = Executors.newSingleThreadExecutor();
-
-  private Process process;
+  private SupervisedProcess process;
 
   public LocalContainerHandler(Job job, Configuration configuration) {
     this.job = job;
     this.workingDir = StorageConfig.getWorkingDir(job, configuration);
+    this.timeout = LocalContainerConfig.getTimeout(configuration);
   }
 
   @Override
@@ -55,7 +57,7 @@ public class LocalContainerHandler implements ContainerHandler {
       File commandLineFile = new File(workingDir, "cmd.log");
       FileUtils.writeStringToFile(commandLineFile, commandLine);
 
-      final ProcessBuilder processBuilder = new ProcessBuilder();
+      ProcessBuilder processBuilder = new ProcessBuilder();
       List<Requirement> combinedRequirements = new ArrayList<>();
       combinedRequirements.addAll(bindings.getHints(job));
       combinedRequirements.addAll(bindings.getRequirements(job));
@@ -70,14 +72,9 @@ public class LocalContainerHandler implements ContainerHandler {
 
       processBuilder.command("/bin/sh", "-c", commandLine);
       processBuilder.directory(workingDir);
-      processFuture = executorService.submit(new Callable<Integer>() {
-        @Override
-        public Integer call() throws Exception {
-          process = processBuilder.start();
-          process.waitFor();
-          return process.exitValue();
-        }
-      });
+      processBuilder.redirectOutput(new File(workingDir, STANDARD_OUTPUT_LOG));
+      processBuilder.redirectError(new File(workingDir, STANDARD_ERROR_LOG));
+      process = ProcessSupervisor.start(processBuilder, timeout);
       logger.info("Local container has started.");
     } catch (Exception e) {
       logger.error("Failed to start application", e);
@@ -97,43 +94,57 @@ public class LocalContainerHandler implements ContainerHandler {
 
   @Override
   public synchronized void stop() throws ContainerException {
-    if (processFuture == null) {
+    if (process == null) {
       return;
     }
-    processFuture.cancel(true);
+    process.kill();
   }
 
   @Override
   public synchronized boolean isStarted() throws ContainerException {
-    return processFuture != null;
+    return process != null;
   }
 
   @Override
   public synchronized boolean isRunning() throws ContainerException {
-    if (processFuture == null) {
+    if (process == null) {
       return false;
     }
-    return !processFuture.isDone();
+    return process.isRunning();
+  }
+
+  @Override
+  public synchronized Future<Integer> getCompletion() throws ContainerException {
+    if (process == null) {
+      throw new ContainerException("Local container has not started yet.");
+    }
+    return process.getCompletion();
   }
 
   @Override
-  public synchronized int getProcessExitStatus() throws ContainerException {
+  public int getProcessExitStatus() throws ContainerException {
     try {
-      return processFuture.get();
+      return getCompletion().get();
     } catch (InterruptedException | ExecutionException e) {
       throw new ContainerException(e);
     }
   }
 
+  /**
+   * Copies standard error of the process to the error file, unless it's already written there
+   */
   @Override
   public synchronized void dumpContainerLogs(File errorFile) throws ContainerException {
+    File standardErrorFile = new File(workingDir, STANDARD_ERROR_LOG);
+    if (errorFile.getAbsoluteFile().equals(standardErrorFile.getAbsoluteFile())) {
+      return;
+    }
     try {
-      if (!errorFile.exists()) {
+      if (standardErrorFile.exists()) {
+        FileUtils.copyFile(standardErrorFile, errorFile);
+      } else if (!errorFile.exists()) {
         errorFile.createNewFile();
       }
-      try (InputStream inputStream = process.getErrorStream(); OutputStream outputStream = new FileOutputStream(errorFile)) {
-        IOUtils.copy(inputStream, outputStream);
-      }
     } catch (IOException e) {
       logger.error("Failed to create " + errorFile.getName(), e);
       throw new ContainerException("Failed to create " + errorFile.getName(), e);
@@ -0,0 +1,234 @@
+package org.rabix.executor.container.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Executor-wide supervisor of local processes. One reaper thread polls all running processes for exit, completes
+ * their futures and kills processes that exceed their timeout, so the number of threads doesn't depend on the
+ * number of running jobs.
+ * <p>
+ * Polling starts at {@link #MIN_POLL_INTERVAL} milliseconds after a process is started or exits and backs off to
+ * {@link #MAX_POLL_INTERVAL} while nothing changes.
+ * <p>
+ * Where <code>setsid</code> is available processes are started in their own process group, so killing a process
+ * kills the processes it has started too (e.g. commands run by <code>/bin/sh -c</code>).
+ */
+public class ProcessSupervisor {
+
+  private final static Logger logger = LoggerFactory.getLogger(ProcessSupervisor.class);
+
+  public final static long MIN_POLL_INTERVAL = 5;
+  public final static long MAX_POLL_INTERVAL = 200;
+
+  private final static List<SupervisedProcess> processes = new ArrayList<>();
+
+  private final static String SETSID = findExecutable("setsid");
+
+  private static Thread reaper;
+  private static long pollInterval = MIN_POLL_INTERVAL;
+
+  /**
+   * Starts the process
+   *
+   * @param timeout time in milliseconds after which the process is killed (no timeout if not positive)
+   */
+  public static SupervisedProcess start(ProcessBuilder processBuilder, long timeout) throws IOException {
+    if (SETSID != null) {
+      List<String> command = new ArrayList<>();
+      command.add(SETSID);
+      command.addAll(processBuilder.command());
+      processBuilder.command(command);
+    }
+    Process process = processBuilder.start();
+    Integer processGroup = SETSID != null ? getPid(process) : null;
+    SupervisedProcess supervisedProcess = new SupervisedProcess(process, processGroup, timeout > 0 ? System.currentTimeMillis() + timeout : 0);
+    synchronized (processes) {
+      processes.add(supervisedProcess);
+      pollInterval = MIN_POLL_INTERVAL;
+      if (reaper == null) {
+        reaper = new Thread(new Reaper(), "Process-Reaper");
+        reaper.setDaemon(true);
+        reaper.start();
+      }
+      processes.notifyAll();
+    }
+    return supervisedProcess;
+  }
+
+  public static int getRunningCount() {
+    synchronized (processes) {
+      return processes.size();
+    }
+  }
+
+  /**
+   * Removes finished processes and kills the timed out ones
+   *
+   * @return true if any process has finished
+   */
+  private static boolean reap() {
+    List<SupervisedProcess> running;
+    synchronized (processes) {
+      running = new ArrayList<>(processes);
+    }
+    boolean changed = false;
+    long currentTime = System.currentTimeMillis();
+    for (SupervisedProcess supervisedProcess : running) {
+      Integer exitValue = getExitValue(supervisedProcess.process);
+      if (exitValue != null) {
+        supervisedProcess.completion.set(exitValue);
+        changed = true;
+      } else if (supervisedProcess.deadline > 0 && currentTime > supervisedProcess.deadline && !supervisedProcess.timedOut) {
+        logger.warn("Process timed out. Killing it.");
+        supervisedProcess.timedOut = true;
+        supervisedProcess.kill();
+      }
+    }
+    if (changed) {
+      synchronized (processes) {
+        Iterator<SupervisedProcess> iterator = processes.iterator();
+        while (iterator.hasNext()) {
+          if (iterator.next().completion.isDone()) {
+            iterator.remove();
+          }
+        }
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Gets exit value or null if the process is still running
+   */
+  private static Integer getExitValue(Process process) {
+    try {
+      return process.exitValue();
+    } catch (IllegalThreadStateException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Gets process ID, or null if it can't be read
+   */
+  private static Integer getPid(Process process) {
+    try {
+      try {
+        // Java 9 and newer
+        Method pid = Process.class.getMethod("pid");
+        return ((Long) pid.invoke(process)).intValue();
+      } catch (NoSuchMethodException e) {
+        Field pid = process.getClass().getDeclaredField("pid");
+        pid.setAccessible(true);
+        return pid.getInt(process);
+      }
+    } catch (Exception e) {
+      logger.warn("Failed to get process ID. Only the process itself will be killed.", e);
+      return null;
+    }
+  }
+
+  private static String findExecutable(String name) {
+    for (String directory : new String[] { "/usr/bin", "/bin" }) {
+      File executable = new File(directory, name);
+      if (executable.canExecute()) {
+        return executable.getAbsolutePath();
+      }
+    }
+    return null;
+  }
+
+  private static class Reaper implements Runnable {
+    @Override
+    public void run() {
+      while (true) {
+        try {
+          boolean changed = reap();
+          synchronized (processes) {
+            if (changed) {
+              pollInterval = MIN_POLL_INTERVAL;
+            } else {
+              pollInterval = Math.min(MAX_POLL_INTERVAL, pollInterval * 2);
+            }
+            if (processes.isEmpty()) {
+              processes.wait();
+            } else {
+              processes.wait(pollInterval);
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        } catch (Exception e) {
+          logger.error("Failed to check process status", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Process started by the supervisor
+   */
+  public static class SupervisedProcess {
+    private final Process process;
+    private final Integer processGroup;
+    private final long deadline;
+    private final SettableFuture<Integer> completion = SettableFuture.create();
+
+    private volatile boolean timedOut = false;
+
+    private SupervisedProcess(Process process, Integer processGroup, long deadline) {
+      this.process = process;
+      this.processGroup = processGroup;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Future which completes with the exit value as soon as the process finishes
+     */
+    public Future<Integer> getCompletion() {
+      return completion;
+    }
+
+    public boolean isRunning() {
+      return !completion.isDone();
+    }
+
+    public boolean isTimedOut() {
+      return timedOut;
+    }
+
+    /**
+     * Kills the process and its process group. Completion is set when the process actually exits.
+     */
+    public void kill() {
+      if (processGroup != null && !completion.isDone()) {
+        try {
+          new ProcessBuilder("kill", "-TERM", "--", "-" + processGroup).start().waitFor();
+        } catch (IOException e) {
+          logger.warn("Failed to kill process group " + processGroup, e);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      process.destroy();
+      synchronized (processes) {
+        pollInterval = MIN_POLL_INTERVAL;
+        processes.notifyAll();
+      }
+    }
+  }
+
+}
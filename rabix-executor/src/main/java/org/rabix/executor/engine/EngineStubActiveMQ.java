@@ -1,5 +1,6 @@
 package org.rabix.executor.engine;
 
+import java.util.Arrays;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -7,12 +8,12 @@ import java.util.concurrent.TimeUnit;
 import org.apache.commons.configuration.Configuration;
 import org.rabix.bindings.model.Job;
 import org.rabix.executor.service.ExecutorService;
-import org.rabix.transport.backend.HeartbeatInfo;
 import org.rabix.transport.backend.impl.BackendActiveMQ;
+import org.rabix.transport.codec.TransportCodecFactory;
 import org.rabix.transport.mechanism.TransportPlugin;
 import org.rabix.transport.mechanism.TransportPluginException;
+import org.rabix.transport.mechanism.TransportPlugin.ErrorCallback;
 import org.rabix.transport.mechanism.TransportPlugin.ReceiveCallback;
-import org.rabix.transport.mechanism.TransportPlugin.ResultPair;
 import org.rabix.transport.mechanism.impl.activemq.TransportPluginActiveMQ;
 import org.rabix.transport.mechanism.impl.activemq.TransportQueueActiveMQ;
 import org.slf4j.Logger;
@@ -35,7 +36,7 @@ public class EngineStubActiveMQ implements EngineStub {
   public EngineStubActiveMQ(BackendActiveMQ backendActiveMQ, ExecutorService executorService, Configuration configuration) throws TransportPluginException {
     this.backendActiveMQ = backendActiveMQ;
     this.executorService = executorService;
-    this.transportPlugin = new TransportPluginActiveMQ(configuration);
+    this.transportPlugin = new TransportPluginActiveMQ(configuration, TransportCodecFactory.create(backendActiveMQ.getCodec()));
     
     this.sendToBackendQueue = new TransportQueueActiveMQ(backendActiveMQ.getToBackendQueue());
     this.receiveFromBackendQueue = new TransportQueueActiveMQ(backendActiveMQ.getFromBackendQueue());
@@ -44,27 +45,22 @@ public class EngineStubActiveMQ implements EngineStub {
   
   @Override
   public void start() {
-    new Thread(new Runnable() {
+    transportPlugin.startReceiver(sendToBackendQueue, Job[].class, new ReceiveCallback<Job[]>() {
       @Override
-      public void run() {
-        while(true) {
-          ResultPair<Job> result = transportPlugin.receive(sendToBackendQueue, Job.class, new ReceiveCallback<Job>() {
-            @Override
-            public void handleReceive(Job job) throws TransportPluginException {
-              executorService.start(job, job.getContext().getId());
-            }
-          });
-          if (!result.isSuccess()) {
-            logger.error(result.getMessage(), result.getException());
-          }
-        }
+      public void handleReceive(Job[] jobs) throws TransportPluginException {
+        executorService.start(Arrays.asList(jobs));
+      }
+    }, new ErrorCallback() {
+      @Override
+      public void handleError(String message, Exception exception) {
+        logger.error(message, exception);
       }
-    }).start();
+    });
     
     scheduledHeartbeatService.scheduleAtFixedRate(new Runnable() {
       @Override
       public void run() {
-        transportPlugin.send(receiveFromBackendHeartbeatQueue, new HeartbeatInfo(backendActiveMQ.getId(), System.currentTimeMillis()));
+        transportPlugin.send(receiveFromBackendHeartbeatQueue, executorService.getHeartbeatInfo(backendActiveMQ.getId()));
       }
     }, 0, 1, TimeUnit.SECONDS);
   }
@@ -1,5 +1,6 @@
 package org.rabix.executor.engine;
 
+import java.util.Arrays;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -7,8 +8,8 @@ import java.util.concurrent.TimeUnit;
 import org.apache.commons.configuration.Configuration;
 import org.rabix.bindings.model.Job;
 import org.rabix.executor.service.ExecutorService;
-import org.rabix.transport.backend.HeartbeatInfo;
 import org.rabix.transport.backend.impl.BackendLocal;
+import org.rabix.transport.codec.TransportCodecFactory;
 import org.rabix.transport.mechanism.TransportPlugin;
 import org.rabix.transport.mechanism.TransportPlugin.ReceiveCallback;
 import org.rabix.transport.mechanism.TransportPlugin.ResultPair;
@@ -35,7 +36,7 @@ public class EngineStubLocal implements EngineStub {
   public EngineStubLocal(BackendLocal backendLocal, ExecutorService executorService, Configuration configuration) throws TransportPluginException {
     this.backendLocal = backendLocal;
     this.executorService = executorService;
-    this.transportPlugin = new TransportPluginLocal(configuration);
+    this.transportPlugin = new TransportPluginLocal(configuration, TransportCodecFactory.create(backendLocal.getCodec()));
   }
   
   @Override
@@ -44,10 +45,10 @@ public class EngineStubLocal implements EngineStub {
       @Override
       public void run() {
         while(true) {
-          ResultPair<Job> result = transportPlugin.receive(sendToBackendQueue, Job.class, new ReceiveCallback<Job>() {
+          ResultPair<Job[]> result = transportPlugin.receive(sendToBackendQueue, Job[].class, new ReceiveCallback<Job[]>() {
             @Override
-            public void handleReceive(Job job) throws TransportPluginException {
-              executorService.start(job, job.getContext().getId());
+            public void handleReceive(Job[] jobs) throws TransportPluginException {
+              executorService.start(Arrays.asList(jobs));
             }
           });
           if (!result.isSuccess()) {
@@ -60,7 +61,7 @@ public class EngineStubLocal implements EngineStub {
     scheduledHeartbeatService.scheduleAtFixedRate(new Runnable() {
       @Override
       public void run() {
-        transportPlugin.send(receiveFromBackendHeartbeatQueue, new HeartbeatInfo(backendLocal.getId(), System.currentTimeMillis()));
+        transportPlugin.send(receiveFromBackendHeartbeatQueue, executorService.getHeartbeatInfo(backendLocal.getId()));
       }
     }, 0, 1, TimeUnit.SECONDS);
   }
@@ -1,5 +1,6 @@
 package org.rabix.executor.engine;
 
+import java.util.Arrays;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -7,10 +8,10 @@ import java.util.concurrent.TimeUnit;
 import org.apache.commons.configuration.Configuration;
 import org.rabix.bindings.model.Job;
 import org.rabix.executor.service.ExecutorService;
-import org.rabix.transport.backend.HeartbeatInfo;
 import org.rabix.transport.backend.impl.BackendRabbitMQ;
 import org.rabix.transport.backend.impl.BackendRabbitMQ.BackendConfiguration;
 import org.rabix.transport.backend.impl.BackendRabbitMQ.EngineConfiguration;
+import org.rabix.transport.codec.TransportCodecFactory;
 import org.rabix.transport.mechanism.TransportPlugin;
 import org.rabix.transport.mechanism.TransportPlugin.ReceiveCallback;
 import org.rabix.transport.mechanism.TransportPlugin.ResultPair;
@@ -38,7 +39,7 @@ public class EngineStubRabbitMQ implements EngineStub {
   public EngineStubRabbitMQ(BackendRabbitMQ backendRabbitMQ, ExecutorService executorService, Configuration configuration) throws TransportPluginException {
     this.backendRabbitMQ = backendRabbitMQ;
     this.executorService = executorService;
-    this.transportPlugin = new TransportPluginRabbitMQ(configuration);
+    this.transportPlugin = new TransportPluginRabbitMQ(configuration, TransportCodecFactory.create(backendRabbitMQ.getCodec()));
     
     BackendConfiguration backendConfiguration = backendRabbitMQ.getBackendConfiguration();
     this.sendToBackendQueue = new TransportQueueRabbitMQ(backendConfiguration.getExchange(), backendConfiguration.getExchangeType(), backendConfiguration.getReceiveRoutingKey());
@@ -54,10 +55,10 @@ public class EngineStubRabbitMQ implements EngineStub {
       @Override
       public void run() {
         while(true) {
-          ResultPair<Job> result = transportPlugin.receive(sendToBackendQueue, Job.class, new ReceiveCallback<Job>() {
+          ResultPair<Job[]> result = transportPlugin.receive(sendToBackendQueue, Job[].class, new ReceiveCallback<Job[]>() {
             @Override
-            public void handleReceive(Job job) throws TransportPluginException {
-              executorService.start(job, job.getContext().getId());
+            public void handleReceive(Job[] jobs) throws TransportPluginException {
+              executorService.start(Arrays.asList(jobs));
             }
           });
           if (!result.isSuccess()) {
@@ -70,7 +71,7 @@ public class EngineStubRabbitMQ implements EngineStub {
     scheduledHeartbeatService.scheduleAtFixedRate(new Runnable() {
       @Override
       public void run() {
-        transportPlugin.send(receiveFromBackendHeartbeatQueue, new HeartbeatInfo(backendRabbitMQ.getId(), System.currentTimeMillis()));
+        transportPlugin.send(receiveFromBackendHeartbeatQueue, executorService.getHeartbeatInfo(backendRabbitMQ.getId()));
       }
     }, 0, 10, TimeUnit.SECONDS);
   }
@@ -0,0 +1,167 @@
+package org.rabix.executor.execution;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.rabix.bindings.helper.ResourceRequirementHelper;
+import org.rabix.bindings.model.Job;
+import org.rabix.bindings.model.requirement.Requirement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admits jobs for execution while they fit into node's CPU and memory capacity. Jobs that don't fit wait in FIFO order
+ * without holding a thread and are started as soon as running jobs release their resources.
+ * <p>
+ * Job which requires more than the node has is clamped to the full capacity, so it runs alone.
+ */
+public class JobAdmissionScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(JobAdmissionScheduler.class);
+
+  private final int cpuCapacity;
+  private final long memoryCapacity;
+
+  private int cpuUsed = 0;
+  private long memoryUsed = 0;
+  private int runningCount = 0;
+
+  private final Executor executor;
+  private final LinkedList<Admission> waiting = new LinkedList<>();
+
+  public JobAdmissionScheduler(int cpuCapacity, long memoryCapacity, Executor executor) {
+    this.cpuCapacity = cpuCapacity;
+    this.memoryCapacity = memoryCapacity;
+    this.executor = executor;
+    logger.info("Job admission capacity is {} core(s) and {} MB.", cpuCapacity, memoryCapacity);
+  }
+
+  /**
+   * Runs the runnable when the job's resources become available
+   */
+  public void submit(Job job, Runnable runnable) {
+    List<Requirement> requirements = ResourceRequirementHelper.getRequirements(job);
+    int cpu = ResourceRequirementHelper.getCpu(requirements);
+    long memory = ResourceRequirementHelper.getMemory(requirements);
+    Admission admission = new Admission(job.getId(), runnable, Math.min(cpu, cpuCapacity), Math.min(memory, memoryCapacity));
+
+    List<Admission> admitted;
+    synchronized (this) {
+      waiting.add(admission);
+      admitted = admit();
+      if (!admitted.contains(admission)) {
+        logger.info("Job {} requires {} core(s) and {} MB. Waiting for resources.", admission.jobId, admission.cpu, admission.memory);
+      }
+    }
+    execute(admitted);
+  }
+
+  /**
+   * Removes the runnable if it's still waiting for resources
+   *
+   * @return true if runnable was waiting and will never be executed
+   */
+  public synchronized boolean cancel(Runnable runnable) {
+    Iterator<Admission> iterator = waiting.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().runnable == runnable) {
+        iterator.remove();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public synchronized int getWaitingCount() {
+    return waiting.size();
+  }
+
+  public synchronized int getRunningCount() {
+    return runningCount;
+  }
+
+  public int getCpuCapacity() {
+    return cpuCapacity;
+  }
+
+  public long getMemoryCapacity() {
+    return memoryCapacity;
+  }
+
+  public synchronized int getFreeCpu() {
+    return cpuCapacity - cpuUsed;
+  }
+
+  public synchronized long getFreeMemory() {
+    return memoryCapacity - memoryUsed;
+  }
+
+  private void release(Admission admission) {
+    List<Admission> admitted;
+    synchronized (this) {
+      cpuUsed -= admission.cpu;
+      memoryUsed -= admission.memory;
+      runningCount--;
+      admitted = admit();
+    }
+    execute(admitted);
+  }
+
+  /**
+   * Reserves resources for waiting jobs in FIFO order while they fit
+   */
+  private List<Admission> admit() {
+    List<Admission> admitted = new ArrayList<>();
+    while (!waiting.isEmpty()) {
+      Admission admission = waiting.getFirst();
+      if (cpuUsed + admission.cpu > cpuCapacity || memoryUsed + admission.memory > memoryCapacity) {
+        break;
+      }
+      waiting.removeFirst();
+      cpuUsed += admission.cpu;
+      memoryUsed += admission.memory;
+      runningCount++;
+      admitted.add(admission);
+    }
+    return admitted;
+  }
+
+  private void execute(List<Admission> admitted) {
+    for (final Admission admission : admitted) {
+      logger.debug("Job {} admitted with {} core(s) and {} MB.", admission.jobId, admission.cpu, admission.memory);
+      try {
+        executor.execute(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              admission.runnable.run();
+            } finally {
+              release(admission);
+            }
+          }
+        });
+      } catch (RuntimeException e) {
+        logger.error("Failed to execute job " + admission.jobId, e);
+        release(admission);
+      }
+    }
+  }
+
+  private static class Admission {
+    private final String jobId;
+    private final Runnable runnable;
+    private final int cpu;
+    private final long memory;
+
+    private Admission(String jobId, Runnable runnable, int cpu, long memory) {
+      this.jobId = jobId;
+      this.runnable = runnable;
+      this.cpu = cpu;
+      this.memory = memory;
+    }
+  }
+
+}
@@ -61,6 +61,13 @@ public abstract class JobHandlerCommand {
     return null;
   }
 
+  /**
+   * Wait before the command is repeated. By default, sleeps for the whole delay.
+   */
+  public void awaitRepeat(Repeat repeat, JobHandler handler) throws InterruptedException {
+    Thread.sleep(repeat.delay);
+  }
+
   /**
    * Send notification to master about STARTED event 
    */
@@ -14,15 +14,18 @@ import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
+import org.apache.commons.configuration.Configuration;
 import org.rabix.bindings.model.Job;
+import org.rabix.executor.config.ResourceConfig;
 import org.rabix.executor.engine.EngineStub;
+import org.rabix.executor.execution.JobHandlerCommand.JobHandlerCommandType;
 import org.rabix.executor.handler.JobHandlerFactory;
 import org.rabix.executor.model.JobData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Job execution command dispatcher.
+ * Job execution command dispatcher. Job runnables are started by {@link JobAdmissionScheduler} on a bounded pool.
  */
 public class JobHandlerCommandDispatcher {
 
@@ -35,12 +38,16 @@ public class JobHandlerCommandDispatcher {
   private final ThreadFactory jobHandlerThreadFactory;
   private final ExecutorService jobHandlerThreadExecutor;
   private final ScheduledExecutorService jobHandlerThreadCleanExecutor;
+  private final JobAdmissionScheduler jobAdmissionScheduler;
 
   @Inject
-  public JobHandlerCommandDispatcher(JobHandlerFactory jobHandlerFactory) {
+  public JobHandlerCommandDispatcher(JobHandlerFactory jobHandlerFactory, Configuration configuration) {
     this.jobHandlerFactory = jobHandlerFactory;
     this.jobHandlerThreadFactory = buildJobHandlerThreadFactory();
-    this.jobHandlerThreadExecutor = Executors.newCachedThreadPool(jobHandlerThreadFactory);
+
+    int cpu = ResourceConfig.getCpu(configuration);
+    this.jobHandlerThreadExecutor = Executors.newFixedThreadPool(cpu, jobHandlerThreadFactory);
+    this.jobAdmissionScheduler = new JobAdmissionScheduler(cpu, ResourceConfig.getMemory(configuration), jobHandlerThreadExecutor);
     this.jobHandlerThreadCleanExecutor = Executors.newScheduledThreadPool(1);
     init();
   }
@@ -56,19 +63,37 @@ public class JobHandlerCommandDispatcher {
    * Dispatch commands to appropriate runnable threads
    */
   public void dispatch(JobData jobData, JobHandlerCommand command, EngineStub engineStub) {
+    Job job = jobData.getJob();
+    JobHandlerRunnable jobHandlerRunnable;
     synchronized (jobHandlerRunnables) {
-      String contextId = jobData.getJob().getRootId();
-      JobHandlerRunnable jobHandlerRunnable = getJobs(contextId).get(jobData.getJob().getId());
+      String contextId = job.getRootId();
+      jobHandlerRunnable = getJobs(contextId).get(job.getId());
 
       if (jobHandlerRunnable == null) {
-        Job job = jobData.getJob();
         jobHandlerRunnable = new JobHandlerRunnable(job.getId(), job.getRootId(), jobHandlerFactory.createHandler(job, engineStub));
         getJobs(contextId).put(job.getId(), jobHandlerRunnable);
-        jobHandlerThreadExecutor.execute(jobHandlerRunnable);
+        jobHandlerRunnable.addCommand(command);
         logger.info("JobHandlerRunnable created for {}.", job.getId());
+      } else if (command.getType().equals(JobHandlerCommandType.STOP) && jobAdmissionScheduler.cancel(jobHandlerRunnable)) {
+        // job is still waiting for resources, so there is nothing to stop but the handler itself
+        jobHandlerRunnable = new JobHandlerRunnable(job.getId(), job.getRootId(), jobHandlerFactory.createHandler(job, engineStub));
+        getJobs(contextId).put(job.getId(), jobHandlerRunnable);
+        jobHandlerRunnable.addCommand(command);
+        logger.info("Job {} stopped before it was admitted.", job.getId());
+      } else {
+        jobHandlerRunnable.addCommand(command);
+        return;
       }
-      jobHandlerRunnable.addCommand(command);
     }
+    if (command.getType().equals(JobHandlerCommandType.STOP)) {
+      jobHandlerRunnable.run();
+      return;
+    }
+    jobAdmissionScheduler.submit(job, jobHandlerRunnable);
+  }
+
+  public JobAdmissionScheduler getJobAdmissionScheduler() {
+    return jobAdmissionScheduler;
   }
 
   private Map<String, JobHandlerRunnable> getJobs(String contextId) {
@@ -89,7 +114,7 @@ public class JobHandlerCommandDispatcher {
     return new JobHandlerThreadFactoryBuilder()
       .setNamePrefix("JobHandler-Thread")
       .setDaemon(false)
-      .setPriority(Thread.MAX_PRIORITY)
+      .setPriority(Thread.NORM_PRIORITY)
       .setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
         @Override
         public void uncaughtException(Thread t, Throwable e) {
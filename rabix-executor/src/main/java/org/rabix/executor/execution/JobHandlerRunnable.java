@@ -52,7 +52,7 @@ public class JobHandlerRunnable implements Runnable {
         Repeat repeat = command.getRepeat();
         if (repeat != null) {
           logger.debug("Command {} is repeatable. Delay and put it back to queue.", command);
-          Thread.sleep(repeat.delay);
+          command.awaitRepeat(repeat, jobHandler);
           addCommand(command);
         }
 
@@ -6,6 +6,7 @@ import javax.inject.Inject;
 
 import org.rabix.bindings.model.Job;
 import org.rabix.bindings.model.Job.JobStatus;
+import org.rabix.executor.ExecutorException;
 import org.rabix.executor.execution.JobHandlerCommand;
 import org.rabix.executor.handler.JobHandler;
 import org.rabix.executor.model.JobData;
@@ -14,7 +15,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Command that checks status of {@link JobHandler} 
+ * Command that checks status of {@link JobHandler}. The check runs as soon as the job finishes, {@link #DEFAULT_DELAY} is only a fallback.
  */
 public class StatusCommand extends JobHandlerCommand {
 
@@ -63,6 +64,19 @@ public class StatusCommand extends JobHandlerCommand {
     return new Result(true);
   }
 
+  @Override
+  public void awaitRepeat(Repeat repeat, JobHandler jobHandler) throws InterruptedException {
+    try {
+      jobHandler.awaitCompletion(repeat.delay);
+    } catch (ExecutorException e) {
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      logger.warn("Failed to wait for completion. Fall back to polling.", e);
+      Thread.sleep(repeat.delay);
+    }
+  }
+
   @Override
   public Repeat getRepeat() {
     return new Repeat(DEFAULT_DELAY);
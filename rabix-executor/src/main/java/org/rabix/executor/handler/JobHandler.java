@@ -29,6 +29,11 @@ public interface JobHandler {
    */
   boolean isRunning() throws ExecutorException;
 
+  /**
+   * Wait until execution finishes or the timeout expires. Returns true if execution has finished.
+   */
+  boolean awaitCompletion(long timeoutMillis) throws ExecutorException;
+
   /**
    * Get exit status
    */
@@ -3,9 +3,16 @@ package org.rabix.executor.handler.impl;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.inject.Inject;
 
@@ -13,6 +20,7 @@ import org.apache.commons.configuration.Configuration;
 import org.apache.commons.io.FileUtils;
 import org.rabix.bindings.BindingException;
 import org.rabix.bindings.Bindings;
+import org.rabix.bindings.Bindings.OutputFileCallback;
 import org.rabix.bindings.BindingsFactory;
 import org.rabix.bindings.filemapper.FileMapper;
 import org.rabix.bindings.filemapper.FileMappingException;
@@ -25,6 +33,9 @@ import org.rabix.bindings.model.requirement.FileRequirement.SingleTextFileRequir
 import org.rabix.bindings.model.requirement.LocalContainerRequirement;
 import org.rabix.bindings.model.requirement.Requirement;
 import org.rabix.common.helper.ChecksumHelper;
+import org.rabix.common.helper.StagingHelper;
+import org.rabix.common.helper.StagingHelper.StagingMode;
+import org.rabix.common.helper.StagingHelper.StagingStatistics;
 import org.rabix.common.helper.ChecksumHelper.HashAlgorithm;
 import org.rabix.executor.ExecutorException;
 import org.rabix.executor.config.FileConfig;
@@ -34,15 +45,17 @@ import org.rabix.executor.container.ContainerException;
 import org.rabix.executor.container.ContainerHandler;
 import org.rabix.executor.container.ContainerHandlerFactory;
 import org.rabix.executor.container.impl.CompletedContainerHandler;
+import org.rabix.executor.container.impl.LocalContainerHandler;
 import org.rabix.executor.engine.EngineStub;
 import org.rabix.executor.handler.JobHandler;
 import org.rabix.executor.model.JobData;
 import org.rabix.executor.service.DownloadFileService;
 import org.rabix.executor.service.JobDataService;
-import org.rabix.ftp.SimpleFTPClient;
+import org.rabix.executor.service.UploadFileService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.inject.assistedinject.Assisted;
 
 public class JobHandlerImpl implements JobHandler {
@@ -57,7 +70,7 @@ public class JobHandlerImpl implements JobHandler {
   private final DownloadFileService downloadFileService;
   private final JobDataService jobDataService;
 
-  private final SimpleFTPClient ftpClient;
+  private final UploadFileService uploadFileService;
   private final boolean enableHash;
   private final HashAlgorithm hashAlgorithm;
 
@@ -68,14 +81,14 @@ public class JobHandlerImpl implements JobHandler {
   private ContainerHandler containerHandler;
   
   @Inject
-  public JobHandlerImpl(@Assisted Job job, @Assisted EngineStub engineStub, JobDataService jobDataService, DownloadFileService downloadFileService, Configuration configuration, SimpleFTPClient ftpClient) {
+  public JobHandlerImpl(@Assisted Job job, @Assisted EngineStub engineStub, JobDataService jobDataService, DownloadFileService downloadFileService, UploadFileService uploadFileService, Configuration configuration) {
     this.job = job;
     this.engineStub = engineStub;
     this.configuration = configuration;
     this.downloadFileService = downloadFileService;
     this.jobDataService = jobDataService;
     this.workingDir = StorageConfig.getWorkingDir(job, configuration);
-    this.ftpClient = ftpClient;
+    this.uploadFileService = uploadFileService;
     this.enableHash = FileConfig.calculateFileChecksum(configuration);
     this.hashAlgorithm = FileConfig.checksumAlgorithm(configuration);
   }
@@ -123,6 +136,7 @@ public class JobHandlerImpl implements JobHandler {
       if (fileRequirements == null) {
         return;
       }
+      StagingStatistics statistics = new StagingStatistics();
       for (SingleFileRequirement fileRequirement : fileRequirements) {
         logger.info("Process file requirement {}", fileRequirement);
 
@@ -138,13 +152,13 @@ public class JobHandlerImpl implements JobHandler {
           if (!file.exists()) {
             continue;
           }
-          if (file.isFile()) {
-            FileUtils.copyFile(file, destinationFile);
-          } else {
-            FileUtils.copyDirectory(file, destinationFile);
-          }
+          // copied (cloned where supported), tools may modify staged files and a link would change the source
+          StagingHelper.stage(file, destinationFile, StagingMode.COPY, statistics);
         }
       }
+      if (!statistics.isEmpty()) {
+        logger.info("File requirements of job {} staged: {}.", job.getId(), statistics);
+      }
     } catch (IOException e) {
       logger.error("Failed to process file requirements.", e);
       throw new ExecutorException("Failed to process file requirements.");
@@ -162,28 +176,42 @@ public class JobHandlerImpl implements JobHandler {
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public Job postprocess(boolean isTerminal) throws ExecutorException {
     logger.debug("postprocess(id={})", job.getId());
     try {
       containerHandler.dumpContainerLogs(new File(workingDir, ERROR_LOG));
 
+      final Map<File, Future<Boolean>> uploads = new LinkedHashMap<>();
       if (!isSuccessful()) {
-        upload(workingDir);
+        submitLogUploads(uploads);
+        waitForUploads(uploads);
         return job;
       }
 
       Bindings bindings = BindingsFactory.create(job);
-      job = bindings.postprocess(job, workingDir);
+      // output files are uploaded as soon as they are collected
+      job = bindings.postprocess(job, workingDir, new OutputFileCallback() {
+        @Override
+        public void handleOutputFile(File file) {
+          submitUpload(file, uploads);
+        }
+      });
 
+      Map<String, Object> outputs = job.getOutputs();
+      Map<Map<String, Object>, Future<String>> checksums = new IdentityHashMap<>();
       if (enableHash) {
-        Map<String, Object> outputs = job.getOutputs();
-        Map<String, Object> outputsWithCheckSum = (Map<String, Object>) populateChecksum(outputs);
-        job = Job.cloneWithOutputs(job, outputsWithCheckSum);
+        submitChecksums(outputs, checksums);
+      }
+      // output files are hashed in parallel while they are uploaded
+      submitUploads(outputs, uploads);
+      submitLogUploads(uploads);
+      waitForUploads(uploads);
+      if (enableHash) {
+        populateChecksums(checksums);
+        job = Job.cloneWithOutputs(job, outputs);
       }
 
       job = bindings.mapOutputFilePaths(job, new OutputFileMapper());
-      upload(workingDir);
 
       JobData jobData = jobDataService.find(job.getId(), job.getRootId());
       jobData.setResult(job.getOutputs());
@@ -203,13 +231,90 @@ public class JobHandlerImpl implements JobHandler {
     }
   }
 
-  private void upload(File workingDir) throws IOException {
-    if (!StorageConfig.getBackendStore(configuration).equals(BackendStore.FTP)) {
+  /**
+   * Submits output files and their secondary files for upload
+   */
+  @SuppressWarnings("unchecked")
+  private void submitUploads(Object outputs, Map<File, Future<Boolean>> uploads) {
+    if (outputs instanceof Map) {
+      Map<String, Object> outputsMap = (Map<String, Object>) outputs;
+      String mapClass = (String) outputsMap.get("class");
+      if (mapClass != null && mapClass.equals("File")) {
+        submitUpload(new File((String) outputsMap.get("path")), uploads);
+        submitUploads(outputsMap.get("secondaryFiles"), uploads);
+        return;
+      }
+      for (Object value : outputsMap.values()) {
+        submitUploads(value, uploads);
+      }
+    } else if (outputs instanceof List) {
+      for (Object elem : (List<Object>) outputs) {
+        submitUploads(elem, uploads);
+      }
+    }
+  }
+
+  private void submitLogUploads(Map<File, Future<Boolean>> uploads) {
+    for (String log : new String[] { ERROR_LOG, LocalContainerHandler.STANDARD_OUTPUT_LOG }) {
+      File logFile = new File(workingDir, log);
+      if (logFile.exists()) {
+        submitUpload(logFile, uploads);
+      }
+    }
+  }
+
+  /**
+   * Submits file for upload (only once). Directories are uploaded recursively.
+   */
+  private void submitUpload(File file, Map<File, Future<Boolean>> uploads) {
+    if (!StorageConfig.getBackendStore(configuration).equals(BackendStore.FTP) || uploads.containsKey(file)) {
       return;
     }
-    for (File file : workingDir.listFiles()) {
-      String remotePath = file.getAbsolutePath().substring(StorageConfig.getLocalExecutionDirectory(configuration).length());
-      ftpClient.upload(file, remotePath);
+    if (!file.getAbsolutePath().startsWith(StorageConfig.getLocalExecutionDirectory(configuration) + File.separator)) {
+      logger.warn("File {} is outside of execution directory. Skipping upload.", file);
+      return;
+    }
+    if (file.isDirectory()) {
+      uploads.put(file, Futures.immediateFuture(false));
+      File[] children = file.listFiles();
+      if (children != null) {
+        for (File child : children) {
+          submitUpload(child, uploads);
+        }
+      }
+      return;
+    }
+    uploads.put(file, uploadFileService.upload(file));
+  }
+
+  private void waitForUploads(Map<File, Future<Boolean>> uploads) throws IOException {
+    int uploaded = 0;
+    int skipped = 0;
+    IOException exception = null;
+    for (Entry<File, Future<Boolean>> upload : uploads.entrySet()) {
+      if (upload.getKey().isDirectory()) {
+        continue;
+      }
+      try {
+        if (upload.getValue().get()) {
+          uploaded++;
+        } else {
+          skipped++;
+        }
+      } catch (ExecutionException e) {
+        if (exception == null) {
+          exception = new IOException("Failed to upload " + upload.getKey(), e.getCause());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while uploading outputs.", e);
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+    if (uploaded + skipped > 0) {
+      logger.info("Files of job {} uploaded: {} uploaded, {} already existed.", job.getId(), uploaded, skipped);
     }
   }
 
@@ -255,6 +360,29 @@ public class JobHandlerImpl implements JobHandler {
     }
   }
 
+  @Override
+  public boolean awaitCompletion(long timeoutMillis) throws ExecutorException {
+    try {
+      if (containerHandler == null) {
+        logger.debug("Container hasn't started yet.");
+        Thread.sleep(timeoutMillis);
+        return false;
+      }
+      containerHandler.getCompletion().get(timeoutMillis, TimeUnit.MILLISECONDS);
+      return true;
+    } catch (TimeoutException e) {
+      return false;
+    } catch (ExecutionException | CancellationException e) {
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExecutorException("Interrupted while waiting for completion.", e);
+    } catch (ContainerException e) {
+      logger.error("Failed to wait for container completion", e);
+      throw new ExecutorException("Failed to wait for container completion.", e);
+    }
+  }
+
   @Override
   public int getExitStatus() throws ExecutorException {
     logger.debug("getExitStatus()");
@@ -273,41 +401,43 @@ public class JobHandlerImpl implements JobHandler {
     return isSuccessful(processExitStatus);
   }
 
+  /**
+   * Starts checksum calculation for all output files
+   */
   @SuppressWarnings("unchecked")
-  private void calculateChecksum(Object file) {
-    Map<String, Object> fileMap = (Map<String, Object>) file;
-    File f = new File((String) fileMap.get("path"));
-    String checksum = ChecksumHelper.checksum(f, hashAlgorithm);
-    if (checksum != null) {
-      fileMap.put(KEY_CHECKSUM, checksum);
-    }
-  }
-
-  @SuppressWarnings("unchecked")
-  public Object populateChecksum(Object outputs) {
+  private void submitChecksums(Object outputs, Map<Map<String, Object>, Future<String>> checksums) {
     if (outputs instanceof Map) {
-      String mapClass = (String) ((Map<String, Object>) outputs).get("class");
+      Map<String, Object> outputsMap = (Map<String, Object>) outputs;
+      String mapClass = (String) outputsMap.get("class");
       if (mapClass != null && mapClass.equals("File")) {
-        calculateChecksum(outputs);
-        return outputs;
-      } else {
-        Map<String, Object> outputsMap = (Map<String, Object>) outputs;
-        Map<String, Object> result = new HashMap<String, Object>();
-        for (String output : outputsMap.keySet()) {
-          Object value = outputsMap.get(output);
-          result.put(output, populateChecksum(value));
+        if (!checksums.containsKey(outputsMap)) {
+          checksums.put(outputsMap, ChecksumHelper.checksumAsync(new File((String) outputsMap.get("path")), hashAlgorithm));
         }
-        return result;
+        return;
+      }
+      for (Object value : outputsMap.values()) {
+        submitChecksums(value, checksums);
       }
     } else if (outputs instanceof List) {
-      List<Object> iter = (List<Object>) outputs;
-      List<Object> resultList = new ArrayList<Object>();
-      for (Object elem : iter) {
-        resultList.add(populateChecksum(elem));
+      for (Object elem : (List<Object>) outputs) {
+        submitChecksums(elem, checksums);
+      }
+    }
+  }
+
+  private void populateChecksums(Map<Map<String, Object>, Future<String>> checksums) throws ExecutorException {
+    for (Entry<Map<String, Object>, Future<String>> checksumEntry : checksums.entrySet()) {
+      try {
+        String checksum = checksumEntry.getValue().get();
+        if (checksum != null) {
+          checksumEntry.getKey().put(KEY_CHECKSUM, checksum);
+        }
+      } catch (ExecutionException e) {
+        logger.error("Failed to calculate checksum for " + checksumEntry.getKey().get("path"), e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ExecutorException("Interrupted while calculating checksums.", e);
       }
-      return resultList;
-    } else {
-      return outputs;
     }
   }
 
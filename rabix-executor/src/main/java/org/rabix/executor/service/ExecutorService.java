@@ -1,10 +1,12 @@
 package org.rabix.executor.service;
 
+import java.util.List;
 import java.util.Map;
 
 import org.rabix.bindings.model.Job;
 import org.rabix.bindings.model.Job.JobStatus;
 import org.rabix.transport.backend.Backend;
+import org.rabix.transport.backend.HeartbeatInfo;
 
 public interface ExecutorService {
 
@@ -12,6 +14,11 @@ public interface ExecutorService {
   
   void start(final Job job, String contextId);
 
+  /**
+   * Starts jobs received in one batch
+   */
+  void start(List<Job> jobs);
+
   void stop(String id, String contextId);
 
   void shutdown(Boolean stopEverything);
@@ -24,4 +31,9 @@ public interface ExecutorService {
 
   JobStatus findStatus(String id, String contextId);
 
+  /**
+   * Creates heartbeat with current capacity and load
+   */
+  HeartbeatInfo getHeartbeatInfo(String backendId);
+
 }
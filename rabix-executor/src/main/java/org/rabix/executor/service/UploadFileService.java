@@ -0,0 +1,14 @@
+package org.rabix.executor.service;
+
+import java.io.File;
+import java.util.concurrent.Future;
+
+public interface UploadFileService {
+
+  /**
+   * Uploads file from the execution directory asynchronously
+   *
+   * @return future which is false if the file wasn't uploaded because it already exists
+   */
+  Future<Boolean> upload(File file);
+}
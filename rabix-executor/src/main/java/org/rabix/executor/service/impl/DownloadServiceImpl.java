@@ -1,40 +1,420 @@
 package org.rabix.executor.service.impl;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.configuration.Configuration;
-import org.rabix.bindings.model.Job;
 import org.rabix.bindings.model.FileValue;
+import org.rabix.bindings.model.Job;
+import org.rabix.common.helper.ChecksumHelper;
+import org.rabix.common.helper.ChecksumHelper.HashAlgorithm;
+import org.rabix.common.helper.ExecutorHelper;
+import org.rabix.common.helper.StagingHelper;
+import org.rabix.common.helper.StagingHelper.StagingMode;
+import org.rabix.common.helper.StagingHelper.StagingStatistics;
+import org.rabix.executor.config.DownloadConfig;
 import org.rabix.executor.config.StorageConfig;
 import org.rabix.executor.config.StorageConfig.BackendStore;
 import org.rabix.executor.service.DownloadFileService;
 import org.rabix.ftp.SimpleFTPClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.inject.Inject;
 
+/**
+ * Downloads job inputs from the backend store. Files are downloaded in parallel into an executor-wide LRU cache and
+ * copied into the execution directory (cloned on copy-on-write file systems). Concurrent requests for the same path
+ * share one download and files are verified against their checksums.
+ * <p>
+ * Cached files are never linked into execution directories. A tool which rewrites its input in place would corrupt
+ * the cached file, and a linked file would keep using disk space after it's evicted.
+ */
 public class DownloadServiceImpl implements DownloadFileService {
 
+  private final static Logger logger = LoggerFactory.getLogger(DownloadServiceImpl.class);
+
   private final SimpleFTPClient ftpClient;
   private final Configuration configuration;
-  
+
+  private final ExecutorService downloadExecutor;
+  private final ConcurrentMap<String, SettableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+  private volatile DownloadCache cache;
+
   @Inject
   public DownloadServiceImpl(Configuration configuration, SimpleFTPClient ftpClient) {
     this.configuration = configuration;
     this.ftpClient = ftpClient;
+    this.downloadExecutor = ExecutorHelper.createBoundedDaemonExecutor("Download", DownloadConfig.getThreads(configuration));
   }
-  
+
   @Override
   public void download(final Job job, final Set<FileValue> fileValues) throws Exception {
+    if (!StorageConfig.getBackendStore(configuration).equals(BackendStore.FTP)) {
+      return;
+    }
+    final File executionDirectory = new File(StorageConfig.getLocalExecutionDirectory(configuration));
+    final DownloadStatistics statistics = new DownloadStatistics();
+
+    Map<String, FileValue> files = new LinkedHashMap<>();
+    collect(fileValues, files);
+
+    List<Future<Void>> futures = new ArrayList<>();
+    for (final FileValue fileValue : files.values()) {
+      futures.add(downloadExecutor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          download(fileValue, new File(executionDirectory, fileValue.getPath()), statistics);
+          return null;
+        }
+      }));
+    }
+
+    Exception exception = null;
+    for (Future<Void> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        if (exception == null) {
+          exception = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+    if (!statistics.isEmpty()) {
+      logger.info("Inputs of job {} fetched: {}.", job.getId(), statistics);
+    }
+  }
+
+  /**
+   * Collects files and their secondary files by path
+   */
+  private void collect(Iterable<FileValue> fileValues, Map<String, FileValue> files) {
+    if (fileValues == null) {
+      return;
+    }
     for (FileValue fileValue : fileValues) {
-      File file = new File(new File(StorageConfig.getLocalExecutionDirectory(configuration)), fileValue.getPath());
-      if (file.exists()) {
+      if (fileValue.getPath() != null && !files.containsKey(fileValue.getPath())) {
+        files.put(fileValue.getPath(), fileValue);
+      }
+      collect(fileValue.getSecondaryFiles(), files);
+    }
+  }
+
+  /**
+   * Makes sure valid file is in the execution directory. Only one caller per path runs at a time, the others wait for
+   * its result and check the file afterwards.
+   */
+  private void download(FileValue fileValue, File destination, DownloadStatistics statistics) throws IOException {
+    String path = fileValue.getPath();
+    String checksum = fileValue.getChecksum();
+    while (true) {
+      SettableFuture<Void> future = SettableFuture.create();
+      SettableFuture<Void> existing = inFlight.putIfAbsent(path, future);
+      if (existing != null) {
+        await(existing);
+        if (destination.exists() && verify(destination, checksum)) {
+          return;
+        }
+        // fetched with different checksum
         continue;
       }
-      if (StorageConfig.getBackendStore(configuration).equals(BackendStore.FTP)) {
-        ftpClient.download(new File(StorageConfig.getLocalExecutionDirectory(configuration)), fileValue.getPath());
+      try {
+        fetch(path, checksum, destination, statistics);
+        future.set(null);
+        return;
+      } catch (IOException | RuntimeException e) {
+        future.setException(e);
+        throw e;
+      } finally {
+        inFlight.remove(path, future);
+      }
+    }
+  }
+
+  private void fetch(String path, String checksum, File destination, DownloadStatistics statistics) throws IOException {
+    if (destination.exists()) {
+      if (verify(destination, checksum)) {
+        return;
+      }
+      logger.warn("File {} doesn't match checksum {}. Fetching it again.", destination, checksum);
+      destination.delete();
+    }
+    DownloadCache downloadCache = getCache();
+    File file = downloadCache.acquire(path);
+    if (file != null && !verify(file, checksum)) {
+      logger.warn("Cached file {} doesn't match checksum {}.", path, checksum);
+      downloadCache.release(path);
+      downloadCache.invalidate(path);
+      file = null;
+    }
+    if (file != null) {
+      statistics.cached(file.length());
+    } else {
+      file = downloadToCache(downloadCache, path, checksum);
+      statistics.downloaded(file.length());
+    }
+    try {
+      File parent = destination.getParentFile();
+      if (parent != null && !parent.exists()) {
+        parent.mkdirs();
+      }
+      StagingHelper.stage(file, destination, StagingMode.COPY, new StagingStatistics());
+    } finally {
+      downloadCache.release(path);
+    }
+  }
+
+  private File downloadToCache(DownloadCache downloadCache, String path, String checksum) throws IOException {
+    File file = downloadCache.getFile(path);
+    File parent = file.getParentFile();
+    if (!parent.exists()) {
+      parent.mkdirs();
+    }
+    File partFile = new File(parent, file.getName() + "." + UUID.randomUUID() + DownloadCache.PART_SUFFIX);
+    try {
+      long startTime = System.currentTimeMillis();
+      ftpClient.download(path, partFile);
+      if (!verify(partFile, checksum)) {
+        throw new IOException("Downloaded file " + path + " doesn't match checksum " + checksum);
+      }
+      Files.move(partFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      logger.debug("File {} ({} bytes) downloaded in {} ms.", path, file.length(), System.currentTimeMillis() - startTime);
+    } finally {
+      if (partFile.exists()) {
+        partFile.delete();
+      }
+    }
+    return downloadCache.put(path, file);
+  }
+
+  private void await(SettableFuture<Void> future) throws IOException {
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for download", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Download failed", e.getCause());
+    }
+  }
+
+  /**
+   * Verifies file against checksum in '<algorithm>$<hash>' format. Files without checksum are always valid.
+   */
+  private boolean verify(File file, String checksum) {
+    if (checksum == null || checksum.isEmpty()) {
+      return true;
+    }
+    int separatorIndex = checksum.indexOf('$');
+    if (separatorIndex < 0) {
+      logger.debug("Checksum {} has unknown format. Skipping verification.", checksum);
+      return true;
+    }
+    HashAlgorithm hashAlgorithm;
+    try {
+      hashAlgorithm = HashAlgorithm.valueOf(checksum.substring(0, separatorIndex).toUpperCase());
+    } catch (IllegalArgumentException e) {
+      logger.debug("Checksum algorithm of {} is not supported. Skipping verification.", checksum);
+      return true;
+    }
+    return checksum.equalsIgnoreCase(ChecksumHelper.checksum(file, hashAlgorithm));
+  }
+
+  private DownloadCache getCache() {
+    if (cache == null) {
+      synchronized (this) {
+        if (cache == null) {
+          cache = new DownloadCache(DownloadConfig.getCacheDirectory(configuration), DownloadConfig.getCacheSize(configuration));
+        }
+      }
+    }
+    return cache;
+  }
+
+  /**
+   * Size-bounded LRU cache of downloaded files. Files are kept under their remote paths in the cache directory.
+   * Pinned files (the ones being staged) are never evicted, so the cache can temporarily exceed its size.
+   */
+  private static class DownloadCache {
+
+    private final static String PART_SUFFIX = ".part";
+
+    private final File directory;
+    private final long maxSize;
+
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size = 0;
+
+    private DownloadCache(File directory, long maxSize) {
+      this.directory = directory;
+      this.maxSize = maxSize;
+      load();
+    }
+
+    /**
+     * Indexes files left by previous runs, least recently modified first
+     */
+    private synchronized void load() {
+      List<File> files = new ArrayList<>();
+      list(directory, files);
+      Collections.sort(files, new Comparator<File>() {
+        @Override
+        public int compare(File file1, File file2) {
+          return Long.compare(file1.lastModified(), file2.lastModified());
+        }
+      });
+      String prefix = directory.getAbsolutePath() + File.separator;
+      for (File file : files) {
+        if (file.getName().endsWith(PART_SUFFIX)) {
+          file.delete();
+          continue;
+        }
+        String path = file.getAbsolutePath().substring(prefix.length());
+        entries.put(path, new CacheEntry(file));
+        size += file.length();
+      }
+      evict();
+      logger.info("Download cache {} holds {} files ({} bytes).", directory, entries.size(), size);
+    }
+
+    private void list(File directory, List<File> files) {
+      File[] children = directory.listFiles();
+      if (children == null) {
+        return;
+      }
+      for (File child : children) {
+        if (child.isDirectory()) {
+          list(child, files);
+        } else {
+          files.add(child);
+        }
+      }
+    }
+
+    private File getFile(String path) {
+      return new File(directory, path);
+    }
+
+    /**
+     * Gets and pins cached file or returns null if there is no such file
+     */
+    private synchronized File acquire(String path) {
+      CacheEntry entry = entries.get(path);
+      if (entry == null) {
+        return null;
+      }
+      if (!entry.file.exists()) {
+        entries.remove(path);
+        size -= entry.size;
+        return null;
+      }
+      entry.pins++;
+      return entry.file;
+    }
+
+    /**
+     * Adds pinned file to the cache
+     */
+    private synchronized File put(String path, File file) {
+      CacheEntry entry = new CacheEntry(file);
+      entry.pins = 1;
+      CacheEntry previous = entries.put(path, entry);
+      if (previous != null) {
+        size -= previous.size;
+      }
+      size += entry.size;
+      return file;
+    }
+
+    private synchronized void release(String path) {
+      CacheEntry entry = entries.get(path);
+      if (entry != null && entry.pins > 0) {
+        entry.pins--;
+      }
+      evict();
+    }
+
+    private synchronized void invalidate(String path) {
+      CacheEntry entry = entries.get(path);
+      if (entry != null && entry.pins == 0) {
+        entries.remove(path);
+        size -= entry.size;
+        entry.file.delete();
+      }
+    }
+
+    private void evict() {
+      Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+      while (size > maxSize && iterator.hasNext()) {
+        CacheEntry entry = iterator.next().getValue();
+        if (entry.pins > 0) {
+          continue;
+        }
+        iterator.remove();
+        size -= entry.size;
+        entry.file.delete();
+        logger.debug("File {} evicted from download cache.", entry.file);
       }
     }
   }
-  
+
+  /**
+   * Bytes downloaded and taken from the cache for one job
+   */
+  private static class DownloadStatistics {
+    private final AtomicLong downloadedBytes = new AtomicLong(0);
+    private final AtomicLong cachedBytes = new AtomicLong(0);
+
+    private void downloaded(long bytes) {
+      downloadedBytes.addAndGet(bytes);
+    }
+
+    private void cached(long bytes) {
+      cachedBytes.addAndGet(bytes);
+    }
+
+    private boolean isEmpty() {
+      return downloadedBytes.get() == 0 && cachedBytes.get() == 0;
+    }
+
+    @Override
+    public String toString() {
+      return downloadedBytes.get() + " bytes downloaded, " + cachedBytes.get() + " bytes from cache";
+    }
+  }
+
+  private static class CacheEntry {
+    private final File file;
+    private final long size;
+    private int pins = 0;
+
+    private CacheEntry(File file) {
+      this.file = file;
+      this.size = file.length();
+    }
+  }
+
 }
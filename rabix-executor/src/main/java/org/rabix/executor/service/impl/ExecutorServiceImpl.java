@@ -11,6 +11,7 @@ import org.rabix.executor.engine.EngineStub;
 import org.rabix.executor.engine.EngineStubActiveMQ;
 import org.rabix.executor.engine.EngineStubLocal;
 import org.rabix.executor.engine.EngineStubRabbitMQ;
+import org.rabix.executor.execution.JobAdmissionScheduler;
 import org.rabix.executor.execution.JobHandlerCommandDispatcher;
 import org.rabix.executor.execution.command.StartCommand;
 import org.rabix.executor.execution.command.StatusCommand;
@@ -19,6 +20,7 @@ import org.rabix.executor.model.JobData;
 import org.rabix.executor.service.ExecutorService;
 import org.rabix.executor.service.JobDataService;
 import org.rabix.transport.backend.Backend;
+import org.rabix.transport.backend.HeartbeatInfo;
 import org.rabix.transport.backend.impl.BackendActiveMQ;
 import org.rabix.transport.backend.impl.BackendLocal;
 import org.rabix.transport.backend.impl.BackendRabbitMQ;
@@ -90,6 +92,15 @@ public class ExecutorServiceImpl implements ExecutorService {
     jobHandlerCommandDispatcher.dispatch(jobData, statusCommandProvider.get(), engineStub);
   }
 
+  @Override
+  public void start(List<Job> jobs) {
+    logger.debug("start({} job(s))", jobs.size());
+
+    for (Job job : jobs) {
+      start(job, job.getContext().getId());
+    }
+  }
+
   @Override
   public void stop(String jobId, String contextId) {
     logger.debug("stop(id={})", jobId);
@@ -109,6 +120,13 @@ public class ExecutorServiceImpl implements ExecutorService {
     return null;
   }
 
+  @Override
+  public HeartbeatInfo getHeartbeatInfo(String backendId) {
+    JobAdmissionScheduler scheduler = jobHandlerCommandDispatcher.getJobAdmissionScheduler();
+    return new HeartbeatInfo(backendId, System.currentTimeMillis(), scheduler.getCpuCapacity(), scheduler.getMemoryCapacity(),
+        scheduler.getFreeCpu(), scheduler.getFreeMemory(), scheduler.getRunningCount(), scheduler.getWaitingCount());
+  }
+
   @Override
   public void shutdown(Boolean stopEverything) {
     logger.debug("shutdown(stopEverything={})", stopEverything);
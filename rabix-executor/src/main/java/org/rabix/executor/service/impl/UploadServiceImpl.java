@@ -0,0 +1,51 @@
+package org.rabix.executor.service.impl;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.configuration.Configuration;
+import org.rabix.common.helper.ExecutorHelper;
+import org.rabix.executor.config.StorageConfig;
+import org.rabix.executor.config.StorageConfig.BackendStore;
+import org.rabix.executor.config.UploadConfig;
+import org.rabix.executor.service.UploadFileService;
+import org.rabix.ftp.SimpleFTPClient;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.inject.Inject;
+
+/**
+ * Uploads files to the backend store on a bounded pool, so several transfers run in parallel over pooled connections.
+ * Remote path is the path relative to the execution directory.
+ */
+public class UploadServiceImpl implements UploadFileService {
+
+  private final SimpleFTPClient ftpClient;
+  private final Configuration configuration;
+
+  private final ExecutorService uploadExecutor;
+
+  @Inject
+  public UploadServiceImpl(Configuration configuration, SimpleFTPClient ftpClient) {
+    this.configuration = configuration;
+    this.ftpClient = ftpClient;
+    this.uploadExecutor = ExecutorHelper.createBoundedDaemonExecutor("Upload", UploadConfig.getThreads(configuration));
+  }
+
+  @Override
+  public Future<Boolean> upload(final File file) {
+    if (!StorageConfig.getBackendStore(configuration).equals(BackendStore.FTP)) {
+      return Futures.immediateFuture(false);
+    }
+    return uploadExecutor.submit(new Callable<Boolean>() {
+      @Override
+      public Boolean call() throws Exception {
+        String remotePath = file.getAbsolutePath().substring(StorageConfig.getLocalExecutionDirectory(configuration).length());
+        return ftpClient.upload(file, remotePath);
+      }
+    });
+  }
+
+}
@@ -0,0 +1,105 @@
+package org.rabix.executor.container.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.rabix.executor.container.impl.ProcessSupervisor.SupervisedProcess;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class ProcessSupervisorTest {
+
+  private File directory;
+
+  @BeforeMethod
+  public void setUp() throws IOException {
+    if (!new File("/proc/self").exists() || (!new File("/usr/bin/setsid").canExecute() && !new File("/bin/setsid").canExecute())) {
+      throw new SkipException("Process groups are checked through setsid and /proc");
+    }
+    directory = Files.createTempDirectory("process-supervisor").toFile();
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException {
+    if (directory != null) {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
+
+  @Test
+  public void testKillStopsChildren() throws Exception {
+    SupervisedProcess process = ProcessSupervisor.start(sleepingShell(), 0);
+    String child = readChildPid();
+    Assert.assertTrue(isAlive(child));
+
+    process.kill();
+    Assert.assertEquals(process.getCompletion().get(10, TimeUnit.SECONDS).intValue(), 143);
+    assertStops(child);
+  }
+
+  @Test
+  public void testTimeoutStopsChildren() throws Exception {
+    SupervisedProcess process = ProcessSupervisor.start(sleepingShell(), 500);
+    String child = readChildPid();
+
+    process.getCompletion().get(10, TimeUnit.SECONDS);
+    Assert.assertTrue(process.isTimedOut());
+    assertStops(child);
+  }
+
+  /**
+   * Shell which starts a sleeping child, writes its PID and waits for it
+   */
+  private ProcessBuilder sleepingShell() {
+    ProcessBuilder processBuilder = new ProcessBuilder("/bin/sh", "-c", "sleep 60 & echo $! > child.pid; wait");
+    processBuilder.directory(directory);
+    return processBuilder;
+  }
+
+  private String readChildPid() throws Exception {
+    File pidFile = new File(directory, "child.pid");
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (System.currentTimeMillis() < deadline) {
+      if (pidFile.exists()) {
+        String pid = FileUtils.readFileToString(pidFile, "UTF-8").trim();
+        if (!pid.isEmpty()) {
+          return pid;
+        }
+      }
+      Thread.sleep(10);
+    }
+    throw new AssertionError("Child process didn't start");
+  }
+
+  private void assertStops(String pid) throws Exception {
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (isAlive(pid)) {
+      Assert.assertTrue(System.currentTimeMillis() < deadline, "Child process " + pid + " is still running");
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Checks if the process exists and is not a zombie
+   */
+  private boolean isAlive(String pid) throws IOException {
+    File stat = new File("/proc/" + pid + "/stat");
+    if (!stat.exists()) {
+      return false;
+    }
+    try {
+      String content = FileUtils.readFileToString(stat, "UTF-8");
+      return content.charAt(content.lastIndexOf(')') + 2) != 'Z';
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+}
@@ -0,0 +1,188 @@
+package org.rabix.executor.service.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.io.FileUtils;
+import org.rabix.bindings.model.FileValue;
+import org.rabix.bindings.model.Job;
+import org.rabix.bindings.model.Job.JobStatus;
+import org.rabix.common.helper.ChecksumHelper;
+import org.rabix.ftp.SimpleFTPClient;
+import org.rabix.ftp.SimpleFTPServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class DownloadServiceImplTest {
+
+  private static final int FILE_SIZE = 700 * 1024;
+
+  private File directory;
+  private File ftpDirectory;
+  private int port;
+
+  private SimpleFTPServer server;
+
+  @BeforeClass
+  public void start() throws IOException {
+    directory = Files.createTempDirectory("download-test").toFile();
+    ftpDirectory = new File(directory, "ftp");
+    ftpDirectory.mkdirs();
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    server = new SimpleFTPServer(createConfiguration("unused", 0));
+    server.start();
+  }
+
+  @AfterClass
+  public void stop() throws IOException {
+    server.stop();
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void testConcurrentRequestsDownloadOnce() throws Exception {
+    final File file = createRemoteFile("shared/input.txt");
+    Configuration configuration = createConfiguration("concurrent", 100);
+    CountingFTPClient ftpClient = new CountingFTPClient(configuration);
+    final DownloadServiceImpl downloadService = new DownloadServiceImpl(configuration, ftpClient);
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      futures.add(executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          downloadService.download(createJob(), fileValues("shared/input.txt", ChecksumHelper.sha1(file)));
+          return null;
+        }
+      }));
+    }
+    for (Future<Void> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    Assert.assertEquals(ftpClient.count.get(), 1);
+    assertDownloaded(configuration, "shared/input.txt", file);
+  }
+
+  @Test
+  public void testCachedFileIsReused() throws Exception {
+    File file = createRemoteFile("cached/input.txt");
+    Configuration configuration = createConfiguration("cached", 100);
+    CountingFTPClient ftpClient = new CountingFTPClient(configuration);
+    DownloadServiceImpl downloadService = new DownloadServiceImpl(configuration, ftpClient);
+
+    downloadService.download(createJob(), fileValues("cached/input.txt", null));
+    new File(new File(directory, "cached"), "cached/input.txt").delete();
+    downloadService.download(createJob(), fileValues("cached/input.txt", null));
+
+    Assert.assertEquals(ftpClient.count.get(), 1);
+    assertDownloaded(configuration, "cached/input.txt", file);
+  }
+
+  @Test
+  public void testChecksumMismatchFails() throws Exception {
+    createRemoteFile("corrupted/input.txt");
+    Configuration configuration = createConfiguration("corrupted", 100);
+    DownloadServiceImpl downloadService = new DownloadServiceImpl(configuration, new CountingFTPClient(configuration));
+
+    try {
+      downloadService.download(createJob(), fileValues("corrupted/input.txt", "sha1$0000"));
+      Assert.fail("Download should fail");
+    } catch (IOException e) {
+      // expected
+    }
+    Assert.assertFalse(new File(new File(directory, "corrupted"), "corrupted/input.txt").exists());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedFileIsEvicted() throws Exception {
+    File first = createRemoteFile("evicted/first.txt");
+    File second = createRemoteFile("evicted/second.txt");
+    Configuration configuration = createConfiguration("evicted", 1);
+    CountingFTPClient ftpClient = new CountingFTPClient(configuration);
+    DownloadServiceImpl downloadService = new DownloadServiceImpl(configuration, ftpClient);
+
+    downloadService.download(createJob(), fileValues("evicted/first.txt", null));
+    downloadService.download(createJob(), fileValues("evicted/second.txt", null));
+
+    File cacheDirectory = new File(new File(directory, "evicted"), ".cache");
+    Assert.assertFalse(new File(cacheDirectory, "evicted/first.txt").exists());
+    Assert.assertTrue(new File(cacheDirectory, "evicted/second.txt").exists());
+    assertDownloaded(configuration, "evicted/first.txt", first);
+    assertDownloaded(configuration, "evicted/second.txt", second);
+    Assert.assertEquals(ftpClient.count.get(), 2);
+  }
+
+  private void assertDownloaded(Configuration configuration, String path, File expected) throws IOException {
+    File file = new File(configuration.getString("backend.execution.directory"), path);
+    Assert.assertTrue(file.exists());
+    Assert.assertTrue(FileUtils.contentEquals(file, expected));
+  }
+
+  private File createRemoteFile(String path) throws IOException {
+    File file = new File(ftpDirectory, path);
+    file.getParentFile().mkdirs();
+    byte[] content = new byte[FILE_SIZE];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) (i * 31 + path.hashCode());
+    }
+    Files.write(file.toPath(), content);
+    return file;
+  }
+
+  private Configuration createConfiguration(String executionDirectory, long cacheSize) {
+    Configuration configuration = new BaseConfiguration();
+    configuration.setProperty("backend.execution.directory", new File(directory, executionDirectory).getAbsolutePath());
+    configuration.setProperty("backend.store", "FTP");
+    configuration.setProperty("backend.download.cache.size_mb", cacheSize);
+    configuration.setProperty("ftp.host", "localhost");
+    configuration.setProperty("ftp.port", port);
+    configuration.setProperty("ftp.username", "username");
+    configuration.setProperty("ftp.password", "password");
+    configuration.setProperty("ftp.directory", ftpDirectory.getAbsolutePath());
+    return configuration;
+  }
+
+  private Set<FileValue> fileValues(String path, String checksum) {
+    return Collections.singleton(new FileValue((long) FILE_SIZE, path, checksum, null, null));
+  }
+
+  private Job createJob() {
+    return new Job(Job.generateId(), null, Job.generateId(), "tool", null, JobStatus.READY, null, null, null);
+  }
+
+  private static class CountingFTPClient extends SimpleFTPClient {
+    private final AtomicInteger count = new AtomicInteger(0);
+
+    public CountingFTPClient(Configuration configuration) {
+      super(configuration);
+    }
+
+    @Override
+    public void download(String remotePath, File file) throws IOException {
+      count.incrementAndGet();
+      super.download(remotePath, file);
+    }
+  }
+
+}
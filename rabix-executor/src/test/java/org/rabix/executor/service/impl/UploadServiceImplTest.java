@@ -0,0 +1,97 @@
+package org.rabix.executor.service.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.io.FileUtils;
+import org.rabix.ftp.SimpleFTPClient;
+import org.rabix.ftp.SimpleFTPServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class UploadServiceImplTest {
+
+  private File directory;
+  private File ftpDirectory;
+  private File executionDirectory;
+
+  private SimpleFTPServer server;
+  private UploadServiceImpl uploadService;
+
+  @BeforeClass
+  public void start() throws IOException {
+    directory = Files.createTempDirectory("upload-test").toFile();
+    ftpDirectory = new File(directory, "ftp");
+    ftpDirectory.mkdirs();
+    executionDirectory = new File(directory, "execution");
+    executionDirectory.mkdirs();
+
+    Configuration configuration = new BaseConfiguration();
+    try (ServerSocket socket = new ServerSocket(0)) {
+      configuration.setProperty("ftp.port", socket.getLocalPort());
+    }
+    configuration.setProperty("backend.execution.directory", executionDirectory.getAbsolutePath());
+    configuration.setProperty("backend.store", "FTP");
+    configuration.setProperty("ftp.host", "localhost");
+    configuration.setProperty("ftp.username", "username");
+    configuration.setProperty("ftp.password", "password");
+    configuration.setProperty("ftp.directory", ftpDirectory.getAbsolutePath());
+
+    server = new SimpleFTPServer(configuration);
+    server.start();
+    uploadService = new UploadServiceImpl(configuration, new SimpleFTPClient(configuration));
+  }
+
+  @AfterClass
+  public void stop() throws IOException {
+    server.stop();
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void testFilesAreUploadedInParallel() throws Exception {
+    List<File> files = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      files.add(createFile("root/job/step" + (i % 3) + "/output" + i + ".txt", "output " + i));
+    }
+    List<Future<Boolean>> uploads = new ArrayList<>();
+    for (File file : files) {
+      uploads.add(uploadService.upload(file));
+    }
+    for (Future<Boolean> upload : uploads) {
+      Assert.assertTrue(upload.get());
+    }
+    for (int i = 0; i < 20; i++) {
+      File remoteFile = new File(ftpDirectory, "root/job/step" + (i % 3) + "/output" + i + ".txt");
+      Assert.assertTrue(FileUtils.contentEquals(remoteFile, files.get(i)));
+    }
+  }
+
+  @Test
+  public void testExistingFileIsSkipped() throws Exception {
+    File file = createFile("root/skipped/output.txt", "output");
+    Assert.assertTrue(uploadService.upload(file).get());
+    Assert.assertFalse(uploadService.upload(file).get());
+
+    FileUtils.writeStringToFile(file, "OUTPUT");
+    Assert.assertTrue(uploadService.upload(file).get());
+    Assert.assertEquals(FileUtils.readFileToString(new File(ftpDirectory, "root/skipped/output.txt")), "OUTPUT");
+  }
+
+  private File createFile(String path, String content) throws IOException {
+    File file = new File(executionDirectory, path);
+    FileUtils.writeStringToFile(file, content);
+    return file;
+  }
+
+}
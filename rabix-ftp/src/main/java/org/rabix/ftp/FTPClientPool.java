@@ -0,0 +1,121 @@
+package org.rabix.ftp;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import org.apache.commons.net.ftp.FTP;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPReply;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded pool of connected and logged-in {@link FTPClient}s. Idle connections are checked with NOOP before they are
+ * reused and reconnected if the server has closed them.
+ */
+public class FTPClientPool {
+
+  private final static Logger logger = LoggerFactory.getLogger(FTPClientPool.class);
+
+  private final String host;
+  private final int port;
+  private final String username;
+  private final String password;
+
+  private final Semaphore permits;
+  private final BlockingQueue<FTPClient> idleClients = new LinkedBlockingQueue<>();
+
+  public FTPClientPool(String host, int port, String username, String password, int size) {
+    this.host = host;
+    this.port = port;
+    this.username = username;
+    this.password = password;
+    this.permits = new Semaphore(size, true);
+  }
+
+  /**
+   * Gets a logged-in client in binary passive mode. Blocks while all connections are in use.
+   */
+  public FTPClient borrow() throws IOException {
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for FTP connection");
+    }
+    try {
+      FTPClient ftpClient;
+      while ((ftpClient = idleClients.poll()) != null) {
+        if (isAlive(ftpClient)) {
+          return ftpClient;
+        }
+        disconnect(ftpClient);
+      }
+      return connect();
+    } catch (IOException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the client to the pool. Broken clients (e.g. after failed transfer) are disconnected.
+   */
+  public void release(FTPClient ftpClient, boolean broken) {
+    if (broken) {
+      disconnect(ftpClient);
+    } else {
+      idleClients.offer(ftpClient);
+    }
+    permits.release();
+  }
+
+  public void close() {
+    FTPClient ftpClient;
+    while ((ftpClient = idleClients.poll()) != null) {
+      disconnect(ftpClient);
+    }
+  }
+
+  private FTPClient connect() throws IOException {
+    FTPClient ftpClient = new FTPClient();
+    try {
+      ftpClient.connect(host, port);
+      if (!FTPReply.isPositiveCompletion(ftpClient.getReplyCode())) {
+        throw new IOException("FTP server refused connection");
+      }
+      if (!ftpClient.login(username, password)) {
+        throw new IOException("Failed to log in to FTP server as " + username);
+      }
+      ftpClient.enterLocalPassiveMode();
+      ftpClient.setFileType(FTP.BINARY_FILE_TYPE);
+      logger.debug("Connected to FTP server {}:{}.", host, port);
+      return ftpClient;
+    } catch (IOException e) {
+      disconnect(ftpClient);
+      throw e;
+    }
+  }
+
+  private boolean isAlive(FTPClient ftpClient) {
+    try {
+      return ftpClient.isConnected() && ftpClient.sendNoOp();
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private void disconnect(FTPClient ftpClient) {
+    try {
+      if (ftpClient.isConnected()) {
+        ftpClient.logout();
+        ftpClient.disconnect();
+      }
+    } catch (IOException e) {
+      // do nothing
+    }
+  }
+
+}
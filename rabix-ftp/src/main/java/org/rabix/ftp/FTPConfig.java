@@ -24,6 +24,13 @@ public class FTPConfig {
     return configuration.getBoolean("ftp.enabled", false);
   }
 
+  /**
+   * Maximum number of open connections per client
+   */
+  public static int getPoolSize(Configuration configuration) {
+    return Math.max(1, configuration.getInt("ftp.pool.size", 4));
+  }
+
   public static String getDirectory(Configuration configuration) {
     return configuration.getString("ftp.directory");
   }
@@ -1,5 +1,6 @@
 package org.rabix.ftp;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -7,16 +8,19 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.configuration.Configuration;
-import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
-import org.apache.commons.net.ftp.FTPReply;
+import org.rabix.common.helper.ChecksumHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 
+@Singleton
 public class SimpleFTPClient {
 
   private final static Logger logger = LoggerFactory.getLogger(SimpleFTPClient.class);
@@ -26,99 +30,154 @@ public class SimpleFTPClient {
   private String username;
   private String password;
 
+  private final FTPClientPool clientPool;
+  private final ConcurrentMap<String, Boolean> directories = new ConcurrentHashMap<>();
+
   @Inject
   public SimpleFTPClient(Configuration configuration) {
     this.port = FTPConfig.getPort(configuration);
     this.host = FTPConfig.getHost(configuration);
     this.username = FTPConfig.getUsername(configuration);
     this.password = FTPConfig.getPassword(configuration);
+    this.clientPool = new FTPClientPool(host, port, username, password, FTPConfig.getPoolSize(configuration));
   }
 
   public void download(File workingDir, String remotePath) throws IOException {
-    FTPClient ftpClient = new FTPClient();
-    try {
-      ftpClient.connect(host, port);
-      ftpClient.login(username, password);
-      ftpClient.enterLocalPassiveMode();
-      ftpClient.setFileType(FTP.BINARY_FILE_TYPE);
-
-      File localWorkingDir = workingDir;
-      String[] parts = remotePath.split(File.separator);
-      for (int i = 0; i < parts.length - 1; i++) {
-        if (parts[i].isEmpty()) {
-          continue;
-        }
-        String remoteWorkingDir = parts[i];
-        localWorkingDir = new File(localWorkingDir, remoteWorkingDir);
-        if (!localWorkingDir.exists()) {
-          localWorkingDir.mkdirs();
-        }
+    File localWorkingDir = workingDir;
+    String[] parts = remotePath.split(File.separator);
+    for (int i = 0; i < parts.length - 1; i++) {
+      if (parts[i].isEmpty()) {
+        continue;
       }
-      File file = new File(localWorkingDir, parts[parts.length - 1]);
-      OutputStream os = new BufferedOutputStream(new FileOutputStream(file));
-      boolean success = ftpClient.retrieveFile(remotePath, os);
-      os.close();
+      localWorkingDir = new File(localWorkingDir, parts[i]);
+    }
+    download(remotePath, new File(localWorkingDir, parts[parts.length - 1]));
+  }
 
-      if (success) {
-        logger.debug("File {} has been downloaded successfully.", remotePath);
+  /**
+   * Downloads remote file over pooled connection
+   */
+  public void download(String remotePath, File file) throws IOException {
+    File parent = file.getParentFile();
+    if (parent != null && !parent.exists()) {
+      parent.mkdirs();
+    }
+    FTPClient ftpClient = clientPool.borrow();
+    boolean broken = true;
+    try {
+      boolean success;
+      try (OutputStream os = new BufferedOutputStream(new FileOutputStream(file))) {
+        success = ftpClient.retrieveFile(remotePath, os);
+      }
+      broken = false;
+      if (!success) {
+        throw new IOException("Failed to download " + remotePath + ". " + ftpClient.getReplyString());
       }
-    } catch (IOException e) {
-      throw e;
+      logger.debug("File {} has been downloaded successfully.", remotePath);
     } finally {
-      try {
-        if (ftpClient.isConnected()) {
-          ftpClient.logout();
-          ftpClient.disconnect();
-        }
-      } catch (IOException ex) {
-        // do nothing
+      clientPool.release(ftpClient, broken);
+    }
+  }
+
+  /**
+   * Uploads file over pooled connection. Remote directories are created as needed.
+   *
+   * @return false if remote file with the same size and MD5 checksum already exists
+   */
+  public boolean upload(File file, String remotePath) throws IOException {
+    FTPClient ftpClient = clientPool.borrow();
+    boolean broken = true;
+    try {
+      if (exists(ftpClient, file, remotePath)) {
+        broken = false;
+        logger.debug("File {} already exists. Skipping upload.", remotePath);
+        return false;
       }
+      makeDirectories(ftpClient, remotePath);
+      boolean success;
+      try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+        success = ftpClient.storeFile(remotePath, input);
+      }
+      broken = false;
+      if (!success) {
+        throw new IOException("Failed to upload " + remotePath + ". " + ftpClient.getReplyString());
+      }
+      logger.debug("File {} has been uploaded successfully.", remotePath);
+      return true;
+    } finally {
+      clientPool.release(ftpClient, broken);
     }
   }
 
-  public void upload(File file, String remotePath) throws IOException {
-    FTPClient ftp = new FTPClient();
-    int reply;
+  /**
+   * Checks if remote file exists (SIZE command) over pooled connection
+   */
+  public boolean exists(String remotePath) throws IOException {
+    FTPClient ftpClient = clientPool.borrow();
+    boolean broken = true;
     try {
-      ftp.connect(host, port);
+      boolean exists = ftpClient.sendCommand("SIZE", remotePath) == 213;
+      broken = false;
+      return exists;
+    } finally {
+      clientPool.release(ftpClient, broken);
+    }
+  }
 
-      reply = ftp.getReplyCode();
-      if (!FTPReply.isPositiveCompletion(reply)) {
-        ftp.disconnect();
-        throw new IOException("Exception in connecting to FTP Server");
-      }
-      ftp.login(username, password);
-      ftp.setFileType(FTP.BINARY_FILE_TYPE);
-      ftp.enterLocalPassiveMode();
+  /**
+   * Compares size and then MD5 checksum of the remote file (SIZE and MD5 commands) with the local file
+   */
+  private boolean exists(FTPClient ftpClient, File file, String remotePath) throws IOException {
+    if (ftpClient.sendCommand("SIZE", remotePath) != 213) {
+      return false;
+    }
+    String size = ftpClient.getReplyString().substring(3).trim();
+    if (!size.equals(Long.toString(file.length()))) {
+      return false;
+    }
+    if (ftpClient.sendCommand("MD5", remotePath) != 251) {
+      return false;
+    }
+    String[] reply = ftpClient.getReplyString().trim().split("\\s+");
+    String localChecksum = ChecksumHelper.md5(file);
+    return localChecksum != null && localChecksum.substring(localChecksum.indexOf('$') + 1).equalsIgnoreCase(reply[reply.length - 1]);
+  }
 
-      String[] paths = remotePath.split(File.separator);
-      
-      for(int i = 0; i < paths.length - 1; i++) {
-        if (paths[i].isEmpty()) {
-          continue;
-        }
-        boolean exists = changeWorkingDirectory(ftp, paths[i]);
-        if (!exists) {
-          ftp.makeDirectory(paths[i]);
-          changeWorkingDirectory(ftp, paths[i]);
-        }
+  /**
+   * Creates parent directories of the remote path. Directories created once are remembered.
+   */
+  private void makeDirectories(FTPClient ftpClient, String remotePath) throws IOException {
+    String[] parts = remotePath.split(File.separator);
+    StringBuilder directory = new StringBuilder();
+    if (remotePath.startsWith(File.separator)) {
+      directory.append(File.separator);
+    }
+    for (int i = 0; i < parts.length - 1; i++) {
+      if (parts[i].isEmpty()) {
+        continue;
+      }
+      directory.append(parts[i]).append(File.separator);
+      String path = directory.toString();
+      if (directories.containsKey(path)) {
+        continue;
       }
-      try (InputStream input = new FileInputStream(new File(file.getAbsolutePath()))) {
-        ftp.storeFile(paths[paths.length - 1], input);
+      if (!ftpClient.makeDirectory(path) && !isDirectory(ftpClient, path)) {
+        throw new IOException("Failed to create remote directory " + path + ". " + ftpClient.getReplyString());
       }
-      ftp.disconnect();
-    } catch (IOException e) {
-      throw e;
+      directories.put(path, Boolean.TRUE);
     }
   }
-  
-  private static boolean changeWorkingDirectory(FTPClient ftpClient, String dirPath) throws IOException {
-    ftpClient.changeWorkingDirectory(dirPath);
-    int returnCode = ftpClient.getReplyCode();
-    if (returnCode == 550) {
+
+  /**
+   * Checks if directory exists. Working directory of the pooled connection is preserved.
+   */
+  private static boolean isDirectory(FTPClient ftpClient, String path) throws IOException {
+    String workingDirectory = ftpClient.printWorkingDirectory();
+    if (!ftpClient.changeWorkingDirectory(path)) {
       return false;
     }
+    ftpClient.changeWorkingDirectory(workingDirectory);
     return true;
   }
-  
+
 }
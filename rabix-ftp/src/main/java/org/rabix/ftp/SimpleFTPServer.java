@@ -27,6 +27,8 @@ public class SimpleFTPServer {
   private String password;
   private String directory;
 
+  private FtpServer server;
+
   @Inject
   public SimpleFTPServer(Configuration configuration) {
     this.port = FTPConfig.getPort(configuration);
@@ -58,13 +60,19 @@ public class SimpleFTPServer {
       factory.setUserManager(userManager);
       factory.addListener("default", listenerFactory.createListener());
 
-      FtpServer server = factory.createServer();
+      server = factory.createServer();
       server.start();
     } catch (FtpException e) {
       throw new RuntimeException(e);
     }
   }
 
+  public void stop() {
+    if (server != null) {
+      server.stop();
+    }
+  }
+
   public static void main(String[] args) {
     File configDir = new File("config");
     
@@ -3,6 +3,7 @@ package org.rabix.transport.backend;
 import org.rabix.transport.backend.impl.BackendActiveMQ;
 import org.rabix.transport.backend.impl.BackendLocal;
 import org.rabix.transport.backend.impl.BackendRabbitMQ;
+import org.rabix.transport.codec.TransportCodecType;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -21,6 +22,8 @@ public abstract class Backend {
 
   @JsonProperty("id")
   protected String id;
+  @JsonProperty("codec")
+  protected TransportCodecType codec;
   
   public static enum BackendType {
     LOCAL,
@@ -36,6 +39,17 @@ public abstract class Backend {
     this.id = id;
   }
 
+  /**
+   * Wire format of messages exchanged with the backend
+   */
+  public TransportCodecType getCodec() {
+    return codec;
+  }
+
+  public void setCodec(TransportCodecType codec) {
+    this.codec = codec;
+  }
+
   public abstract BackendType getType();
 
   @Override
@@ -3,16 +3,45 @@ package org.rabix.transport.backend;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+/**
+ * Backend heartbeat. Capacity fields (CPU in cores, memory in MB) are null if the backend doesn't report them.
+ */
 public class HeartbeatInfo {
   @JsonProperty("id")
   private String id;
   @JsonProperty("timestamp")
   private Long timestamp;
   
+  @JsonProperty("cpu")
+  private Integer cpu;
+  @JsonProperty("memory")
+  private Long memory;
+  @JsonProperty("freeCpu")
+  private Integer freeCpu;
+  @JsonProperty("freeMemory")
+  private Long freeMemory;
+  @JsonProperty("runningJobs")
+  private Integer runningJobs;
+  @JsonProperty("waitingJobs")
+  private Integer waitingJobs;
+  
+  public HeartbeatInfo(String id, Long timestamp) {
+    this(id, timestamp, null, null, null, null, null, null);
+  }
+  
   @JsonCreator
-  public HeartbeatInfo(@JsonProperty("id") String id, @JsonProperty("timestamp") Long timestamp) {
+  public HeartbeatInfo(@JsonProperty("id") String id, @JsonProperty("timestamp") Long timestamp,
+      @JsonProperty("cpu") Integer cpu, @JsonProperty("memory") Long memory,
+      @JsonProperty("freeCpu") Integer freeCpu, @JsonProperty("freeMemory") Long freeMemory,
+      @JsonProperty("runningJobs") Integer runningJobs, @JsonProperty("waitingJobs") Integer waitingJobs) {
     this.id = id;
     this.timestamp = timestamp;
+    this.cpu = cpu;
+    this.memory = memory;
+    this.freeCpu = freeCpu;
+    this.freeMemory = freeMemory;
+    this.runningJobs = runningJobs;
+    this.waitingJobs = waitingJobs;
   }
 
   public String getId() {
@@ -30,4 +59,52 @@ public class HeartbeatInfo {
   public void setTimestamp(Long timestamp) {
     this.timestamp = timestamp;
   }
-}
\ No newline at end of file
+
+  public Integer getCpu() {
+    return cpu;
+  }
+
+  public void setCpu(Integer cpu) {
+    this.cpu = cpu;
+  }
+
+  public Long getMemory() {
+    return memory;
+  }
+
+  public void setMemory(Long memory) {
+    this.memory = memory;
+  }
+
+  public Integer getFreeCpu() {
+    return freeCpu;
+  }
+
+  public void setFreeCpu(Integer freeCpu) {
+    this.freeCpu = freeCpu;
+  }
+
+  public Long getFreeMemory() {
+    return freeMemory;
+  }
+
+  public void setFreeMemory(Long freeMemory) {
+    this.freeMemory = freeMemory;
+  }
+
+  public Integer getRunningJobs() {
+    return runningJobs;
+  }
+
+  public void setRunningJobs(Integer runningJobs) {
+    this.runningJobs = runningJobs;
+  }
+
+  public Integer getWaitingJobs() {
+    return waitingJobs;
+  }
+
+  public void setWaitingJobs(Integer waitingJobs) {
+    this.waitingJobs = waitingJobs;
+  }
+}
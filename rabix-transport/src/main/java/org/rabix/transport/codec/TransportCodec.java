@@ -0,0 +1,14 @@
+package org.rabix.transport.codec;
+
+/**
+ * Converts entities to message payloads and back
+ */
+public interface TransportCodec {
+
+  byte[] encode(Object entity) throws TransportCodecException;
+
+  <T> T decode(byte[] payload, Class<T> clazz) throws TransportCodecException;
+
+  TransportCodecType getType();
+
+}
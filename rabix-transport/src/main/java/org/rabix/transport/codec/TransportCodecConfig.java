@@ -0,0 +1,22 @@
+package org.rabix.transport.codec;
+
+import org.apache.commons.configuration.Configuration;
+
+public class TransportCodecConfig {
+
+  public static final String CODEC = "transport.codec";
+
+  public static TransportCodecType getCodecType(Configuration configuration) {
+    String codec = configuration.getString(CODEC);
+    if (codec == null || codec.trim().isEmpty()) {
+      return TransportCodecFactory.DEFAULT_CODEC_TYPE;
+    }
+    for (TransportCodecType codecType : TransportCodecType.values()) {
+      if (codec.trim().equalsIgnoreCase(codecType.name())) {
+        return codecType;
+      }
+    }
+    throw new RuntimeException("Invalid " + CODEC + " value " + codec);
+  }
+
+}
@@ -0,0 +1,18 @@
+package org.rabix.transport.codec;
+
+public class TransportCodecException extends Exception {
+
+  /**
+   * 
+   */
+  private static final long serialVersionUID = 3958474214750046133L;
+
+  public TransportCodecException(String message) {
+    super(message);
+  }
+
+  public TransportCodecException(String message, Throwable t) {
+    super(message, t);
+  }
+
+}
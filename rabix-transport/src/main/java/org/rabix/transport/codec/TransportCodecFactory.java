@@ -0,0 +1,50 @@
+package org.rabix.transport.codec;
+
+import org.rabix.common.helper.JSONHelper;
+import org.rabix.common.json.BeanPropertyView;
+import org.rabix.transport.codec.impl.DeflateTransportCodec;
+import org.rabix.transport.codec.impl.JacksonTransportCodec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+public class TransportCodecFactory {
+
+  /**
+   * Used when backend doesn't specify the codec. It reads payloads of the {@link TransportCodecType#JSON} codec too.
+   */
+  public static final TransportCodecType DEFAULT_CODEC_TYPE = TransportCodecType.COMPACT_JSON;
+
+  private static final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+  private static final TransportCodec jsonCodec = new JacksonTransportCodec(TransportCodecType.JSON, JSONHelper.mapper,
+      JSONHelper.mapper.writerWithView(BeanPropertyView.Full.class).withDefaultPrettyPrinter());
+
+  private static final TransportCodec compactJsonCodec = new JacksonTransportCodec(TransportCodecType.COMPACT_JSON, JSONHelper.mapper,
+      JSONHelper.mapper.writerWithView(BeanPropertyView.Full.class).without(SerializationFeature.INDENT_OUTPUT));
+
+  private static final TransportCodec smileCodec = new JacksonTransportCodec(TransportCodecType.SMILE, smileMapper,
+      smileMapper.writerWithView(BeanPropertyView.Full.class));
+
+  private static final TransportCodec smileDeflateCodec = new DeflateTransportCodec(TransportCodecType.SMILE_DEFLATE, smileCodec);
+
+  public static TransportCodec create(TransportCodecType codecType) {
+    if (codecType == null) {
+      codecType = DEFAULT_CODEC_TYPE;
+    }
+    switch (codecType) {
+    case JSON:
+      return jsonCodec;
+    case COMPACT_JSON:
+      return compactJsonCodec;
+    case SMILE:
+      return smileCodec;
+    case SMILE_DEFLATE:
+      return smileDeflateCodec;
+    default:
+      throw new IllegalArgumentException("Unsupported codec " + codecType);
+    }
+  }
+
+}
@@ -0,0 +1,21 @@
+package org.rabix.transport.codec;
+
+public enum TransportCodecType {
+  JSON(false),
+  COMPACT_JSON(false),
+  SMILE(true),
+  SMILE_DEFLATE(true);
+
+  private final boolean binary;
+
+  private TransportCodecType(boolean binary) {
+    this.binary = binary;
+  }
+
+  /**
+   * Binary payloads are not valid UTF-8 text
+   */
+  public boolean isBinary() {
+    return binary;
+  }
+}
@@ -0,0 +1,76 @@
+package org.rabix.transport.codec.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.rabix.transport.codec.TransportCodec;
+import org.rabix.transport.codec.TransportCodecException;
+import org.rabix.transport.codec.TransportCodecType;
+
+/**
+ * Compresses payloads of the wrapped codec
+ */
+public class DeflateTransportCodec implements TransportCodec {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final TransportCodecType type;
+  private final TransportCodec codec;
+
+  public DeflateTransportCodec(TransportCodecType type, TransportCodec codec) {
+    this.type = type;
+    this.codec = codec;
+  }
+
+  @Override
+  public byte[] encode(Object entity) throws TransportCodecException {
+    byte[] payload = codec.encode(entity);
+
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(payload);
+      deflater.finish();
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2 + 16);
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (!deflater.finished()) {
+        int count = deflater.deflate(buffer);
+        out.write(buffer, 0, count);
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  @Override
+  public <T> T decode(byte[] payload, Class<T> clazz) throws TransportCodecException {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(payload);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length * 4);
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (!inflater.finished()) {
+        int count = inflater.inflate(buffer);
+        if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new TransportCodecException("Truncated " + type + " payload");
+        }
+        out.write(buffer, 0, count);
+      }
+      return codec.decode(out.toByteArray(), clazz);
+    } catch (DataFormatException e) {
+      throw new TransportCodecException("Invalid " + type + " payload", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  @Override
+  public TransportCodecType getType() {
+    return type;
+  }
+
+}
@@ -0,0 +1,59 @@
+package org.rabix.transport.codec.impl;
+
+import java.io.IOException;
+
+import org.rabix.common.json.processor.BeanProcessor;
+import org.rabix.common.json.processor.BeanProcessorException;
+import org.rabix.common.json.processor.BeanProcessorFactory;
+import org.rabix.transport.codec.TransportCodec;
+import org.rabix.transport.codec.TransportCodecException;
+import org.rabix.transport.codec.TransportCodecType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Codec for Jackson supported formats. Decoded beans are processed the same way as in BeanSerializer.
+ */
+public class JacksonTransportCodec implements TransportCodec {
+
+  private final TransportCodecType type;
+  private final ObjectMapper reader;
+  private final ObjectWriter writer;
+
+  public JacksonTransportCodec(TransportCodecType type, ObjectMapper reader, ObjectWriter writer) {
+    this.type = type;
+    this.reader = reader;
+    this.writer = writer;
+  }
+
+  @Override
+  public byte[] encode(Object entity) throws TransportCodecException {
+    try {
+      return writer.writeValueAsBytes(entity);
+    } catch (IOException e) {
+      throw new TransportCodecException("Failed to encode " + entity, e);
+    }
+  }
+
+  @Override
+  public <T> T decode(byte[] payload, Class<T> clazz) throws TransportCodecException {
+    try {
+      T bean = reader.readValue(payload, clazz);
+
+      BeanProcessor<T> processor = BeanProcessorFactory.create(clazz);
+      if (processor != null) {
+        return processor.process(bean);
+      }
+      return bean;
+    } catch (IOException | BeanProcessorException e) {
+      throw new TransportCodecException("Failed to decode " + clazz.getSimpleName(), e);
+    }
+  }
+
+  @Override
+  public TransportCodecType getType() {
+    return type;
+  }
+
+}
@@ -6,12 +6,21 @@ public interface TransportPlugin<Q extends TransportQueue> {
 
   public <T> ResultPair<T> receive(Q sourceQueue, Class<T> clazz, ReceiveCallback<T> receiveCallback);
   
+  /**
+   * Starts receiving messages from the queue in the background. Callback is called for every message.
+   */
+  public <T> void startReceiver(Q sourceQueue, Class<T> clazz, ReceiveCallback<T> receiveCallback, ErrorCallback errorCallback);
+  
   TransportPluginType getType();
   
   public static interface ReceiveCallback<T> {
     void handleReceive(T entity) throws TransportPluginException;
   }
   
+  public static interface ErrorCallback {
+    void handleError(String message, Exception exception);
+  }
+  
   public static class ResultPair<T> {
     private boolean success;
     
@@ -0,0 +1,42 @@
+package org.rabix.transport.mechanism;
+
+import org.rabix.transport.mechanism.TransportPlugin.ErrorCallback;
+import org.rabix.transport.mechanism.TransportPlugin.ReceiveCallback;
+import org.rabix.transport.mechanism.TransportPlugin.ResultPair;
+
+/**
+ * Receives messages by calling {@link TransportPlugin#receive} in a loop on a dedicated thread
+ */
+public class TransportPluginReceiver<Q extends TransportQueue, T> implements Runnable {
+
+  private final TransportPlugin<Q> transportPlugin;
+  private final Q queue;
+  private final Class<T> clazz;
+  private final ReceiveCallback<T> receiveCallback;
+  private final ErrorCallback errorCallback;
+
+  private TransportPluginReceiver(TransportPlugin<Q> transportPlugin, Q queue, Class<T> clazz, ReceiveCallback<T> receiveCallback, ErrorCallback errorCallback) {
+    this.transportPlugin = transportPlugin;
+    this.queue = queue;
+    this.clazz = clazz;
+    this.receiveCallback = receiveCallback;
+    this.errorCallback = errorCallback;
+  }
+
+  public static <Q extends TransportQueue, T> void start(TransportPlugin<Q> transportPlugin, Q queue, Class<T> clazz, ReceiveCallback<T> receiveCallback, ErrorCallback errorCallback) {
+    Thread thread = new Thread(new TransportPluginReceiver<>(transportPlugin, queue, clazz, receiveCallback, errorCallback));
+    thread.setName("Receiver-" + clazz.getSimpleName());
+    thread.start();
+  }
+
+  @Override
+  public void run() {
+    while (!Thread.currentThread().isInterrupted()) {
+      ResultPair<T> result = transportPlugin.receive(queue, clazz, receiveCallback);
+      if (!result.isSuccess() && errorCallback != null) {
+        errorCallback.handleError(result.getMessage(), result.getException());
+      }
+    }
+  }
+
+}
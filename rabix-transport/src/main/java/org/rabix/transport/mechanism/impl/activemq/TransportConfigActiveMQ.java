@@ -19,4 +19,17 @@ public class TransportConfigActiveMQ {
   public static String getReceiveHeartbeatFromBackendQueue(Configuration configuration) {
     return configuration.getString("activemq.fromBackendHeartbeatQueue");
   }
+
+  public static boolean isPersistent(Configuration configuration) {
+    return configuration.getBoolean("activemq.persistent", false);
+  }
+
+  public static int getPrefetchCount(Configuration configuration) {
+    return configuration.getInt("activemq.prefetchCount", 100);
+  }
+
+  public static int getProducerPoolSize(Configuration configuration) {
+    return configuration.getInt("activemq.producer.poolSize", 4);
+  }
+
 }
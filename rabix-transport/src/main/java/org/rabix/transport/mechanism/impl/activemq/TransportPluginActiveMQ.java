@@ -1,104 +1,204 @@
 package org.rabix.transport.mechanism.impl.activemq;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.DeliveryMode;
-import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
 import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.jms.TextMessage;
 
-import org.apache.activemq.pool.PooledConnectionFactory;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.ActiveMQPrefetchPolicy;
 import org.apache.commons.configuration.Configuration;
-import org.rabix.common.json.BeanSerializer;
-import org.rabix.common.json.processor.BeanProcessorException;
+import org.rabix.transport.codec.TransportCodec;
+import org.rabix.transport.codec.TransportCodecException;
+import org.rabix.transport.codec.TransportCodecFactory;
 import org.rabix.transport.mechanism.TransportPlugin;
 import org.rabix.transport.mechanism.TransportPluginException;
 import org.rabix.transport.mechanism.TransportPluginType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * ActiveMQ transport. All sessions share one long-lived connection. Messages are sent through a pool of sessions
+ * with producers cached per destination and received through one long-lived consumer per queue. Consumers
+ * acknowledge a message only after the callback handled it; failed messages are redelivered by the broker.
+ */
 public class TransportPluginActiveMQ implements TransportPlugin<TransportQueueActiveMQ> {
 
-  private static final Logger logger = LoggerFactory.getLogger(TransportConfigActiveMQ.class);
-  
-  private PooledConnectionFactory connectionFactory;
-  
+  private static final Logger logger = LoggerFactory.getLogger(TransportPluginActiveMQ.class);
+
+  private final Connection connection;
+  private final TransportCodec codec;
+
+  private final int deliveryMode;
+  private final int producerPoolSize;
+
+  private final AtomicInteger producerCount = new AtomicInteger(0);
+  private final BlockingQueue<ProducerSession> producers = new LinkedBlockingQueue<>();
+
+  private final ConcurrentMap<String, QueueConsumer> consumers = new ConcurrentHashMap<>();
+
   public TransportPluginActiveMQ(Configuration configuration) throws TransportPluginException {
-    connectionFactory = new PooledConnectionFactory(TransportConfigActiveMQ.getBroker(configuration));
-    connectionFactory.setIdleTimeout(5000);
-    connectionFactory.setMaxConnections(10);
-    connectionFactory.setBlockIfSessionPoolIsFull(false);
-    connectionFactory.setMaximumActiveSessionPerConnection(5000);
-    connectionFactory.start();
+    this(configuration, TransportCodecFactory.create(null));
   }
-  
-  @Override
-  public <T> ResultPair<T> send(TransportQueueActiveMQ queue, T entity) {
-    Session session = null;
-    Connection connection = null;
+
+  public TransportPluginActiveMQ(Configuration configuration, TransportCodec codec) throws TransportPluginException {
+    this.codec = codec;
+    this.deliveryMode = TransportConfigActiveMQ.isPersistent(configuration) ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT;
+    this.producerPoolSize = Math.max(1, TransportConfigActiveMQ.getProducerPoolSize(configuration));
+
+    ActiveMQPrefetchPolicy prefetchPolicy = new ActiveMQPrefetchPolicy();
+    prefetchPolicy.setQueuePrefetch(TransportConfigActiveMQ.getPrefetchCount(configuration));
+
+    ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(TransportConfigActiveMQ.getBroker(configuration));
+    connectionFactory.setPrefetchPolicy(prefetchPolicy);
     try {
       connection = connectionFactory.createConnection();
       connection.start();
+    } catch (JMSException e) {
+      throw new TransportPluginException("Failed to initialize TransportPluginActiveMQ", e);
+    }
+  }
 
-      session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-      Destination destination = session.createQueue(queue.getQueue());
-
-      MessageProducer producer = session.createProducer(destination);
-      producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
-
-      String payload = BeanSerializer.serializeFull(entity);
-      TextMessage message = session.createTextMessage(payload);
-      producer.send(message);
+  @Override
+  public <T> ResultPair<T> send(TransportQueueActiveMQ queue, T entity) {
+    ProducerSession producer = null;
+    try {
+      producer = borrowProducer();
+      producer.send(queue.getQueue(), codec.encode(entity));
       return ResultPair.<T> success();
+    } catch (TransportCodecException e) {
+      logger.error("Failed to encode message payload", e);
+      return ResultPair.<T> fail("Failed to encode message payload", e);
     } catch (JMSException e) {
       logger.error("Failed to send a message to " + queue, e);
+      producer = discardProducer(producer);
       return ResultPair.<T> fail("Failed to send a message to " + queue, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return ResultPair.<T> fail("Interrupted while sending a message to " + queue, e);
     } finally {
-      try {
-        session.close();
-        connection.close();
-      } catch (JMSException ignore) {
+      if (producer != null) {
+        producers.offer(producer);
       }
     }
   }
 
+  @Override
   public <T> ResultPair<T> receive(TransportQueueActiveMQ queue, Class<T> clazz, ReceiveCallback<T> receiveCallback) {
-    Session session = null;
-    Connection connection = null;
-    MessageConsumer consumer = null;
-
+    QueueConsumer consumer = null;
     try {
-      connection = connectionFactory.createConnection();
-      connection.start();
-
-      session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-      Destination destination = session.createQueue(queue.getQueue());
-      consumer = session.createConsumer(destination);
-
-      Message message = consumer.receive();
-      TextMessage textMessage = (TextMessage) message;
-      String text = textMessage.getText();
-      receiveCallback.handleReceive(BeanSerializer.deserialize(text, clazz));
-      return ResultPair.<T>success();
+      consumer = getConsumer(queue);
+      Message message = consumer.consumer.receive();
+      if (message == null) {
+        return ResultPair.<T> fail("Consumer for " + queue + " is closed", null);
+      }
+      return consumer.handle(message, clazz, receiveCallback);
     } catch (JMSException e) {
       logger.error("Failed to receive a message from " + queue, e);
+      if (consumer != null) {
+        consumers.remove(queue.getQueue(), consumer);
+        consumer.close();
+      }
       return ResultPair.<T> fail("Failed to receive a message from " + queue, e);
-    } catch (BeanProcessorException e) {
-      logger.error("Failed to deserialize message payload", e);
-      return ResultPair.<T> fail("Failed to deserialize message payload", e);
-    } catch (TransportPluginException e) {
-      logger.error("Failed to handle receive", e);
-      return ResultPair.<T> fail("Failed to handle receive", e);
-    } finally {
+    }
+  }
+
+  @Override
+  public <T> void startReceiver(final TransportQueueActiveMQ queue, final Class<T> clazz, final ReceiveCallback<T> receiveCallback, final ErrorCallback errorCallback) {
+    try {
+      final QueueConsumer consumer = new QueueConsumer(queue.getQueue());
+      consumer.consumer.setMessageListener(new MessageListener() {
+        @Override
+        public void onMessage(Message message) {
+          ResultPair<T> result = consumer.handle(message, clazz, receiveCallback);
+          if (!result.isSuccess() && errorCallback != null) {
+            errorCallback.handleError(result.getMessage(), result.getException());
+          }
+        }
+      });
+    } catch (JMSException e) {
+      logger.error("Failed to start receiving messages from " + queue, e);
+      if (errorCallback != null) {
+        errorCallback.handleError("Failed to start receiving messages from " + queue, e);
+      }
+    }
+  }
+
+  /**
+   * Gets pooled producer session or opens a new one if the pool is not full
+   */
+  private ProducerSession borrowProducer() throws JMSException, InterruptedException {
+    ProducerSession producer = producers.poll();
+    if (producer != null) {
+      return producer;
+    }
+    if (producerCount.incrementAndGet() <= producerPoolSize) {
       try {
-        consumer.close();
-        session.close();
-        connection.close();
-      } catch (JMSException ignore) {
+        return new ProducerSession();
+      } catch (JMSException e) {
+        producerCount.decrementAndGet();
+        throw e;
+      }
+    }
+    producerCount.decrementAndGet();
+    return producers.take();
+  }
+
+  private ProducerSession discardProducer(ProducerSession producer) {
+    if (producer != null) {
+      producerCount.decrementAndGet();
+      closeSession(producer.session);
+    }
+    return null;
+  }
+
+  /**
+   * Gets consumer for synchronous receive. Consumer is created once and keeps prefetching messages between calls.
+   */
+  private QueueConsumer getConsumer(TransportQueueActiveMQ queue) throws JMSException {
+    QueueConsumer consumer = consumers.get(queue.getQueue());
+    if (consumer != null) {
+      return consumer;
+    }
+    synchronized (consumers) {
+      consumer = consumers.get(queue.getQueue());
+      if (consumer == null) {
+        consumer = new QueueConsumer(queue.getQueue());
+        consumers.put(queue.getQueue(), consumer);
       }
+      return consumer;
+    }
+  }
+
+  private byte[] getPayload(Message message) throws JMSException {
+    if (message instanceof TextMessage) {
+      return ((TextMessage) message).getText().getBytes(StandardCharsets.UTF_8);
+    }
+    BytesMessage bytesMessage = (BytesMessage) message;
+    byte[] payload = new byte[(int) bytesMessage.getBodyLength()];
+    bytesMessage.readBytes(payload);
+    return payload;
+  }
+
+  private static void closeSession(Session session) {
+    try {
+      session.close();
+    } catch (Exception ignore) {
     }
   }
 
@@ -107,4 +207,80 @@ public class TransportPluginActiveMQ implements TransportPlugin<TransportQueueAc
     return TransportPluginType.ACTIVE_MQ;
   }
 
+  /**
+   * Session with producers cached by destination
+   */
+  private class ProducerSession {
+    private final Session session;
+    private final Map<String, MessageProducer> producers = new HashMap<>();
+
+    private ProducerSession() throws JMSException {
+      this.session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+    }
+
+    private void send(String queue, byte[] payload) throws JMSException {
+      MessageProducer producer = producers.get(queue);
+      if (producer == null) {
+        producer = session.createProducer(session.createQueue(queue));
+        producer.setDeliveryMode(deliveryMode);
+        producers.put(queue, producer);
+      }
+      if (codec.getType().isBinary()) {
+        BytesMessage message = session.createBytesMessage();
+        message.writeBytes(payload);
+        producer.send(message);
+      } else {
+        producer.send(session.createTextMessage(new String(payload, StandardCharsets.UTF_8)));
+      }
+    }
+  }
+
+  /**
+   * Long-lived consumer with its own client acknowledged session
+   */
+  private class QueueConsumer {
+    private final Session session;
+    private final MessageConsumer consumer;
+
+    private QueueConsumer(String queue) throws JMSException {
+      this.session = connection.createSession(false, Session.CLIENT_ACKNOWLEDGE);
+      this.consumer = session.createConsumer(session.createQueue(queue));
+    }
+
+    /**
+     * Acknowledges the message if it's handled, otherwise asks the broker to redeliver it
+     */
+    private <T> ResultPair<T> handle(Message message, Class<T> clazz, ReceiveCallback<T> receiveCallback) {
+      try {
+        receiveCallback.handleReceive(codec.decode(getPayload(message), clazz));
+        message.acknowledge();
+        return ResultPair.<T> success();
+      } catch (TransportCodecException e) {
+        logger.error("Failed to deserialize message payload", e);
+        recover();
+        return ResultPair.<T> fail("Failed to deserialize message payload", e);
+      } catch (TransportPluginException e) {
+        logger.error("Failed to handle receive", e);
+        recover();
+        return ResultPair.<T> fail("Failed to handle receive", e);
+      } catch (JMSException e) {
+        logger.error("Failed to receive a message", e);
+        recover();
+        return ResultPair.<T> fail("Failed to receive a message", e);
+      }
+    }
+
+    private void recover() {
+      try {
+        session.recover();
+      } catch (JMSException e) {
+        logger.error("Failed to recover session", e);
+      }
+    }
+
+    private void close() {
+      closeSession(session);
+    }
+  }
+
 }
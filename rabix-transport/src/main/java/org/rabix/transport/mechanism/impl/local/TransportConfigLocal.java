@@ -0,0 +1,15 @@
+package org.rabix.transport.mechanism.impl.local;
+
+import org.apache.commons.configuration.Configuration;
+
+public class TransportConfigLocal {
+
+  public static boolean isDirect(Configuration configuration) {
+    return configuration.getBoolean("local.transport.direct", true);
+  }
+
+  public static int getQueueCapacity(Configuration configuration) {
+    return configuration.getInt("local.transport.queueCapacity", 10000);
+  }
+
+}
@@ -2,26 +2,47 @@ package org.rabix.transport.mechanism.impl.local;
 
 import org.apache.commons.configuration.Configuration;
 import org.rabix.common.VMQueues;
-import org.rabix.common.json.BeanSerializer;
-import org.rabix.common.json.processor.BeanProcessorException;
+import org.rabix.transport.codec.TransportCodec;
+import org.rabix.transport.codec.TransportCodecException;
+import org.rabix.transport.codec.TransportCodecFactory;
 import org.rabix.transport.mechanism.TransportPlugin;
 import org.rabix.transport.mechanism.TransportPluginException;
+import org.rabix.transport.mechanism.TransportPluginReceiver;
 import org.rabix.transport.mechanism.TransportPluginType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * In-VM transport. By default entities are passed to the other side as they are, so they must be immutable (like Job).
+ * Entity is converted through the codec only if the receiver expects different class.
+ */
 public class TransportPluginLocal implements TransportPlugin<TransportQueueLocal> {
 
   private static final Logger logger = LoggerFactory.getLogger(TransportPluginLocal.class);
   
+  private final TransportCodec codec;
+  private final boolean direct;
+  private final int queueCapacity;
+
   public TransportPluginLocal(Configuration configuration) throws TransportPluginException {
+    this(configuration, TransportCodecFactory.create(null));
+  }
+
+  public TransportPluginLocal(Configuration configuration, TransportCodec codec) throws TransportPluginException {
+    this.codec = codec;
+    this.direct = TransportConfigLocal.isDirect(configuration);
+    this.queueCapacity = TransportConfigLocal.getQueueCapacity(configuration);
   }
 
   @Override
   public <T> ResultPair<T> send(TransportQueueLocal queue, T entity) {
     try {
-      VMQueues.getQueue(queue.getQueue()).put(BeanSerializer.serializeFull(entity));
+      Object payload = direct ? entity : codec.encode(entity);
+      VMQueues.getQueue(queue.getQueue(), queueCapacity).put(payload);
       return ResultPair.<T> success();
+    } catch (TransportCodecException e) {
+      logger.error("Failed to encode message payload", e);
+      return ResultPair.<T> fail("Failed to encode message payload", e);
     } catch (InterruptedException e) {
       logger.error("Failed to send a message to " + queue, e);
       return ResultPair.<T>fail("Failed to put to queue " + queue, e);
@@ -31,13 +52,13 @@ public class TransportPluginLocal implements TransportPlugin<TransportQueueLocal
   @Override
   public <T> ResultPair<T> receive(TransportQueueLocal queue, Class<T> clazz, ReceiveCallback<T> receiveCallback) {
     try {
-      String payload = VMQueues.<String> getQueue(queue.getQueue()).take();
-      receiveCallback.handleReceive(BeanSerializer.deserialize(payload, clazz));
+      Object payload = VMQueues.getQueue(queue.getQueue(), queueCapacity).take();
+      receiveCallback.handleReceive(toEntity(payload, clazz));
       return ResultPair.success();
     } catch (InterruptedException e) {
       logger.error("Failed to receive a message from " + queue, e);
       return ResultPair.<T> fail("Failed to receive a message from " + queue, e);
-    } catch (BeanProcessorException e) {
+    } catch (TransportCodecException e) {
       logger.error("Failed to deserialize message payload", e);
       return ResultPair.<T> fail("Failed to deserialize message payload", e);
     } catch (TransportPluginException e) {
@@ -46,6 +67,21 @@ public class TransportPluginLocal implements TransportPlugin<TransportQueueLocal
     }
   }
 
+  private <T> T toEntity(Object payload, Class<T> clazz) throws TransportCodecException {
+    if (payload instanceof byte[]) {
+      return codec.decode((byte[]) payload, clazz);
+    }
+    if (clazz.isInstance(payload)) {
+      return clazz.cast(payload);
+    }
+    return codec.decode(codec.encode(payload), clazz);
+  }
+
+  @Override
+  public <T> void startReceiver(TransportQueueLocal queue, Class<T> clazz, ReceiveCallback<T> receiveCallback, ErrorCallback errorCallback) {
+    TransportPluginReceiver.start(this, queue, clazz, receiveCallback, errorCallback);
+  }
+
   @Override
   public TransportPluginType getType() {
     return TransportPluginType.LOCAL;
@@ -59,5 +59,24 @@ public class TransportConfigRabbitMQ {
   public static String getBackendReceiveRoutingKey(Configuration configuration) {
     return configuration.getString("rabbitmq.backend.receiveRoutingKey");
   }
+
+  public static int getPrefetchCount(Configuration configuration) {
+    return configuration.getInt("rabbitmq.prefetchCount", 100);
+  }
+
+  public static int getPublisherPoolSize(Configuration configuration) {
+    return configuration.getInt("rabbitmq.publisher.poolSize", 4);
+  }
+
+  public static long getPublisherConfirmTimeout(Configuration configuration) {
+    return configuration.getLong("rabbitmq.publisher.confirmTimeout", 5000);
+  }
+
+  /**
+   * Existing exchange which receives rejected messages, none by default (rejected messages are dropped)
+   */
+  public static String getDeadLetterExchange(Configuration configuration) {
+    return configuration.getString("rabbitmq.deadLetterExchange", null);
+  }
   
 }
@@ -1,12 +1,24 @@
 package org.rabix.transport.mechanism.impl.rabbitmq;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.configuration.Configuration;
-import org.rabix.common.json.BeanSerializer;
-import org.rabix.common.json.processor.BeanProcessorException;
+import org.rabix.transport.codec.TransportCodec;
+import org.rabix.transport.codec.TransportCodecException;
+import org.rabix.transport.codec.TransportCodecFactory;
 import org.rabix.transport.mechanism.TransportPlugin;
 import org.rabix.transport.mechanism.TransportPluginException;
+import org.rabix.transport.mechanism.TransportPluginReceiver;
 import org.rabix.transport.mechanism.TransportPluginType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,18 +28,57 @@ import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
 import com.rabbitmq.client.QueueingConsumer;
 
+/**
+ * RabbitMQ transport. Publishes through a pool of long-lived channels with publisher confirms
+ * and receives through one long-lived consumer (with prefetch and manual acks) per queue.
+ * <p>
+ * A message is reported as sent only after the broker confirms it. Jobs are sent to backends in batches, so one
+ * confirm round trip covers a whole batch.
+ * <p>
+ * Each {@link TransportQueueRabbitMQ} is consumed from a named durable queue, so unacked messages stay in the queue
+ * when the consumer's channel fails and the consumer is recovered on the next receive. Message which fails in the
+ * callback is requeued once. When it fails again it's rejected and goes to the dead-letter exchange, if one is
+ * configured.
+ */
 public class TransportPluginRabbitMQ implements TransportPlugin<TransportQueueRabbitMQ> {
 
   public static final String DEFAULT_ENCODING = "UTF-8";
 
   private static final Logger logger = LoggerFactory.getLogger(TransportPluginRabbitMQ.class);
-  
-  private Connection connection;
-  private ConnectionFactory factory;
-  
+
+  private final Connection connection;
+  private final TransportCodec codec;
+
+  private final int prefetchCount;
+  private final String deadLetterExchange;
+  private final int publisherPoolSize;
+  private final long confirmTimeout;
+
+  private final AtomicInteger publisherCount = new AtomicInteger(0);
+  private final BlockingQueue<PublisherChannel> publishers = new LinkedBlockingQueue<>();
+
+  private final Set<String> declaredExchanges = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+  private final ConcurrentMap<TransportQueueRabbitMQ, QueueConsumer> consumers = new ConcurrentHashMap<>();
+
   public TransportPluginRabbitMQ(Configuration configuration) throws TransportPluginException {
-    factory = new ConnectionFactory();
+    this(configuration, TransportCodecFactory.create(null));
+  }
+
+  public TransportPluginRabbitMQ(Configuration configuration, TransportCodec codec) throws TransportPluginException {
+    this(configuration, codec, createConnection(configuration));
+  }
 
+  TransportPluginRabbitMQ(Configuration configuration, TransportCodec codec, Connection connection) {
+    this.codec = codec;
+    this.connection = connection;
+    this.prefetchCount = TransportConfigRabbitMQ.getPrefetchCount(configuration);
+    this.deadLetterExchange = TransportConfigRabbitMQ.getDeadLetterExchange(configuration);
+    this.publisherPoolSize = Math.max(1, TransportConfigRabbitMQ.getPublisherPoolSize(configuration));
+    this.confirmTimeout = TransportConfigRabbitMQ.getPublisherConfirmTimeout(configuration);
+  }
+
+  private static Connection createConnection(Configuration configuration) throws TransportPluginException {
+    ConnectionFactory factory = new ConnectionFactory();
     try {
       if (TransportConfigRabbitMQ.isDev(configuration)) {
         factory.setHost("localhost");
@@ -41,72 +92,206 @@ public class TransportPluginRabbitMQ implements TransportPlugin<TransportQueueRa
           factory.useSslProtocol();
         }
       }
-      connection = factory.newConnection();
+      return factory.newConnection();
     } catch (Exception e) {
       throw new TransportPluginException("Failed to initialize TransportPluginRabbitMQ", e);
     }
   }
-  
+
   @Override
   public <T> ResultPair<T> send(TransportQueueRabbitMQ queue, T entity) {
-    Channel channel = null;
+    PublisherChannel publisher = null;
     try {
-      channel = connection.createChannel();
-      
-      channel.exchangeDeclare(queue.getExchange(), queue.getExchangeType());
-      String payload = BeanSerializer.serializeFull(entity);
-      channel.basicPublish(queue.getExchange(), queue.getRoutingKey(), null, payload.getBytes(DEFAULT_ENCODING));
+      publisher = borrowPublisher();
+      declareExchange(publisher.channel, queue);
+
+      byte[] payload = codec.encode(entity);
+      publisher.channel.basicPublish(queue.getExchange(), queue.getRoutingKey(), null, payload);
+      publisher.channel.waitForConfirmsOrDie(confirmTimeout);
       return ResultPair.success();
-    } catch (IOException e) {
+    } catch (TransportCodecException e) {
+      logger.error("Failed to encode message payload", e);
+      return ResultPair.fail("Failed to encode message payload", e);
+    } catch (IOException | TimeoutException e) {
       logger.error("Failed to send a message to " + queue, e);
+      publisher = discardPublisher(publisher);
       return ResultPair.fail("Failed to send a message to " + queue, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      publisher = discardPublisher(publisher);
+      return ResultPair.fail("Interrupted while sending a message to " + queue, e);
     } finally {
-      if (channel != null) {
-        try {
-          channel.close();
-        } catch (Exception ignore) { }
+      if (publisher != null) {
+        publishers.offer(publisher);
       }
     }
   }
 
   @Override
   public <T> ResultPair<T> receive(final TransportQueueRabbitMQ queue, final Class<T> clazz, final ReceiveCallback<T> receiveCallback) {
-    Channel channel = null;
+    QueueConsumer consumer = null;
+    QueueingConsumer.Delivery delivery = null;
     try {
-      channel = connection.createChannel();
-      
-      channel.exchangeDeclare(queue.getExchange(), queue.getExchangeType());
-      String queueName = channel.queueDeclare().getQueue();
-      channel.queueBind(queueName, queue.getExchange(), queue.getRoutingKey());
-
-      QueueingConsumer consumer = new QueueingConsumer(channel);
-      channel.basicConsume(queueName, true, consumer);
+      consumer = getConsumer(queue);
+      delivery = consumer.consumer.nextDelivery();
 
-      QueueingConsumer.Delivery delivery = consumer.nextDelivery();
-      String message = new String(delivery.getBody());
-      receiveCallback.handleReceive(BeanSerializer.deserialize(message, clazz));
+      receiveCallback.handleReceive(codec.decode(delivery.getBody(), clazz));
+      consumer.ack(delivery);
       return ResultPair.<T>success();
-    } catch (BeanProcessorException e) {
+    } catch (TransportCodecException e) {
       logger.error("Failed to deserialize message payload", e);
+      reject(consumer, delivery, false);
       return ResultPair.<T> fail("Failed to deserialize message payload", e);
     } catch (TransportPluginException e) {
       logger.error("Failed to handle receive", e);
+      reject(consumer, delivery, !delivery.getEnvelope().isRedeliver());
       return ResultPair.<T> fail("Failed to handle receive", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return ResultPair.<T> fail("Interrupted while receiving a message from " + queue, e);
     } catch (Exception e) {
+      // unacked messages are returned to the durable queue, consumer is started again on the next receive
       logger.error("Failed to receive a message from " + queue, e);
+      if (consumer != null) {
+        consumers.remove(queue, consumer);
+        consumer.close();
+      }
       return ResultPair.<T> fail("Failed to receive a message from " + queue, e);
-    } finally {
-      if (channel != null) {
-        try {
-          channel.close();
-        } catch (Exception ignore) { }
+    }
+  }
+
+  /**
+   * Gets pooled publisher channel or opens a new one if the pool is not full
+   */
+  private PublisherChannel borrowPublisher() throws IOException, InterruptedException {
+    PublisherChannel publisher = publishers.poll();
+    if (publisher != null) {
+      return publisher;
+    }
+    if (publisherCount.incrementAndGet() <= publisherPoolSize) {
+      try {
+        return new PublisherChannel(connection.createChannel());
+      } catch (IOException e) {
+        publisherCount.decrementAndGet();
+        throw e;
+      }
+    }
+    publisherCount.decrementAndGet();
+    return publishers.take();
+  }
+
+  private PublisherChannel discardPublisher(PublisherChannel publisher) {
+    if (publisher != null) {
+      publisherCount.decrementAndGet();
+      closeChannel(publisher.channel);
+    }
+    return null;
+  }
+
+  private void declareExchange(Channel channel, TransportQueueRabbitMQ queue) throws IOException {
+    if (!declaredExchanges.contains(queue.getExchange())) {
+      channel.exchangeDeclare(queue.getExchange(), queue.getExchangeType());
+      declaredExchanges.add(queue.getExchange());
+    }
+  }
+
+  /**
+   * Gets consumer for the queue. Consumer is started once and keeps receiving messages between calls.
+   */
+  private QueueConsumer getConsumer(TransportQueueRabbitMQ queue) throws IOException {
+    QueueConsumer consumer = consumers.get(queue);
+    if (consumer != null) {
+      return consumer;
+    }
+    synchronized (consumers) {
+      consumer = consumers.get(queue);
+      if (consumer == null) {
+        consumer = new QueueConsumer(connection.createChannel(), queue);
+        consumers.put(queue, consumer);
       }
+      return consumer;
+    }
+  }
+
+  /**
+   * Rejects the message. Messages which can't be decoded are dropped (or dead-lettered), the ones which failed in the
+   * callback for the first time are requeued.
+   */
+  private void reject(QueueConsumer consumer, QueueingConsumer.Delivery delivery, boolean requeue) {
+    if (consumer == null || delivery == null) {
+      return;
+    }
+    try {
+      consumer.reject(delivery, requeue);
+    } catch (IOException e) {
+      logger.error("Failed to reject a message", e);
     }
   }
-  
+
+  private static void closeChannel(Channel channel) {
+    try {
+      channel.close();
+    } catch (Exception ignore) { }
+  }
+
+  @Override
+  public <T> void startReceiver(TransportQueueRabbitMQ queue, Class<T> clazz, ReceiveCallback<T> receiveCallback, ErrorCallback errorCallback) {
+    TransportPluginReceiver.start(this, queue, clazz, receiveCallback, errorCallback);
+  }
+
   @Override
   public TransportPluginType getType() {
     return TransportPluginType.RABBIT_MQ;
   }
 
+  /**
+   * Publisher channel in confirm mode
+   */
+  private static class PublisherChannel {
+    private final Channel channel;
+
+    private PublisherChannel(Channel channel) throws IOException {
+      this.channel = channel;
+      this.channel.confirmSelect();
+    }
+  }
+
+  /**
+   * Long-lived consumer of the named durable queue bound to the queue's exchange and routing key
+   */
+  private class QueueConsumer {
+    private final Channel channel;
+    private final QueueingConsumer consumer;
+
+    private QueueConsumer(Channel channel, TransportQueueRabbitMQ queue) throws IOException {
+      this.channel = channel;
+      this.channel.basicQos(prefetchCount);
+      this.channel.exchangeDeclare(queue.getExchange(), queue.getExchangeType());
+
+      Map<String, Object> arguments = null;
+      if (deadLetterExchange != null) {
+        arguments = new HashMap<>();
+        arguments.put("x-dead-letter-exchange", deadLetterExchange);
+      }
+      String queueName = queue.getQueueName();
+      this.channel.queueDeclare(queueName, true, false, false, arguments);
+      this.channel.queueBind(queueName, queue.getExchange(), queue.getRoutingKey());
+
+      this.consumer = new QueueingConsumer(channel);
+      this.channel.basicConsume(queueName, false, consumer);
+    }
+
+    private synchronized void ack(QueueingConsumer.Delivery delivery) throws IOException {
+      channel.basicAck(delivery.getEnvelope().getDeliveryTag(), false);
+    }
+
+    private synchronized void reject(QueueingConsumer.Delivery delivery, boolean requeue) throws IOException {
+      channel.basicReject(delivery.getEnvelope().getDeliveryTag(), requeue);
+    }
+
+    private void close() {
+      closeChannel(channel);
+    }
+  }
+
 }
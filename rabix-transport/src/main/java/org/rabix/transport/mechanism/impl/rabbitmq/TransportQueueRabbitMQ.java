@@ -26,6 +26,50 @@ public class TransportQueueRabbitMQ implements TransportQueue {
     return routingKey;
   }
 
+  /**
+   * Name of the durable queue consumers of this exchange and routing key share
+   */
+  public String getQueueName() {
+    return exchange + "." + routingKey;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + ((exchange == null) ? 0 : exchange.hashCode());
+    result = prime * result + ((exchangeType == null) ? 0 : exchangeType.hashCode());
+    result = prime * result + ((routingKey == null) ? 0 : routingKey.hashCode());
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    TransportQueueRabbitMQ other = (TransportQueueRabbitMQ) obj;
+    if (exchange == null) {
+      if (other.exchange != null)
+        return false;
+    } else if (!exchange.equals(other.exchange))
+      return false;
+    if (exchangeType == null) {
+      if (other.exchangeType != null)
+        return false;
+    } else if (!exchangeType.equals(other.exchangeType))
+      return false;
+    if (routingKey == null) {
+      if (other.routingKey != null)
+        return false;
+    } else if (!routingKey.equals(other.routingKey))
+      return false;
+    return true;
+  }
+
   @Override
   public String toString() {
     return "TransportQueueRabbitMQ [exchange=" + exchange + ", exchangeType=" + exchangeType + ", routingKey=" + routingKey + "]";
@@ -0,0 +1,107 @@
+package org.rabix.transport.codec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.rabix.bindings.model.Context;
+import org.rabix.bindings.model.Job;
+import org.rabix.bindings.model.Job.JobStatus;
+import org.rabix.transport.backend.HeartbeatInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Measures payload size and encode/decode time of each codec. Not part of the default build, run with
+ * <code>mvn test -Pbenchmark</code>.
+ */
+@Test(groups = { "benchmark" })
+public class TransportCodecBenchmark {
+
+  private final static Logger logger = LoggerFactory.getLogger(TransportCodecBenchmark.class);
+
+  private static final int WARMUP_ITERATIONS = 3;
+  private static final int ITERATIONS = 10;
+
+  private static final int MESSAGE_COUNT = 10000;
+  private static final int FILE_COUNT = 100;
+
+  @Test
+  public void benchmarkJob() throws TransportCodecException {
+    Job job = createJob();
+    for (TransportCodecType codecType : TransportCodecType.values()) {
+      benchmark("job", TransportCodecFactory.create(codecType), job, Job.class);
+    }
+  }
+
+  @Test
+  public void benchmarkHeartbeat() throws TransportCodecException {
+    HeartbeatInfo heartbeat = new HeartbeatInfo("backend_1", System.currentTimeMillis(), 8, 16384L, 4, 8192L, 4, 0);
+    for (TransportCodecType codecType : TransportCodecType.values()) {
+      benchmark("heartbeat", TransportCodecFactory.create(codecType), heartbeat, HeartbeatInfo.class);
+    }
+  }
+
+  private <T> void benchmark(String name, TransportCodec codec, T entity, Class<T> clazz) throws TransportCodecException {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      run(codec, entity, clazz);
+    }
+    long encode = 0;
+    long decode = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long[] durations = run(codec, entity, clazz);
+      encode += durations[0];
+      decode += durations[1];
+    }
+    long total = (long) MESSAGE_COUNT * ITERATIONS;
+    logger.info("{} {}: {} bytes, encode mean {} ns, decode mean {} ns over {} iterations", name, codec.getType(), codec.encode(entity).length, encode / total, decode / total, ITERATIONS);
+  }
+
+  /**
+   * Encodes and decodes the entity and returns encode and decode durations in nanoseconds
+   */
+  private <T> long[] run(TransportCodec codec, T entity, Class<T> clazz) throws TransportCodecException {
+    byte[] payload = null;
+    long start = System.nanoTime();
+    for (int i = 0; i < MESSAGE_COUNT; i++) {
+      payload = codec.encode(entity);
+    }
+    long encode = System.nanoTime() - start;
+
+    T decoded = null;
+    start = System.nanoTime();
+    for (int i = 0; i < MESSAGE_COUNT; i++) {
+      decoded = codec.decode(payload, clazz);
+    }
+    long decode = System.nanoTime() - start;
+    Assert.assertNotNull(decoded);
+    return new long[] { encode, decode };
+  }
+
+  /**
+   * Job with an array of input files, similar to jobs of scattered alignment steps
+   */
+  private Job createJob() {
+    List<Object> files = new ArrayList<>();
+    for (int i = 0; i < FILE_COUNT; i++) {
+      Map<String, Object> file = new HashMap<>();
+      file.put("class", "File");
+      file.put("path", "/data/input/sample_" + i + "/reads_" + i + ".fastq.gz");
+      file.put("size", 1024L * 1024 * 1024 + i);
+      file.put("checksum", "sha1$a9993e364706816aba3e25717850c26c9cd0d89d");
+      files.add(file);
+    }
+    Map<String, Object> inputs = new HashMap<>();
+    inputs.put("reads", files);
+    inputs.put("threads", 8);
+    inputs.put("reference", "GRCh38");
+
+    Map<String, String> config = new HashMap<>();
+    config.put("backend.type", "LOCAL");
+    return new Job("2b7a9c3e-5a8e-4a44-9e8c-3d9a3c1f2d10", "root", "root", "root.align", "app:3f2a", JobStatus.READY, inputs, null, new Context("root", config));
+  }
+
+}
@@ -0,0 +1,114 @@
+package org.rabix.transport.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.rabix.bindings.model.Context;
+import org.rabix.bindings.model.Job;
+import org.rabix.bindings.model.Job.JobStatus;
+import org.rabix.transport.backend.HeartbeatInfo;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class TransportCodecTest {
+
+  @Test
+  public void testJobRoundTrip() throws TransportCodecException {
+    Job job = createJob();
+    for (TransportCodecType codecType : TransportCodecType.values()) {
+      TransportCodec codec = TransportCodecFactory.create(codecType);
+      assertJob(codec.decode(codec.encode(job), Job.class), job);
+    }
+  }
+
+  @Test
+  public void testHeartbeatRoundTrip() throws TransportCodecException {
+    HeartbeatInfo heartbeat = new HeartbeatInfo("backend", 1000L, 8, 16384L, 4, 8192L, 3, 1);
+    for (TransportCodecType codecType : TransportCodecType.values()) {
+      TransportCodec codec = TransportCodecFactory.create(codecType);
+      assertHeartbeat(codec.decode(codec.encode(heartbeat), HeartbeatInfo.class), heartbeat);
+    }
+    HeartbeatInfo withoutCapacity = new HeartbeatInfo("backend", 1000L);
+    for (TransportCodecType codecType : TransportCodecType.values()) {
+      TransportCodec codec = TransportCodecFactory.create(codecType);
+      assertHeartbeat(codec.decode(codec.encode(withoutCapacity), HeartbeatInfo.class), withoutCapacity);
+    }
+  }
+
+  @Test
+  public void testDefaultCodecDecodesJSON() throws TransportCodecException {
+    TransportCodec defaultCodec = TransportCodecFactory.create(null);
+    Assert.assertEquals(defaultCodec.getType(), TransportCodecType.COMPACT_JSON);
+
+    Job job = createJob();
+    TransportCodec jsonCodec = TransportCodecFactory.create(TransportCodecType.JSON);
+    assertJob(defaultCodec.decode(jsonCodec.encode(job), Job.class), job);
+  }
+
+  @Test
+  public void testTextCodecsProduceUTF8() throws TransportCodecException {
+    Job job = createJob();
+    for (TransportCodecType codecType : TransportCodecType.values()) {
+      byte[] payload = TransportCodecFactory.create(codecType).encode(job);
+      if (!codecType.isBinary()) {
+        Assert.assertTrue(new String(payload, StandardCharsets.UTF_8).startsWith("{"), codecType.name());
+      }
+    }
+    int json = TransportCodecFactory.create(TransportCodecType.JSON).encode(job).length;
+    int compactJson = TransportCodecFactory.create(TransportCodecType.COMPACT_JSON).encode(job).length;
+    Assert.assertTrue(compactJson < json);
+  }
+
+  @Test(expectedExceptions = TransportCodecException.class)
+  public void testInvalidPayload() throws TransportCodecException {
+    TransportCodecFactory.create(TransportCodecType.SMILE_DEFLATE).decode("{}".getBytes(StandardCharsets.UTF_8), Job.class);
+  }
+
+  static Job createJob() {
+    List<Object> files = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Map<String, Object> file = new HashMap<>();
+      file.put("class", "File");
+      file.put("path", "/data/input/reads_" + i + ".fastq");
+      file.put("size", 1024 * i);
+      files.add(file);
+    }
+    Map<String, Object> inputs = new HashMap<>();
+    inputs.put("reads", files);
+    inputs.put("threads", 4);
+    inputs.put("tags", Arrays.asList("a", "b"));
+
+    Map<String, String> config = new HashMap<>();
+    config.put("backend.type", "LOCAL");
+    return new Job("2b7a9c3e-5a8e-4a44-9e8c-3d9a3c1f2d10", "root", "root", "root.align", "app:3f2a", JobStatus.READY, inputs, null, new Context("root", config));
+  }
+
+  private void assertJob(Job actual, Job expected) {
+    Assert.assertEquals(actual.getId(), expected.getId());
+    Assert.assertEquals(actual.getParentId(), expected.getParentId());
+    Assert.assertEquals(actual.getRootId(), expected.getRootId());
+    Assert.assertEquals(actual.getName(), expected.getName());
+    Assert.assertEquals(actual.getApp(), expected.getApp());
+    Assert.assertEquals(actual.getStatus(), expected.getStatus());
+    Assert.assertEquals(actual.getInputs(), expected.getInputs());
+    Assert.assertEquals(actual.getOutputs(), expected.getOutputs());
+    Assert.assertEquals(actual.getContext(), expected.getContext());
+  }
+
+  private void assertHeartbeat(HeartbeatInfo actual, HeartbeatInfo expected) {
+    Assert.assertEquals(actual.getId(), expected.getId());
+    Assert.assertEquals(actual.getTimestamp(), expected.getTimestamp());
+    Assert.assertEquals(actual.getCpu(), expected.getCpu());
+    Assert.assertEquals(actual.getMemory(), expected.getMemory());
+    Assert.assertEquals(actual.getFreeCpu(), expected.getFreeCpu());
+    Assert.assertEquals(actual.getFreeMemory(), expected.getFreeMemory());
+    Assert.assertEquals(actual.getRunningJobs(), expected.getRunningJobs());
+    Assert.assertEquals(actual.getWaitingJobs(), expected.getWaitingJobs());
+  }
+
+}
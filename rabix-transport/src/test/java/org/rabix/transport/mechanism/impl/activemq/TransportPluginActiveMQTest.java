@@ -0,0 +1,183 @@
+package org.rabix.transport.mechanism.impl.activemq;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.jms.BytesMessage;
+import javax.jms.Connection;
+import javax.jms.Message;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.rabix.bindings.model.Context;
+import org.rabix.bindings.model.Job;
+import org.rabix.bindings.model.Job.JobStatus;
+import org.rabix.transport.codec.TransportCodecFactory;
+import org.rabix.transport.codec.TransportCodecType;
+import org.rabix.transport.mechanism.TransportPlugin.ErrorCallback;
+import org.rabix.transport.mechanism.TransportPlugin.ReceiveCallback;
+import org.rabix.transport.mechanism.TransportPluginException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class TransportPluginActiveMQTest {
+
+  private static final String BROKER_URL = "vm://localhost?create=false";
+
+  private static final int MESSAGE_COUNT = 50000;
+
+  private BrokerService broker;
+  private Configuration configuration;
+  private TransportPluginActiveMQ transportPlugin;
+
+  @BeforeClass
+  public void start() throws Exception {
+    broker = new BrokerService();
+    broker.setBrokerName("localhost");
+    broker.setPersistent(false);
+    broker.setUseJmx(false);
+    broker.start();
+
+    configuration = new BaseConfiguration();
+    configuration.setProperty("activemq.broker", BROKER_URL);
+    transportPlugin = new TransportPluginActiveMQ(configuration);
+  }
+
+  @AfterClass
+  public void stop() throws Exception {
+    broker.stop();
+  }
+
+  @Test
+  public void testReceiverGetsAllMessages() throws InterruptedException {
+    TransportQueueActiveMQ queue = new TransportQueueActiveMQ("test.receiver");
+
+    final Set<Integer> received = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+    final CountDownLatch latch = new CountDownLatch(MESSAGE_COUNT);
+    transportPlugin.startReceiver(queue, Integer.class, new ReceiveCallback<Integer>() {
+      @Override
+      public void handleReceive(Integer entity) throws TransportPluginException {
+        if (received.add(entity)) {
+          latch.countDown();
+        }
+      }
+    }, null);
+
+    for (int i = 0; i < MESSAGE_COUNT; i++) {
+      Assert.assertTrue(transportPlugin.send(queue, i).isSuccess());
+    }
+    Assert.assertTrue(latch.await(60, TimeUnit.SECONDS), "Received " + received.size() + " of " + MESSAGE_COUNT + " messages");
+  }
+
+  @Test
+  public void testFailedMessageIsRedelivered() throws InterruptedException {
+    TransportQueueActiveMQ queue = new TransportQueueActiveMQ("test.redelivery");
+
+    final AtomicBoolean failed = new AtomicBoolean(false);
+    final CountDownLatch errorLatch = new CountDownLatch(1);
+    final CountDownLatch receiveLatch = new CountDownLatch(1);
+    transportPlugin.startReceiver(queue, String.class, new ReceiveCallback<String>() {
+      @Override
+      public void handleReceive(String entity) throws TransportPluginException {
+        if (failed.compareAndSet(false, true)) {
+          throw new TransportPluginException("Failed to handle " + entity);
+        }
+        receiveLatch.countDown();
+      }
+    }, new ErrorCallback() {
+      @Override
+      public void handleError(String message, Exception exception) {
+        errorLatch.countDown();
+      }
+    });
+
+    Assert.assertTrue(transportPlugin.send(queue, "message").isSuccess());
+    Assert.assertTrue(errorLatch.await(10, TimeUnit.SECONDS));
+    Assert.assertTrue(receiveLatch.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testReceiveKeepsConsumer() {
+    TransportQueueActiveMQ queue = new TransportQueueActiveMQ("test.receive");
+    for (int i = 0; i < 100; i++) {
+      transportPlugin.send(queue, i);
+    }
+    final int[] sum = new int[] { 0 };
+    for (int i = 0; i < 100; i++) {
+      Assert.assertTrue(transportPlugin.receive(queue, Integer.class, new ReceiveCallback<Integer>() {
+        @Override
+        public void handleReceive(Integer entity) throws TransportPluginException {
+          sum[0] += entity;
+        }
+      }).isSuccess());
+    }
+    Assert.assertEquals(sum[0], 4950);
+  }
+
+  @Test
+  public void testMessageTypeFollowsCodec() throws Exception {
+    assertMessageType(TransportCodecType.JSON, TextMessage.class);
+    assertMessageType(TransportCodecType.COMPACT_JSON, TextMessage.class);
+    assertMessageType(TransportCodecType.SMILE, BytesMessage.class);
+    assertMessageType(TransportCodecType.SMILE_DEFLATE, BytesMessage.class);
+  }
+
+  @Test
+  public void testDefaultCodecReceivesJSON() throws Exception {
+    TransportQueueActiveMQ queue = new TransportQueueActiveMQ("test.json");
+    TransportPluginActiveMQ jsonPlugin = new TransportPluginActiveMQ(configuration, TransportCodecFactory.create(TransportCodecType.JSON));
+    final Job job = createJob();
+    Assert.assertTrue(jsonPlugin.send(queue, job).isSuccess());
+
+    Assert.assertTrue(transportPlugin.receive(queue, Job.class, new ReceiveCallback<Job>() {
+      @Override
+      public void handleReceive(Job entity) throws TransportPluginException {
+        Assert.assertEquals(entity.getId(), job.getId());
+        Assert.assertEquals(entity.getName(), job.getName());
+        Assert.assertEquals(entity.getInputs(), job.getInputs());
+        Assert.assertEquals(entity.getContext(), job.getContext());
+      }
+    }).isSuccess());
+  }
+
+  /**
+   * Sends a job with the codec and checks the type of the message on the broker
+   */
+  private void assertMessageType(TransportCodecType codecType, Class<? extends Message> messageType) throws Exception {
+    TransportQueueActiveMQ queue = new TransportQueueActiveMQ("test.type." + codecType.name());
+    TransportPluginActiveMQ codecPlugin = new TransportPluginActiveMQ(configuration, TransportCodecFactory.create(codecType));
+    Assert.assertTrue(codecPlugin.send(queue, createJob()).isSuccess());
+
+    Connection connection = new ActiveMQConnectionFactory(BROKER_URL).createConnection();
+    try {
+      connection.start();
+      Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+      Message message = session.createConsumer(session.createQueue(queue.getQueue())).receive(10000);
+      Assert.assertTrue(messageType.isInstance(message), codecType + " sent " + message);
+    } finally {
+      connection.close();
+    }
+  }
+
+  private Job createJob() {
+    Map<String, Object> inputs = new HashMap<>();
+    inputs.put("threads", 4);
+    inputs.put("tags", Arrays.asList("a", "b"));
+    return new Job("2b7a9c3e-5a8e-4a44-9e8c-3d9a3c1f2d10", "root", "root", "root.align", "app:3f2a", JobStatus.READY, inputs, null, new Context("root", null));
+  }
+
+}
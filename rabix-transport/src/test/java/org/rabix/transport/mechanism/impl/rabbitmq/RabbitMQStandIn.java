@@ -0,0 +1,243 @@
+package org.rabix.transport.mechanism.impl.rabbitmq;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.impl.AMQImpl;
+
+/**
+ * In-memory stand-in for a RabbitMQ broker. Supports the direct routing, manual acks, rejects, prefetch and
+ * redelivery of unacked messages when a channel is closed.
+ */
+class RabbitMQStandIn {
+
+  private final Map<String, StandInQueue> queues = new HashMap<>();
+  private final Map<String, List<StandInQueue>> bindings = new HashMap<>();
+
+  private int deadLettered = 0;
+
+  public Connection createConnection() {
+    return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class }, new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("createChannel")) {
+          return new StandInChannel().proxy;
+        }
+        return defaultValue(method);
+      }
+    });
+  }
+
+  /**
+   * Declares the durable queue up front, like the one left on the broker by a previous consumer
+   */
+  public synchronized void declare(TransportQueueRabbitMQ queue) {
+    declareQueue(queue.getQueueName(), null);
+    bind(queue.getQueueName(), queue.getExchange(), queue.getRoutingKey());
+  }
+
+  public synchronized int getDeadLettered() {
+    return deadLettered;
+  }
+
+  public synchronized int getQueued(String queueName) {
+    StandInQueue queue = queues.get(queueName);
+    return queue != null ? queue.messages.size() : 0;
+  }
+
+  private synchronized void declareQueue(String queueName, Map<?, ?> arguments) {
+    StandInQueue queue = queues.get(queueName);
+    if (queue == null) {
+      queue = new StandInQueue();
+      queues.put(queueName, queue);
+    }
+    queue.deadLettering = arguments != null && arguments.containsKey("x-dead-letter-exchange");
+  }
+
+  private synchronized void bind(String queueName, String exchange, String routingKey) {
+    String key = exchange + "/" + routingKey;
+    List<StandInQueue> bound = bindings.get(key);
+    if (bound == null) {
+      bound = new ArrayList<>();
+      bindings.put(key, bound);
+    }
+    StandInQueue queue = queues.get(queueName);
+    if (!bound.contains(queue)) {
+      bound.add(queue);
+    }
+  }
+
+  private synchronized void publish(String exchange, String routingKey, byte[] body) {
+    List<StandInQueue> bound = bindings.get(exchange + "/" + routingKey);
+    if (bound == null) {
+      return;
+    }
+    for (StandInQueue queue : bound) {
+      queue.messages.add(new Message(exchange, routingKey, body, false));
+      dispatch(queue);
+    }
+  }
+
+  private synchronized void consume(String queueName, StandInChannel channel, Consumer consumer) {
+    StandInQueue queue = queues.get(queueName);
+    queue.consumers.put(channel, consumer);
+    channel.queues.add(queue);
+    dispatch(queue);
+  }
+
+  private synchronized void settle(StandInChannel channel, long deliveryTag, boolean reject, boolean requeue) {
+    Unacked unacked = channel.unacked.remove(deliveryTag);
+    if (unacked == null) {
+      return;
+    }
+    if (reject) {
+      if (requeue) {
+        unacked.queue.messages.addFirst(unacked.message.redelivered());
+      } else if (unacked.queue.deadLettering) {
+        deadLettered++;
+      }
+    }
+    dispatch(unacked.queue);
+  }
+
+  private synchronized void close(StandInChannel channel) {
+    for (StandInQueue queue : channel.queues) {
+      queue.consumers.remove(channel);
+    }
+    List<StandInQueue> requeued = new ArrayList<>();
+    for (Unacked unacked : channel.unacked.values()) {
+      unacked.queue.messages.addFirst(unacked.message.redelivered());
+      requeued.add(unacked.queue);
+    }
+    channel.unacked.clear();
+    for (StandInQueue queue : requeued) {
+      dispatch(queue);
+    }
+  }
+
+  /**
+   * Delivers queued messages to consumers which are below their prefetch limit
+   */
+  private void dispatch(StandInQueue queue) {
+    for (Map.Entry<StandInChannel, Consumer> entry : queue.consumers.entrySet()) {
+      StandInChannel channel = entry.getKey();
+      while (!queue.messages.isEmpty() && (channel.prefetch == 0 || channel.unacked.size() < channel.prefetch)) {
+        Message message = queue.messages.removeFirst();
+        long deliveryTag = ++channel.deliveryTag;
+        channel.unacked.put(deliveryTag, new Unacked(queue, message));
+        try {
+          Envelope envelope = new Envelope(deliveryTag, message.redelivered, message.exchange, message.routingKey);
+          entry.getValue().handleDelivery("standin", envelope, null, message.body);
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    }
+  }
+
+  private static Object defaultValue(Method method) {
+    Class<?> type = method.getReturnType();
+    if (type == boolean.class) {
+      return true;
+    }
+    if (type == int.class) {
+      return 0;
+    }
+    if (type == long.class) {
+      return 0L;
+    }
+    return null;
+  }
+
+  private class StandInChannel implements InvocationHandler {
+    private final Channel proxy;
+    private final Map<Long, Unacked> unacked = new LinkedHashMap<>();
+    private final List<StandInQueue> queues = new ArrayList<>();
+    private int prefetch = 0;
+    private long deliveryTag = 0;
+
+    private StandInChannel() {
+      this.proxy = (Channel) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Channel.class }, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      int argc = args != null ? args.length : 0;
+      if (name.equals("basicQos") && argc == 1) {
+        synchronized (RabbitMQStandIn.this) {
+          prefetch = (Integer) args[0];
+        }
+      } else if (name.equals("queueDeclare") && argc == 5) {
+        declareQueue((String) args[0], (Map<?, ?>) args[4]);
+        return new AMQImpl.Queue.DeclareOk((String) args[0], 0, 0);
+      } else if (name.equals("queueBind") && argc == 3) {
+        bind((String) args[0], (String) args[1], (String) args[2]);
+      } else if (name.equals("basicPublish") && argc == 4) {
+        publish((String) args[0], (String) args[1], (byte[]) args[3]);
+      } else if (name.equals("basicConsume") && argc == 3) {
+        consume((String) args[0], this, (Consumer) args[2]);
+        return "standin";
+      } else if (name.equals("basicAck")) {
+        settle(this, (Long) args[0], false, false);
+      } else if (name.equals("basicReject")) {
+        settle(this, (Long) args[0], true, (Boolean) args[1]);
+      } else if (name.equals("close") && argc == 0) {
+        close(this);
+      } else if (name.equals("hashCode")) {
+        return System.identityHashCode(proxy);
+      } else if (name.equals("equals")) {
+        return proxy == args[0];
+      } else if (name.equals("toString")) {
+        return "StandInChannel";
+      }
+      return defaultValue(method);
+    }
+  }
+
+  private static class StandInQueue {
+    private boolean deadLettering;
+    private final LinkedList<Message> messages = new LinkedList<>();
+    private final Map<StandInChannel, Consumer> consumers = new LinkedHashMap<>();
+  }
+
+  private static class Message {
+    private final String exchange;
+    private final String routingKey;
+    private final byte[] body;
+    private final boolean redelivered;
+
+    private Message(String exchange, String routingKey, byte[] body, boolean redelivered) {
+      this.exchange = exchange;
+      this.routingKey = routingKey;
+      this.body = body;
+      this.redelivered = redelivered;
+    }
+
+    private Message redelivered() {
+      return new Message(exchange, routingKey, body, true);
+    }
+  }
+
+  private static class Unacked {
+    private final StandInQueue queue;
+    private final Message message;
+
+    private Unacked(StandInQueue queue, Message message) {
+      this.queue = queue;
+      this.message = message;
+    }
+  }
+
+}
@@ -0,0 +1,104 @@
+package org.rabix.transport.mechanism.impl.rabbitmq;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.rabix.transport.backend.HeartbeatInfo;
+import org.rabix.transport.codec.TransportCodecFactory;
+import org.rabix.transport.mechanism.TransportPlugin.ReceiveCallback;
+import org.rabix.transport.mechanism.TransportPluginException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Measures send/confirm and receive/ack (or requeue) paths of the RabbitMQ transport against an in-memory broker,
+ * using the queues engine and backend stubs communicate over. Not part of the default build, run with
+ * <code>mvn test -Pbenchmark</code>.
+ */
+@Test(groups = { "benchmark" })
+public class TransportPluginRabbitMQBenchmark {
+
+  private final static Logger logger = LoggerFactory.getLogger(TransportPluginRabbitMQBenchmark.class);
+
+  private static final int WARMUP_ITERATIONS = 3;
+  private static final int ITERATIONS = 10;
+
+  private static final int MESSAGE_COUNT = 10000;
+  private static final int REQUEUE_EVERY = 100;
+
+  private static final TransportQueueRabbitMQ ENGINE_TO_BACKEND = new TransportQueueRabbitMQ("backend_exchange", "direct", "backend_1");
+  private static final TransportQueueRabbitMQ BACKEND_TO_ENGINE = new TransportQueueRabbitMQ("engine_exchange", "direct", "receive");
+
+  @Test
+  public void benchmarkEngineToBackend() {
+    Map<String, Object> job = new HashMap<>();
+    job.put("id", "2b7a9c3e-5a8e-4a44-9e8c-3d9a3c1f2d10");
+    job.put("name", "root.step.1");
+    job.put("status", "READY");
+    job.put("inputs", new HashMap<String, Object>());
+    benchmark("engine to backend", ENGINE_TO_BACKEND, job, false);
+    benchmark("engine to backend (1% requeued)", ENGINE_TO_BACKEND, job, true);
+  }
+
+  @Test
+  public void benchmarkBackendToEngine() {
+    HeartbeatInfo heartbeat = new HeartbeatInfo("backend_1", System.currentTimeMillis(), 8, 16384L, 4, 8192L, 4, 0);
+    benchmark("backend to engine", BACKEND_TO_ENGINE, heartbeat, false);
+    benchmark("backend to engine (1% requeued)", BACKEND_TO_ENGINE, heartbeat, true);
+  }
+
+  private <T> void benchmark(String name, TransportQueueRabbitMQ queue, T message, boolean requeue) {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      run(queue, message, requeue);
+    }
+    long send = 0;
+    long receive = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long[] durations = run(queue, message, requeue);
+      send += durations[0];
+      receive += durations[1];
+    }
+    long total = (long) MESSAGE_COUNT * ITERATIONS;
+    logger.info("{}: {} messages, send/confirm mean {} ns, receive mean {} ns over {} iterations", name, MESSAGE_COUNT, send / total, receive / total, ITERATIONS);
+  }
+
+  /**
+   * Sends and receives all messages through a new plugin and returns send and receive durations in nanoseconds
+   */
+  @SuppressWarnings("unchecked")
+  private <T> long[] run(TransportQueueRabbitMQ queue, T message, final boolean requeue) {
+    RabbitMQStandIn broker = new RabbitMQStandIn();
+    broker.declare(queue);
+    TransportPluginRabbitMQ transportPlugin = new TransportPluginRabbitMQ(new BaseConfiguration(), TransportCodecFactory.create(null), broker.createConnection());
+
+    long start = System.nanoTime();
+    for (int i = 0; i < MESSAGE_COUNT; i++) {
+      Assert.assertTrue(transportPlugin.send(queue, message).isSuccess());
+    }
+    long send = System.nanoTime() - start;
+
+    // fails once per REQUEUE_EVERY received messages, so the requeued message (at most a prefetch later) succeeds
+    final int[] received = new int[] { 0, -1 };
+    ReceiveCallback<T> callback = new ReceiveCallback<T>() {
+      @Override
+      public void handleReceive(T entity) throws TransportPluginException {
+        if (requeue && received[0] % REQUEUE_EVERY == 0 && received[1] != received[0]) {
+          received[1] = received[0];
+          throw new TransportPluginException("Requeue " + entity);
+        }
+        received[0]++;
+      }
+    };
+    start = System.nanoTime();
+    while (received[0] < MESSAGE_COUNT) {
+      transportPlugin.receive(queue, (Class<T>) message.getClass(), callback);
+    }
+    long receive = System.nanoTime() - start;
+    Assert.assertEquals(broker.getQueued(queue.getQueueName()), 0);
+    return new long[] { send, receive };
+  }
+
+}
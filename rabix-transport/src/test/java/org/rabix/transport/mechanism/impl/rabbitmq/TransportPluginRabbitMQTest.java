@@ -0,0 +1,99 @@
+package org.rabix.transport.mechanism.impl.rabbitmq;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.rabix.transport.codec.TransportCodecFactory;
+import org.rabix.transport.mechanism.TransportPlugin.ReceiveCallback;
+import org.rabix.transport.mechanism.TransportPluginException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = { "functional" })
+public class TransportPluginRabbitMQTest {
+
+  private RabbitMQStandIn broker;
+  private TransportPluginRabbitMQ transportPlugin;
+
+  @BeforeMethod
+  public void start() {
+    Configuration configuration = new BaseConfiguration();
+    configuration.setProperty("rabbitmq.deadLetterExchange", "test_dead_letter");
+
+    broker = new RabbitMQStandIn();
+    transportPlugin = new TransportPluginRabbitMQ(configuration, TransportCodecFactory.create(null), broker.createConnection());
+  }
+
+  @Test
+  public void testReceiveKeepsConsumer() {
+    TransportQueueRabbitMQ queue = new TransportQueueRabbitMQ("test_exchange", "direct", "receive");
+    broker.declare(queue);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertTrue(transportPlugin.send(queue, i).isSuccess());
+    }
+    final int[] sum = new int[] { 0 };
+    for (int i = 0; i < 100; i++) {
+      Assert.assertTrue(transportPlugin.receive(queue, Integer.class, new ReceiveCallback<Integer>() {
+        @Override
+        public void handleReceive(Integer entity) throws TransportPluginException {
+          sum[0] += entity;
+        }
+      }).isSuccess());
+    }
+    Assert.assertEquals(sum[0], 4950);
+    Assert.assertEquals(broker.getQueued(queue.getQueueName()), 0);
+  }
+
+  @Test
+  public void testFailedMessageIsRequeuedOnce() {
+    TransportQueueRabbitMQ queue = new TransportQueueRabbitMQ("test_exchange", "direct", "requeue");
+    broker.declare(queue);
+    Assert.assertTrue(transportPlugin.send(queue, 1).isSuccess());
+
+    final AtomicInteger attempts = new AtomicInteger(0);
+    ReceiveCallback<Integer> failing = new ReceiveCallback<Integer>() {
+      @Override
+      public void handleReceive(Integer entity) throws TransportPluginException {
+        attempts.incrementAndGet();
+        throw new TransportPluginException("Failed to handle " + entity);
+      }
+    };
+    Assert.assertFalse(transportPlugin.receive(queue, Integer.class, failing).isSuccess());
+    Assert.assertEquals(broker.getQueued(queue.getQueueName()) + broker.getDeadLettered(), 0);
+    Assert.assertFalse(transportPlugin.receive(queue, Integer.class, failing).isSuccess());
+
+    Assert.assertEquals(attempts.get(), 2);
+    Assert.assertEquals(broker.getDeadLettered(), 1);
+    Assert.assertEquals(broker.getQueued(queue.getQueueName()), 0);
+  }
+
+  @Test
+  public void testConsumerRecoveryKeepsMessages() {
+    TransportQueueRabbitMQ queue = new TransportQueueRabbitMQ("test_exchange", "direct", "recovery");
+    broker.declare(queue);
+    for (int i = 0; i < 10; i++) {
+      Assert.assertTrue(transportPlugin.send(queue, i).isSuccess());
+    }
+    Assert.assertFalse(transportPlugin.receive(queue, Integer.class, new ReceiveCallback<Integer>() {
+      @Override
+      public void handleReceive(Integer entity) throws TransportPluginException {
+        throw new IllegalStateException("Consumer failed");
+      }
+    }).isSuccess());
+
+    final int[] sum = new int[] { 0 };
+    for (int i = 0; i < 10; i++) {
+      Assert.assertTrue(transportPlugin.receive(queue, Integer.class, new ReceiveCallback<Integer>() {
+        @Override
+        public void handleReceive(Integer entity) throws TransportPluginException {
+          sum[0] += entity;
+        }
+      }).isSuccess());
+    }
+    Assert.assertEquals(sum[0], 45);
+    Assert.assertEquals(broker.getDeadLettered(), 0);
+  }
+
+}